@@ -0,0 +1,502 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package org.json;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A pull parser over a {@link JSONTokener}. It walks the tokens of a JSON text
+ * without building the {@link JSONObject} and {@link JSONArray} elements, so it
+ * can be used to check a few keys of a big file, and stop reading as soon as
+ * they are found.
+ *
+ * The reader is lenient in the same way the {@link JSONObject} parser is: it
+ * accepts unquoted keys and values, single quoted strings, <code>;</code> as
+ * separator and trailing separators.
+ *
+ * @author arian
+ *
+ */
+public class JSONReader {
+
+	public enum Token {
+		BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+	}
+
+	// scopes
+	private static final int DOCUMENT = 0;
+	private static final int OBJECT = 1;
+	private static final int ARRAY = 2;
+
+	// states of a scope
+	private static final int FIRST = 0;
+	private static final int READY = 1;
+	private static final int VALUE = 2;
+	private static final int AFTER_VALUE = 3;
+	private static final int END = 4;
+
+	private JSONTokener _tokener;
+	private int[] _scopes;
+	private int[] _states;
+	private int _depth;
+
+	public JSONReader(JSONTokener tokener) {
+		_tokener = tokener;
+		_scopes = new int[32];
+		_states = new int[32];
+		_depth = 0;
+		_scopes[0] = DOCUMENT;
+		_states[0] = FIRST;
+	}
+
+	public JSONReader(Reader reader) {
+		this(new JSONTokener(reader));
+	}
+
+	public JSONReader(InputStream input) {
+		this(new JSONTokener(input));
+	}
+
+	private int scope() {
+		return _scopes[_depth];
+	}
+
+	private int state() {
+		return _states[_depth];
+	}
+
+	private void setState(int state) {
+		_states[_depth] = state;
+	}
+
+	private void push(int scope) {
+		_depth++;
+
+		if (_depth == _scopes.length) {
+			_scopes = Arrays.copyOf(_scopes, _depth * 2);
+			_states = Arrays.copyOf(_states, _depth * 2);
+		}
+
+		_scopes[_depth] = scope;
+		_states[_depth] = FIRST;
+	}
+
+	private char peekChar() {
+		var c = _tokener.nextClean();
+
+		if (c != 0) {
+			_tokener.back();
+		}
+
+		return c;
+	}
+
+	/**
+	 * If there are more elements in the current object or array. It consumes the
+	 * separator of the elements.
+	 */
+	public boolean hasNext() {
+		var state = state();
+
+		switch (scope()) {
+		case DOCUMENT:
+			return state == FIRST && peekChar() != 0;
+		case OBJECT:
+			if (state == VALUE) {
+				return true;
+			}
+			break;
+		default:
+			break;
+		}
+
+		if (state == READY) {
+			return true;
+		}
+
+		if (state == END) {
+			return false;
+		}
+
+		var close = scope() == OBJECT ? '}' : ']';
+
+		if (state == AFTER_VALUE) {
+			var c = _tokener.nextClean();
+
+			if (c == ',' || c == ';') {
+				if (peekChar() == close) {
+					setState(END);
+					return false;
+				}
+			} else if (c == close) {
+				_tokener.back();
+				setState(END);
+				return false;
+			} else {
+				throw _tokener.syntaxError("Expected a ',' or '" + close + "'");
+			}
+		} else {
+			// first
+			var c = peekChar();
+
+			if (c == close) {
+				setState(END);
+				return false;
+			}
+
+			if (c == 0) {
+				throw _tokener.syntaxError("Expected '" + close + "'");
+			}
+		}
+
+		setState(READY);
+
+		return true;
+	}
+
+	/**
+	 * The type of the next token, without consuming it.
+	 */
+	public Token peek() {
+		if (scope() == OBJECT && state() != VALUE) {
+			return hasNext() ? Token.NAME : Token.END_OBJECT;
+		}
+
+		if (scope() == ARRAY && !hasNext()) {
+			return Token.END_ARRAY;
+		}
+
+		var c = peekChar();
+
+		switch (c) {
+		case 0:
+			return Token.END_DOCUMENT;
+		case '{':
+			return Token.BEGIN_OBJECT;
+		case '[':
+			return Token.BEGIN_ARRAY;
+		case '"':
+		case '\'':
+			return Token.STRING;
+		case 't':
+		case 'f':
+			return Token.BOOLEAN;
+		case 'n':
+			return Token.NULL;
+		default:
+			return Token.NUMBER;
+		}
+	}
+
+	private void beforeValue() {
+		if (scope() == OBJECT) {
+			if (state() != VALUE) {
+				throw _tokener.syntaxError("Expected a name");
+			}
+		} else if (scope() == ARRAY) {
+			if (!hasNext()) {
+				throw _tokener.syntaxError("Expected a value");
+			}
+		} else if (state() != FIRST) {
+			throw _tokener.syntaxError("Expected the end of the document");
+		}
+	}
+
+	private void afterValue() {
+		setState(AFTER_VALUE);
+	}
+
+	private void begin(char open, int scope) {
+		beforeValue();
+
+		var c = _tokener.nextClean();
+
+		if (c != open) {
+			throw _tokener.syntaxError("Expected '" + open + "'");
+		}
+
+		afterValue();
+		push(scope);
+	}
+
+	private void end(char close, int scope) {
+		if (scope() != scope) {
+			throw _tokener.syntaxError("Unexpected '" + close + "'");
+		}
+
+		if (hasNext()) {
+			throw _tokener.syntaxError("Expected '" + close + "'");
+		}
+
+		_tokener.next(close);
+		_depth--;
+	}
+
+	public void beginObject() {
+		begin('{', OBJECT);
+	}
+
+	public void endObject() {
+		end('}', OBJECT);
+	}
+
+	public void beginArray() {
+		begin('[', ARRAY);
+	}
+
+	public void endArray() {
+		end(']', ARRAY);
+	}
+
+	/**
+	 * Read the name of the next entry of the current object, and the
+	 * <code>:</code> separator.
+	 */
+	public String nextName() {
+		if (scope() != OBJECT || state() == VALUE || !hasNext()) {
+			throw _tokener.syntaxError("Expected a name");
+		}
+
+		var c = _tokener.nextClean();
+		String name;
+
+		if (c == '"' || c == '\'') {
+			name = _tokener.nextString(c);
+		} else {
+			_tokener.back();
+			name = nextUnquoted();
+		}
+
+		if (_tokener.nextClean() != ':') {
+			throw _tokener.syntaxError("Expected a ':' after a key");
+		}
+
+		setState(VALUE);
+
+		return name;
+	}
+
+	/**
+	 * Skip the entries of the current object until one with any of the given names
+	 * is found. The reader is left before the value of the entry.
+	 *
+	 * @return The found name, or <code>null</code> if there are no more entries.
+	 */
+	public String skipToName(Collection<String> names) {
+		if (scope() == OBJECT && state() == VALUE) {
+			skipValue();
+		}
+
+		while (hasNext()) {
+			var name = nextName();
+
+			if (names.contains(name)) {
+				return name;
+			}
+
+			skipValue();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Read a string value. Like {@link JSONObject#getString(String)}, other
+	 * primitive values are converted to string.
+	 */
+	public String nextString() {
+		beforeValue();
+
+		var c = _tokener.nextClean();
+		String value;
+
+		if (c == '"' || c == '\'') {
+			value = _tokener.nextString(c);
+		} else if (c == '{' || c == '[' || c == 0) {
+			throw _tokener.syntaxError("Expected a string");
+		} else {
+			_tokener.back();
+			value = nextUnquoted();
+		}
+
+		afterValue();
+
+		return value;
+	}
+
+	/**
+	 * Read a number value. Like {@link JSONObject#getDouble(String)}, a string
+	 * with a number is accepted.
+	 */
+	public double nextDouble() {
+		var value = nextString();
+
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw _tokener.syntaxError("Expected a number");
+		}
+	}
+
+	public boolean nextBoolean() {
+		var value = nextString();
+
+		if (value.equalsIgnoreCase("true")) {
+			return true;
+		}
+
+		if (value.equalsIgnoreCase("false")) {
+			return false;
+		}
+
+		throw _tokener.syntaxError("Expected a boolean");
+	}
+
+	/**
+	 * Read the next value and build it, if it is an object or an array, like
+	 * {@link JSONTokener#nextValue()} does.
+	 */
+	public Object readValue() {
+		beforeValue();
+
+		var value = _tokener.nextValue();
+
+		afterValue();
+
+		return value;
+	}
+
+	/**
+	 * Skip the next value, without building it. The content of the objects and
+	 * arrays is not validated.
+	 */
+	public void skipValue() {
+		beforeValue();
+
+		var c = _tokener.nextClean();
+
+		switch (c) {
+		case '"':
+		case '\'':
+			skipString(c);
+			break;
+		case '{':
+		case '[':
+			skipContainer();
+			break;
+		case 0:
+			throw _tokener.syntaxError("Expected a value");
+		default:
+			_tokener.back();
+			nextUnquoted();
+			break;
+		}
+
+		afterValue();
+	}
+
+	private void skipContainer() {
+		int depth = 1;
+
+		while (depth > 0) {
+			var c = _tokener.next();
+
+			switch (c) {
+			case 0:
+				throw _tokener.syntaxError("Unterminated object or array");
+			case '"':
+			case '\'':
+				skipString(c);
+				break;
+			case '{':
+			case '[':
+				depth++;
+				break;
+			case '}':
+			case ']':
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	private void skipString(char quote) {
+		for (;;) {
+			var c = _tokener.next();
+
+			switch (c) {
+			case 0:
+			case '\n':
+			case '\r':
+				throw _tokener.syntaxError("Unterminated string");
+			case '\\':
+				_tokener.next();
+				break;
+			default:
+				if (c == quote) {
+					return;
+				}
+			}
+		}
+	}
+
+	private String nextUnquoted() {
+		var sb = new StringBuilder();
+		var c = _tokener.next();
+
+		while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
+			sb.append(c);
+			c = _tokener.next();
+		}
+
+		_tokener.back();
+
+		var str = sb.toString().trim();
+
+		if (str.length() == 0) {
+			throw _tokener.syntaxError("Missing value");
+		}
+
+		return str;
+	}
+
+	/**
+	 * Create the exception thrown when a name is not found, with the same message
+	 * of {@link JSONObject#get(String)}.
+	 */
+	public static JSONException notFound(String name) {
+		return new JSONException("JSONObject[" + JSONObject.quote(name) + "] not found.");
+	}
+
+	/**
+	 * Create the exception thrown when a value has not the expected type, with the
+	 * same message of {@link JSONObject#getJSONArray(String)} and the others.
+	 */
+	public static JSONException wrongType(String name, String type) {
+		return new JSONException("JSONObject[" + JSONObject.quote(name) + "] is not a " + type + ".");
+	}
+}
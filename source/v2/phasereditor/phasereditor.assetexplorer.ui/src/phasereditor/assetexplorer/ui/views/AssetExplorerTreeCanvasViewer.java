@@ -78,7 +78,7 @@ public class AssetExplorerTreeCanvasViewer extends AssetsTreeCanvasViewer {
 			if (imgFile == null) {
 				super.setItemIconProperties(item);
 			} else {
-				item.setRenderer(new ImageProxyTreeCanvasItemRenderer(item, ImageProxy.get(imgFile, null)));
+				item.setRenderer(new ImageProxyTreeCanvasItemRenderer(item, ImageProxy.getAsync(imgFile, null)));
 			}
 
 			item.setLabel(asset.getKey());
@@ -91,7 +91,7 @@ public class AssetExplorerTreeCanvasViewer extends AssetsTreeCanvasViewer {
 			if (imgFile == null) {
 				super.setItemIconProperties(item);
 			} else {
-				item.setRenderer(new ImageProxyTreeCanvasItemRenderer(item, ImageProxy.get(imgFile.toFile(), null)));
+				item.setRenderer(new ImageProxyTreeCanvasItemRenderer(item, ImageProxy.getAsync(imgFile.toFile(), null)));
 			}
 
 			item.setLabel(file.getName());
@@ -22,6 +22,7 @@
 package phasereditor.assetexplorer.ui.views;
 
 import static java.lang.System.out;
+import static phasereditor.ui.PhaserEditorUI.swtRun;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
@@ -30,6 +31,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.eclipse.core.commands.operations.IUndoContext;
 import org.eclipse.core.resources.IFile;
@@ -74,6 +76,7 @@ import phasereditor.assetpack.ui.AssetPackUI;
 import phasereditor.assetpack.ui.properties.AssetsPropertyPage;
 import phasereditor.atlas.core.AtlasData;
 import phasereditor.scene.core.SceneFile;
+import phasereditor.scene.ui.SceneScreenshotQueue;
 import phasereditor.ui.FilteredTreeCanvas;
 import phasereditor.ui.TreeCanvas;
 
@@ -87,6 +90,8 @@ public class AssetsView extends ViewPart {
 	private AssetExplorerContentProvider _contentProvider;
 	private TreeCanvas _treeCanvas;
 	private IPartListener _partListener;
+	private Consumer<IFile> _screenshotListener;
+	private boolean _screenshotRefreshScheduled;
 	private FilteredTreeCanvas _filteredTreeCanvas;
 	// private AssetExplorerLabelProvider _treeLabelProvider;
 	// private AssetExplorerContentProvider _treeContentProvider;
@@ -202,6 +207,28 @@ public class AssetsView extends ViewPart {
 
 		_viewer = new AssetExplorerTreeCanvasViewer(_treeCanvas, _contentProvider, new AssetExplorerLabelProvider());
 		_viewer.setInput(ROOT);
+
+		// the screenshots are made in background, after the viewer is refreshed
+
+		_screenshotListener = this::screenshotUpdated;
+		SceneScreenshotQueue.addScreenshotListener(_screenshotListener);
+	}
+
+	private void screenshotUpdated(IFile sceneFile) {
+		if (_screenshotRefreshScheduled) {
+			return;
+		}
+
+		_screenshotRefreshScheduled = true;
+
+		// many screenshots are made in a row, refresh only once
+		swtRun(500, () -> {
+			_screenshotRefreshScheduled = false;
+
+			if (!_treeCanvas.isDisposed()) {
+				refreshContent(sceneFile.getProject());
+			}
+		});
 	}
 
 	private void initPartListener() {
@@ -352,6 +379,8 @@ public class AssetsView extends ViewPart {
 
 		getViewSite().getPage().removePartListener(_partListener);
 
+		SceneScreenshotQueue.removeScreenshotListener(_screenshotListener);
+
 		super.dispose();
 	}
 
@@ -22,8 +22,10 @@
 package phasereditor.assetpack.core;
 
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -42,8 +44,8 @@ public abstract class AbstractFileAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
-		return new IFile[] { getFileFromUrl(_url) };
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
+		return new IFile[] { getFileFromUrl(_url, missingPaths) };
 	}
 
 	@Override
@@ -25,8 +25,10 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.ui.IPersistableElement;
 import org.json.JSONException;
@@ -58,10 +60,10 @@ public class AnimationsAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
 
 		var list = new LinkedHashSet<IFile>();
-		list.add(getUrlFile());
+		list.add(getFileFromUrl(_url, missingPaths));
 
 		if (_animationsModel != null) {
 			var files = _animationsModel.computeUsedFiles();
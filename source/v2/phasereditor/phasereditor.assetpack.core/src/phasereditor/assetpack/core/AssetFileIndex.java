@@ -0,0 +1,145 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.assetpack.core;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+
+import phasereditor.assetpack.core.AssetPackCore.PackDelta;
+
+/**
+ * A reverse index of the files used by the assets of the packs of a project.
+ * It maps the path of a file to the assets that reference it, including the
+ * files that do not exist yet, so the assets affected by a resource delta are
+ * found without visiting all the assets of all the packs.
+ *
+ * @author arian
+ *
+ */
+public class AssetFileIndex {
+
+	private IProject _project;
+	private Map<IPath, Set<AssetModel>> _pathAssetsMap;
+	private Map<AssetModel, Set<IPath>> _assetPathsMap;
+	private Map<IPath, AssetPackModel> _packFileMap;
+
+	public AssetFileIndex(IProject project) {
+		_project = project;
+		_pathAssetsMap = new HashMap<>();
+		_assetPathsMap = new HashMap<>();
+		_packFileMap = new HashMap<>();
+	}
+
+	public IProject getProject() {
+		return _project;
+	}
+
+	public synchronized void addPack(AssetPackModel pack) {
+		_packFileMap.put(pack.getFile().getFullPath(), pack);
+
+		for (var asset : pack.getAssets()) {
+			addAsset(asset);
+		}
+	}
+
+	public synchronized void removePack(AssetPackModel pack) {
+		_packFileMap.values().remove(pack);
+
+		for (var asset : pack.getAssets()) {
+			removeAsset(asset);
+		}
+	}
+
+	/**
+	 * Update the index with the files used by the given assets, usually after
+	 * they are built.
+	 */
+	public synchronized void updateAssets(Collection<AssetModel> assets) {
+		for (var asset : assets) {
+			removeAsset(asset);
+			addAsset(asset);
+		}
+	}
+
+	private void addAsset(AssetModel asset) {
+		var paths = asset.getPack().computeUsedPaths(asset);
+
+		_assetPathsMap.put(asset, paths);
+
+		for (var path : paths) {
+			_pathAssetsMap.computeIfAbsent(path, k -> new HashSet<>()).add(asset);
+		}
+	}
+
+	private void removeAsset(AssetModel asset) {
+		var paths = _assetPathsMap.remove(asset);
+
+		if (paths == null) {
+			return;
+		}
+
+		for (var path : paths) {
+			var assets = _pathAssetsMap.get(path);
+			if (assets != null) {
+				assets.remove(asset);
+				if (assets.isEmpty()) {
+					_pathAssetsMap.remove(path);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compute the packs and assets affected by a change in the given file. It is
+	 * the indexed version of {@link AssetPackModel#computeDelta(IPath)} applied to
+	 * all the packs of the project.
+	 */
+	public synchronized PackDelta computeDelta(IPath deltaFilePath) {
+		var delta = new PackDelta(_project);
+
+		if (deltaFilePath == null) {
+			return delta;
+		}
+
+		var pack = _packFileMap.get(deltaFilePath);
+
+		if (pack != null) {
+			delta.add(pack);
+		}
+
+		var assets = _pathAssetsMap.get(deltaFilePath);
+
+		if (assets != null) {
+			for (var asset : assets) {
+				delta.add(asset);
+			}
+		}
+
+		return delta;
+	}
+}
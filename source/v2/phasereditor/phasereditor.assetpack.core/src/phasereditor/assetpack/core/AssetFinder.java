@@ -38,7 +38,18 @@ import org.eclipse.core.resources.IProject;
  */
 public class AssetFinder {
 
-	private Map<String, IAssetKey> _map;
+	private static class Entry {
+		IAssetKey assetKey;
+		long version;
+
+		Entry(IAssetKey assetKey, long version) {
+			this.assetKey = assetKey;
+			this.version = version;
+		}
+	}
+
+	private volatile Map<String, Entry> _map;
+	private volatile long _version;
 	private IProject _project;
 	private AssetPackModel[] _contextPacks;
 
@@ -49,6 +60,29 @@ public class AssetFinder {
 		_map = new HashMap<>();
 	}
 
+	/**
+	 * The version of the finder. It is incremented every time the finder is
+	 * built.
+	 */
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * The version of the finder when the given key was mapped to its current
+	 * asset, or -1 if the key is not found. If the key is mapped to the same
+	 * asset after a build, it keeps the old version.
+	 */
+	public long getVersion(String key, String frame) {
+		if (key == null) {
+			return -1;
+		}
+
+		var entry = _map.get(frame == null ? key : hashKey(key, frame));
+
+		return entry == null ? -1 : entry.version;
+	}
+
 	public void build() {
 		
 		var contextFiles = Arrays.stream(_contextPacks).map(p -> p.getFile()).collect(toSet());
@@ -59,19 +93,36 @@ public class AssetFinder {
 		var packs = new ArrayList<>(List.of(_contextPacks));
 		packs.addAll(sharedPacks);
 
-		_map = new HashMap<>();
+		var oldMap = _map;
+		var version = _version + 1;
+
+		Map<String, Entry> map = new HashMap<>();
 
 		for (var pack : packs) {
 			for (var asset : pack.getAssets()) {
 				var key = asset.getKey();
-				_map.put(key, asset);
+				putEntry(map, oldMap, key, asset, version);
 
 				for (var elem : asset.getSubElements()) {
 					var frame = elem.getKey();
-					_map.put(hashKey(key, frame), elem);
+					putEntry(map, oldMap, hashKey(key, frame), elem, version);
 				}
 			}
 		}
+
+		_map = map;
+		_version = version;
+	}
+
+	private static void putEntry(Map<String, Entry> map, Map<String, Entry> oldMap, String hashKey, IAssetKey assetKey,
+			long version) {
+		var oldEntry = oldMap.get(hashKey);
+
+		if (oldEntry != null && oldEntry.assetKey == assetKey) {
+			map.put(hashKey, oldEntry);
+		} else {
+			map.put(hashKey, new Entry(assetKey, version));
+		}
 	}
 
 	public IAssetKey findAssetKey(String key) {
@@ -84,15 +135,15 @@ public class AssetFinder {
 			return null;
 		}
 
-		IAssetKey assetKey = null;
+		Entry entry = null;
 
 		if (frame == null) {
-			assetKey = _map.get(key);
+			entry = _map.get(key);
 		} else {
-			assetKey = _map.get(hashKey(key, frame));
+			entry = _map.get(hashKey(key, frame));
 		}
 
-		return assetKey;
+		return entry == null ? null : entry.assetKey;
 	}
 
 	public ImageAssetModel findImage(String key) {
@@ -123,12 +174,4 @@ public class AssetFinder {
 		return frame + "@" + key;
 	}
 
-	public AssetFinder snapshot() {
-		var finder = new AssetFinder(_project);
-
-		finder._map = new HashMap<>(_map);
-
-		return finder;
-	}
-
 }
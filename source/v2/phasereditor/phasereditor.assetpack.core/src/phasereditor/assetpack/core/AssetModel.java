@@ -36,6 +36,7 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
@@ -215,6 +216,10 @@ public abstract class AssetModel implements IAssetKey, IEditableKey, IAdaptable
 		return getPack().getFileFromUrl(url);
 	}
 
+	public IFile getFileFromUrl(String url, Set<IPath> missingPaths) {
+		return getPack().getFileFromUrl(url, missingPaths);
+	}
+
 	public IFolder getFolderFromUrl(String url) {
 		if (url == null || url.length() == 0) {
 			return null;
@@ -253,8 +258,19 @@ public abstract class AssetModel implements IAssetKey, IEditableKey, IAdaptable
 		getPack().setDirty(true);
 	}
 
-	@SuppressWarnings("static-method")
-	public IFile[] computeUsedFiles() {
+	public final IFile[] computeUsedFiles() {
+		return computeUsedFiles(null);
+	}
+
+	/**
+	 * Compute the files used by this asset.
+	 * 
+	 * @param missingPaths
+	 *            If not <code>null</code>, the paths of the files referenced by
+	 *            this asset that do not exist are added to it.
+	 */
+	@SuppressWarnings({ "static-method", "unused" })
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
 		return new IFile[0];
 	}
 
@@ -267,9 +283,13 @@ public abstract class AssetModel implements IAssetKey, IEditableKey, IAdaptable
 	}
 
 	public List<IFile> getFilesFromUrls(List<String> urls) {
+		return getFilesFromUrls(urls, null);
+	}
+
+	public List<IFile> getFilesFromUrls(List<String> urls, Set<IPath> missingPaths) {
 		List<IFile> files = new ArrayList<>();
 		for (String url : urls) {
-			IFile file = getFileFromUrl(url);
+			IFile file = getFileFromUrl(url, missingPaths);
 			if (file != null) {
 				files.add(file);
 			}
@@ -77,11 +77,16 @@ public class AssetPackBuildParticipant implements IProjectBuildParticipant {
 
 		List<AssetPackModel> list = AssetPackCore.getAssetPackModels(project);
 
+		var index = AssetPackCore.getAssetFileIndex(project);
+
 		for (AssetPackModel pack : list) {
 			var problems = pack.build();
 			for (var problem : problems) {
 				createAssetPackMarker(pack.getFile(), problem);
 			}
+
+			// the last used files of the assets changed
+			index.updateAssets(pack.getAssets());
 		}
 	}
 
@@ -101,8 +106,6 @@ public class AssetPackBuildParticipant implements IProjectBuildParticipant {
 				public boolean visit(IResourceDelta delta) throws CoreException {
 					IResource deltaResource = delta.getResource();
 
-					List<AssetPackModel> packs = AssetPackCore.getAssetPackModels(project);
-
 					if (deltaResource instanceof IFile) {
 						IFile deltaFile = (IFile) deltaResource;
 
@@ -110,26 +113,25 @@ public class AssetPackBuildParticipant implements IProjectBuildParticipant {
 
 						switch (kind) {
 						case IResourceDelta.REMOVED:
-							for (AssetPackModel pack : packs) {
-								if (deltaFile.equals(pack.getFile())) {
-									IPath movedTo = delta.getMovedToPath();
-									if (movedTo == null) {
-										// removed: delete pack from map
-										AssetPackCore.removeAssetPackModel(pack);
+							AssetPackModel pack = AssetPackCore.getAssetPackModel(deltaFile, false);
+							if (pack != null) {
+								IPath movedTo = delta.getMovedToPath();
+								if (movedTo == null) {
+									// removed: delete pack from map
+									AssetPackCore.removeAssetPackModel(pack);
+								} else {
+									// moved: update the pack
+									if ("json".equals(movedTo.getFileExtension())) {
+										AssetPackCore.moveAssetPackModel(root.getFile(movedTo), pack);
 									} else {
-										// moved: update the pack
-										if ("json".equals(movedTo.getFileExtension())) {
-											AssetPackCore.moveAssetPackModel(root.getFile(movedTo), pack);
-										} else {
-											AssetPackCore.removeAssetPackModel(pack);
-										}
+										AssetPackCore.removeAssetPackModel(pack);
 									}
-
-									// add the pack and all assets to the
-									// delta
-									packDelta.add(pack);
-									packDelta.getAssets().addAll(pack.getAssets());
 								}
+
+								// add the pack and all assets to the
+								// delta
+								packDelta.add(pack);
+								packDelta.getAssets().addAll(pack.getAssets());
 							}
 							break;
 						case IResourceDelta.CHANGED:
@@ -158,7 +160,7 @@ public class AssetPackBuildParticipant implements IProjectBuildParticipant {
 
 			// compute delta packs affected by the change
 
-			List<AssetPackModel> allPacks = AssetPackCore.getAssetPackModels(project);
+			var index = AssetPackCore.getAssetFileIndex(project);
 
 			// TODO: probably this is not going to work.
 			// delta packs can be computed by comparing the old model with the
@@ -175,18 +177,16 @@ public class AssetPackBuildParticipant implements IProjectBuildParticipant {
 						IPath movedFrom = delta.getMovedFromPath();
 						IPath deltaPath = resource.getFullPath();
 
-						for (AssetPackModel pack : allPacks) {
-							if (movedTo != null) {
-								packDelta.add(pack.computeDelta(movedTo));
-							}
+						if (movedTo != null) {
+							packDelta.add(index.computeDelta(movedTo));
+						}
 
-							if (movedFrom != null) {
-								packDelta.add(pack.computeDelta(movedFrom));
-							}
+						if (movedFrom != null) {
+							packDelta.add(index.computeDelta(movedFrom));
+						}
 
-							if (deltaPath != null) {
-								packDelta.add(pack.computeDelta(deltaPath));
-							}
+						if (deltaPath != null) {
+							packDelta.add(index.computeDelta(deltaPath));
 						}
 					}
 					return true;
@@ -239,6 +239,9 @@ public class AssetPackBuildParticipant implements IProjectBuildParticipant {
 						createAssetPackMarker(file, new BuildProblem(problem, asset));
 					}
 				}
+
+				// the last used files of the assets changed
+				index.updateAssets(toBuild);
 			}
 
 		} catch (CoreException e) {
@@ -62,7 +62,8 @@ import org.eclipse.ui.IMemento;
 import org.eclipse.ui.statushandlers.StatusManager;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONTokener;
+import org.json.JSONReader;
+import org.json.JSONReader.Token;
 
 import phasereditor.assetpack.core.animations.AnimationsFileDataCache;
 import phasereditor.atlas.core.AtlasCore;
@@ -566,12 +567,31 @@ public class AssetPackCore {
 	 */
 	public static String isAssetPackContent(InputStream contents) {
 		try {
-			JSONTokener tokener = new JSONTokener(new InputStreamReader(contents));
-			JSONObject obj = new JSONObject(tokener);
-			JSONObject meta = obj.getJSONObject("meta");
-			meta.get("generated");
-			meta.get("version");
-			meta.get("app");
+			var reader = new JSONReader(new InputStreamReader(contents));
+
+			reader.beginObject();
+
+			if (reader.skipToName(Set.of("meta")) == null) {
+				throw JSONReader.notFound("meta");
+			}
+
+			if (reader.peek() != Token.BEGIN_OBJECT) {
+				throw JSONReader.wrongType("meta", "JSONObject");
+			}
+
+			reader.beginObject();
+
+			var names = new HashSet<>(List.of("generated", "version", "app"));
+
+			while (!names.isEmpty()) {
+				var name = reader.skipToName(names);
+
+				if (name == null) {
+					throw JSONReader.notFound(names.iterator().next());
+				}
+
+				names.remove(name);
+			}
 		} catch (JSONException e) {
 			return e.getMessage();
 		}
@@ -589,12 +609,28 @@ public class AssetPackCore {
 	 */
 	public static String isTilemapJSONContent(InputStream contents) {
 		try {
-			JSONTokener tokener = new JSONTokener(new InputStreamReader(contents));
-			JSONObject obj = new JSONObject(tokener);
-			obj.getJSONArray("layers");
-			obj.getJSONArray("tilesets");
-			obj.getDouble("tileheight");
-			obj.getDouble("tilewidth");
+			var reader = new JSONReader(new InputStreamReader(contents));
+
+			reader.beginObject();
+
+			var names = new HashSet<>(List.of("layers", "tilesets", "tileheight", "tilewidth"));
+
+			while (!names.isEmpty()) {
+				var name = reader.skipToName(names);
+
+				if (name == null) {
+					throw JSONReader.notFound(names.iterator().next());
+				}
+
+				names.remove(name);
+
+				if (name.equals("tileheight") || name.equals("tilewidth")) {
+					reader.nextDouble();
+				} else if (reader.peek() != Token.BEGIN_ARRAY) {
+					throw JSONReader.wrongType(name, "JSONArray");
+				}
+			}
+
 			return null;
 		} catch (JSONException e) {
 			return e.getMessage();
@@ -603,9 +639,18 @@ public class AssetPackCore {
 
 	public static String isTilemapImpactContent(InputStream contents) {
 		try {
-			JSONTokener tokener = new JSONTokener(new InputStreamReader(contents));
-			JSONObject obj = new JSONObject(tokener);
-			obj.getJSONArray("layer");
+			var reader = new JSONReader(new InputStreamReader(contents));
+
+			reader.beginObject();
+
+			if (reader.skipToName(Set.of("layer")) == null) {
+				throw JSONReader.notFound("layer");
+			}
+
+			if (reader.peek() != Token.BEGIN_ARRAY) {
+				throw JSONReader.wrongType("layer", "JSONArray");
+			}
+
 			return null;
 		} catch (JSONException e) {
 			return e.getMessage();
@@ -614,6 +659,7 @@ public class AssetPackCore {
 
 	private static Map<IFile, AssetPackModel> _filePackMap = new HashMap<>();
 	private static Map<IProject, AssetFinder> _finderProjectMap = new HashMap<>();
+	private static Map<IProject, AssetFileIndex> _fileIndexMap = new HashMap<>();
 	private static AnimationsFileDataCache _animationsFileCache;
 
 	public static List<AssetPackModel> getAssetPackModels(IProject project) {
@@ -724,6 +770,7 @@ public class AssetPackCore {
 				try {
 					model = new AssetPackModel(file);
 					_filePackMap.put(file, model);
+					getAssetFileIndex(file.getProject()).addPack(model);
 
 					rebuildFinder(file.getProject());
 
@@ -741,9 +788,18 @@ public class AssetPackCore {
 	public static AssetPackModel resetAssetPackModel(IFile file) throws Exception {
 		synchronized (_filePackMap) {
 
+			var index = getAssetFileIndex(file.getProject());
+
+			var oldModel = _filePackMap.get(file);
+
+			if (oldModel != null) {
+				index.removePack(oldModel);
+			}
+
 			if (file.exists()) {
 				AssetPackModel model = new AssetPackModel(file);
 				_filePackMap.put(file, model);
+				index.addPack(model);
 
 				rebuildFinder(file.getProject());
 
@@ -767,6 +823,10 @@ public class AssetPackCore {
 			removeAssetPackModel(pack);
 		}
 		_finderProjectMap.put(project, new AssetFinder(project));
+
+		synchronized (_filePackMap) {
+			_fileIndexMap.remove(project);
+		}
 	}
 
 	public static void moveAssetPackModel(IFile newFile, AssetPackModel model) {
@@ -775,14 +835,30 @@ public class AssetPackCore {
 			IFile oldFile = model.getFile();
 
 			_filePackMap.remove(oldFile);
+			getAssetFileIndex(oldFile.getProject()).removePack(model);
 
 			if (newFile != null) {
 				_filePackMap.put(newFile, model);
 				model.setFile(newFile);
+				getAssetFileIndex(newFile.getProject()).addPack(model);
 			}
 		}
 	}
 
+	/**
+	 * Get the index of the files used by the assets of the given project.
+	 * 
+	 * @param project
+	 *            The project.
+	 * @return The index. It is updated when the packs are created, reset, moved
+	 *         or removed.
+	 */
+	public static AssetFileIndex getAssetFileIndex(IProject project) {
+		synchronized (_filePackMap) {
+			return _fileIndexMap.computeIfAbsent(project, AssetFileIndex::new);
+		}
+	}
+
 	public static String getAssetStringReference(IAssetKey key) {
 		JSONObject ref = getAssetJSONReference(key);
 		if (ref == null) {
@@ -1026,9 +1102,11 @@ public class AssetPackCore {
 
 	public static boolean isAnimationsContentType(InputStream contents) {
 		try {
-			JSONObject jsonData = new JSONObject(new JSONTokener(contents));
-			jsonData.getJSONArray("anims");
-			return true;
+			var reader = new JSONReader(contents);
+
+			reader.beginObject();
+
+			return reader.skipToName(Set.of("anims")) != null && reader.peek() == Token.BEGIN_ARRAY;
 		} catch (Exception e) {
 			// nothing
 		}
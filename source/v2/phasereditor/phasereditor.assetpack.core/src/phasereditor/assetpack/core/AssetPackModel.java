@@ -847,6 +847,17 @@ public final class AssetPackModel {
 	}
 
 	public IFile getFileFromUrl(String url) {
+		return getFileFromUrl(url, null);
+	}
+
+	/**
+	 * Get the file of the given URL, or <code>null</code> if it does not exist.
+	 * 
+	 * @param missingPaths
+	 *            If not <code>null</code>, the path of the file is added to it
+	 *            when the file does not exist.
+	 */
+	public IFile getFileFromUrl(String url, Set<IPath> missingPaths) {
 		if (url == null || url.length() == 0) {
 			return null;
 		}
@@ -855,10 +866,33 @@ public final class AssetPackModel {
 		IFile file = webContentFolder.getFile(new Path(url));
 
 		if (!file.exists()) {
+			if (missingPaths != null) {
+				missingPaths.add(file.getFullPath());
+			}
 			return null;
 		}
 
 		return file;
 
 	}
+
+	/**
+	 * Compute the paths of the files used by the asset, including the last used
+	 * files and the files referenced by the asset that do not exist yet.
+	 */
+	Set<IPath> computeUsedPaths(AssetModel asset) {
+		Set<IPath> paths = new HashSet<>();
+
+		IFile[][] allfiles = { asset.getLastUsedFiles(), asset.computeUsedFiles(paths) };
+
+		for (IFile[] files : allfiles) {
+			for (IFile file : files) {
+				if (file != null) {
+					paths.add(file.getFullPath());
+				}
+			}
+		}
+
+		return paths;
+	}
 }
@@ -26,10 +26,12 @@ import java.io.FileInputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.swt.graphics.Rectangle;
 import org.json.JSONArray;
@@ -81,16 +83,16 @@ public class AtlasAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
 
-		IFile textureFile = getFileFromUrl(_textureURL);
-		IFile atlasFile = getFileFromUrl(_atlasURL);
+		IFile textureFile = getFileFromUrl(_textureURL, missingPaths);
+		IFile atlasFile = getFileFromUrl(_atlasURL, missingPaths);
 
 		if (_normalMap == null || _normalMap.length() == 0) {
 			return new IFile[] { textureFile, atlasFile };
 		}
 
-		return new IFile[] { textureFile, atlasFile, getFileFromUrl(_normalMap) };
+		return new IFile[] { textureFile, atlasFile, getFileFromUrl(_normalMap, missingPaths) };
 	}
 
 	public IFile getTextureFile() {
@@ -24,8 +24,10 @@ package phasereditor.assetpack.core;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -118,8 +120,8 @@ public class AudioAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
-		List<IFile> files = getFilesFromUrls(_urls);
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
+		List<IFile> files = getFilesFromUrls(_urls, missingPaths);
 		return files.toArray(new IFile[files.size()]);
 	}
 
@@ -28,6 +28,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -240,10 +241,10 @@ public class AudioSpriteAssetModel extends AudioAssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
-		IFile[] superFiles = super.computeUsedFiles();
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
+		IFile[] superFiles = super.computeUsedFiles(missingPaths);
 		List<IFile> list = new ArrayList<>(Arrays.asList(superFiles));
-		list.addAll(getFilesFromUrls(_jsonURL));
+		list.addAll(getFilesFromUrls(Arrays.asList(_jsonURL), missingPaths));
 		return list.toArray(new IFile[list.size()]);
 	}
 
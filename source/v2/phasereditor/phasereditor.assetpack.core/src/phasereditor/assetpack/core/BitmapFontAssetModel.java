@@ -23,8 +23,10 @@ package phasereditor.assetpack.core;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
@@ -61,12 +63,15 @@ public class BitmapFontAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
+		var textureFile = getFileFromUrl(getTextureURL(), missingPaths);
+		var fontDataFile = getFileFromUrl(_fontDataURL, missingPaths);
+
 		if (_normalMap == null) {
-			return new IFile[] { getTextureFile(), getFontDataURLFile() };
+			return new IFile[] { textureFile, fontDataFile };
 		}
 
-		return new IFile[] { getTextureFile(), getFontDataURLFile(), getNormalMapFile() };
+		return new IFile[] { textureFile, fontDataFile, getFileFromUrl(_normalMap, missingPaths) };
 	}
 
 	public String getNormalMap() {
@@ -23,8 +23,10 @@ package phasereditor.assetpack.core;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
@@ -121,12 +123,12 @@ public class ImageAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
 		if (_normalMap == null || _normalMap.length() == 0) {
-			return new IFile[] { getUrlFile() };
+			return new IFile[] { getFileFromUrl(_url, missingPaths) };
 		}
 
-		return new IFile[] { getUrlFile(), getNormalMapFile() };
+		return new IFile[] { getFileFromUrl(_url, missingPaths), getFileFromUrl(_normalMap, missingPaths) };
 	}
 
 	@Override
@@ -24,8 +24,10 @@ package phasereditor.assetpack.core;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.json.JSONArray;
@@ -57,8 +59,8 @@ public class MultiAtlasAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
-		return new IFile[] { getUrlFile() };
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
+		return new IFile[] { getFileFromUrl(_url, missingPaths) };
 	}
 
 	@Override
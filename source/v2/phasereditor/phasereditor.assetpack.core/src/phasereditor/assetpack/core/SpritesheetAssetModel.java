@@ -25,9 +25,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.Point;
@@ -120,11 +122,11 @@ public class SpritesheetAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
 		if (_normalMap == null || _normalMap.length() == 0) {
-			return new IFile[] { getUrlFile() };
+			return new IFile[] { getFileFromUrl(_url, missingPaths) };
 		}
-		return new IFile[] { getUrlFile(), getNormalMapFile() };
+		return new IFile[] { getFileFromUrl(_url, missingPaths), getFileFromUrl(_normalMap, missingPaths) };
 	}
 
 	public int getFrameWidth() {
@@ -21,15 +21,16 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.assetpack.core;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -41,6 +42,7 @@ public class TilemapAssetModel extends AssetModel {
 	private String _url;
 	private TilemapJSON _tilemapJSON;
 	private int[][] _csvData;
+	private TilemapCSV _csv;
 
 	public TilemapAssetModel(String key, AssetType type, AssetSectionModel section) throws JSONException {
 		super(key, type, section);
@@ -137,7 +139,8 @@ public class TilemapAssetModel extends AssetModel {
 	}
 
 	public void buildTilemap() {
-		_csvData = new int[0][0];
+		_csvData = null;
+		_csv = TilemapCSV.EMPTY;
 		_tilemapJSON = new TilemapJSON();
 
 		switch (getType()) {
@@ -152,74 +155,49 @@ public class TilemapAssetModel extends AssetModel {
 		}
 	}
 
-	@SuppressWarnings("boxing")
 	private void buildTilemapCSV() {
-		List<List<Integer>> data = new ArrayList<>();
+		_csv = TilemapCSV.EMPTY;
 
 		try {
 			IFile file = getFileFromUrl(_url);
 			if (file != null && file.exists()) {
-				try (InputStream input = file.getContents()) {
-
-					StringBuilder token = new StringBuilder();
-
-					BufferedReader reader = new BufferedReader(new InputStreamReader(input));
-					String line;
-					while ((line = reader.readLine()) != null) {
-
-						List<Integer> dataRow = new ArrayList<>();
-
-						for (char c : line.toCharArray()) {
-							if (c == ',') {
-								Integer tile;
-								try {
-									tile = Integer.valueOf(Integer.parseInt(token.toString()));
-								} catch (Exception e) {
-									tile = -1;
-								}
-								dataRow.add(tile);
-								token = new StringBuilder();
-							} else {
-								token.append(c);
-							}
-						}
-
-						dataRow.add(Integer.valueOf(Integer.parseInt(token.toString())));
-						token = new StringBuilder();
-
-						data.add(dataRow);
+				var location = file.getLocation();
+
+				if (location == null) {
+					try (InputStream input = file.getContents()) {
+						_csv = TilemapCSV.parse(ByteBuffer.wrap(input.readAllBytes()));
 					}
+				} else {
+					_csv = TilemapCSV.parse(location.toFile().toPath());
 				}
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
+	}
 
-		int rows = data.size();
-
-		if (rows == 0) {
-			_csvData = new int[0][0];
-		} else {
-			// row x column
-			int cols = data.get(0).size();
-
-			int[][] csvData = new int[rows][cols];
-
-			for (int i = 0; i < rows; i++) {
-				List<Integer> row = data.get(i);
-				for (int j = 0; j < cols; j++) {
-					csvData[i][j] = row.get(j).intValue();
-				}
-			}
-			_csvData = csvData;
+	/**
+	 * The tiles of the CSV map, in a single array. See {@link #getCsvData()} for
+	 * an array per row.
+	 */
+	public TilemapCSV getCsv() {
+		if (_csv == null) {
+			buildTilemap();
 		}
-
+		return _csv;
 	}
 
+	/**
+	 * A copy of the tiles of the CSV map, with an array per row. It is created the
+	 * first time it is requested, use {@link #getCsv()} when possible.
+	 */
 	public int[][] getCsvData() {
+		var csv = getCsv();
+
 		if (_csvData == null) {
-			buildTilemap();
+			_csvData = csv.toArray();
 		}
+
 		return _csvData;
 	}
 
@@ -285,8 +263,8 @@ public class TilemapAssetModel extends AssetModel {
 	}
 
 	@Override
-	public IFile[] computeUsedFiles() {
-		return new IFile[] { getUrlFile() };
+	public IFile[] computeUsedFiles(Set<IPath> missingPaths) {
+		return new IFile[] { getFileFromUrl(_url, missingPaths) };
 	}
 
 	public String getUrl() {
@@ -308,6 +286,19 @@ public class TilemapAssetModel extends AssetModel {
 		validateUrl(problems, "url", _url);
 
 		buildTilemap();
+
+		var errors = _csv.getErrors();
+
+		if (!errors.isEmpty()) {
+			var msg = "The CSV tilemap of the asset pack entry '" + getKey() + "' has invalid cells: "
+					+ String.join(" ", errors.subList(0, Math.min(3, errors.size())));
+
+			if (errors.size() > 3) {
+				msg += " (and more)";
+			}
+
+			problems.add(new AssetStatus(IStatus.WARNING, msg));
+		}
 	}
 
 	@Override
@@ -0,0 +1,262 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.assetpack.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The tiles of a CSV tilemap, in a single array with a row stride. The parser
+ * scans the bytes of the file directly into the array, it does not create
+ * objects per line or per tile. The cells that cannot be parsed get the
+ * <code>-1</code> value, and the problems are reported in {@link #getErrors()}.
+ *
+ * @author arian
+ *
+ */
+public class TilemapCSV {
+
+	public static final TilemapCSV EMPTY = new TilemapCSV(new int[0], 0, 0, List.of());
+
+	private static final int MAX_ERRORS = 100;
+
+	private int[] _cells;
+	private int _rows;
+	private int _cols;
+	private List<String> _errors;
+
+	private TilemapCSV(int[] cells, int rows, int cols, List<String> errors) {
+		_cells = cells;
+		_rows = rows;
+		_cols = cols;
+		_errors = errors;
+	}
+
+	public int getRows() {
+		return _rows;
+	}
+
+	public int getCols() {
+		return _cols;
+	}
+
+	/**
+	 * The tiles, row after row. The tile of the cell <code>(row, col)</code> is
+	 * at the index <code>row * getCols() + col</code>.
+	 */
+	public int[] getCells() {
+		return _cells;
+	}
+
+	public int get(int row, int col) {
+		return _cells[row * _cols + col];
+	}
+
+	public List<String> getErrors() {
+		return _errors;
+	}
+
+	/**
+	 * A copy of the tiles, with an array per row.
+	 */
+	public int[][] toArray() {
+		var array = new int[_rows][];
+
+		for (int i = 0; i < _rows; i++) {
+			array[i] = Arrays.copyOfRange(_cells, i * _cols, (i + 1) * _cols);
+		}
+
+		return array;
+	}
+
+	public static TilemapCSV parse(Path file) throws IOException {
+		// the file is not memory-mapped, in Windows the mapping locks the file until
+		// it is garbage collected
+		return parse(ByteBuffer.wrap(Files.readAllBytes(file)));
+	}
+
+	/**
+	 * Parse the CSV content. Every line is a row, and the first row sets the
+	 * number of columns. The empty lines are ignored.
+	 */
+	public static TilemapCSV parse(ByteBuffer buf) {
+		var errors = new ArrayList<String>();
+		var limit = buf.limit();
+
+		var cells = new int[1024];
+		var size = 0;
+		var cols = -1;
+		var rows = 0;
+
+		// the current row
+		var rowStart = 0;
+		var rowCells = 0;
+		var line = 1;
+
+		// the current token
+		var tokenStart = buf.position();
+		var value = 0L;
+		var negative = false;
+		var digits = 0;
+		var chars = 0;
+		var valid = true;
+		var ended = false;
+
+		for (int i = buf.position(); i <= limit; i++) {
+			var c = i == limit ? '\n' : buf.get(i);
+
+			if (c == ',' || c == '\n') {
+				var endOfLine = c == '\n';
+
+				if (endOfLine && chars == 0) {
+					// an empty line, or a comma at the end of the line
+
+					if (rowCells == 0) {
+						line++;
+						tokenStart = i + 1;
+						continue;
+					}
+
+				} else if (rowCells == cols) {
+					addError(errors, "Line " + line + ": more than " + cols + " cells, the rest is ignored.");
+
+					while (i < limit && buf.get(i) != '\n') {
+						i++;
+					}
+
+					endOfLine = true;
+
+				} else {
+					if (size == cells.length) {
+						cells = Arrays.copyOf(cells, cells.length * 2);
+					}
+
+					if (valid && digits > 0) {
+						cells[size] = (int) (negative ? -value : value);
+					} else {
+						cells[size] = -1;
+						addError(errors, "Line " + line + ", cell " + (rowCells + 1) + ": invalid tile '"
+								+ token(buf, tokenStart, i) + "'.");
+					}
+
+					size++;
+					rowCells++;
+				}
+
+				if (endOfLine) {
+					if (cols == -1) {
+						cols = rowCells;
+
+						// the first row is used to estimate the size of the map
+						var rowBytes = Math.max(1, i - buf.position());
+						var estimated = (long) cols * ((limit - buf.position()) / rowBytes + 1);
+
+						if (estimated > cells.length && estimated < Integer.MAX_VALUE) {
+							cells = Arrays.copyOf(cells, (int) estimated);
+						}
+
+					} else if (rowCells < cols) {
+						addError(errors, "Line " + line + ": " + rowCells + " cells, expected " + cols + ".");
+
+						if (rowStart + cols > cells.length) {
+							cells = Arrays.copyOf(cells, Math.max(cells.length * 2, rowStart + cols));
+						}
+
+						Arrays.fill(cells, size, rowStart + cols, -1);
+						size = rowStart + cols;
+					}
+
+					rows++;
+					line++;
+					rowStart = size;
+					rowCells = 0;
+				}
+
+				tokenStart = i + 1;
+				value = 0;
+				negative = false;
+				digits = 0;
+				chars = 0;
+				valid = true;
+				ended = false;
+
+				continue;
+			}
+
+			if (c == '\r') {
+				continue;
+			}
+
+			chars++;
+
+			if (c >= '0' && c <= '9') {
+				if (ended) {
+					valid = false;
+				}
+
+				value = value * 10 + (c - '0');
+				digits++;
+
+				if (digits > 10 || value > Integer.MAX_VALUE) {
+					valid = false;
+				}
+
+			} else if (c == ' ' || c == '\t') {
+				if (digits > 0) {
+					ended = true;
+				}
+			} else if (c == '-' && digits == 0 && !negative) {
+				negative = true;
+			} else {
+				valid = false;
+			}
+		}
+
+		if (cols <= 0) {
+			return new TilemapCSV(new int[0], 0, 0, errors);
+		}
+
+		return new TilemapCSV(size == cells.length ? cells : Arrays.copyOf(cells, size), rows, cols, errors);
+	}
+
+	private static void addError(List<String> errors, String msg) {
+		if (errors.size() < MAX_ERRORS) {
+			errors.add(msg);
+		}
+	}
+
+	private static String token(ByteBuffer buf, int start, int end) {
+		var bytes = new byte[end - start];
+
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buf.get(start + i);
+		}
+
+		return new String(bytes, StandardCharsets.UTF_8).trim();
+	}
+}
@@ -23,6 +23,7 @@ package phasereditor.assetpack.core.animations;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IPath;
+import org.json.JSONObject;
 
 import phasereditor.assetpack.core.AssetPackCore;
 import phasereditor.project.core.FileDataCache;
@@ -50,4 +51,21 @@ public class AnimationsFileDataCache extends FileDataCache<AnimationsModel> {
 		return null;
 	}
 
+	@Override
+	protected String getSnapshotName() {
+		return "animations";
+	}
+
+	@Override
+	protected String serializeData(AnimationsModel data) {
+		return data.toJSON().toString();
+	}
+
+	@Override
+	protected AnimationsModel deserializeData(IFile file, String content) throws Exception {
+		var model = new AnimationsModel(new JSONObject(content));
+		model.setFile(file);
+		return model;
+	}
+
 }
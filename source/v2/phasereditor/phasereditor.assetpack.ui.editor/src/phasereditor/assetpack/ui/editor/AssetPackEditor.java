@@ -35,6 +35,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -100,6 +101,7 @@ import phasereditor.assetpack.ui.SvgResourceDialog;
 import phasereditor.audio.ui.AudioResourceDialog;
 import phasereditor.lic.LicCore;
 import phasereditor.project.core.ProjectCore;
+import phasereditor.scene.ui.SceneScreenshotQueue;
 import phasereditor.scene.ui.SceneUI;
 import phasereditor.ui.EditorSharedImages;
 import phasereditor.ui.FilteredTreeCanvasContentOutlinePage;
@@ -137,6 +139,8 @@ public class AssetPackEditor extends EditorPart implements IGotoMarker, IShowInS
 	private AssetPackEditorOutlinePage _outliner;
 
 	private PackEditorCanvas _assetsCanvas;
+	private Consumer<IFile> _screenshotListener;
+	private boolean _screenshotRefreshScheduled;
 
 	private EditorFileStampHelper _fileStampHelper;
 
@@ -221,6 +225,8 @@ public class AssetPackEditor extends EditorPart implements IGotoMarker, IShowInS
 			saveEditingPoint();
 		}
 
+		SceneScreenshotQueue.removeScreenshotListener(_screenshotListener);
+
 		super.dispose();
 	}
 
@@ -708,6 +714,28 @@ public class AssetPackEditor extends EditorPart implements IGotoMarker, IShowInS
 
 		swtRun(this::refresh);
 
+		// the screenshots are made in background, after the editor is open
+
+		_screenshotListener = this::screenshotUpdated;
+		SceneScreenshotQueue.addScreenshotListener(_screenshotListener);
+	}
+
+	private void screenshotUpdated(IFile sceneFile) {
+		if (_screenshotRefreshScheduled || _model == null
+				|| !sceneFile.getProject().equals(_model.getFile().getProject())) {
+			return;
+		}
+
+		_screenshotRefreshScheduled = true;
+
+		// many screenshots are made in a row, refresh only once
+		swtRun(500, () -> {
+			_screenshotRefreshScheduled = false;
+
+			if (!_assetsCanvas.isDisposed()) {
+				refresh();
+			}
+		});
 	}
 
 	private void createActions() {
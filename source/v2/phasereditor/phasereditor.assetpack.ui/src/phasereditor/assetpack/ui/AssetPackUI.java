@@ -168,6 +168,20 @@ public class AssetPackUI {
 		return ImageProxy.get(frame.getImageFile(), frame.getFrameData());
 	}
 
+	/**
+	 * Like {@link #getImageProxy(IAssetFrameModel)} but the image is not decoded
+	 * in this call.
+	 * 
+	 * @see ImageProxy#getAsync(IFile, phasereditor.ui.FrameData)
+	 */
+	public static ImageProxy getImageProxyAsync(IAssetFrameModel frame) {
+		if (frame == null) {
+			return null;
+		}
+
+		return ImageProxy.getAsync(frame.getImageFile(), frame.getFrameData());
+	}
+
 	public static List<IFile> browseManyAssetFile(AssetPackModel packModel, String objectName, List<IFile> files,
 			Shell shell) {
 
@@ -110,24 +110,24 @@ public class AssetsTreeCanvasViewer extends TreeCanvasViewer {
 		if (element instanceof IAssetFrameModel) {
 
 			var asset = (IAssetFrameModel) element;
-			proxy = AssetPackUI.getImageProxy(asset);
+			proxy = AssetPackUI.getImageProxyAsync(asset);
 
 		} else if (element instanceof ImageAssetModel) {
 
 			var asset = (ImageAssetModel) element;
-			proxy = AssetPackUI.getImageProxy(asset.getFrame());
+			proxy = AssetPackUI.getImageProxyAsync(asset.getFrame());
 
 		} else if (element instanceof AtlasAssetModel) {
 			var asset = (AtlasAssetModel) element;
-			proxy = ImageProxy.get(asset.getTextureFile(), null);
+			proxy = ImageProxy.getAsync(asset.getTextureFile(), null);
 		} else if (element instanceof SpritesheetAssetModel) {
 			var asset = (SpritesheetAssetModel) element;
 			var file = asset.getUrlFile();
-			proxy = ImageProxy.get(file, null);
+			proxy = ImageProxy.getAsync(file, null);
 		} else if (element instanceof AnimationFrameModel) {
 			AnimationFrameModel animFrame = (AnimationFrameModel) element;
 			var assetFrame = animFrame.getAssetFrame();
-			proxy = AssetPackUI.getImageProxy(assetFrame);
+			proxy = AssetPackUI.getImageProxyAsync(assetFrame);
 		}
 
 		if (proxy == null) {
@@ -21,14 +21,19 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.assetpack.ui;
 
+import java.util.List;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.widgets.Canvas;
 
 import phasereditor.assetpack.core.AudioSpriteAssetModel;
 import phasereditor.audio.core.AudioCore;
+import phasereditor.audio.core.AudioPeaks;
+import phasereditor.audio.ui.AudioPeaksRenderer;
 import phasereditor.ui.ICanvasCellRenderer;
 import phasereditor.ui.ImageProxy;
+import phasereditor.ui.PhaserEditorUI;
 
 /**
  * @author arian
@@ -74,6 +79,21 @@ public class AudioSpriteAssetCellRenderer implements ICanvasCellRenderer {
 
 		var sprites = _model.getSpriteMap();
 
+		// it never blocks, the canvas is redrawn when the peaks are loaded
+		var peaks = AudioCore.getSoundPeaksAsync(_audioFile, () -> PhaserEditorUI.swtRunRedraw(canvas));
+
+		if (peaks != null) {
+			renderPeaks(gc, peaks, sprites, x, y, width, height);
+			return;
+		}
+
+		if (AudioCore.isSoundPeaksLoading(_audioFile)) {
+			gc.setAlpha(150);
+			AudioPeaksRenderer.paintPlaceholder(gc, x, y, width, height);
+			gc.setAlpha(255);
+			return;
+		}
+
 		var imgFile = AudioCore.getSoundWavesFile(_audioFile);
 
 		var proxy = ImageProxy.get(imgFile.toFile(), null);
@@ -116,4 +136,29 @@ public class AudioSpriteAssetCellRenderer implements ICanvasCellRenderer {
 		gc.setAlpha(150);
 	}
 
+	private static void renderPeaks(GC gc, AudioPeaks peaks, List<AudioSpriteAssetModel.AssetAudioSprite> sprites,
+			int x, int y, int width, int height) {
+		var count = sprites.size();
+		var spacing = 3;
+
+		if (spacing * count > width / 3) {
+			spacing = 0;
+		}
+
+		var dstWidth2 = width / (double) count - spacing;
+
+		var lastDstX = x;
+
+		gc.setAlpha(150);
+
+		for (var sprite : sprites) {
+			AudioPeaksRenderer.paint(gc, peaks, sprite.getStart(), sprite.getEnd(), lastDstX, y, (int) dstWidth2,
+					height);
+
+			lastDstX += dstWidth2 + spacing;
+		}
+
+		gc.setAlpha(255);
+	}
+
 }
@@ -25,6 +25,7 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.swt.graphics.GC;
 
 import phasereditor.assetpack.core.AudioSpriteAssetModel;
+import phasereditor.audio.ui.AudioPeaksRenderer;
 import phasereditor.ui.TreeCanvas.TreeCanvasItem;
 
 /**
@@ -46,6 +47,18 @@ public class AudioSpriteAssetElementTreeCanvasRenderer extends AudioSpriteAssetT
 		}
 
 		var sprite = (AudioSpriteAssetModel.AssetAudioSprite) _item.getData();
+		var peaks = getPeaks();
+
+		if (peaks != null) {
+			AudioPeaksRenderer.paint(gc, peaks, sprite.getStart(), sprite.getEnd(), dstX, dstY, dstWidth, dstHeight);
+			return;
+		}
+
+		if (isPeaksLoading()) {
+			AudioPeaksRenderer.paintPlaceholder(gc, dstX, dstY, dstWidth, dstHeight);
+			return;
+		}
+
 		var proxy = getImageProxy();
 		var b = proxy.getFinalFrameData().src;
 		var srcX = sprite.getStart() / duration * b.width;
@@ -25,6 +25,7 @@ import org.eclipse.swt.graphics.GC;
 
 import phasereditor.assetpack.core.AudioSpriteAssetModel;
 import phasereditor.audio.core.AudioCore;
+import phasereditor.audio.ui.AudioPeaksRenderer;
 import phasereditor.ui.TreeCanvas.TreeCanvasItem;
 
 /**
@@ -60,8 +61,15 @@ public class AudioSpriteAssetTreeCanvasItemRenderer extends AudioAssetTreeCanvas
 
 		var sprites = asset.getSpriteMap();
 
+		var peaks = getPeaks();
+
+		if (peaks == null && isPeaksLoading()) {
+			AudioPeaksRenderer.paintPlaceholder(gc, dstX, dstY, dstWidth, dstHeight);
+			return;
+		}
+
 		var proxy = getImageProxy();
-		var b = proxy.getFinalFrameData().src;
+		var b = peaks == null ? proxy.getFinalFrameData().src : null;
 
 		var count = sprites.size();
 		var spacing = 3;
@@ -77,14 +85,20 @@ public class AudioSpriteAssetTreeCanvasItemRenderer extends AudioAssetTreeCanvas
 		gc.setAlpha(150);
 		for (var sprite : sprites) {
 
-			var startFactor = sprite.getStart() / _duration;
-			var endFactor = sprite.getEnd() / _duration;
+			if (peaks == null) {
+				var startFactor = sprite.getStart() / _duration;
+				var endFactor = sprite.getEnd() / _duration;
 
-			var srcX1 = startFactor * b.width;
-			var srcX2 = endFactor * b.width;
-			var srcWidth = srcX2 - srcX1;
+				var srcX1 = startFactor * b.width;
+				var srcX2 = endFactor * b.width;
+				var srcWidth = srcX2 - srcX1;
 
-			proxy.paint(gc, (int) srcX1, 0, (int) srcWidth, b.height, lastDstX, dstY, (int) dstWidth2, dstHeight);
+				proxy.paint(gc, (int) srcX1, 0, (int) srcWidth, b.height, lastDstX, dstY, (int) dstWidth2,
+						dstHeight);
+			} else {
+				AudioPeaksRenderer.paint(gc, peaks, sprite.getStart(), sprite.getEnd(), lastDstX, dstY,
+						(int) dstWidth2, dstHeight);
+			}
 
 			lastDstX += dstWidth2 + spacing;
 		}
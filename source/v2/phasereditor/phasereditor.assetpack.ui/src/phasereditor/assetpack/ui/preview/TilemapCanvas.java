@@ -21,18 +21,11 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.assetpack.ui.preview;
 
-import static java.lang.System.currentTimeMillis;
-import static java.lang.System.out;
-import static phasereditor.ui.PhaserEditorUI.swtRun;
-
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.ListenerList;
@@ -57,7 +50,6 @@ import org.eclipse.swt.events.PaintEvent;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.FontMetrics;
 import org.eclipse.swt.graphics.GC;
-import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
@@ -67,7 +59,6 @@ import phasereditor.assetpack.core.ImageAssetModel;
 import phasereditor.assetpack.core.TilemapAssetModel;
 import phasereditor.assetpack.ui.SelectTextureDialog;
 import phasereditor.assetpack.ui.TextureListContentProvider;
-import phasereditor.ui.Colors;
 import phasereditor.ui.EditorSharedImages;
 import phasereditor.ui.IEditorSharedImages;
 import phasereditor.ui.ImageCanvas_Zoom_1_1_Action;
@@ -87,21 +78,21 @@ public class TilemapCanvas extends ZoomCanvas
 	private Point _imageSize = new Point(1, 1);
 	private int _tileWidth;
 	private int _tileHeight;
-	private Color[] _colors;
+	private int[] _colors;
 	protected ImageAssetModel _imageModel;
 	private BufferedImage _tileSetImage;
-	private Image _renderImage;
+	private TilemapChunkRenderer _renderer;
 	private int _mouseX;
 	private int _mouseY;
 	private List<Point> _selectedCells;
 	private int _mouseMapX;
 	private int _mouseMapY;
-	private boolean _buildingImage;
-	private static ExecutorService _pool;
 
 	public TilemapCanvas(Composite parent, int style) {
 		super(parent, style);
 
+		_renderer = new TilemapChunkRenderer(this);
+
 		_selectedCells = new ArrayList<>() {
 			private static final long serialVersionUID = 1L;
 
@@ -125,10 +116,10 @@ public class TilemapCanvas extends ZoomCanvas
 	}
 
 	public void generateColors(int n) {
-		_colors = new Color[n];
+		_colors = new int[n];
 		for (int i = 0; i < n; i++) {
 			java.awt.Color c = java.awt.Color.getHSBColor((float) i / (float) n, 0.85f, 1.0f);
-			_colors[i] = Colors.color(c.getRed(), c.getGreen(), c.getBlue());
+			_colors[i] = c.getRGB();
 		}
 	}
 
@@ -138,8 +129,6 @@ public class TilemapCanvas extends ZoomCanvas
 		_tileWidth = 32;
 		_tileHeight = 32;
 
-		disposeImages();
-
 		_model = model;
 
 		int[][] map = _model == null ? null : _model.getCsvData();
@@ -166,10 +155,13 @@ public class TilemapCanvas extends ZoomCanvas
 				_imageModel = data.imageModel;
 
 				updateImageSize();
-				setImageModel(_imageModel);
 			}
 		}
 
+		// the chunks of the cells that did not change are not built again
+		buildTilesetImage();
+		buildMapImage();
+
 		resetZoom();
 	}
 
@@ -214,111 +206,18 @@ public class TilemapCanvas extends ZoomCanvas
 	}
 
 	void buildMapImage() {
-		_buildingImage = true;
-		redraw();
-
-		if (_pool == null) {
-			_pool = Executors.newCachedThreadPool();
-		}
-
-		_pool.execute(this::buildImageMap2);
-	}
-
-	private void buildImageMap2() {
-		try {
-			if (_model != null && _tileSetImage != null) {
-
-				var t = currentTimeMillis();
-
-				int[][] map = _model.getCsvData();
-
-				if (map != null && map.length > 0) {
-
-					Point size = getImageSize();
-
-					int mapWidth = size.x;
-					int mapHeight = size.y;
-
-					var t2 = currentTimeMillis();
-
-					out.println(
-							"Created buffer " + mapWidth + "," + mapHeight + ": " + (currentTimeMillis() - t2 + "ms"));
-
-					var bounds = new Rectangle(0, 0, _tileSetImage.getWidth(), _tileSetImage.getHeight());
-
-					var mapImage = new BufferedImage(mapWidth, mapHeight, BufferedImage.TYPE_INT_ARGB);
-
-					var gc = mapImage.createGraphics();
-
-					for (int i = 0; i < map.length; i++) {
-						int[] row = map[i];
-
-						for (int j = 0; j < row.length; j++) {
-
-							int frame = map[i][j];
-
-							if (frame < 0) {
-								continue;
-							}
-
-							int w = getTileWidth();
-							int h = getTileHeight();
-							int x = j * getTileWidth();
-							int y = i * getTileHeight();
-
-							int srcX = frame * _tileWidth % bounds.width;
-							int srcY = frame * _tileWidth / bounds.width * _tileHeight;
-
-							try {
-								gc.drawImage(_tileSetImage, x, y, x + w, y + h, srcX, srcY, srcX + _tileWidth, srcY + _tileHeight, null);
-							} catch (IllegalArgumentException e) {
-								gc.drawString("Invalid parameters. Please check the tiles size.", 10, 10);
-							}
-						}
-					}
-
-					gc.dispose();
-
-					var old = _renderImage;
-					
-
-					try {
-						_renderImage = PhaserEditorUI.image_Swing_To_SWT(mapImage);
-						
-						if (old != null) {
-							old.dispose();
-						}
-						
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-
-					out.println("Building CSV tilemap image done: " + (currentTimeMillis() - t));
-				}
-			}
-		} finally {
-
-			_buildingImage = false;
+		int[][] map = _model == null ? null : _model.getCsvData();
 
-		}
+		_renderer.setSource(map, _tileSetImage, getTileWidth(), getTileHeight(), _colors);
 
-		swtRun(() -> {
-			resetZoom();
-		});
+		redraw();
 	}
 
 	@Override
 	public void dispose() {
 		super.dispose();
 
-		disposeImages();
-	}
-
-	private void disposeImages() {
-		if (_renderImage != null) {
-			_renderImage.dispose();
-			_renderImage = null;
-		}
+		_renderer.dispose();
 	}
 
 	public TilemapAssetModel getModel() {
@@ -338,13 +237,6 @@ public class TilemapCanvas extends ZoomCanvas
 	public void customPaintControl(PaintEvent e) {
 		GC gc = e.gc;
 
-		if (_buildingImage) {
-			var str = "Building tilemap image...";
-			var extent = gc.stringExtent(str);
-			gc.drawText(str, e.width / 2 - extent.x / 2, e.height / 2 - extent.y / 2);
-			return;
-		}
-
 		if (_model != null) {
 
 			int[][] map = _model.getCsvData();
@@ -357,41 +249,12 @@ public class TilemapCanvas extends ZoomCanvas
 				float offX = calc.offsetX;
 				float offY = calc.offsetY;
 
-				if (_renderImage == null) {
-
-					for (int i = 0; i < map.length; i++) {
-						int[] row = map[i];
-
-						for (int j = 0; j < row.length; j++) {
-
-							int frame = map[i][j];
-
-							if (frame < 0) {
-								continue;
-							}
-
-							int w = (int) (getTileWidth() * scale);
-							int h = (int) (getTileHeight() * scale);
-							int x = (int) (j * getTileWidth() * scale + offX);
-							int y = (int) (i * getTileHeight() * scale + offY);
-
-							// paint map with colors
-							Color c = _colors[frame % _colors.length];
-							gc.setBackground(c);
-							gc.fillRectangle(x, y, w + 1, h + 1);
-						}
-					}
-				} else {
-					Rectangle b = _renderImage.getBounds();
-
-					Rectangle dst = new Rectangle((int) offX, (int) offY, (int) (b.width * scale),
-							(int) (b.height * scale));
-
-					PhaserEditorUI.paintPreviewBackground(gc, dst);
-
-					gc.drawImage(_renderImage, 0, 0, b.width, b.height, dst.x, dst.y, dst.width, dst.height);
+				if (_tileSetImage != null) {
+					PhaserEditorUI.paintPreviewBackground(gc, calc.modelToView(0, 0, _imageSize.x, _imageSize.y));
 				}
 
+				_renderer.paint(gc, calc, new Rectangle(e.x, e.y, e.width, e.height));
+
 				// paint selection
 
 				Color borderColor = PhaserEditorUI.get_pref_Preview_Tilemap_overTileBorderColor();
@@ -722,7 +585,7 @@ public class TilemapCanvas extends ZoomCanvas
 
 	@Override
 	protected boolean hasImage() {
-		return _renderImage != null;
+		return _renderer.hasSource();
 	}
 
 }
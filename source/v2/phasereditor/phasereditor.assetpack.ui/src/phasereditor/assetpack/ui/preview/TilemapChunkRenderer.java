@@ -0,0 +1,458 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.assetpack.ui.preview;
+
+import static phasereditor.ui.PhaserEditorUI.swtRun;
+
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Canvas;
+
+import phasereditor.ui.PhaserEditorUI;
+import phasereditor.ui.ZoomCanvas.ZoomCalculator;
+
+/**
+ * Renders a CSV tilemap with square chunks of tiles. Only the chunks in the
+ * viewport are built, in background, and they are kept in a cache with a
+ * limited amount of pixels. When the map is zoomed out, the chunks of a lower
+ * detail level are used: a chunk of the level <code>n</code> covers
+ * <code>2^n</code> times the tiles of a chunk of the level 0, with the same
+ * size in pixels.
+ * 
+ * Every chunk keeps a hash of its cells, so when the map data changes only
+ * the chunks with modified cells are built again.
+ * 
+ * @author arian
+ *
+ */
+class TilemapChunkRenderer {
+
+	private static final int CHUNK_TILES = 32;
+	private static final long CACHE_PIXELS = Long.getLong("phasereditor.tilemap.chunkCacheSize", 64).longValue()
+			* 1024 * 1024 / 4;
+
+	private static ExecutorService _pool;
+
+	/**
+	 * The data used to build the chunks. It is immutable, a build started with a
+	 * different source is discarded.
+	 */
+	private static class Source {
+		int[][] map;
+		int cols;
+		int rows;
+		BufferedImage tileset;
+		int tileWidth;
+		int tileHeight;
+		int[] colors;
+		int maxLevel;
+		Map<Long, int[]> frames;
+
+		// the chunks of this source that are being built
+		Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+		boolean sameLayout(Source other) {
+			return other != null && other.tileset == tileset && Arrays.equals(other.colors, colors) && other.tileWidth == tileWidth
+					&& other.tileHeight == tileHeight && other.cols == cols && other.rows == rows;
+		}
+	}
+
+	private static class Chunk {
+		Image image;
+		int hash;
+		int pixels;
+	}
+
+	private static final int[] EMPTY_FRAME = {};
+
+	private Canvas _canvas;
+	private volatile Source _source;
+	private Map<Long, Chunk> _chunks;
+	private long _chunksPixels;
+	private int _visibleChunks;
+	private volatile Set<Long> _wanted;
+
+	public TilemapChunkRenderer(Canvas canvas) {
+		_canvas = canvas;
+		_chunks = new LinkedHashMap<>(16, 0.75f, true);
+		_wanted = Set.of();
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (_pool == null) {
+			var counter = new AtomicInteger();
+			var size = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+			_pool = Executors.newFixedThreadPool(size, r -> {
+				var thread = new Thread(r, "Phaser Tilemap Chunk " + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return _pool;
+	}
+
+	/**
+	 * Set the data of the map. It should be called in the UI thread.
+	 * 
+	 * @param tileset
+	 *            The image of the tiles, or <code>null</code> to paint every tile
+	 *            with a color.
+	 * @param colors
+	 *            The colors of the tiles (ARGB), used when there is not a tileset.
+	 */
+	public void setSource(int[][] map, BufferedImage tileset, int tileWidth, int tileHeight, int[] colors) {
+		if (map == null || map.length == 0 || map[0].length == 0 || tileWidth <= 0 || tileHeight <= 0) {
+			clear();
+			_source = null;
+			return;
+		}
+
+		var source = new Source();
+		source.map = map;
+		source.cols = map[0].length;
+		source.rows = map.length;
+		source.tileset = tileset;
+		source.tileWidth = tileWidth;
+		source.tileHeight = tileHeight;
+		source.colors = colors;
+		source.maxLevel = 31 - Integer.numberOfLeadingZeros(Math.min(tileWidth, tileHeight));
+
+		var old = _source;
+
+		if (source.sameLayout(old)) {
+			source.frames = old.frames;
+
+			if (old.map != map) {
+				// keep the chunks with the same cells
+				var iter = _chunks.entrySet().iterator();
+
+				while (iter.hasNext()) {
+					var entry = iter.next();
+					var chunk = entry.getValue();
+
+					if (computeHash(source, entry.getKey().longValue()) != chunk.hash) {
+						disposeChunk(chunk);
+						iter.remove();
+					}
+				}
+			}
+		} else {
+			source.frames = new ConcurrentHashMap<>();
+			clear();
+		}
+
+		_source = source;
+	}
+
+	public boolean hasSource() {
+		return _source != null;
+	}
+
+	public void dispose() {
+		clear();
+		_source = null;
+	}
+
+	private void clear() {
+		for (var chunk : _chunks.values()) {
+			disposeChunk(chunk);
+		}
+
+		_chunks.clear();
+		_chunksPixels = 0;
+	}
+
+	private void disposeChunk(Chunk chunk) {
+		chunk.image.dispose();
+		_chunksPixels -= chunk.pixels;
+	}
+
+	private static long key(int level, int cx, int cy) {
+		return (long) level << 56 | (long) cy << 28 | cx;
+	}
+
+	private static int keyLevel(long key) {
+		return (int) (key >>> 56);
+	}
+
+	private static int keyX(long key) {
+		return (int) (key & 0xFFFFFFF);
+	}
+
+	private static int keyY(long key) {
+		return (int) (key >>> 28 & 0xFFFFFFF);
+	}
+
+	private static int computeLevel(Source source, float scale) {
+		int level = 0;
+
+		while (level < source.maxLevel && scale * (2 << level) <= 1) {
+			level++;
+		}
+
+		return level;
+	}
+
+	/**
+	 * Paint the chunks in the given area of the canvas. The missing chunks are
+	 * requested and the canvas is redrawn when they are ready.
+	 */
+	public void paint(GC gc, ZoomCalculator calc, Rectangle area) {
+		var source = _source;
+
+		if (source == null) {
+			return;
+		}
+
+		var level = computeLevel(source, calc.scale);
+		var chunkTiles = CHUNK_TILES << level;
+
+		var tw = source.tileWidth;
+		var th = source.tileHeight;
+
+		var firstCol = Math.max(0, (int) (calc.viewToModelX(area.x) / tw));
+		var firstRow = Math.max(0, (int) (calc.viewToModelY(area.y) / th));
+		var lastCol = Math.min(source.cols - 1, (int) (calc.viewToModelX(area.x + area.width) / tw));
+		var lastRow = Math.min(source.rows - 1, (int) (calc.viewToModelY(area.y + area.height) / th));
+
+		if (firstCol > lastCol || firstRow > lastRow) {
+			return;
+		}
+
+		var missing = new HashSet<Long>();
+		var visible = 0;
+
+		for (int cy = firstRow / chunkTiles; cy <= lastRow / chunkTiles; cy++) {
+			for (int cx = firstCol / chunkTiles; cx <= lastCol / chunkTiles; cx++) {
+				var key = key(level, cx, cy);
+				var chunk = _chunks.get(Long.valueOf(key));
+
+				visible++;
+
+				if (chunk == null) {
+					missing.add(Long.valueOf(key));
+					continue;
+				}
+
+				var x1 = (int) calc.modelToViewX(cx * chunkTiles * tw);
+				var y1 = (int) calc.modelToViewY(cy * chunkTiles * th);
+				var x2 = (int) calc.modelToViewX(Math.min((cx + 1) * chunkTiles, source.cols) * tw);
+				var y2 = (int) calc.modelToViewY(Math.min((cy + 1) * chunkTiles, source.rows) * th);
+
+				var b = chunk.image.getBounds();
+
+				gc.drawImage(chunk.image, 0, 0, b.width, b.height, x1, y1, x2 - x1, y2 - y1);
+			}
+		}
+
+		_visibleChunks = visible;
+
+		// the builds of chunks that are not visible anymore are skipped
+		_wanted = missing;
+
+		for (var key : missing) {
+			if (source.pending.add(key)) {
+				getPool().execute(() -> buildChunk(source, key.longValue()));
+			}
+		}
+
+		evict();
+	}
+
+	private void evict() {
+		var iter = _chunks.values().iterator();
+
+		while (_chunksPixels > CACHE_PIXELS && _chunks.size() > _visibleChunks) {
+			disposeChunk(iter.next());
+			iter.remove();
+		}
+	}
+
+	private void buildChunk(Source source, long key) {
+		var boxedKey = Long.valueOf(key);
+
+		if (!_wanted.contains(boxedKey) || source != _source) {
+			source.pending.remove(boxedKey);
+
+			// a paint could request the chunk again while it was pending, and skip it
+			if (source == _source && _wanted.contains(boxedKey)) {
+				swtRun(() -> {
+					if (!_canvas.isDisposed()) {
+						_canvas.redraw();
+					}
+				});
+			}
+
+			return;
+		}
+
+		ImageData data;
+		int hash;
+
+		try {
+			hash = computeHash(source, key);
+			data = renderChunk(source, key);
+		} catch (RuntimeException e) {
+			source.pending.remove(boxedKey);
+			throw e;
+		}
+
+		swtRun(() -> {
+			source.pending.remove(boxedKey);
+
+			if (_canvas.isDisposed()) {
+				return;
+			}
+
+			if (source == _source) {
+				var chunk = new Chunk();
+				chunk.image = new Image(_canvas.getDisplay(), data);
+				chunk.hash = hash;
+				chunk.pixels = data.width * data.height;
+
+				var old = _chunks.put(boxedKey, chunk);
+
+				if (old != null) {
+					disposeChunk(old);
+				}
+
+				_chunksPixels += chunk.pixels;
+			}
+
+			_canvas.redraw();
+		});
+	}
+
+	private static int computeHash(Source source, long key) {
+		var chunkTiles = CHUNK_TILES << keyLevel(key);
+		var col1 = keyX(key) * chunkTiles;
+		var row1 = keyY(key) * chunkTiles;
+		var col2 = Math.min(col1 + chunkTiles, source.cols);
+		var row2 = Math.min(row1 + chunkTiles, source.rows);
+
+		var hash = 1;
+
+		for (int i = row1; i < row2; i++) {
+			var row = source.map[i];
+
+			for (int j = col1; j < col2; j++) {
+				hash = 31 * hash + (j < row.length ? row[j] : -1);
+			}
+		}
+
+		return hash;
+	}
+
+	private static ImageData renderChunk(Source source, long key) {
+		var level = keyLevel(key);
+		var chunkTiles = CHUNK_TILES << level;
+		var col1 = keyX(key) * chunkTiles;
+		var row1 = keyY(key) * chunkTiles;
+		var cols = Math.min(chunkTiles, source.cols - col1);
+		var rows = Math.min(chunkTiles, source.rows - row1);
+
+		var tileWidth = Math.max(1, source.tileWidth >> level);
+		var tileHeight = Math.max(1, source.tileHeight >> level);
+
+		var width = cols * tileWidth;
+		var height = rows * tileHeight;
+
+		var pixels = new int[width * height];
+
+		for (int i = 0; i < rows; i++) {
+			var row = source.map[row1 + i];
+
+			for (int j = 0; j < cols && col1 + j < row.length; j++) {
+				var frame = row[col1 + j];
+
+				if (frame < 0) {
+					continue;
+				}
+
+				var tile = getFrame(source, level, frame, tileWidth, tileHeight);
+
+				if (tile == EMPTY_FRAME) {
+					continue;
+				}
+
+				for (int y = 0; y < tileHeight; y++) {
+					System.arraycopy(tile, y * tileWidth, pixels, (i * tileHeight + y) * width + j * tileWidth,
+							tileWidth);
+				}
+			}
+		}
+
+		return PhaserEditorUI.image_ARGB_To_ImageData(pixels, width, height);
+	}
+
+	/**
+	 * The pixels of a tile, scaled to the size of the given level.
+	 */
+	private static int[] getFrame(Source source, int level, int frame, int tileWidth, int tileHeight) {
+		return source.frames.computeIfAbsent(Long.valueOf((long) level << 32 | frame), k -> {
+
+			if (source.tileset == null) {
+				if (source.colors == null || source.colors.length == 0) {
+					return EMPTY_FRAME;
+				}
+
+				var tile = new int[tileWidth * tileHeight];
+				Arrays.fill(tile, source.colors[frame % source.colors.length]);
+				return tile;
+			}
+
+			var tileset = source.tileset;
+			var srcX = frame * source.tileWidth % tileset.getWidth();
+			var srcY = frame * source.tileWidth / tileset.getWidth() * source.tileHeight;
+
+			if (srcX + source.tileWidth > tileset.getWidth() || srcY + source.tileHeight > tileset.getHeight()) {
+				return EMPTY_FRAME;
+			}
+
+			var image = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_ARGB);
+			var g2 = image.createGraphics();
+
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2.drawImage(tileset, 0, 0, tileWidth, tileHeight, srcX, srcY, srcX + source.tileWidth,
+					srcY + source.tileHeight, null);
+			g2.dispose();
+
+			return image.getRGB(0, 0, tileWidth, tileHeight, null, 0, tileWidth);
+		});
+	}
+}
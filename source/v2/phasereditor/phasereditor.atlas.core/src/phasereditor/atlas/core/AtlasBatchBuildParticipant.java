@@ -0,0 +1,93 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.atlas.core;
+
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import phasereditor.project.core.IProjectBuildParticipant;
+
+/**
+ * Builds the atlases of the project after a full build, if the
+ * <code>phasereditor.atlas.buildOnFullBuild</code> system property is
+ * <code>true</code>. The atlases are built in a workspace job, the participant
+ * only schedules it.
+ *
+ * @author arian
+ *
+ */
+public class AtlasBatchBuildParticipant implements IProjectBuildParticipant {
+
+	private static boolean isEnabled() {
+		return Boolean.getBoolean("phasereditor.atlas.buildOnFullBuild");
+	}
+
+	@Override
+	public void startupOnInitialize(IProject project, Map<String, Object> env) {
+		// nothing
+	}
+
+	@Override
+	public void clean(IProject project, Map<String, Object> env) {
+		// nothing
+	}
+
+	@Override
+	public void build(IProject project, IResourceDelta delta, Map<String, Object> env) {
+		// nothing
+	}
+
+	@Override
+	public void fullBuild(IProject project, Map<String, Object> env) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		var job = new WorkspaceJob("Build atlases of '" + project.getName() + "'") {
+
+			@Override
+			public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
+				if (project.exists()) {
+					AtlasBatchBuilder.buildProject(project, false, monitor);
+				}
+
+				return Status.OK_STATUS;
+			}
+		};
+
+		job.setRule(project);
+		job.schedule();
+	}
+
+	@Override
+	public void projectDeleted(IProject project, Map<String, Object> env) {
+		// nothing
+	}
+
+}
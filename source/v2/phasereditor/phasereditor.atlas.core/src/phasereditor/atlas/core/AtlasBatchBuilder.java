@@ -0,0 +1,421 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.atlas.core;
+
+import static java.lang.System.out;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.QualifiedName;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import phasereditor.project.core.ProjectCore;
+import phasereditor.ui.PhaserEditorUI;
+
+/**
+ * Builds the atlas files (<code>.atlas</code>) without opening them in the
+ * editor. The atlases are packed in parallel, but the memory used by the
+ * decoded images of the atlases being packed at the same time is limited by
+ * the <code>phasereditor.atlas.buildMemory</code> system property, in MB. The
+ * generated files are written in the thread that calls the builder, that
+ * should own the rule of the projects of the atlases.
+ *
+ * An atlas is not packed again if its files, settings and images did not
+ * change since the last build and its output files exist.
+ *
+ * @author arian
+ *
+ */
+public class AtlasBatchBuilder {
+
+	static final QualifiedName BUILD_HASH_KEY = new QualifiedName("phasereditor.atlas.core", "build-hash");
+
+	private static final int DEFAULT_BUILD_MEMORY = 512;
+
+	private static ExecutorService _pool;
+	private static Semaphore _memory;
+	private static int _memorySize;
+
+	private static class BuildResult {
+		IFile atlasFile;
+		JSONObject atlasJSON;
+		SettingsBean settings;
+		String hash;
+		List<List<AtlasFrame>> pages;
+		List<byte[]> images;
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (_pool == null) {
+			var counter = new AtomicInteger();
+			var size = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+			_pool = Executors.newFixedThreadPool(size, r -> {
+				var thread = new Thread(r, "Phaser Atlas Builder " + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return _pool;
+	}
+
+	private static synchronized Semaphore getMemory() {
+		if (_memory == null) {
+			_memorySize = Integer.getInteger("phasereditor.atlas.buildMemory", DEFAULT_BUILD_MEMORY).intValue();
+			_memorySize = Math.max(1, _memorySize);
+			_memory = new Semaphore(_memorySize, true);
+		}
+
+		return _memory;
+	}
+
+	/**
+	 * The atlas files of the project, as found by the atlas file cache.
+	 */
+	public static List<IFile> getProjectAtlasFiles(IProject project) {
+		var list = new ArrayList<IFile>();
+
+		for (var data : AtlasCore.getAtlasFileCache().getProjectData(project)) {
+			list.add(data.getFile());
+		}
+
+		return list;
+	}
+
+	public static void buildProject(IProject project, boolean force, IProgressMonitor monitor) throws CoreException {
+		build(getProjectAtlasFiles(project), force, monitor);
+	}
+
+	/**
+	 * Build the given atlas files. If <code>force</code> is <code>false</code>,
+	 * the up-to-date atlases are skipped.
+	 */
+	public static void build(List<IFile> atlasFiles, boolean force, IProgressMonitor monitor) throws CoreException {
+		monitor.beginTask("Building atlases", atlasFiles.size());
+
+		var t = System.currentTimeMillis();
+
+		var service = new ExecutorCompletionService<BuildResult>(getPool());
+		var futures = new ArrayList<Future<BuildResult>>();
+
+		for (var atlasFile : atlasFiles) {
+			futures.add(service.submit(() -> pack(atlasFile, force)));
+		}
+
+		int built = 0;
+
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+
+				if (monitor.isCanceled()) {
+					break;
+				}
+
+				BuildResult result;
+
+				try {
+					result = service.take().get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				} catch (Exception e) {
+					ProjectCore.logError(e);
+					monitor.worked(1);
+					continue;
+				}
+
+				if (result != null) {
+					monitor.subTask(result.atlasFile.getName());
+
+					try {
+						writeResult(result, monitor);
+						built++;
+					} catch (Exception e) {
+						ProjectCore.logError(e);
+					}
+				}
+
+				monitor.worked(1);
+			}
+		} finally {
+			for (var future : futures) {
+				future.cancel(false);
+			}
+
+			monitor.done();
+		}
+
+		t = System.currentTimeMillis() - t;
+
+		out.println("AtlasBatchBuilder: " + built + "/" + atlasFiles.size() + " atlases built (" + t + "ms)");
+	}
+
+	/**
+	 * Pack the atlas. It runs in the builder pool and does not modify the
+	 * workspace. Returns <code>null</code> if the atlas is up to date.
+	 */
+	private static BuildResult pack(IFile atlasFile, boolean force) throws Exception {
+		if (!atlasFile.exists()) {
+			return null;
+		}
+
+		JSONObject atlasJSON;
+
+		try (var contents = atlasFile.getContents()) {
+			atlasJSON = new JSONObject(new JSONTokener(contents));
+		}
+
+		var settings = new SettingsBean();
+		settings.read(atlasJSON.getJSONObject("settings"));
+
+		var project = atlasFile.getProject();
+		var jsonFiles = atlasJSON.getJSONArray("files");
+
+		var packFiles = new ArrayList<IFile>();
+		long imagesMemory = 0;
+
+		for (int i = 0; i < jsonFiles.length(); i++) {
+			var file = project.getFile(new Path(jsonFiles.getString(i)));
+			var javaFile = PhaserEditorUI.eclipseFileToJavaPath(file).toFile();
+
+			if (!javaFile.isFile()) {
+				out.println("AtlasBatchBuilder: " + atlasFile + ": skip missing file " + file);
+				continue;
+			}
+
+			int[] size;
+
+			try {
+				size = PhaserEditorUI.getImageSize(javaFile);
+			} catch (IOException e) {
+				out.println("AtlasBatchBuilder: " + atlasFile + ": skip invalid file " + file);
+				continue;
+			}
+
+			if (size[0] > settings.maxWidth || size[1] > settings.maxHeight) {
+				out.println("AtlasBatchBuilder: " + atlasFile + ": skip file above maximum size " + file);
+				continue;
+			}
+
+			packFiles.add(file);
+
+			// the decoded image and its trimmed copy
+			imagesMemory += (long) size[0] * size[1] * 4 * 2;
+		}
+
+		var hash = computeHash(atlasJSON, packFiles);
+
+		if (!force && hash.equals(atlasFile.getPersistentProperty(BUILD_HASH_KEY))
+				&& outputFilesExist(atlasFile, atlasJSON, settings)) {
+			return null;
+		}
+
+		var memory = getMemory();
+		// an atlas bigger than the budget is packed alone
+		var permits = (int) Math.min(_memorySize, Math.max(1, imagesMemory / (1024 * 1024)));
+
+		memory.acquire(permits);
+
+		try {
+			var packer = new AtlasPacker();
+			var packerPages = packer.pack(packFiles, settings, new NullProgressMonitor());
+
+			var result = new BuildResult();
+			result.atlasFile = atlasFile;
+			result.atlasJSON = atlasJSON;
+			result.settings = settings;
+			result.hash = hash;
+			result.pages = new ArrayList<>();
+
+			var images = new ArrayList<BufferedImage>();
+
+			for (var packerPage : packerPages) {
+				var frames = new ArrayList<>(packerPage.getFrames());
+
+				if (settings.useIndexes) {
+					frames.sort((a, b) -> {
+						int i1 = a.getIndex();
+						int i2 = b.getIndex();
+						return Integer.compare(i1 == -1 ? Integer.MAX_VALUE : i1, i2 == -1 ? Integer.MAX_VALUE : i2);
+					});
+				}
+
+				result.pages.add(frames);
+				images.add(packerPage.getImage());
+			}
+
+			// only the encoded images are kept until the result is written
+			result.images = AtlasPacker.encodePNG(images);
+
+			return result;
+		} finally {
+			memory.release(permits);
+		}
+	}
+
+	private static void writeResult(BuildResult result, IProgressMonitor monitor) throws Exception {
+		var atlasFile = result.atlasFile;
+		var atlasJSON = result.atlasJSON;
+		var folder = atlasFile.getParent();
+		var atlasName = PhaserEditorUI.getNameFromFilename(atlasFile.getName());
+		var pagesCount = result.pages.size();
+
+		var toDelete = new ArrayList<IFile>(guessOutputFiles(atlasFile, atlasJSON));
+
+		for (int i = 0; i < pagesCount; i++) {
+			var file = folder.getFile(new Path(AtlasPackerJSON.getPageImageName(atlasName, i, pagesCount)));
+			writeFile(file, result.images.get(i), monitor);
+			toDelete.remove(file);
+		}
+
+		if (result.settings.multiatlas) {
+			var json = AtlasPackerJSON.toPhaser3MultiatlasJSON(result.pages, result.settings, atlasName);
+			var file = folder.getFile(new Path(atlasName + ".json"));
+			writeFile(file, json.toString(2).getBytes(StandardCharsets.UTF_8), monitor);
+			toDelete.remove(file);
+		} else {
+			var list = AtlasPackerJSON.toPhaserHashJSON(result.pages, result.settings, atlasName);
+
+			for (int i = 0; i < list.length; i++) {
+				var file = folder.getFile(new Path(AtlasPackerJSON.getPageJSONName(atlasName, i, pagesCount)));
+				writeFile(file, list[i].toString(2).getBytes(StandardCharsets.UTF_8), monitor);
+				toDelete.remove(file);
+			}
+		}
+
+		{
+			// the frames of the pages are read by the editor
+			atlasJSON.put("pages", AtlasPackerJSON.toPagesJSON(result.pages, result.settings));
+			writeFile(atlasFile, atlasJSON.toString(2).getBytes(StandardCharsets.UTF_8), monitor);
+		}
+
+		for (var file : toDelete) {
+			if (file.exists()) {
+				out.println("AtlasBatchBuilder: delete " + file);
+				file.delete(true, monitor);
+			}
+		}
+
+		if (atlasFile.exists()) {
+			atlasFile.setPersistentProperty(BUILD_HASH_KEY, result.hash);
+		}
+
+		folder.refreshLocal(IResource.DEPTH_ONE, monitor);
+	}
+
+	private static void writeFile(IFile file, byte[] data, IProgressMonitor monitor) throws CoreException {
+		var source = new ByteArrayInputStream(data);
+
+		if (file.exists()) {
+			file.setContents(source, true, false, monitor);
+		} else {
+			file.create(source, true, monitor);
+		}
+	}
+
+	/**
+	 * The files generated by the last build, computed from the pages of the
+	 * atlas file.
+	 */
+	private static List<IFile> guessOutputFiles(IFile atlasFile, JSONObject atlasJSON) {
+		var list = new ArrayList<IFile>();
+
+		IContainer folder = atlasFile.getParent();
+		var atlasName = PhaserEditorUI.getNameFromFilename(atlasFile.getName());
+		var jsonPages = atlasJSON.optJSONArray("pages");
+		var pagesCount = jsonPages == null ? 0 : jsonPages.length();
+
+		for (int i = 0; i < pagesCount; i++) {
+			list.add(folder.getFile(new Path(AtlasPackerJSON.getPageImageName(atlasName, i, pagesCount))));
+			list.add(folder.getFile(new Path(AtlasPackerJSON.getPageJSONName(atlasName, i, pagesCount))));
+		}
+
+		return list;
+	}
+
+	private static boolean outputFilesExist(IFile atlasFile, JSONObject atlasJSON, SettingsBean settings) {
+		var folder = atlasFile.getParent();
+		var atlasName = PhaserEditorUI.getNameFromFilename(atlasFile.getName());
+		var jsonPages = atlasJSON.optJSONArray("pages");
+
+		if (jsonPages == null || jsonPages.length() == 0) {
+			return false;
+		}
+
+		var pagesCount = jsonPages.length();
+
+		for (int i = 0; i < pagesCount; i++) {
+			if (!folder.getFile(new Path(AtlasPackerJSON.getPageImageName(atlasName, i, pagesCount))).exists()) {
+				return false;
+			}
+
+			if (!settings.multiatlas && !folder
+					.getFile(new Path(AtlasPackerJSON.getPageJSONName(atlasName, i, pagesCount))).exists()) {
+				return false;
+			}
+		}
+
+		return !settings.multiatlas || folder.getFile(new Path(atlasName + ".json")).exists();
+	}
+
+	private static String computeHash(JSONObject atlasJSON, List<IFile> packFiles) throws Exception {
+		var digest = MessageDigest.getInstance("SHA-1");
+
+		digest.update(atlasJSON.getJSONArray("files").toString().getBytes(StandardCharsets.UTF_8));
+		digest.update(atlasJSON.getJSONObject("settings").toString().getBytes(StandardCharsets.UTF_8));
+
+		for (var file : packFiles) {
+			var stamp = file.getFullPath().toPortableString() + "#" + file.getModificationStamp();
+			digest.update(stamp.getBytes(StandardCharsets.UTF_8));
+		}
+
+		var sb = new StringBuilder();
+
+		for (var b : digest.digest()) {
+			sb.append(String.format("%02x", Byte.valueOf(b)));
+		}
+
+		return sb.toString();
+	}
+}
@@ -47,4 +47,20 @@ public class AtlasFileDataCache extends FileDataCache<AtlasData> {
 		return null;
 	}
 
+	@Override
+	protected String getSnapshotName() {
+		return "atlas";
+	}
+
+	@Override
+	protected String serializeData(AtlasData data) {
+		// the atlas data is only the file
+		return "";
+	}
+
+	@Override
+	protected AtlasData deserializeData(IFile file, String content) throws Exception {
+		return new AtlasData(file);
+	}
+
 }
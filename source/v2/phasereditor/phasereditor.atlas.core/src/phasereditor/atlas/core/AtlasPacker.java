@@ -0,0 +1,756 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.atlas.core;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.json.JSONObject;
+
+import com.badlogic.gdx.tools.texturepacker.ColorBleedEffect;
+import com.badlogic.gdx.tools.texturepacker.GridPacker;
+import com.badlogic.gdx.tools.texturepacker.ImageProcessor;
+import com.badlogic.gdx.tools.texturepacker.MaxRectsPacker;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker.Alias;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker.Packer;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker.Rect;
+
+/**
+ * Packs the image files of an atlas in memory, like the LibGDX
+ * <code>TexturePacker</code> does but without writing the pages to a temporal
+ * folder. It keeps the decoded and trimmed images of the source files, indexed
+ * by the hash of their content, so only new or modified files are decoded
+ * again, and it returns the last pages when the files and the settings did not
+ * change.
+ *
+ * @author arian
+ *
+ */
+public class AtlasPacker {
+
+	public static class PackerPage {
+		private BufferedImage _image;
+		private List<AtlasFrame> _frames;
+
+		PackerPage(BufferedImage image) {
+			_image = image;
+			_frames = new ArrayList<>();
+		}
+
+		public BufferedImage getImage() {
+			return _image;
+		}
+
+		/**
+		 * The frames of the page. The name of a frame is the name of the source file,
+		 * plus the number of parent folders set in the settings and the index of the
+		 * region, if any.
+		 */
+		public List<AtlasFrame> getFrames() {
+			return _frames;
+		}
+	}
+
+	/**
+	 * The source image processed by the LibGDX {@link ImageProcessor}. If the
+	 * image is blank and the settings ignore blank images, the image is
+	 * <code>null</code>.
+	 */
+	private static class Sprite {
+		BufferedImage image;
+		String imageHash;
+		int offsetX;
+		int offsetY;
+		int originalWidth;
+		int originalHeight;
+		int[] splits;
+		int[] pads;
+	}
+
+	private static class FileEntry {
+		long modificationStamp;
+		long localTimeStamp;
+		String contentHash;
+
+		boolean isUpToDate(IFile file) {
+			return modificationStamp == file.getModificationStamp() && localTimeStamp == file.getLocalTimeStamp();
+		}
+	}
+
+	private static ExecutorService _pool;
+
+	private Map<IPath, FileEntry> _fileEntries;
+	private Map<String, Sprite> _sprites;
+	private String _lastInputKey;
+	private List<PackerPage> _lastPages;
+
+	public AtlasPacker() {
+		_fileEntries = new ConcurrentHashMap<>();
+		_sprites = new ConcurrentHashMap<>();
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (_pool == null) {
+			var counter = new AtomicInteger();
+			var size = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+			_pool = Executors.newFixedThreadPool(size, r -> {
+				var thread = new Thread(r, "Phaser Atlas Packer " + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return _pool;
+	}
+
+	/**
+	 * Pack the given files. The files should exist. The returned pages are shared
+	 * with the next calls, if nothing changed, so they should not be modified.
+	 */
+	public synchronized List<PackerPage> pack(List<IFile> files, SettingsBean settings, IProgressMonitor monitor)
+			throws Exception {
+
+		checkSettings(settings);
+
+		var trimKey = settings.stripWhitespaceX + "," + settings.stripWhitespaceY + "," + settings.alphaThreshold
+				+ "," + settings.ignoreBlankImages;
+
+		// hash and process the new or modified files
+
+		monitor.subTask("Reading images");
+
+		var names = new String[files.size()];
+		var sprites = new Sprite[files.size()];
+
+		var trimSettings = settings.clone();
+		trimSettings.alias = false;
+		trimSettings.silent = true;
+
+		{
+			var futures = new ArrayList<Future<?>>();
+
+			for (int i = 0; i < files.size(); i++) {
+				var index = i;
+				futures.add(getPool().submit(() -> {
+					var file = files.get(index);
+					names[index] = computeImageName(file);
+					sprites[index] = updateSprite(file, names[index], trimKey, trimSettings);
+					return null;
+				}));
+			}
+
+			waitAll(futures);
+		}
+
+		// forget the files and sprites not used anymore
+
+		{
+			var usedPaths = new HashSet<IPath>();
+			var usedSprites = new HashSet<String>();
+
+			for (var file : files) {
+				var path = file.getFullPath();
+				usedPaths.add(path);
+				usedSprites.add(computeSpriteKey(_fileEntries.get(path).contentHash, computeImageName(file), trimKey));
+			}
+
+			_fileEntries.keySet().retainAll(usedPaths);
+			_sprites.keySet().retainAll(usedSprites);
+		}
+
+		// reuse the last pages if nothing changed
+
+		var inputKey = computeInputKey(files, names, settings);
+
+		if (inputKey.equals(_lastInputKey)) {
+			return _lastPages;
+		}
+
+		monitor.subTask("Packing images");
+
+		// the sprites are processed already, so this processor does not trim them
+		// again, it only creates the rects with the names and indexes
+
+		var processorSettings = settings.clone();
+		processorSettings.stripWhitespaceX = false;
+		processorSettings.stripWhitespaceY = false;
+		processorSettings.alias = false;
+		processorSettings.silent = true;
+
+		var processor = new ImageProcessor(processorSettings);
+		var aliasProcessor = new ImageProcessor(processorSettings);
+
+		Map<String, Rect> hashRectMap = new HashMap<>();
+
+		for (int i = 0; i < files.size(); i++) {
+			var sprite = sprites[i];
+
+			if (sprite.image == null) {
+				continue;
+			}
+
+			var name = names[i];
+
+			if (name.endsWith(".9")) {
+				name = name.substring(0, name.length() - 2);
+			}
+
+			if (settings.alias) {
+				var rect = hashRectMap.get(sprite.imageHash);
+
+				if (rect != null) {
+					var aliasRect = aliasProcessor.addImage(sprite.image, name);
+
+					if (aliasRect != null) {
+						updateRect(aliasRect, sprite);
+						rect.aliases.add(new Alias(aliasRect));
+					}
+
+					continue;
+				}
+			}
+
+			var rect = processor.addImage(sprite.image, name);
+
+			if (rect == null) {
+				continue;
+			}
+
+			updateRect(rect, sprite);
+			hashRectMap.put(sprite.imageHash, rect);
+		}
+
+		Packer packer = settings.grid ? new GridPacker(settings) : new MaxRectsPacker(settings);
+
+		var packerPages = packer.pack(processor.getImages());
+
+		// paint the pages
+
+		monitor.subTask("Painting pages");
+
+		var pages = new PackerPage[packerPages.size];
+
+		{
+			var futures = new ArrayList<Future<?>>();
+
+			for (int i = 0; i < packerPages.size; i++) {
+				var index = i;
+				futures.add(getPool().submit(() -> {
+					pages[index] = createPage(packerPages.get(index), settings, processor);
+					return null;
+				}));
+			}
+
+			waitAll(futures);
+		}
+
+		_lastInputKey = inputKey;
+		_lastPages = List.of(pages);
+
+		return _lastPages;
+	}
+
+	/**
+	 * Set the values of the source image to a rect created with the trimmed image.
+	 */
+	private static void updateRect(Rect rect, Sprite sprite) {
+		rect.offsetX = sprite.offsetX;
+		rect.offsetY = sprite.offsetY;
+		rect.originalWidth = sprite.originalWidth;
+		rect.originalHeight = sprite.originalHeight;
+		rect.splits = sprite.splits;
+		rect.pads = sprite.pads;
+	}
+
+	/**
+	 * Get the processed image of the file, from the cache or decoding the file.
+	 */
+	private Sprite updateSprite(IFile file, String name, String trimKey, SettingsBean trimSettings) throws Exception {
+		var path = file.getFullPath();
+		var entry = _fileEntries.get(path);
+		byte[] content = null;
+
+		if (entry == null || !entry.isUpToDate(file)) {
+			content = Files.readAllBytes(file.getLocation().toFile().toPath());
+
+			entry = new FileEntry();
+			entry.modificationStamp = file.getModificationStamp();
+			entry.localTimeStamp = file.getLocalTimeStamp();
+			entry.contentHash = hash(content);
+
+			_fileEntries.put(path, entry);
+		}
+
+		var key = computeSpriteKey(entry.contentHash, name, trimKey);
+		var sprite = _sprites.get(key);
+
+		if (sprite != null) {
+			return sprite;
+		}
+
+		if (content == null) {
+			content = Files.readAllBytes(file.getLocation().toFile().toPath());
+		}
+
+		var image = ImageIO.read(new ByteArrayInputStream(content));
+
+		if (image == null) {
+			throw new RuntimeException("Unable to read image: " + file.getFullPath());
+		}
+
+		sprite = new Sprite();
+
+		var processor = new ImageProcessor(trimSettings);
+		var rect = processor.addImage(image, name.endsWith(".9") ? "sprite.9" : "sprite");
+
+		if (rect != null) {
+			var trimmed = rect.getImage(processor);
+
+			// the trimmed image shares the raster of the decoded image, we copy it so the
+			// decoded image can be collected
+			var w = trimmed.getWidth();
+			var h = trimmed.getHeight();
+			var copy = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+			copy.setRGB(0, 0, w, h, trimmed.getRGB(0, 0, w, h, null, 0, w), 0, w);
+
+			sprite.image = copy;
+			sprite.imageHash = hash(copy);
+			sprite.offsetX = rect.offsetX;
+			sprite.offsetY = rect.offsetY;
+			sprite.originalWidth = rect.originalWidth;
+			sprite.originalHeight = rect.originalHeight;
+			sprite.splits = rect.splits;
+			sprite.pads = rect.pads;
+		}
+
+		_sprites.put(key, sprite);
+
+		return sprite;
+	}
+
+	/**
+	 * Paint the page like it is done by the LibGDX <code>TexturePacker</code>
+	 * before it writes the image file.
+	 */
+	private static PackerPage createPage(com.badlogic.gdx.tools.texturepacker.TexturePacker.Page page,
+			SettingsBean settings, ImageProcessor processor) {
+
+		int width = page.width;
+		int height = page.height;
+		int paddingX = settings.paddingX;
+		int paddingY = settings.paddingY;
+
+		if (settings.duplicatePadding) {
+			paddingX /= 2;
+			paddingY /= 2;
+		}
+
+		width -= settings.paddingX;
+		height -= settings.paddingY;
+
+		if (settings.edgePadding) {
+			page.x = paddingX;
+			page.y = paddingY;
+			width += paddingX * 2;
+			height += paddingY * 2;
+		}
+
+		if (settings.pot) {
+			width = nextPowerOfTwo(width);
+			height = nextPowerOfTwo(height);
+		}
+
+		width = Math.max(settings.minWidth, width);
+		height = Math.max(settings.minHeight, height);
+
+		page.imageWidth = width;
+		page.imageHeight = height;
+
+		var canvas = new BufferedImage(width, height, getBufferedImageType(settings));
+		var g = canvas.createGraphics();
+
+		var result = new PackerPage(null);
+
+		for (var rect : page.outputRects) {
+			var image = rect.getImage(processor);
+			int iw = image.getWidth();
+			int ih = image.getHeight();
+			int rectX = page.x + rect.x;
+			int rectY = page.y + page.height - rect.y - rect.height;
+
+			if (settings.duplicatePadding) {
+				paintDuplicatePadding(canvas, image, rect.rotated, rectX, rectY, settings);
+			}
+
+			copy(image, 0, 0, iw, ih, canvas, rectX, rectY, rect.rotated);
+
+			if (settings.debug) {
+				g.setColor(Color.magenta);
+				g.drawRect(rectX, rectY, rect.width - settings.paddingX - 1, rect.height - settings.paddingY - 1);
+			}
+
+			// the frames
+
+			result._frames.add(createFrame(rect, rectX, rectY, rect.name, rect.index, rect.offsetX, rect.offsetY,
+					rect.originalWidth, rect.originalHeight, settings));
+
+			var aliases = new ArrayList<>(rect.aliases);
+			aliases.sort((a, b) -> a.name.compareTo(b.name));
+
+			for (var alias : aliases) {
+				result._frames.add(createFrame(rect, rectX, rectY, alias.name, alias.index, alias.offsetX,
+						alias.offsetY, alias.originalWidth, alias.originalHeight, settings));
+			}
+		}
+
+		var jpg = settings.outputFormat.equalsIgnoreCase("jpg") || settings.outputFormat.equalsIgnoreCase("jpeg");
+
+		if (settings.bleed && !settings.premultiplyAlpha && !jpg) {
+			g.dispose();
+			canvas = new ColorBleedEffect().processImage(canvas, 2);
+			g = canvas.createGraphics();
+		}
+
+		if (settings.debug) {
+			g.setColor(Color.magenta);
+			g.drawRect(0, 0, width - 1, height - 1);
+		}
+
+		g.dispose();
+
+		if (jpg) {
+			var rgb = new BufferedImage(canvas.getWidth(), canvas.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+			var g2 = rgb.createGraphics();
+			g2.drawImage(canvas, 0, 0, null);
+			g2.dispose();
+			canvas = rgb;
+		} else if (settings.premultiplyAlpha) {
+			canvas.getColorModel().coerceData(canvas.getRaster(), true);
+		}
+
+		result._image = canvas;
+
+		return result;
+	}
+
+	/**
+	 * Create the frame of a packed rect, or of an alias of it. The offsets are
+	 * from the top-left corner of the source image.
+	 */
+	private static AtlasFrame createFrame(Rect rect, int rectX, int rectY, String rectName, int index, int offsetX,
+			int offsetY, int originalWidth, int originalHeight, SettingsBean settings) {
+
+		var name = Rect.getAtlasName(rectName, settings.flattenPaths);
+
+		if (index != -1) {
+			name += "_" + index;
+		}
+
+		var frame = new AtlasFrame(index);
+
+		frame.setName(computeFrameName(name, settings));
+		frame.setFrameX(rectX);
+		frame.setFrameY(rectY);
+		frame.setFrameW(rect.regionWidth);
+		frame.setFrameH(rect.regionHeight);
+		frame.setSpriteX(offsetX);
+		frame.setSpriteY(offsetY);
+		frame.setSpriteW(rect.regionWidth);
+		frame.setSpriteH(rect.regionHeight);
+		frame.setSourceW(originalWidth);
+		frame.setSourceH(originalHeight);
+
+		return frame;
+	}
+
+	private static String computeFrameName(String regionName, SettingsBean settings) {
+		IPath path = new Path(regionName);
+
+		path = path.setDevice(null);
+
+		var includeSegments = settings.getIncludeNumberOfFolders() + 1;
+
+		includeSegments = Math.min(includeSegments, path.segmentCount() - 1);
+
+		if (includeSegments < 1) {
+			includeSegments = 1;
+		}
+
+		path = path.removeFirstSegments(path.segmentCount() - includeSegments);
+
+		var frameName = path.removeFileExtension().toPortableString();
+
+		return frameName;
+	}
+
+	private static void paintDuplicatePadding(BufferedImage canvas, BufferedImage image, boolean rotated, int rectX,
+			int rectY, SettingsBean settings) {
+
+		int iw = image.getWidth();
+		int ih = image.getHeight();
+		int amountX = settings.paddingX / 2;
+		int amountY = settings.paddingY / 2;
+
+		if (rotated) {
+			// copy corner pixels to fill corners of the padding
+			for (int i = 1; i <= amountX; i++) {
+				for (int j = 1; j <= amountY; j++) {
+					plot(canvas, rectX - j, rectY + iw - 1 + i, image.getRGB(0, 0));
+					plot(canvas, rectX + ih - 1 + j, rectY + iw - 1 + i, image.getRGB(0, ih - 1));
+					plot(canvas, rectX - j, rectY - i, image.getRGB(iw - 1, 0));
+					plot(canvas, rectX + ih - 1 + j, rectY - i, image.getRGB(iw - 1, ih - 1));
+				}
+			}
+
+			// copy edge pixels into padding
+			for (int i = 1; i <= amountY; i++) {
+				for (int j = 0; j < iw; j++) {
+					plot(canvas, rectX - i, rectY + iw - 1 - j, image.getRGB(j, 0));
+					plot(canvas, rectX + ih - 1 + i, rectY + iw - 1 - j, image.getRGB(j, ih - 1));
+				}
+			}
+
+			for (int i = 1; i <= amountX; i++) {
+				for (int j = 0; j < ih; j++) {
+					plot(canvas, rectX + j, rectY - i, image.getRGB(iw - 1, j));
+					plot(canvas, rectX + j, rectY + iw - 1 + i, image.getRGB(0, j));
+				}
+			}
+		} else {
+			// copy corner pixels to fill corners of the padding
+			for (int i = 1; i <= amountX; i++) {
+				for (int j = 1; j <= amountY; j++) {
+					plot(canvas, rectX - i, rectY - j, image.getRGB(0, 0));
+					plot(canvas, rectX - i, rectY + ih - 1 + j, image.getRGB(0, ih - 1));
+					plot(canvas, rectX + iw - 1 + i, rectY - j, image.getRGB(iw - 1, 0));
+					plot(canvas, rectX + iw - 1 + i, rectY + ih - 1 + j, image.getRGB(iw - 1, ih - 1));
+				}
+			}
+
+			// copy edge pixels into padding
+			for (int i = 1; i <= amountY; i++) {
+				copy(image, 0, 0, iw, 1, canvas, rectX, rectY - i, false);
+				copy(image, 0, ih - 1, iw, 1, canvas, rectX, rectY + ih - 1 + i, false);
+			}
+
+			for (int i = 1; i <= amountX; i++) {
+				copy(image, 0, 0, 1, ih, canvas, rectX - i, rectY, false);
+				copy(image, iw - 1, 0, 1, ih, canvas, rectX + iw - 1 + i, rectY, false);
+			}
+		}
+	}
+
+	private static void plot(BufferedImage dst, int x, int y, int argb) {
+		if (0 <= x && x < dst.getWidth() && 0 <= y && y < dst.getHeight()) {
+			dst.setRGB(x, y, argb);
+		}
+	}
+
+	private static void copy(BufferedImage src, int x, int y, int w, int h, BufferedImage dst, int dx, int dy,
+			boolean rotated) {
+		if (rotated) {
+			for (int i = 0; i < w; i++) {
+				for (int j = 0; j < h; j++) {
+					plot(dst, dx + j, dy + w - i - 1, src.getRGB(x + i, y + j));
+				}
+			}
+		} else {
+			for (int i = 0; i < w; i++) {
+				for (int j = 0; j < h; j++) {
+					plot(dst, dx + i, dy + j, src.getRGB(x + i, y + j));
+				}
+			}
+		}
+	}
+
+	private static int getBufferedImageType(SettingsBean settings) {
+		switch (settings.format) {
+		case RGBA8888:
+		case RGBA4444:
+			return BufferedImage.TYPE_INT_ARGB;
+		case RGB565:
+		case RGB888:
+			return BufferedImage.TYPE_INT_RGB;
+		case Alpha:
+			return BufferedImage.TYPE_BYTE_GRAY;
+		default:
+			throw new RuntimeException("Unsupported format: " + settings.format);
+		}
+	}
+
+	private static int nextPowerOfTwo(int value) {
+		if (value == 0) {
+			return 1;
+		}
+
+		return Integer.highestOneBit(value - 1) << 1;
+	}
+
+	private static void checkSettings(SettingsBean settings) {
+		if (settings.pot) {
+			if (settings.maxWidth > nextPowerOfTwo(settings.maxWidth)) {
+				throw new RuntimeException("If pot is true, maxWidth must be a power of two: " + settings.maxWidth);
+			}
+
+			if (settings.maxHeight > nextPowerOfTwo(settings.maxHeight)) {
+				throw new RuntimeException("If pot is true, maxHeight must be a power of two: " + settings.maxHeight);
+			}
+		}
+	}
+
+	/**
+	 * The name given by LibGDX to the image files: the absolute path without the
+	 * extension.
+	 */
+	private static String computeImageName(IFile file) {
+		var name = file.getLocation().toFile().getAbsolutePath().replace('\\', '/');
+
+		var i = name.lastIndexOf('.');
+
+		if (i != -1) {
+			name = name.substring(0, i);
+		}
+
+		return name;
+	}
+
+	private static String computeSpriteKey(String contentHash, String name, String trimKey) {
+		// nine patches are processed in a different way
+		return contentHash + "|" + name.endsWith(".9") + "|" + trimKey;
+	}
+
+	private String computeInputKey(List<IFile> files, String[] names, SettingsBean settings) {
+		var json = new JSONObject();
+		settings.write(json);
+
+		var sb = new StringBuilder(json.toString());
+
+		for (int i = 0; i < names.length; i++) {
+			sb.append("\n").append(names[i]).append(":")
+					.append(_fileEntries.get(files.get(i).getFullPath()).contentHash);
+		}
+
+		return sb.toString();
+	}
+
+	private static void waitAll(List<Future<?>> futures) throws Exception {
+		try {
+			for (var future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			var cause = e.getCause();
+
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+
+			throw e;
+		}
+	}
+
+	private static String hash(byte[] content) throws Exception {
+		var digest = MessageDigest.getInstance("SHA-1");
+		return toHex(digest.digest(content));
+	}
+
+	private static String hash(BufferedImage image) throws Exception {
+		var digest = MessageDigest.getInstance("SHA-1");
+		var w = image.getWidth();
+		var h = image.getHeight();
+		var row = new int[w];
+		var bytes = new byte[w * 4];
+
+		digest.update(new byte[] { (byte) (w >> 24), (byte) (w >> 16), (byte) (w >> 8), (byte) w });
+		digest.update(new byte[] { (byte) (h >> 24), (byte) (h >> 16), (byte) (h >> 8), (byte) h });
+
+		for (int y = 0; y < h; y++) {
+			image.getRGB(0, y, w, 1, row, 0, w);
+
+			for (int x = 0; x < w; x++) {
+				var argb = row[x];
+				bytes[x * 4] = (byte) (argb >> 24);
+				bytes[x * 4 + 1] = (byte) (argb >> 16);
+				bytes[x * 4 + 2] = (byte) (argb >> 8);
+				bytes[x * 4 + 3] = (byte) argb;
+			}
+
+			digest.update(bytes);
+		}
+
+		return toHex(digest.digest());
+	}
+
+	private static String toHex(byte[] bytes) {
+		var sb = new StringBuilder();
+
+		for (var b : bytes) {
+			sb.append(String.format("%02x", Byte.valueOf(b)));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Encode the images in the PNG format, in parallel.
+	 */
+	public static List<byte[]> encodePNG(List<BufferedImage> images) throws Exception {
+		var result = new byte[images.size()][];
+		var futures = new ArrayList<Future<?>>();
+
+		for (int i = 0; i < images.size(); i++) {
+			var index = i;
+			futures.add(getPool().submit(() -> {
+				var buffer = new ByteArrayOutputStream();
+				ImageIO.write(images.get(index), "png", buffer);
+				result[index] = buffer.toByteArray();
+				return null;
+			}));
+		}
+
+		waitAll(futures);
+
+		return List.of(result);
+	}
+}
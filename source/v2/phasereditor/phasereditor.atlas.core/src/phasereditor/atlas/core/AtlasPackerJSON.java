@@ -0,0 +1,180 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.atlas.core;
+
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Writes the JSON content of the files generated by the texture packer: the
+ * pages section of the packer file and the Phaser atlas files.
+ *
+ * @author arian
+ *
+ */
+public class AtlasPackerJSON {
+
+	/**
+	 * The name of the files of the given page, without the extension.
+	 */
+	public static String getPageName(String atlasName, int pageIndex, int pagesCount) {
+		var name = atlasName;
+
+		if (pagesCount > 1) {
+			name += pageIndex + 1;
+		}
+
+		return name;
+	}
+
+	public static String getPageImageName(String atlasName, int pageIndex, int pagesCount) {
+		return getPageName(atlasName, pageIndex, pagesCount) + ".png";
+	}
+
+	public static String getPageJSONName(String atlasName, int pageIndex, int pagesCount) {
+		return getPageName(atlasName, pageIndex, pagesCount) + ".json";
+	}
+
+	/**
+	 * The <code>pages</code> section of the packer file.
+	 */
+	public static JSONArray toPagesJSON(List<? extends List<? extends AtlasFrame>> pages, SettingsBean settings) {
+		JSONArray jsonPages = new JSONArray();
+
+		for (var page : pages) {
+			JSONObject jsonPage = new JSONObject();
+			jsonPages.put(jsonPage);
+
+			JSONArray jsonFrames = new JSONArray();
+			jsonPage.put("frames", jsonFrames);
+
+			for (var frame : page) {
+				JSONObject jsonFrame = new JSONObject();
+				jsonFrames.put(jsonFrame);
+				writeFrameJsonData(frame, settings, jsonFrame);
+				jsonFrame.put("name", frame.getName());
+				jsonFrame.put("regionIndex", frame.getIndex());
+			}
+		}
+
+		return jsonPages;
+	}
+
+	public static JSONObject toPhaser3MultiatlasJSON(List<? extends List<? extends AtlasFrame>> pages,
+			SettingsBean settings, String atlasName) {
+		JSONObject jsonData = new JSONObject();
+
+		JSONArray jsonTextures = new JSONArray();
+		jsonData.put("textures", jsonTextures);
+
+		int pageIndex = 0;
+		for (var page : pages) {
+			JSONObject jsonTexture = new JSONObject();
+			jsonTextures.put(jsonTexture);
+			jsonTexture.put("image", getPageImageName(atlasName, pageIndex, pages.size()));
+
+			JSONArray jsonFrames = new JSONArray();
+			jsonTexture.put("frames", jsonFrames);
+
+			for (var frame : page) {
+				JSONObject jsonFrame = new JSONObject();
+				jsonFrames.put(jsonFrame);
+
+				jsonFrame.put("filename", frame.getName());
+				writeFrameJsonData(frame, settings, jsonFrame);
+			}
+			pageIndex++;
+		}
+
+		JSONObject meta = new JSONObject();
+		jsonData.put("meta", meta);
+		writeJsonMeta(meta);
+
+		return jsonData;
+	}
+
+	public static JSONObject[] toPhaserHashJSON(List<? extends List<? extends AtlasFrame>> pages,
+			SettingsBean settings, String atlasName) {
+		JSONObject[] list = new JSONObject[pages.size()];
+
+		int i = 0;
+		for (var page : pages) {
+			JSONObject obj = new JSONObject();
+			list[i] = obj;
+
+			JSONObject jsonFrames = new JSONObject();
+			obj.put("frames", jsonFrames);
+
+			for (AtlasFrame frame : page) {
+
+				JSONObject jsonEntry = new JSONObject();
+				jsonFrames.put(frame.getName(), jsonEntry);
+
+				writeFrameJsonData(frame, settings, jsonEntry);
+
+			}
+			JSONObject jsonMeta = new JSONObject();
+			obj.put("meta", jsonMeta);
+
+			jsonMeta.put("image", getPageImageName(atlasName, i, pages.size()));
+
+			writeJsonMeta(jsonMeta);
+
+			i++;
+		}
+
+		return list;
+	}
+
+	private static void writeJsonMeta(JSONObject jsonMeta) {
+		jsonMeta.put("app", "Phaser Editor - Atlas Generator");
+		jsonMeta.put("version", "2");
+	}
+
+	private static void writeFrameJsonData(AtlasFrame frame, SettingsBean settings, JSONObject jsonEntry) {
+		JSONObject jsonFrame = new JSONObject();
+		jsonEntry.put("trimmed", settings.stripWhitespaceX || settings.stripWhitespaceY);
+		jsonEntry.put("rotated", settings.rotation);
+		jsonEntry.put("frame", jsonFrame);
+
+		jsonFrame.put("x", frame.getFrameX());
+		jsonFrame.put("y", frame.getFrameY());
+		jsonFrame.put("w", frame.getFrameW());
+		jsonFrame.put("h", frame.getFrameH());
+
+		JSONObject jsonSpriteSourceSize = new JSONObject();
+		jsonEntry.put("spriteSourceSize", jsonSpriteSourceSize);
+
+		jsonSpriteSourceSize.put("x", frame.getSpriteX());
+		jsonSpriteSourceSize.put("y", frame.getSpriteY());
+		jsonSpriteSourceSize.put("w", frame.getSpriteW());
+		jsonSpriteSourceSize.put("h", frame.getSpriteH());
+
+		JSONObject jsonSourceSize = new JSONObject();
+		jsonEntry.put("sourceSize", jsonSourceSize);
+
+		jsonSourceSize.put("w", frame.getSourceW());
+		jsonSourceSize.put("h", frame.getSourceH());
+	}
+}
@@ -21,6 +21,7 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.atlas.ui.editor;
 
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
 import org.eclipse.core.resources.IFile;
@@ -32,6 +33,7 @@ public class EditorPage extends ArrayList<TexturePackerEditorFrame> implements I
 	private int _index;
 	private TexturePackerEditorModel _model;
 	private Image _image;
+	private BufferedImage _packerImage;
 	private IFile _imageFile;
 
 	public EditorPage(TexturePackerEditorModel model, int index) {
@@ -75,6 +77,18 @@ public class EditorPage extends ArrayList<TexturePackerEditorFrame> implements I
 		return _image;
 	}
 
+	/**
+	 * The image created by the packer, it is <code>null</code> if the page was
+	 * read from the atlas file.
+	 */
+	public BufferedImage getPackerImage() {
+		return _packerImage;
+	}
+
+	public void setPackerImage(BufferedImage packerImage) {
+		_packerImage = packerImage;
+	}
+
 	public void setImageFile(IFile imageFile) {
 		_imageFile = imageFile;
 	}
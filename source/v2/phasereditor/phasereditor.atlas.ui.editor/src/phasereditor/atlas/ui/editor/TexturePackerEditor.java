@@ -25,11 +25,11 @@ import static java.lang.System.out;
 import static phasereditor.ui.PhaserEditorUI.eclipseFileToJavaPath;
 import static phasereditor.ui.PhaserEditorUI.swtRun;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -40,7 +40,6 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceVisitor;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
@@ -89,13 +88,9 @@ import org.eclipse.ui.views.contentoutline.IContentOutlinePage;
 import org.eclipse.ui.views.properties.IPropertySheetPage;
 import org.json.JSONObject;
 
-import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData.Region;
-import com.badlogic.gdx.tools.texturepacker.TexturePacker;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.StringBuilder;
 
+import phasereditor.atlas.core.AtlasPacker;
 import phasereditor.atlas.core.SettingsBean;
 import phasereditor.atlas.ui.AtlasCanvas_Unmanaged;
 import phasereditor.atlas.ui.ITexturePackerEditor;
@@ -120,6 +115,7 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 	private boolean _dirty;
 	private TabFolder _tabsFolder;
 	private List<IFile> _guessLastOutputFiles;
+	private AtlasPacker _packer;
 	private TexturePackerContentOutlinePage _outliner;
 
 	private ISelectionProvider _selectionProvider;
@@ -134,6 +130,7 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 
 	public TexturePackerEditor() {
 		_guessLastOutputFiles = new ArrayList<>();
+		_packer = new AtlasPacker();
 		_fileStampHelper = new EditorFileStampHelper(this, this::reloadMethod, this::saveMethod);
 	}
 
@@ -451,19 +448,7 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 				// build new atlas
 				SettingsBean settings = _model.getSettings();
 
-				TexturePacker packer;
-				try {
-					packer = new TexturePacker(settings);
-				} catch (Exception e) {
-					swtRun(() -> {
-						MessageDialog.openError(getEditorSite().getShell(), "Packer Error", e.getMessage());
-					});
-
-					e.printStackTrace();
-
-					return Status.OK_STATUS;
-				}
-
+				List<IFile> packFiles = new ArrayList<>();
 				List<IFile> missingFiles = new ArrayList<>();
 				List<IFile> oversizedFiles = new ArrayList<>();
 
@@ -479,7 +464,7 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 							if (size[0] > maxWidth || size[1] > maxHeight) {
 								oversizedFiles.add(wsFile);
 							} else {
-								packer.addImage(file);
+								packFiles.add(wsFile);
 							}
 
 						} catch (IOException e) {
@@ -531,23 +516,11 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 				}
 
 				monitor.worked(1);
-				File tempDir = null;
-				try {
-					// create atlas files in temporal folder
-					tempDir = Files.createTempDirectory("PhaserEditor_Atlas_").toFile();
-					String atlasName = _model.getAtlasName();
-					packer.pack(tempDir, atlasName);
-
-					// read generated atlas file
-
-					File libgdxAtlasFile = new File(tempDir, atlasName + ".atlas");
 
-					out.println("Temporal atlas file " + libgdxAtlasFile);
-
-					// out.println(new String(Files.readAllBytes(libgdxAtlasFile.toPath())));
+				try {
+					// pack the images in memory, only the new or modified images are processed
 
-					TextureAtlasData data = new TextureAtlasData(new FileHandle(libgdxAtlasFile),
-							new FileHandle(tempDir), false);
+					var packerPages = _packer.pack(packFiles, settings, monitor);
 
 					// create result model
 
@@ -555,59 +528,23 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 
 					List<EditorPage> newEditorPages = new ArrayList<>();
 
-					ImageLoader loader = new ImageLoader();
-
-					Array<Region> regions = data.getRegions();
-
-					for (TextureAtlasData.Page packerPage : data.getPages()) {
-						File textureFile = packerPage.textureFile.file();
-
-						ImageData[] imgData = loader.load(textureFile.getAbsolutePath());
-						Image img = new Image(Display.getDefault(), imgData[0]);
+					for (var packerPage : packerPages) {
+						Image img = new Image(Display.getDefault(),
+								PhaserEditorUI.image_Swing_Pixels_To_ImageData(packerPage.getImage()));
 
 						int index = newEditorPages.size();
 						EditorPage newEditorPage = new EditorPage(_model, index);
 
 						newEditorPage.setImage(img);
+						newEditorPage.setPackerImage(packerPage.getImage());
 
-						for (Region region : regions) {
-							if (region.page == packerPage) {
-
-								String regionFilename = region.name;
-								if (region.index != -1) {
-									regionFilename += "_" + region.index;
-								}
-
-								TexturePackerEditorFrame frame = new TexturePackerEditorFrame(region.index,
-										newEditorPage);
-
-								var frameName = computeFrameName(regionFilename);
-
-								frame.setName(frameName);
-								frame.setFrameX(region.left);
-								frame.setFrameY(region.top);
-								frame.setFrameW(region.width);
-								frame.setFrameH(region.height);
+						for (var packerFrame : packerPage.getFrames()) {
+							TexturePackerEditorFrame frame = new TexturePackerEditorFrame(packerFrame.getIndex(),
+									newEditorPage);
 
-								// todo: only if trimmed!
-								frame.setSpriteX((int) (region.offsetX));
-
-								// this happens when white spaces are stripped!
-								if (region.offsetY != 0) {
-									// LibGDX uses the OpenGL Y order (from
-									// bottom to top)
-									frame.setSpriteY((int) (region.originalHeight - region.offsetY - region.height));
-								}
-
-								frame.setSpriteW(region.width);
-								frame.setSpriteH(region.height);
-
-								frame.setSourceW(region.originalWidth);
-								frame.setSourceH(region.originalHeight);
-
-								newEditorPage.add(frame);
-							}
+							frame.update(packerFrame);
 
+							newEditorPage.add(frame);
 						}
 
 						if (settings.useIndexes) {
@@ -650,11 +587,6 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 							}
 						}
 					});
-				} catch (
-
-				IOException e) {
-					e.printStackTrace();
-					throw new RuntimeException(e);
 				} catch (Exception e) {
 					e.printStackTrace();
 					swtRun(new Runnable() {
@@ -664,44 +596,12 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 							MessageDialog.openError(getEditorSite().getShell(), "Build Atlas", e.getMessage());
 						}
 					});
-				} finally {
-					try {
-						// delete temporal files
-						if (tempDir != null) {
-							for (File f : tempDir.listFiles()) {
-								f.delete();
-							}
-							tempDir.delete();
-						}
-					} catch (Exception e) {
-						e.printStackTrace();
-					}
 				}
 
 				return Status.OK_STATUS;
 
 			}
 
-			private String computeFrameName(String filename) {
-				IPath path = new Path(filename);
-
-				path = path.setDevice(null);
-
-				var includeSegments = _model.getSettings().getIncludeNumberOfFolders() + 1;
-
-				includeSegments = Math.min(includeSegments, path.segmentCount() - 1);
-
-				if (includeSegments < 1) {
-					includeSegments = 1;
-				}
-
-				path = path.removeFirstSegments(path.segmentCount() - includeSegments);
-
-				var frameName = path.removeFileExtension().toPortableString();
-
-				return frameName;
-			}
-
 		};
 
 		job.setUser(true);
@@ -727,17 +627,40 @@ public class TexturePackerEditor extends EditorPart implements IEditorSharedImag
 			List<IFile> toDelete = new ArrayList<>(_guessLastOutputFiles);
 
 			{
+				// encode the packed images in parallel
+				List<BufferedImage> packerImages = new ArrayList<>();
+				for (EditorPage page : _model.getPages()) {
+					if (page.getPackerImage() != null) {
+						packerImages.add(page.getPackerImage());
+					}
+				}
+
+				List<byte[]> packerImagesData;
+				try {
+					packerImagesData = AtlasPacker.encodePNG(packerImages);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+
 				// save image
 				int i = 0;
+				int packerImageIndex = 0;
 				for (EditorPage page : _model.getPages()) {
 					String atlasImageName = _model.getAtlasImageName(i);
 					IFile file = _model.getFile().getParent().getFile(new Path(atlasImageName));
 					page.setImageFile(file);
-					ImageLoader loader = new ImageLoader();
-					loader.data = new ImageData[] { page.getImage().getImageData() };
-					ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-					loader.save(buffer, SWT.IMAGE_PNG);
-					ByteArrayInputStream source = new ByteArrayInputStream(buffer.toByteArray());
+					byte[] data;
+					if (page.getPackerImage() == null) {
+						// the page was read from the file and was not packed again
+						ImageLoader loader = new ImageLoader();
+						loader.data = new ImageData[] { page.getImage().getImageData() };
+						ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+						loader.save(buffer, SWT.IMAGE_PNG);
+						data = buffer.toByteArray();
+					} else {
+						data = packerImagesData.get(packerImageIndex++);
+					}
+					ByteArrayInputStream source = new ByteArrayInputStream(data);
 					if (file.exists()) {
 						file.setContents(source, true, false, monitor);
 					} else {
@@ -46,6 +46,7 @@ import org.json.JSONObject;
 import org.json.JSONTokener;
 
 import phasereditor.atlas.core.AtlasFrame;
+import phasereditor.atlas.core.AtlasPackerJSON;
 import phasereditor.atlas.core.SettingsBean;
 import phasereditor.ui.PhaserEditorUI;
 
@@ -234,147 +235,32 @@ public class TexturePackerEditorModel implements IAdaptable {
 		}
 
 		{
-			JSONArray jsonPages = new JSONArray();
-			obj.put("pages", jsonPages);
-			for (EditorPage page : _pages) {
-				JSONObject jsonPage = new JSONObject();
-				jsonPages.put(jsonPage);
-
-				// we don't need this anymore, the image should be comupted from the number of
-				// the page.
-
-				// jsonPage.put("imageFile", page.getImageFile().getName());
-				JSONArray jsonFrames = new JSONArray();
-				jsonPage.put("frames", jsonFrames);
-
-				for (TexturePackerEditorFrame frame : page) {
-					JSONObject jsonFrame = new JSONObject();
-					jsonFrames.put(jsonFrame);
-					writeFrameJsonData(frame, jsonFrame);
-					jsonFrame.put("name", frame.getName());
-					jsonFrame.put("regionIndex", frame.getIndex());
-				}
-			}
+			obj.put("pages", AtlasPackerJSON.toPagesJSON(_pages, _settings));
 		}
 
 		return obj;
 	}
 
 	public JSONObject toPhaser3MultiatlasJSON() {
-		JSONObject jsonData = new JSONObject();
-
-		JSONArray jsonTextures = new JSONArray();
-		jsonData.put("textures", jsonTextures);
-
-		int pageIndex = 0;
-		for (EditorPage page : _pages) {
-			JSONObject jsonTexture = new JSONObject();
-			jsonTextures.put(jsonTexture);
-			jsonTexture.put("image", getAtlasImageName(pageIndex));
-
-			JSONArray jsonFrames = new JSONArray();
-			jsonTexture.put("frames", jsonFrames);
-
-			for (TexturePackerEditorFrame frame : page) {
-				JSONObject jsonFrame = new JSONObject();
-				jsonFrames.put(jsonFrame);
-
-				jsonFrame.put("filename", frame.getName());
-				writeFrameJsonData(frame, jsonFrame);
-			}
-			pageIndex++;
-		}
-
-		JSONObject meta = new JSONObject();
-		jsonData.put("meta", meta);
-		writeJsonMeta(meta);
-
-		return jsonData;
+		return AtlasPackerJSON.toPhaser3MultiatlasJSON(_pages, _settings, getAtlasName());
 	}
 
 	public JSONObject[] toPhaserHashJSON() {
-		JSONObject[] list = new JSONObject[_pages.size()];
-
-		int i = 0;
-		for (EditorPage page : _pages) {
-			JSONObject obj = new JSONObject();
-			list[i] = obj;
-
-			JSONObject jsonFrames = new JSONObject();
-			obj.put("frames", jsonFrames);
-
-			for (AtlasFrame frame : page) {
-
-				JSONObject jsonEntry = new JSONObject();
-				jsonFrames.put(frame.getName(), jsonEntry);
-
-				writeFrameJsonData(frame, jsonEntry);
-
-			}
-			JSONObject jsonMeta = new JSONObject();
-			obj.put("meta", jsonMeta);
-
-			jsonMeta.put("image", getAtlasImageName(i));
-
-			writeJsonMeta(jsonMeta);
-
-			i++;
-		}
-
-		return list;
-	}
-
-	private static void writeJsonMeta(JSONObject jsonMeta) {
-		jsonMeta.put("app", "Phaser Editor - Atlas Generator");
-		jsonMeta.put("version", "2");
-	}
-
-	private void writeFrameJsonData(AtlasFrame frame, JSONObject jsonEntry) {
-		JSONObject jsonFrame = new JSONObject();
-		jsonEntry.put("trimmed", _settings.stripWhitespaceX || _settings.stripWhitespaceY);
-		jsonEntry.put("rotated", _settings.rotation);
-		jsonEntry.put("frame", jsonFrame);
-
-		jsonFrame.put("x", frame.getFrameX());
-		jsonFrame.put("y", frame.getFrameY());
-		jsonFrame.put("w", frame.getFrameW());
-		jsonFrame.put("h", frame.getFrameH());
-
-		JSONObject jsonSpriteSourceSize = new JSONObject();
-		jsonEntry.put("spriteSourceSize", jsonSpriteSourceSize);
-
-		jsonSpriteSourceSize.put("x", frame.getSpriteX());
-		jsonSpriteSourceSize.put("y", frame.getSpriteY());
-		jsonSpriteSourceSize.put("w", frame.getSpriteW());
-		jsonSpriteSourceSize.put("h", frame.getSpriteH());
-
-		JSONObject jsonSourceSize = new JSONObject();
-		jsonEntry.put("sourceSize", jsonSourceSize);
-
-		jsonSourceSize.put("w", frame.getSourceW());
-		jsonSourceSize.put("h", frame.getSourceH());
+		return AtlasPackerJSON.toPhaserHashJSON(_pages, _settings, getAtlasName());
 	}
 
 	public String getAtlasImageName(int i) {
-		return getName(i) + ".png";
+		return AtlasPackerJSON.getPageImageName(getAtlasName(), i, _pages.size());
 	}
 
 	public String getAtlasJSONName(int i) {
-		return getName(i) + ".json";
+		return AtlasPackerJSON.getPageJSONName(getAtlasName(), i, _pages.size());
 	}
 
 	public String getAtlasName() {
 		return PhaserEditorUI.getNameFromFilename(_file.getName());
 	}
 
-	private String getName(int i) {
-		String name = getAtlasName();
-		if (_pages.size() > 1) {
-			name += i + 1;
-		}
-		return name;
-	}
-
 	public List<IFile> guessOutputFiles() {
 		IContainer parent = _file.getParent();
 		List<IFile> list = new ArrayList<>();
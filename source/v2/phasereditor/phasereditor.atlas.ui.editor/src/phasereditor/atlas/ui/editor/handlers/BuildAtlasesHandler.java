@@ -0,0 +1,111 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.atlas.ui.editor.handlers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.handlers.HandlerUtil;
+
+import phasereditor.atlas.core.AtlasBatchBuilder;
+import phasereditor.atlas.core.AtlasCore;
+
+/**
+ * Builds all the atlas files of the selected resources, without opening them
+ * in the editor.
+ *
+ * @author arian
+ *
+ */
+public class BuildAtlasesHandler extends AbstractHandler {
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		var shell = HandlerUtil.getActiveShell(event);
+		var selection = HandlerUtil.getCurrentSelection(event);
+
+		List<IFile> atlasFiles = new ArrayList<>();
+		Set<IProject> projects = new LinkedHashSet<>();
+
+		if (selection instanceof IStructuredSelection) {
+			for (Object elem : ((IStructuredSelection) selection).toArray()) {
+				IResource root = Platform.getAdapterManager().getAdapter(elem, IResource.class);
+
+				if (root == null) {
+					continue;
+				}
+
+				try {
+					root.accept(resource -> {
+						if (resource instanceof IFile && AtlasCore.getAtlasFileCache().isCachedFile((IFile) resource)
+								&& !atlasFiles.contains(resource)) {
+							atlasFiles.add((IFile) resource);
+							projects.add(resource.getProject());
+						}
+						return true;
+					});
+				} catch (CoreException e) {
+					throw new ExecutionException(e.getMessage(), e);
+				}
+			}
+		}
+
+		if (atlasFiles.isEmpty()) {
+			MessageDialog.openInformation(shell, "Build Atlases", "No atlas files selected.");
+			return null;
+		}
+
+		var job = new WorkspaceJob("Build atlases") {
+
+			@Override
+			public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
+				AtlasBatchBuilder.build(atlasFiles, false, monitor);
+
+				return Status.OK_STATUS;
+			}
+		};
+
+		job.setRule(MultiRule.combine(projects.toArray(new IProject[projects.size()])));
+		job.setUser(true);
+		job.schedule();
+
+		return null;
+	}
+
+}
@@ -30,11 +30,16 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IFile;
@@ -74,6 +79,21 @@ public class AudioCore {
 
 	private static Path _silencePath;
 
+	// the peaks loaded in memory, for the paint methods
+	private static Map<IFile, LoadedPeaks> _loadedPeaksMap = new ConcurrentHashMap<>();
+	private static Map<IFile, List<Runnable>> _loadingPeaksMap = new ConcurrentHashMap<>();
+	private static ExecutorService _peaksPool;
+
+	private static class LoadedPeaks {
+		long stamp;
+		AudioPeaks peaks;
+
+		public LoadedPeaks(long stamp, AudioPeaks peaks) {
+			this.stamp = stamp;
+			this.peaks = peaks;
+		}
+	}
+
 
 	public static boolean isSupportedAudio(IFile file) {
 		return isSupportedAudio(file.getLocation().toFile());
@@ -207,6 +227,14 @@ public class AudioCore {
 	}
 
 	public static double getSoundDuration(Path file) {
+		if (AudioPeaks.isSupported(file)) {
+			try {
+				return AudioPeaks.computeDuration(file);
+			} catch (Exception e) {
+				out.println("AudioCore: cannot read the duration of " + file + " in Java: " + e.getMessage());
+			}
+		}
+
 		String path = file.toFile().getAbsolutePath();
 		ProcessBuilder pb = AudioCore.createFFProbeProcessBuilder("-v", "quiet", "-hide_banner", "-show_format",
 				"-print_format", "json", path);
@@ -302,10 +330,162 @@ public class AudioCore {
 		}
 	}
 
+	private static Path getSoundPeaksFile(Path wavesFile) {
+		var name = wavesFile.getFileName().toString();
+		return wavesFile.resolveSibling(name.substring(0, name.length() - 4) + ".peaks");
+	}
+
+	/**
+	 * Get the peaks of the sound, to render the waveform at any zoom. They are
+	 * computed in Java, so only the WAV files are supported.
+	 * 
+	 * @return The peaks, or <code>null</code> if the format of the file is not
+	 *         supported.
+	 */
+	public synchronized static AudioPeaks getSoundPeaks(IFile file) {
+		var wavesFile = getSoundWavesFile(file, false);
+
+		if (wavesFile == null) {
+			return null;
+		}
+
+		var peaksFile = getSoundPeaksFile(wavesFile);
+
+		if (Files.exists(peaksFile)) {
+			try {
+				return AudioPeaks.read(peaksFile);
+			} catch (IOException e) {
+				out.println("AudioCore: cannot read " + peaksFile + ": " + e.getMessage());
+			}
+		}
+
+		return makeSoundPeaks(file, peaksFile);
+	}
+
+	/**
+	 * Like {@link #getSoundPeaks(IFile)} but it never reads or decodes a file in
+	 * the caller thread, so it can be called by the paint methods. If the peaks are
+	 * not loaded in memory, they are loaded in background and the
+	 * <code>onLoaded</code> callback is called, in the background thread, when
+	 * they are ready.
+	 * 
+	 * @return The peaks, or <code>null</code> if they are not ready (see
+	 *         {@link #isSoundPeaksLoading(IFile)}) or the file is not supported.
+	 */
+	public static AudioPeaks getSoundPeaksAsync(IFile file, Runnable onLoaded) {
+		if (file == null || !AudioPeaks.isSupported(Paths.get(file.getName()))) {
+			return null;
+		}
+
+		var stamp = file.getModificationStamp();
+		var loaded = _loadedPeaksMap.get(file);
+
+		if (loaded != null && loaded.stamp == stamp) {
+			return loaded.peaks;
+		}
+
+		var schedule = false;
+
+		synchronized (_loadingPeaksMap) {
+			var callbacks = _loadingPeaksMap.get(file);
+
+			if (callbacks == null) {
+				callbacks = new ArrayList<>();
+				_loadingPeaksMap.put(file, callbacks);
+				schedule = true;
+			}
+
+			if (onLoaded != null) {
+				callbacks.add(onLoaded);
+			}
+		}
+
+		if (schedule) {
+			getPeaksPool().execute(() -> loadSoundPeaks(file, stamp));
+		}
+
+		return null;
+	}
+
+	/**
+	 * If the peaks of the file are being loaded by
+	 * {@link #getSoundPeaksAsync(IFile, Runnable)}.
+	 */
+	public static boolean isSoundPeaksLoading(IFile file) {
+		return _loadingPeaksMap.containsKey(file);
+	}
+
+	private static void loadSoundPeaks(IFile file, long stamp) {
+		AudioPeaks peaks = null;
+
+		try {
+			if (file.exists()) {
+				peaks = getSoundPeaks(file);
+			}
+		} catch (Exception e) {
+			logError(e);
+		}
+
+		_loadedPeaksMap.put(file, new LoadedPeaks(stamp, peaks));
+
+		List<Runnable> callbacks;
+
+		synchronized (_loadingPeaksMap) {
+			callbacks = _loadingPeaksMap.remove(file);
+		}
+
+		if (callbacks != null) {
+			for (var callback : callbacks) {
+				callback.run();
+			}
+		}
+	}
+
+	private static synchronized ExecutorService getPeaksPool() {
+		if (_peaksPool == null) {
+			_peaksPool = Executors.newSingleThreadExecutor(r -> {
+				var thread = new Thread(r, "AudioCore Peaks Loader");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return _peaksPool;
+	}
+
+	private static AudioPeaks makeSoundPeaks(IFile file, Path peaksFile) {
+		var soundPath = eclipseFileToJavaPath(file);
+
+		if (!AudioPeaks.isSupported(soundPath)) {
+			return null;
+		}
+
+		try {
+			var peaks = AudioPeaks.compute(soundPath);
+
+			peaks.write(peaksFile);
+
+			// the duration is computed in the same pass
+			file.setPersistentProperty(DURATION_KEY, Double.toString(peaks.getDuration()));
+
+			return peaks;
+		} catch (Exception e) {
+			out.println("AudioCore: cannot compute the peaks of " + file + ": " + e.getMessage());
+			return null;
+		}
+	}
+
 	private static void makeSoundWaves(IFile file, Path path) throws IOException {
 		out.println("Make waves " + file);
 		Files.createDirectories(path.getParent());
 
+		var peaks = getSoundPeaks(file);
+
+		if (peaks != null) {
+			peaks.writeImage(path, 800, 600);
+			return;
+		}
+
 		String soundPath = eclipseFileToJavaPath(file).toString();
 
 		ProcessBuilder pb = createFFMpegProcessBuilder("-i", soundPath, "-lavfi",
@@ -343,7 +523,8 @@ public class AudioCore {
 			String value = file.getPersistentProperty(DURATION_KEY);
 
 			if (value == null) {
-				double duration = computeAudioDuration(file);
+				var peaks = getSoundPeaks(file);
+				double duration = peaks == null ? computeAudioDuration(file) : peaks.getDuration();
 				value = Double.toString(duration);
 				file.setPersistentProperty(DURATION_KEY, value);
 				return duration;
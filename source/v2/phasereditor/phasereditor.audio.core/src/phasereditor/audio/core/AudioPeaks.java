@@ -0,0 +1,428 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.audio.core;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat.Encoding;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * The min/max peaks of a sound, in many resolutions. The finest level has a
+ * peak every {@link #BASE_FRAMES_PER_PEAK} frames, and every next level merges
+ * two peaks of the previous one. The peaks are computed by decoding the PCM
+ * samples in Java, in a single pass that also gives the duration of the
+ * sound, and are stored with a byte per value.
+ * 
+ * @author arian
+ *
+ */
+public class AudioPeaks {
+
+	private static final int MAGIC = 0x5045414B;
+	private static final int VERSION = 1;
+
+	public static final int BASE_FRAMES_PER_PEAK = 64;
+	private static final int MIN_LEVEL_PEAKS = 64;
+
+	/**
+	 * The colors of the channels, the same of the FFMpeg
+	 * <code>showwavespic</code> filter.
+	 */
+	private static final Color[] CHANNEL_COLORS = { Color.red, Color.green, Color.blue, Color.yellow, Color.orange,
+			new Color(0x00ff00), Color.pink, Color.magenta, new Color(0xa52a2a) };
+
+	private float _sampleRate;
+	private int _channels;
+	private long _frames;
+
+	/**
+	 * The levels. Every level has an array per channel, with a min and a max value
+	 * per peak.
+	 */
+	private List<byte[][]> _levels;
+
+	private AudioPeaks(float sampleRate, int channels, long frames, List<byte[][]> levels) {
+		_sampleRate = sampleRate;
+		_channels = channels;
+		_frames = frames;
+		_levels = levels;
+	}
+
+	public float getSampleRate() {
+		return _sampleRate;
+	}
+
+	public int getChannels() {
+		return _channels;
+	}
+
+	public long getFrames() {
+		return _frames;
+	}
+
+	/**
+	 * The duration of the sound, in seconds.
+	 */
+	public double getDuration() {
+		return _frames / (double) _sampleRate;
+	}
+
+	public int getLevelCount() {
+		return _levels.size();
+	}
+
+	public static int getFramesPerPeak(int level) {
+		return BASE_FRAMES_PER_PEAK << level;
+	}
+
+	/**
+	 * If the file could be decoded in Java. The other formats are processed with
+	 * FFMpeg.
+	 */
+	public static boolean isSupported(Path file) {
+		return file.getFileName().toString().toLowerCase().endsWith(".wav");
+	}
+
+	/**
+	 * Compute the duration of the sound, in seconds, reading only the header of
+	 * the file.
+	 */
+	public static double computeDuration(Path file) throws IOException, UnsupportedAudioFileException {
+		var fileFormat = AudioSystem.getAudioFileFormat(file.toFile());
+		var frames = fileFormat.getFrameLength();
+
+		if (frames == AudioSystem.NOT_SPECIFIED) {
+			throw new UnsupportedAudioFileException("Unknown length of " + file);
+		}
+
+		return frames / (double) fileFormat.getFormat().getFrameRate();
+	}
+
+	public static AudioPeaks compute(Path file) throws IOException, UnsupportedAudioFileException {
+		try (var input = AudioSystem.getAudioInputStream(file.toFile())) {
+			var format = input.getFormat();
+			var encoding = format.getEncoding();
+			var bits = format.getSampleSizeInBits();
+			var channels = format.getChannels();
+			var sampleBytes = bits / 8;
+			var frameSize = format.getFrameSize();
+
+			var signed = encoding.equals(Encoding.PCM_SIGNED);
+			var floating = encoding.equals(Encoding.PCM_FLOAT);
+
+			if (!signed && !floating && !encoding.equals(Encoding.PCM_UNSIGNED) || bits % 8 != 0
+					|| frameSize != sampleBytes * channels || floating && sampleBytes != 4 && sampleBytes != 8) {
+				throw new UnsupportedAudioFileException("Unsupported format " + format);
+			}
+
+			var bigEndian = format.isBigEndian();
+			var expectedFrames = input.getFrameLength();
+			var capacity = expectedFrames == AudioSystem.NOT_SPECIFIED ? 1024
+					: (int) Math.min(Integer.MAX_VALUE / 2, expectedFrames / BASE_FRAMES_PER_PEAK + 1);
+
+			var peaks = new byte[channels][capacity * 2];
+			var mins = new float[channels];
+			var maxs = new float[channels];
+
+			Arrays.fill(mins, Float.MAX_VALUE);
+			Arrays.fill(maxs, -Float.MAX_VALUE);
+
+			var buf = new byte[frameSize * 4096];
+			var pending = 0;
+			long frames = 0;
+			var count = 0;
+			var bucketFrames = 0;
+
+			int n;
+
+			while ((n = input.read(buf, pending, buf.length - pending)) > 0) {
+				var len = pending + n;
+				var off = 0;
+
+				for (; off + frameSize <= len; off += frameSize) {
+
+					for (int c = 0; c < channels; c++) {
+						var value = decodeSample(buf, off + c * sampleBytes, sampleBytes, bigEndian, signed, floating);
+
+						if (value < mins[c]) {
+							mins[c] = value;
+						}
+
+						if (value > maxs[c]) {
+							maxs[c] = value;
+						}
+					}
+
+					frames++;
+					bucketFrames++;
+
+					if (bucketFrames == BASE_FRAMES_PER_PEAK) {
+						peaks = addPeak(peaks, count++, mins, maxs);
+						bucketFrames = 0;
+					}
+				}
+
+				// keep the bytes of an incomplete frame
+				pending = len - off;
+				System.arraycopy(buf, off, buf, 0, pending);
+			}
+
+			if (bucketFrames > 0) {
+				peaks = addPeak(peaks, count++, mins, maxs);
+			}
+
+			if (frames == 0) {
+				throw new IOException("Empty sound " + file);
+			}
+
+			for (int c = 0; c < channels; c++) {
+				peaks[c] = Arrays.copyOf(peaks[c], count * 2);
+			}
+
+			return new AudioPeaks(format.getFrameRate(), channels, frames, buildLevels(peaks));
+		}
+	}
+
+	private static byte[][] addPeak(byte[][] peaks, int index, float[] mins, float[] maxs) {
+		var result = peaks;
+
+		if (index * 2 == result[0].length) {
+			result = new byte[peaks.length][];
+			for (int c = 0; c < peaks.length; c++) {
+				result[c] = Arrays.copyOf(peaks[c], peaks[c].length * 2);
+			}
+		}
+
+		for (int c = 0; c < mins.length; c++) {
+			result[c][index * 2] = quantize(mins[c]);
+			result[c][index * 2 + 1] = quantize(maxs[c]);
+			mins[c] = Float.MAX_VALUE;
+			maxs[c] = -Float.MAX_VALUE;
+		}
+
+		return result;
+	}
+
+	private static byte quantize(float value) {
+		return (byte) Math.round(Math.max(-1, Math.min(1, value)) * 127);
+	}
+
+	private static float decodeSample(byte[] buf, int off, int bytes, boolean bigEndian, boolean signed,
+			boolean floating) {
+		long v = 0;
+
+		for (int i = 0; i < bytes; i++) {
+			var b = buf[off + (bigEndian ? i : bytes - 1 - i)] & 0xff;
+			v = v << 8 | b;
+		}
+
+		if (floating) {
+			return bytes == 4 ? Float.intBitsToFloat((int) v) : (float) Double.longBitsToDouble(v);
+		}
+
+		var bits = bytes * 8;
+		var half = (float) (1L << bits - 1);
+
+		if (signed) {
+			v = v << 64 - bits >> 64 - bits;
+			return v / half;
+		}
+
+		return (v - half) / half;
+	}
+
+	private static List<byte[][]> buildLevels(byte[][] base) {
+		var levels = new ArrayList<byte[][]>();
+		levels.add(base);
+
+		var level = base;
+
+		while (level[0].length / 2 > MIN_LEVEL_PEAKS) {
+			var count = level[0].length / 2;
+			var next = new byte[level.length][(count + 1) / 2 * 2];
+
+			for (int c = 0; c < level.length; c++) {
+				var src = level[c];
+				var dst = next[c];
+
+				for (int i = 0; i < count; i += 2) {
+					var min = src[i * 2];
+					var max = src[i * 2 + 1];
+
+					if (i + 1 < count) {
+						min = (byte) Math.min(min, src[i * 2 + 2]);
+						max = (byte) Math.max(max, src[i * 2 + 3]);
+					}
+
+					dst[i] = min;
+					dst[i + 1] = max;
+				}
+			}
+
+			levels.add(next);
+			level = next;
+		}
+
+		return levels;
+	}
+
+	/**
+	 * Compute the min and max values of the given channel for every column of a
+	 * waveform of the given width. It uses the coarsest level with enough
+	 * resolution, so it is cheap at any zoom.
+	 * 
+	 * @return An array with the min and max values of every column, in the range
+	 *         <code>[-1, 1]</code>.
+	 */
+	public float[] computeColumns(int channel, long startFrame, long endFrame, int width) {
+		var columns = new float[width * 2];
+		var framesPerColumn = (endFrame - startFrame) / (double) width;
+
+		var level = 0;
+
+		while (level + 1 < _levels.size() && getFramesPerPeak(level + 1) <= framesPerColumn) {
+			level++;
+		}
+
+		var peaks = _levels.get(level)[channel];
+		var count = peaks.length / 2;
+		var framesPerPeak = getFramesPerPeak(level);
+
+		for (int x = 0; x < width; x++) {
+			var first = (int) ((startFrame + x * framesPerColumn) / framesPerPeak);
+			var last = (int) Math.ceil((startFrame + (x + 1) * framesPerColumn) / framesPerPeak);
+
+			first = Math.max(0, Math.min(count - 1, first));
+			last = Math.max(first + 1, Math.min(count, last));
+
+			int min = Byte.MAX_VALUE;
+			int max = Byte.MIN_VALUE;
+
+			for (int i = first; i < last; i++) {
+				min = Math.min(min, peaks[i * 2]);
+				max = Math.max(max, peaks[i * 2 + 1]);
+			}
+
+			columns[x * 2] = min / 127f;
+			columns[x * 2 + 1] = max / 127f;
+		}
+
+		return columns;
+	}
+
+	/**
+	 * Render the waveform of all the sound in a PNG image, with a row per channel.
+	 */
+	public void writeImage(Path file, int width, int height) throws IOException {
+		var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		var g2 = image.createGraphics();
+
+		try {
+			var rowHeight = height / (double) _channels;
+
+			for (int c = 0; c < _channels; c++) {
+				var columns = computeColumns(c, 0, _frames, width);
+				var center = rowHeight * c + rowHeight / 2;
+				var scale = rowHeight / 2;
+
+				g2.setColor(CHANNEL_COLORS[c % CHANNEL_COLORS.length]);
+
+				for (int x = 0; x < width; x++) {
+					var y1 = (int) Math.round(center - columns[x * 2 + 1] * scale);
+					var y2 = (int) Math.round(center - columns[x * 2] * scale);
+					g2.drawLine(x, y1, x, y2);
+				}
+			}
+		} finally {
+			g2.dispose();
+		}
+
+		var tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+		if (!ImageIO.write(image, "png", tempFile.toFile())) {
+			throw new IOException("Cannot write " + file);
+		}
+
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public void write(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+
+		var tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeFloat(_sampleRate);
+			output.writeInt(_channels);
+			output.writeLong(_frames);
+
+			// only the finest level is stored, the others are computed on read
+			var base = _levels.get(0);
+
+			output.writeInt(base[0].length / 2);
+
+			for (var peaks : base) {
+				output.write(peaks);
+			}
+		}
+
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public static AudioPeaks read(Path file) throws IOException {
+		try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new IOException("Invalid peaks file " + file);
+			}
+
+			var sampleRate = input.readFloat();
+			var channels = input.readInt();
+			var frames = input.readLong();
+			var count = input.readInt();
+
+			var base = new byte[channels][count * 2];
+
+			for (var peaks : base) {
+				input.readFully(peaks);
+			}
+
+			return new AudioPeaks(sampleRate, channels, frames, buildLevels(base));
+		}
+	}
+}
@@ -28,6 +28,7 @@ import org.eclipse.swt.widgets.Canvas;
 import phasereditor.audio.core.AudioCore;
 import phasereditor.ui.ICanvasCellRenderer;
 import phasereditor.ui.ImageProxy;
+import phasereditor.ui.PhaserEditorUI;
 
 /**
  * @author arian
@@ -45,6 +46,27 @@ public class AudioCellRenderer implements ICanvasCellRenderer {
 
 	@Override
 	public void render(Canvas canvas, GC gc, int x, int y, int width, int height) {
+		var peaks = AudioCore.getSoundPeaksAsync(_audioFile, () -> PhaserEditorUI.swtRunRedraw(canvas));
+
+		if (peaks != null || AudioCore.isSoundPeaksLoading(_audioFile)) {
+			gc.setAlpha(150);
+
+			var x2 = x + _padding;
+			var y2 = y + _padding;
+			var width2 = width - _padding * 2;
+			var height2 = height - _padding * 2;
+
+			if (peaks == null) {
+				AudioPeaksRenderer.paintPlaceholder(gc, x2, y2, width2, height2);
+			} else {
+				AudioPeaksRenderer.paint(gc, peaks, x2, y2, width2, height2);
+			}
+
+			gc.setAlpha(255);
+
+			return;
+		}
+
 		var imgFile = AudioCore.getSoundWavesFile(_audioFile).toFile();
 
 		var proxy = ImageProxy.get(imgFile, null);
@@ -0,0 +1,112 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.audio.ui;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.widgets.Display;
+
+import phasereditor.audio.core.AudioPeaks;
+
+/**
+ * Paints the waveform of a sound from its peaks, at the size of the
+ * destination area, so it is sharp at any size and it does not need the
+ * waveform image.
+ *
+ * @author arian
+ *
+ */
+public class AudioPeaksRenderer {
+
+	/**
+	 * The colors of the channels, the same of the waveform image.
+	 */
+	private static final int[] CHANNEL_COLORS = { SWT.COLOR_RED, SWT.COLOR_GREEN, SWT.COLOR_BLUE, SWT.COLOR_YELLOW,
+			SWT.COLOR_MAGENTA, SWT.COLOR_CYAN };
+
+	/**
+	 * Paint the waveform of all the sound.
+	 */
+	public static void paint(GC gc, AudioPeaks peaks, int x, int y, int width, int height) {
+		paintFrames(gc, peaks, 0, peaks.getFrames(), x, y, width, height);
+	}
+
+	/**
+	 * Paint the waveform of a section of the sound.
+	 *
+	 * @param start
+	 *            The start of the section, in seconds.
+	 * @param end
+	 *            The end of the section, in seconds.
+	 */
+	public static void paint(GC gc, AudioPeaks peaks, double start, double end, int x, int y, int width,
+			int height) {
+		var rate = peaks.getSampleRate();
+		var frames = peaks.getFrames();
+		var startFrame = Math.max(0, Math.min(frames, (long) (start * rate)));
+		var endFrame = Math.max(0, Math.min(frames, (long) (end * rate)));
+
+		paintFrames(gc, peaks, startFrame, endFrame, x, y, width, height);
+	}
+
+	/**
+	 * Paint a flat line, while the peaks are loaded.
+	 */
+	public static void paintPlaceholder(GC gc, int x, int y, int width, int height) {
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+
+		var center = y + height / 2;
+
+		gc.drawLine(x, center, x + width - 1, center);
+	}
+
+	private static void paintFrames(GC gc, AudioPeaks peaks, long startFrame, long endFrame, int x, int y,
+			int width, int height) {
+
+		if (width <= 0 || height <= 0 || endFrame <= startFrame) {
+			return;
+		}
+
+		var display = Display.getCurrent();
+		var channels = peaks.getChannels();
+		var rowHeight = height / (double) channels;
+		var fg = gc.getForeground();
+
+		for (int c = 0; c < channels; c++) {
+			var columns = peaks.computeColumns(c, startFrame, endFrame, width);
+			var center = y + rowHeight * c + rowHeight / 2;
+			var scale = rowHeight / 2;
+
+			gc.setForeground(display.getSystemColor(CHANNEL_COLORS[c % CHANNEL_COLORS.length]));
+
+			for (int i = 0; i < width; i++) {
+				var y1 = (int) Math.round(center - columns[i * 2 + 1] * scale);
+				var y2 = (int) Math.round(center - columns[i * 2] * scale);
+				gc.drawLine(x + i, y1, x + i, y2);
+			}
+		}
+
+		gc.setForeground(fg);
+	}
+}
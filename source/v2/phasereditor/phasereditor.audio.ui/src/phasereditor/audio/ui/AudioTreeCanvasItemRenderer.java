@@ -26,8 +26,10 @@ import org.eclipse.swt.events.PaintEvent;
 import org.eclipse.swt.graphics.GC;
 
 import phasereditor.audio.core.AudioCore;
+import phasereditor.audio.core.AudioPeaks;
 import phasereditor.ui.BaseTreeCanvasItemRenderer;
 import phasereditor.ui.ImageProxy;
+import phasereditor.ui.PhaserEditorUI;
 import phasereditor.ui.TreeCanvas;
 import phasereditor.ui.TreeCanvas.TreeCanvasItem;
 
@@ -40,6 +42,8 @@ public class AudioTreeCanvasItemRenderer extends BaseTreeCanvasItemRenderer {
 	private ImageProxy _proxy;
 	private String _label;
 	private IFile _audioFile;
+	private AudioPeaks _peaks;
+	private boolean _peaksLoading;
 
 	public AudioTreeCanvasItemRenderer(TreeCanvasItem item) {
 		super(item);
@@ -82,6 +86,10 @@ public class AudioTreeCanvasItemRenderer extends BaseTreeCanvasItemRenderer {
 			_proxy = ImageProxy.get(imgPath.toFile(), null);
 		}
 
+		// it never blocks, the canvas is redrawn when the peaks are loaded
+		_peaks = AudioCore.getSoundPeaksAsync(_audioFile, () -> PhaserEditorUI.swtRunRedraw(canvas));
+		_peaksLoading = _peaks == null && AudioCore.isSoundPeaksLoading(_audioFile);
+
 		var gc = e.gc;
 
 		int rowHeight = computeRowHeight(canvas);
@@ -92,7 +100,7 @@ public class AudioTreeCanvasItemRenderer extends BaseTreeCanvasItemRenderer {
 		int imgHeight = rowHeight - textOffset - 10;
 
 		if (imgHeight >= 16) {
-			if (_proxy != null) {
+			if (_proxy != null || _peaks != null || _peaksLoading) {
 				int w = e.width - x - 5;
 				if (w > 0) {
 					gc.setAlpha(150);
@@ -110,8 +118,27 @@ public class AudioTreeCanvasItemRenderer extends BaseTreeCanvasItemRenderer {
 		return _proxy;
 	}
 
+	/**
+	 * The peaks of the sound, or <code>null</code> if they are not loaded yet (see
+	 * {@link #isPeaksLoading()}) or its format is not supported. In that case, the
+	 * waveform image is painted.
+	 */
+	public AudioPeaks getPeaks() {
+		return _peaks;
+	}
+
+	public boolean isPeaksLoading() {
+		return _peaksLoading;
+	}
+
 	protected void renderImage(GC gc, int dstX, int dstY, int dstWidth, int dstHeight) {
-		_proxy.paint(gc, dstX, dstY, dstWidth, dstHeight);
+		if (_peaks != null) {
+			AudioPeaksRenderer.paint(gc, _peaks, dstX, dstY, dstWidth, dstHeight);
+		} else if (_peaksLoading) {
+			AudioPeaksRenderer.paintPlaceholder(gc, dstX, dstY, dstWidth, dstHeight);
+		} else if (_proxy != null) {
+			_proxy.paint(gc, dstX, dstY, dstWidth, dstHeight);
+		}
 	}
 
 	@Override
@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.function.Consumer;
 
@@ -49,7 +50,8 @@ import org.eclipse.core.runtime.content.IContentDescription;
 import org.eclipse.core.runtime.content.IContentType;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONTokener;
+import org.json.JSONReader;
+import org.json.JSONReader.Token;
 
 import phasereditor.audio.core.AudioCore;
 import phasereditor.ui.PhaserEditorUI;
@@ -70,10 +72,20 @@ public class AudioSpriteCore {
 	 */
 	public static String isAudioSpriteJSONContent(InputStream contents, boolean deepTest) {
 		try {
-			JSONTokener tokener = new JSONTokener(new InputStreamReader(contents));
-			JSONObject obj = new JSONObject(tokener);
-			JSONObject spritemap = obj.getJSONObject("spritemap");
+			JSONReader reader = new JSONReader(new InputStreamReader(contents));
+			reader.beginObject();
+
+			if (reader.skipToName(Set.of("spritemap")) == null) {
+				throw JSONReader.notFound("spritemap");
+			}
+
+			if (reader.peek() != Token.BEGIN_OBJECT) {
+				throw JSONReader.wrongType("spritemap", "JSONObject");
+			}
+
 			if (deepTest) {
+				// only the spritemap is built, the rest of the file is not read
+				JSONObject spritemap = (JSONObject) reader.readValue();
 				Iterator<String> keys = spritemap.keys();
 				while (keys.hasNext()) {
 					String key = keys.next();
@@ -22,6 +22,7 @@
 package phasereditor.bmpfont.core;
 
 import java.io.InputStream;
+import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -31,8 +32,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.content.IContentDescription;
 import org.eclipse.core.runtime.content.IContentType;
-import org.json.JSONObject;
-import org.json.JSONTokener;
+import org.json.JSONReader;
 import org.w3c.dom.Document;
 
 /**
@@ -64,11 +64,12 @@ public class BitmapFontCore {
 	}
 
 	public static boolean isJsonBitmapFontContent(InputStream contents) {
-		JSONObject doc = new JSONObject(new JSONTokener(contents));
+		JSONReader reader = new JSONReader(contents);
+		reader.beginObject();
 
-		if (doc.has("font")) {
-			JSONObject fontDoc = doc.getJSONObject("font");
-			return fontDoc.has("chars");
+		if (reader.skipToName(Set.of("font")) != null) {
+			reader.beginObject();
+			return reader.skipToName(Set.of("chars")) != null;
 		}
 
 		return false;
@@ -22,10 +22,10 @@
 package phasereditor.bmpfont.core;
 
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -223,10 +223,10 @@ public class BitmapFontModel {
 
 	}
 
-	private Map<Integer, CharTag> _chars;
+	private GlyphTable _chars;
 	private CommonTag _commonTag;
 	private InfoTag _infoTag;
-	private Map<String, KerningTag> _kernings;
+	private KerningTable _kernings;
 
 	public static BitmapFontModel createFromXml(InputStream input) throws Exception {
 		BitmapFontModel model = new BitmapFontModel();
@@ -236,8 +236,8 @@ public class BitmapFontModel {
 
 	private void initXml(InputStream input) throws Exception {
 
-		_chars = new HashMap<>();
-		_kernings = new HashMap<>();
+		_chars = new GlyphTable();
+		_kernings = new KerningTable();
 
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		DocumentBuilder builder = factory.newDocumentBuilder();
@@ -274,7 +274,7 @@ public class BitmapFontModel {
 					charTag.setYoffset(Integer.parseInt(attrs.getNamedItem("yoffset").getNodeValue()));
 					charTag.setXadvance(Integer.parseInt(attrs.getNamedItem("xadvance").getNodeValue()));
 
-					_chars.put(charTag.getId(), charTag);
+					_chars.put(charTag);
 				}
 			}
 		}
@@ -306,7 +306,7 @@ public class BitmapFontModel {
 					kerning.setSecond(Integer.parseInt(attrs.getNamedItem("second").getNodeValue()));
 					kerning.setAmount(Integer.parseInt(attrs.getNamedItem("amount").getNodeValue()));
 
-					_kernings.put(kerning.getFirst() + "-" + kerning.getSecond(), kerning);
+					_kernings.put(kerning);
 				}
 			}
 		}
@@ -321,8 +321,8 @@ public class BitmapFontModel {
 
 	private void initJson(InputStream input) throws Exception {
 
-		_chars = new HashMap<>();
-		_kernings = new HashMap<>();
+		_chars = new GlyphTable();
+		_kernings = new KerningTable();
 
 		JSONObject doc = new JSONObject(new JSONTokener(input));
 		doc = doc.getJSONObject("font");
@@ -352,7 +352,7 @@ public class BitmapFontModel {
 				charTag.setYoffset(elem.getInt("_yoffset"));
 				charTag.setXadvance(elem.getInt("_xadvance"));
 
-				_chars.put(charTag.getId(), charTag);
+				_chars.put(charTag);
 			}
 		}
 
@@ -379,7 +379,7 @@ public class BitmapFontModel {
 						kerningTag.setSecond(elem.getInt("_second"));
 						kerningTag.setAmount(elem.getInt("_amount"));
 
-						_kernings.put(kerningTag.getFirst() + "-" + kerningTag.getSecond(), kerningTag);
+						_kernings.put(kerningTag);
 					}
 				}
 			}
@@ -468,84 +468,301 @@ public class BitmapFontModel {
 
 	}
 
-	static class CharRenderInfo {
-		public char c;
-		public int x;
-		public int y;
-		public int srcX;
-		public int srcY;
-		public int srcW;
-		public int srcH;
-		public int x2;
-		public int width;
-		public int height;
-
-		public CharRenderInfo(char c, int x, int y, int srcX, int srcY, int srcW, int srcH) {
-			super();
-			this.c = c;
-			this.x = x;
-			this.y = y;
-			this.srcX = srcX;
-			this.srcY = srcY;
-			this.srcW = srcW;
-			this.srcH = srcH;
-			this.width = srcW;
-			this.height = srcH;
+	/**
+	 * The glyphs of the font indexed by the char code. The codes lower than
+	 * {@link #DIRECT_SIZE} (Latin, Greek, Cyrillic...) are looked up in an array,
+	 * the others in an open addressing table, so the lookups do not box the code.
+	 */
+	static class GlyphTable {
+		private static final int DIRECT_SIZE = 0x800;
+
+		private CharTag[] _direct = new CharTag[128];
+		private int[] _keys = new int[16];
+		private CharTag[] _values = new CharTag[16];
+		private int _hashedCount;
+		private CharTag _first;
+
+		public void put(CharTag tag) {
+			var id = tag.getId();
+
+			if (_first == null || id < _first.getId()) {
+				_first = tag;
+			}
+
+			if (id >= 0 && id < DIRECT_SIZE) {
+				if (id >= _direct.length) {
+					_direct = Arrays.copyOf(_direct, Math.min(DIRECT_SIZE, Integer.highestOneBit(id) << 1));
+				}
+				_direct[id] = tag;
+				return;
+			}
+
+			if ((_hashedCount + 1) * 2 > _keys.length) {
+				rehash(_keys.length * 2);
+			}
+
+			var i = indexOf(id);
+
+			if (_values[i] == null) {
+				_keys[i] = id;
+				_hashedCount++;
+			}
+
+			_values[i] = tag;
+		}
+
+		private int indexOf(int id) {
+			var mask = _keys.length - 1;
+			var i = (id * 0x9E3779B9 >>> 16) & mask;
+
+			while (_values[i] != null && _keys[i] != id) {
+				i = (i + 1) & mask;
+			}
+
+			return i;
+		}
+
+		private void rehash(int size) {
+			var values = _values;
+
+			_keys = new int[size];
+			_values = new CharTag[size];
+
+			for (var tag : values) {
+				if (tag != null) {
+					var i = indexOf(tag.getId());
+					_keys[i] = tag.getId();
+					_values[i] = tag;
+				}
+			}
+		}
+
+		public CharTag get(int id) {
+			if (id >= 0 && id < DIRECT_SIZE) {
+				return id < _direct.length ? _direct[id] : null;
+			}
+
+			return _values[indexOf(id)];
 		}
 
+		public boolean contains(int id) {
+			return get(id) != null;
+		}
+
+		/**
+		 * The glyph with the lowest code, used when the font has not a glyph for a
+		 * char, not even the space.
+		 */
+		public CharTag getFirst() {
+			return _first;
+		}
 	}
 
-	static class LineRenderInfo extends ArrayList<CharRenderInfo> {
+	/**
+	 * The kerning amounts, in an open addressing table with the pair of chars
+	 * packed in a <code>long</code> key.
+	 */
+	static class KerningTable {
+		private static final long EMPTY = Long.MIN_VALUE;
 
-		private static final long serialVersionUID = 1L;
+		private long[] _keys = createKeys(16);
+		private int[] _amounts = new int[16];
+		private int _count;
 
-		private int _pixelLength;
+		private static long[] createKeys(int size) {
+			var keys = new long[size];
+			Arrays.fill(keys, EMPTY);
+			return keys;
+		}
 
-		public void setPixelLength() {
-			_pixelLength = size() == 0 ? 0 : get(size() - 1).x2;
+		private static long key(int first, int second) {
+			return (long) first << 32 | second & 0xFFFFFFFFL;
 		}
 
-		public int getPixelLength() {
-			return _pixelLength;
+		private int indexOf(long key) {
+			var mask = _keys.length - 1;
+			var i = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+
+			while (_keys[i] != EMPTY && _keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+
+			return i;
 		}
 
+		public void put(KerningTag kerning) {
+			if ((_count + 1) * 2 > _keys.length) {
+				var keys = _keys;
+				var amounts = _amounts;
+
+				_keys = createKeys(keys.length * 2);
+				_amounts = new int[keys.length * 2];
+
+				for (int i = 0; i < keys.length; i++) {
+					if (keys[i] != EMPTY) {
+						var j = indexOf(keys[i]);
+						_keys[j] = keys[i];
+						_amounts[j] = amounts[i];
+					}
+				}
+			}
+
+			var key = key(kerning.getFirst(), kerning.getSecond());
+			var i = indexOf(key);
+
+			if (_keys[i] == EMPTY) {
+				_keys[i] = key;
+				_count++;
+			}
+
+			_amounts[i] = kerning.getAmount();
+		}
+
+		/**
+		 * The kerning amount of the pair, or <code>0</code> if there is not a kerning
+		 * for it.
+		 */
+		public int get(int first, int second) {
+			if (_count == 0) {
+				return 0;
+			}
+
+			var i = indexOf(key(first, second));
+
+			return _keys[i] == EMPTY ? 0 : _amounts[i];
+		}
 	}
 
-	public void render(RenderArgs args, BitmapFontRenderer renderer) {
+	/**
+	 * A copy of the values of a {@link RenderArgs}, used as key of the layout
+	 * cache.
+	 */
+	static class LayoutKey {
+		private final String _text;
+		private final int _fontSize;
+		private final int _maxWidth;
+		private final Align _align;
+		private final float _letterSpacing;
+
+		public LayoutKey(RenderArgs args) {
+			_text = args.getText();
+			_fontSize = args.getFontSize();
+			_maxWidth = args.getMaxWidth();
+			_align = args.getAlign();
+			_letterSpacing = args.getLetterSpacing();
+		}
 
-		String text = args.getText();
-		text = text.replaceAll("\\R", "\n");
+		@Override
+		public int hashCode() {
+			return Objects.hash(_text, _fontSize, _maxWidth, _align, _letterSpacing);
+		}
 
-		String normalText = "";
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
 
-		{
-			StringBuilder sb = new StringBuilder();
-			for (int c : text.toCharArray()) {
-				sb.append(_chars.containsKey(c) || c == '\n' ? (char) c : ' ');
+			if (!(obj instanceof LayoutKey)) {
+				return false;
 			}
-			normalText = sb.toString();
+
+			var other = (LayoutKey) obj;
+
+			return _fontSize == other._fontSize && _maxWidth == other._maxWidth && _align == other._align
+					&& Float.compare(_letterSpacing, other._letterSpacing) == 0 && Objects.equals(_text, other._text);
+		}
+	}
+
+	/**
+	 * The chars of a text, already placed. The glyphs are packed in an int array,
+	 * {@link #GLYPH_SIZE} values per glyph, and every line is the end index of its
+	 * glyphs.
+	 */
+	static class TextLayout {
+		static final int C = 0;
+		static final int X = 1;
+		static final int Y = 2;
+		static final int WIDTH = 3;
+		static final int HEIGHT = 4;
+		static final int SRC_X = 5;
+		static final int SRC_Y = 6;
+		static final int SRC_W = 7;
+		static final int SRC_H = 8;
+		static final int X2 = 9;
+		static final int GLYPH_SIZE = 10;
+
+		final int[] glyphs;
+		final int[] lineEnds;
+
+		TextLayout(int[] glyphs, int[] lineEnds) {
+			this.glyphs = glyphs;
+			this.lineEnds = lineEnds;
 		}
+	}
+
+	private static final int LAYOUT_CACHE_SIZE = 64;
+
+	@SuppressWarnings("serial")
+	private Map<LayoutKey, TextLayout> _layoutCache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<LayoutKey, TextLayout> eldest) {
+			return size() > LAYOUT_CACHE_SIZE;
+		}
+	};
+
+	private TextLayout getLayout(RenderArgs args) {
+		var key = new LayoutKey(args);
+
+		synchronized (_layoutCache) {
+			var layout = _layoutCache.get(key);
+
+			if (layout != null) {
+				return layout;
+			}
+		}
+
+		var layout = layout(key);
+
+		synchronized (_layoutCache) {
+			_layoutCache.put(key, layout);
+		}
+
+		return layout;
+	}
+
+	private TextLayout layout(LayoutKey args) {
 
-		List<LineRenderInfo> lines;
+		var text = args._text.replaceAll("\\R", "\n");
+		var len = text.length();
+
+		// every char is placed at most once, and every line ends in a new line, a
+		// space or the end of the text
+
+		var glyphs = new int[len * TextLayout.GLYPH_SIZE];
+		var lineEnds = new int[len + 1];
+		int count = 0;
+		int lineCount = 0;
 
 		{
-			int maxWidth = args.getMaxWidth();
+			int maxWidth = args._maxWidth;
 
 			boolean wrap = maxWidth > 0;
 
 			int x = 0;
 			int y = 0;
 
-			lines = new ArrayList<>();
-			LineRenderInfo line = new LineRenderInfo();
-
 			int lastSpaceIndex = -1;
 			int lineStart = 0;
-
-			int len = normalText.length();
+			int lineFirstGlyph = 0;
 
 			for (int i = 0; i < len; i++) {
-				int c = normalText.charAt(i);
+				int c = text.charAt(i);
+
+				if (c != '\n' && !_chars.contains(c)) {
+					c = ' ';
+				}
+
 				int first = c;
 				int second = i == len - 1 ? -1 : text.charAt(i + 1);
 
@@ -553,8 +770,8 @@ public class BitmapFontModel {
 					x = 0;
 					lastSpaceIndex = -1;
 					lineStart = i;
-					lines.add(line);
-					line = new LineRenderInfo();
+					lineEnds[lineCount++] = count;
+					lineFirstGlyph = count;
 					y += _commonTag.getLineHeight();
 					continue;
 				}
@@ -562,55 +779,50 @@ public class BitmapFontModel {
 				CharTag charTag = _chars.get(c);
 
 				if (charTag == null) {
-					charTag = _chars.get((int) ' ');
-				}
+					charTag = _chars.getFirst();
 
-				if (charTag == null) {
-					c = _chars.keySet().iterator().next();
-					charTag = _chars.get(c);
+					if (charTag == null) {
+						// the font is empty
+						continue;
+					}
+
+					c = charTag.getId();
 				}
 
 				if (c == ' ') {
 					lastSpaceIndex = i;
 				}
 
-				CharRenderInfo charRenderInfo = new CharRenderInfo((char) c, x + charTag.getXoffset(),
-						y + charTag.getYoffset(), charTag.getX(), charTag.getY(), charTag.getWidth(),
-						charTag.getHeight());
+				var g = count * TextLayout.GLYPH_SIZE;
 
-				line.add(charRenderInfo);
+				glyphs[g + TextLayout.C] = c;
+				glyphs[g + TextLayout.X] = x + charTag.getXoffset();
+				glyphs[g + TextLayout.Y] = y + charTag.getYoffset();
+				glyphs[g + TextLayout.SRC_X] = charTag.getX();
+				glyphs[g + TextLayout.SRC_Y] = charTag.getY();
+				glyphs[g + TextLayout.SRC_W] = charTag.getWidth();
+				glyphs[g + TextLayout.SRC_H] = charTag.getHeight();
+				glyphs[g + TextLayout.WIDTH] = charTag.getWidth();
+				glyphs[g + TextLayout.HEIGHT] = charTag.getHeight();
 
-				int k = 0;
+				count++;
 
-				if (second != -1) {
-					KerningTag kerning = _kernings.get(first + "-" + second);
-					if (kerning != null) {
-						k = kerning.getAmount();
-					}
-				}
+				int k = second == -1 ? 0 : _kernings.get(first, second);
 
 				x += charTag.getXadvance() + k;
 
 				// this is the right code, but we have to deal with the Phaser 2.6.2 bug
-				charRenderInfo.x2 = x;
+				glyphs[g + TextLayout.X2] = x;
 
 				if (wrap && x > maxWidth && lastSpaceIndex != -1) {
-					// get the new line to add, from the line start to the current position
-					// String newLine = normalText.substring(i + 1 - line.size(), lastSpaceIndex);
 
 					// remove the line chars from the last space
-					line.removeAll(line.subList(lastSpaceIndex - lineStart, line.size()));
+					count = Math.min(count, lineFirstGlyph + lastSpaceIndex - lineStart);
 
 					// remove trailing spaces
-					while (true) {
-						if (!line.isEmpty()) {
-							int last = line.size() - 1;
-							if (line.get(last).c == ' ') {
-								line.remove(last);
-							} else {
-								break;
-							}
-						}
+					while (count > lineFirstGlyph
+							&& glyphs[(count - 1) * TextLayout.GLYPH_SIZE + TextLayout.C] == ' ') {
+						count--;
 					}
 
 					// move the cursor to the last space position
@@ -621,8 +833,8 @@ public class BitmapFontModel {
 					lastSpaceIndex = -1;
 
 					// add the new line
-					lines.add(line);
-					line = new LineRenderInfo();
+					lineEnds[lineCount++] = count;
+					lineFirstGlyph = count;
 
 					// reset x, y
 					x = 0;
@@ -630,91 +842,107 @@ public class BitmapFontModel {
 				}
 			}
 
-			if (line.size() > 0) {
-				lines.add(line);
+			if (count > lineFirstGlyph) {
+				lineEnds[lineCount++] = count;
 			}
 		}
 
-		// compute the line width
-
-		for (var line : lines) {
-			line.setPixelLength();
-		}
+		glyphs = Arrays.copyOf(glyphs, count * TextLayout.GLYPH_SIZE);
+		lineEnds = Arrays.copyOf(lineEnds, lineCount);
 
 		// spacing
 		{
-			float letterSpacing = args.getLetterSpacing();
+			float letterSpacing = args._letterSpacing;
 			if (letterSpacing != 0) {
-				for (LineRenderInfo line : lines) {
-					int i = 0;
-					for (CharRenderInfo c : line) {
-						var offset = letterSpacing * i;
-						c.x += offset;
-						c.x2 += offset;
-						i++;
+				int start = 0;
+				for (int end : lineEnds) {
+					for (int i = start; i < end; i++) {
+						var g = i * TextLayout.GLYPH_SIZE;
+						var offset = letterSpacing * (i - start);
+						glyphs[g + TextLayout.X] += offset;
+						glyphs[g + TextLayout.X2] += offset;
 					}
-				}
-
-				// compute the line width again
-
-				for (var line : lines) {
-					line.setPixelLength();
+					start = end;
 				}
 			}
 		}
 
 		// align
 
-		if (args.getAlign() != Align.left) {
+		if (args._align != Align.left) {
 			int maxWidth = 0;
 
-			for (LineRenderInfo line : lines) {
-				int lineLen = line.getPixelLength();
-				maxWidth = Math.max(maxWidth, lineLen);
+			int start = 0;
+			for (int end : lineEnds) {
+				maxWidth = Math.max(maxWidth, getPixelLength(glyphs, start, end));
+				start = end;
 			}
 
-			for (LineRenderInfo line : lines) {
-				int offset = maxWidth - line.getPixelLength();
+			start = 0;
+			for (int end : lineEnds) {
+				int offset = maxWidth - getPixelLength(glyphs, start, end);
 
-				if (args.getAlign() == Align.center) {
+				if (args._align == Align.center) {
 					offset = offset / 2;
 				}
 
-				for (CharRenderInfo c : line) {
-					c.x += offset;
-					c.x2 += offset;
+				for (int i = start; i < end; i++) {
+					var g = i * TextLayout.GLYPH_SIZE;
+					glyphs[g + TextLayout.X] += offset;
+					glyphs[g + TextLayout.X2] += offset;
 				}
+
+				start = end;
 			}
 
 		}
 
 		// apply font scale
-		if (args.getFontSize() != 0) {
-			var scale = (double) args.getFontSize() / _infoTag.getSize();
+		if (args._fontSize != 0) {
+			var scale = (double) args._fontSize / _infoTag.getSize();
 
 			if (scale != 1) {
-				for (LineRenderInfo line : lines) {
-					for (CharRenderInfo c : line) {
-						c.x = (int) (c.x * scale);
-						c.x2 = (int) (c.x2 * scale);
-						c.y = (int) (c.y * scale);
-						c.width = (int) (c.width * scale);
-						c.height = (int) (c.height * scale);
-					}
+				for (int g = 0; g < glyphs.length; g += TextLayout.GLYPH_SIZE) {
+					glyphs[g + TextLayout.X] = (int) (glyphs[g + TextLayout.X] * scale);
+					glyphs[g + TextLayout.X2] = (int) (glyphs[g + TextLayout.X2] * scale);
+					glyphs[g + TextLayout.Y] = (int) (glyphs[g + TextLayout.Y] * scale);
+					glyphs[g + TextLayout.WIDTH] = (int) (glyphs[g + TextLayout.WIDTH] * scale);
+					glyphs[g + TextLayout.HEIGHT] = (int) (glyphs[g + TextLayout.HEIGHT] * scale);
 				}
 			}
 		}
 
-		// render lines
+		return new TextLayout(glyphs, lineEnds);
+	}
+
+	private static int getPixelLength(int[] glyphs, int start, int end) {
+		return end == start ? 0 : glyphs[(end - 1) * TextLayout.GLYPH_SIZE + TextLayout.X2];
+	}
+
+	/**
+	 * Render the text. The layout of the text is cached, so rendering the same
+	 * text with the same arguments again does not allocate memory.
+	 */
+	public void render(RenderArgs args, BitmapFontRenderer renderer) {
+
+		var layout = getLayout(args);
+		var glyphs = layout.glyphs;
 
 		renderer.renderStart();
 
-		for (var line : lines) {
+		int i = 0;
+
+		for (int end : layout.lineEnds) {
 
 			renderer.lineStart();
 
-			for (var c : line) {
-				renderer.render(c.c, c.x, c.y, c.width, c.height, c.srcX, c.srcY, c.srcW, c.srcH);
+			for (; i < end; i++) {
+				var g = i * TextLayout.GLYPH_SIZE;
+
+				renderer.render((char) glyphs[g + TextLayout.C], glyphs[g + TextLayout.X],
+						glyphs[g + TextLayout.Y], glyphs[g + TextLayout.WIDTH], glyphs[g + TextLayout.HEIGHT],
+						glyphs[g + TextLayout.SRC_X], glyphs[g + TextLayout.SRC_Y], glyphs[g + TextLayout.SRC_W],
+						glyphs[g + TextLayout.SRC_H]);
 			}
 
 			renderer.lineEnd();
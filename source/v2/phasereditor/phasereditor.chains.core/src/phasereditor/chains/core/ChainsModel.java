@@ -23,6 +23,7 @@ package phasereditor.chains.core;
 
 import static java.lang.System.out;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -32,6 +33,8 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -53,6 +56,9 @@ public class ChainsModel {
 	private List<PhaserExampleModel> _exampleItems;
 	private List<Line> _examplesLines;
 	private PhaserJsdocModel _jsdoc;
+	private TrigramIndex _chainsIndex;
+	private TrigramIndex _exampleItemsIndex;
+	private TrigramIndex _examplesLinesIndex;
 
 	public ChainsModel() {
 		_jsdoc = PhaserJsdocModel.getInstance();
@@ -106,6 +112,13 @@ public class ChainsModel {
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
+
+		// indexes
+
+		_chainsIndex = new TrigramIndex(_chains.stream().map(ChainItem::getDisplay).collect(toList()));
+		_exampleItemsIndex = new TrigramIndex(
+				_exampleItems.stream().map(PhaserExampleModel::getFullName).collect(toList()));
+		_examplesLinesIndex = new TrigramIndex(_examplesLines.stream().map(line -> line.text).collect(toList()));
 	}
 
 	private void processCategory(PhaserExampleCategoryModel category) throws IOException {
@@ -132,6 +145,15 @@ public class ChainsModel {
 	}
 
 	public List<Match> searchChains(String aQuery, int limit) {
+		return searchChains(aQuery, limit, () -> false);
+	}
+
+	/**
+	 * Search the chains that match the query. Only the chains with the trigrams of
+	 * the query are tested. It stops when <code>canceled</code> returns
+	 * <code>true</code>, usually because the user typed a new query.
+	 */
+	public List<Match> searchChains(String aQuery, int limit, BooleanSupplier canceled) {
 		String query = aQuery.toLowerCase();
 		boolean showall = query.trim().length() == 0;
 
@@ -140,11 +162,35 @@ public class ChainsModel {
 		}
 
 		List<Match> matches = new ArrayList<>();
+		var words = TrigramIndex.getQueryWords(query);
 		query = quote(query);
 		Pattern pattern = Pattern.compile(query, Pattern.CASE_INSENSITIVE);
 
-		for (ChainItem item : _chains) {
-			Matcher matcher = pattern.matcher(item.getDisplay());
+		search(_chains, _chainsIndex, words, ChainItem::getDisplay, pattern, showall, matches, limit, canceled);
+
+		return matches;
+	}
+
+	private static <T> void search(List<T> items, TrigramIndex index, List<String> words,
+			Function<T, String> getText, Pattern pattern, boolean showall, List<Match> matches, int limit,
+			BooleanSupplier canceled) {
+
+		if (matches.size() >= limit) {
+			return;
+		}
+
+		int[] candidates = showall ? null : index.getCandidates(words);
+		int n = candidates == null ? items.size() : candidates.length;
+
+		for (int i = 0; i < n; i++) {
+
+			if (i % 1000 == 0 && canceled.getAsBoolean()) {
+				return;
+			}
+
+			T item = items.get(candidates == null ? i : candidates[i]);
+			Matcher matcher = pattern.matcher(getText.apply(item));
+
 			if (showall || matcher.matches()) {
 				Match match = new Match();
 				match.item = item;
@@ -157,11 +203,10 @@ public class ChainsModel {
 				}
 				matches.add(match);
 				if (matches.size() >= limit) {
-					break;
+					return;
 				}
 			}
 		}
-		return matches;
 	}
 
 	
@@ -213,54 +258,32 @@ public class ChainsModel {
 	}
 
 	public List<Match> searchExamples(String aQuery, int limit) {
+		return searchExamples(aQuery, limit, () -> false);
+	}
+
+	/**
+	 * Search the examples with a name or a line that match the query. Like in
+	 * {@link #searchChains(String, int, BooleanSupplier)}, only the candidates of
+	 * the trigram index are tested.
+	 */
+	public List<Match> searchExamples(String aQuery, int limit, BooleanSupplier canceled) {
 		String query = aQuery.toLowerCase();
 		boolean showall = query.trim().length() == 0;
 		List<Match> matches = new ArrayList<>();
 		if (query.length() > 1 || showall) {
+			var words = TrigramIndex.getQueryWords(query);
 			query = quote(query);
 			Pattern pattern = Pattern.compile(query, Pattern.CASE_INSENSITIVE);
 
 			// search of file names
 
-			for (PhaserExampleModel example : _exampleItems) {
-				Matcher matcher = pattern.matcher(example.getFullName());
-				if (showall || matcher.matches()) {
-					Match match = new Match();
-					match.item = example;
-					if (showall) {
-						match.start = 0;
-						match.length = 0;
-					} else {
-						match.start = matcher.start(1);
-						match.length = matcher.end(1) - match.start;
-					}
-					matches.add(match);
-					if (matches.size() >= limit) {
-						break;
-					}
-				}
-			}
+			search(_exampleItems, _exampleItemsIndex, words, PhaserExampleModel::getFullName, pattern, showall,
+					matches, limit, canceled);
 
 			// search on lines
 
-			for (Line line : _examplesLines) {
-				if (matches.size() >= limit) {
-					break;
-				}
-				Matcher matcher = pattern.matcher(line.text);
-				if (showall || matcher.matches()) {
-					Match match = new Match();
-					match.item = line;
-					if (showall) {
-						match.start = 0;
-						match.length = 0;
-					} else {
-						match.start = matcher.start(1);
-						match.length = matcher.end(1) - match.start;
-					}
-					matches.add(match);
-				}
-			}
+			search(_examplesLines, _examplesLinesIndex, words, line -> line.text, pattern, showall, matches, limit,
+					canceled);
 		}
 		return matches;
 	}
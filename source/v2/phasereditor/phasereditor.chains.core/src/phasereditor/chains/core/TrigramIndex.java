@@ -0,0 +1,185 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.chains.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the trigrams of a list of texts. It is used to find the texts
+ * that may match a query, without testing the query on all the texts. The
+ * candidates are returned in the order of the texts.
+ *
+ * The texts are indexed ignoring the case of the ASCII letters, like the
+ * patterns compiled with the <code>CASE_INSENSITIVE</code> flag.
+ *
+ * @author arian
+ *
+ */
+public class TrigramIndex {
+
+	private int _size;
+	private Map<Long, int[]> _postings;
+
+	public TrigramIndex(List<String> texts) {
+		_size = texts.size();
+
+		Map<Long, IntList> map = new HashMap<>();
+
+		for (int i = 0; i < texts.size(); i++) {
+			var text = fold(texts.get(i));
+
+			for (int j = 0; j + 3 <= text.length(); j++) {
+				var list = map.computeIfAbsent(Long.valueOf(trigram(text, j)), k -> new IntList());
+
+				// the same trigram can be many times in the same text
+				if (list.last() != i) {
+					list.add(i);
+				}
+			}
+		}
+
+		_postings = new HashMap<>(map.size() * 2);
+
+		for (var entry : map.entrySet()) {
+			_postings.put(entry.getKey(), entry.getValue().toArray());
+		}
+	}
+
+	public int size() {
+		return _size;
+	}
+
+	/**
+	 * Compute the indexes of the texts that contain all the given words, sorted.
+	 * Returns <code>null</code> if the words are too short to use the index, so
+	 * all the texts are candidates.
+	 */
+	public int[] getCandidates(List<String> words) {
+		var lists = new ArrayList<int[]>();
+
+		for (var word : words) {
+			var text = fold(word);
+
+			for (int j = 0; j + 3 <= text.length(); j++) {
+				var list = _postings.get(Long.valueOf(trigram(text, j)));
+
+				if (list == null) {
+					return new int[0];
+				}
+
+				lists.add(list);
+			}
+		}
+
+		if (lists.isEmpty()) {
+			return null;
+		}
+
+		// start with the shortest list, so the intersection is smaller at every step
+		lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+		var result = lists.get(0);
+
+		for (int i = 1; i < lists.size() && result.length > 0; i++) {
+			result = intersect(result, lists.get(i));
+		}
+
+		return result;
+	}
+
+	/**
+	 * The words of a query, split by spaces and <code>*</code>.
+	 */
+	public static List<String> getQueryWords(String query) {
+		var words = new ArrayList<String>();
+
+		for (var word : query.split("[ *]")) {
+			if (word.length() > 0) {
+				words.add(word);
+			}
+		}
+
+		return words;
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		var result = new int[Math.min(a.length, b.length)];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+
+		return Arrays.copyOf(result, n);
+	}
+
+	private static long trigram(String text, int i) {
+		return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+	}
+
+	private static String fold(String text) {
+		var chars = text.toCharArray();
+
+		for (int i = 0; i < chars.length; i++) {
+			var c = chars[i];
+			if (c >= 'A' && c <= 'Z') {
+				chars[i] = (char) (c + ('a' - 'A'));
+			}
+		}
+
+		return new String(chars);
+	}
+
+	private static class IntList {
+		private int[] _data = new int[4];
+		private int _size;
+
+		void add(int value) {
+			if (_size == _data.length) {
+				_data = Arrays.copyOf(_data, _size * 2);
+			}
+			_data[_size++] = value;
+		}
+
+		int last() {
+			return _size == 0 ? -1 : _data[_size - 1];
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(_data, _size);
+		}
+	}
+}
@@ -453,12 +453,12 @@ public class ChainsView extends ViewPart implements IPropertyChangeListener {
 		List<Match> list2 = new ArrayList<>();
 
 		if (_showChainsAction.isChecked()) {
-			list1 = _chainsModel.searchChains(query[0], chainsLimit);
+			list1 = _chainsModel.searchChains(query[0], chainsLimit, () -> _token.get() != token);
 			prepareChainsMatches(list1);
 		}
 
 		if (_showExamplesAction.isChecked()) {
-			list2 = _chainsModel.searchExamples(query[0], chainsLimit);
+			list2 = _chainsModel.searchExamples(query[0], chainsLimit, () -> _token.get() != token);
 			prepareExamplesMatches(list2);
 		}
 
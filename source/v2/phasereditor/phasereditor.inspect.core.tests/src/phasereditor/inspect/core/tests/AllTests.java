@@ -34,7 +34,13 @@ import org.junit.runners.Suite.SuiteClasses;
 
 		Canvas_Phaser_Help_Test.class,
 
-		Phaser_Member_Exists_Test.class
+		Phaser_Member_Exists_Test.class,
+
+		TilemapCSV_Parse_Test.class,
+
+		PhaserJsdocIndex_RoundTrip_Test.class,
+
+		JSONReader_Test.class
 
 })
 public class AllTests {
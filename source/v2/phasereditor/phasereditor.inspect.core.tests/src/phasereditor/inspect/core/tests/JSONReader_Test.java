@@ -0,0 +1,422 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.inspect.core.tests;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONReader;
+import org.json.JSONReader.Token;
+import org.json.JSONTokener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import phasereditor.inspect.core.InspectCore;
+
+/**
+ * Check the {@link JSONReader} reads the same values of the {@link JSONObject}
+ * parser, and fails where it fails.
+ *
+ * @author arian
+ *
+ */
+@SuppressWarnings({ "static-method", "boxing" })
+public class JSONReader_Test {
+
+	@Test
+	public void testEscapes() {
+		var text = "{\"a\": \"q\\\"b\\\\s\\/t\\tn\\nr\\rf\\fb\\b\", 'b': 'single \\' \"quote\"',"
+				+ " \"\\u00e9\\u0041\": \"\\u00e9t\\u00e9 \\ud83d\\ude00 \u2603\", c: unquoted value}";
+
+		var reader = reader(text);
+
+		reader.beginObject();
+
+		Assert.assertEquals("a", reader.nextName());
+		Assert.assertEquals("q\"b\\s/t\tn\nr\rf\fb\b", reader.nextString());
+
+		Assert.assertEquals("b", reader.nextName());
+		Assert.assertEquals("single ' \"quote\"", reader.nextString());
+
+		Assert.assertEquals("\u00e9A", reader.nextName());
+		Assert.assertEquals("\u00e9t\u00e9 \ud83d\ude00 \u2603", reader.nextString());
+
+		Assert.assertEquals("c", reader.nextName());
+		Assert.assertEquals("unquoted value", reader.nextString());
+
+		reader.endObject();
+
+		Assert.assertEquals(Token.END_DOCUMENT, reader.peek());
+
+		assertSameAsJSONObject(text);
+
+		// skip the same strings
+
+		reader = reader(text);
+		reader.beginObject();
+		Assert.assertEquals("c", reader.skipToName(List.of("c")));
+		Assert.assertEquals("unquoted value", reader.nextString());
+	}
+
+	@Test
+	public void testNumbers() {
+		var text = "[0, -1, 1.5, -2.5e10, 1E-3, 1e+2, 12345678901234, 0.1, -0.0, \"3.5\", '4']";
+
+		double[] expected = { 0, -1, 1.5, -2.5e10, 1E-3, 1e+2, 12345678901234d, 0.1, -0.0, 3.5, 4 };
+
+		var reader = reader(text);
+
+		reader.beginArray();
+
+		for (var n : expected) {
+			var token = reader.peek();
+			Assert.assertTrue(token == Token.NUMBER || token == Token.STRING);
+			Assert.assertEquals(Double.doubleToLongBits(n), Double.doubleToLongBits(reader.nextDouble()));
+		}
+
+		reader.endArray();
+
+		assertSameAsJSONObject(text);
+
+		reader = reader("[abc]");
+		reader.beginArray();
+
+		try {
+			reader.nextDouble();
+			Assert.fail("Not a number");
+		} catch (JSONException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testTokens() {
+		var reader = reader("{\"a\": [true, false, null, 1, \"s\", {}, []]}");
+
+		reader.beginObject();
+		Assert.assertEquals(Token.NAME, reader.peek());
+		Assert.assertEquals("a", reader.nextName());
+		Assert.assertEquals(Token.BEGIN_ARRAY, reader.peek());
+		reader.beginArray();
+
+		Token[] tokens = { Token.BOOLEAN, Token.BOOLEAN, Token.NULL, Token.NUMBER, Token.STRING, Token.BEGIN_OBJECT,
+				Token.BEGIN_ARRAY };
+
+		for (var token : tokens) {
+			Assert.assertEquals(token, reader.peek());
+			reader.skipValue();
+		}
+
+		Assert.assertEquals(Token.END_ARRAY, reader.peek());
+		reader.endArray();
+		Assert.assertEquals(Token.END_OBJECT, reader.peek());
+		reader.endObject();
+		Assert.assertEquals(Token.END_DOCUMENT, reader.peek());
+	}
+
+	@Test
+	public void testNesting() {
+		// deeper than the initial stack of the reader
+
+		var depth = 100;
+		var sb = new StringBuilder();
+
+		for (int i = 0; i < depth; i++) {
+			sb.append(i % 2 == 0 ? "{\"k" + i + "\": " : "[1, ");
+		}
+
+		sb.append("\"leaf\"");
+
+		for (int i = depth - 1; i >= 0; i--) {
+			sb.append(i % 2 == 0 ? ", \"z\": 2}" : ", 3]");
+		}
+
+		var text = sb.toString();
+
+		assertSameAsJSONObject(text);
+
+		var reader = reader(text);
+		reader.skipValue();
+		Assert.assertEquals(Token.END_DOCUMENT, reader.peek());
+
+		// skip nested values with brackets and quotes in the strings
+
+		text = "{\"a\": {\"b\": [\"]}\", '\\'}]', {\"c\": \"\\\"{[\"}], \"d\": {}}, \"e\": [[], [[]]], \"f\": 1}";
+
+		assertSameAsJSONObject(text);
+
+		reader = reader(text);
+		reader.beginObject();
+		Assert.assertEquals("f", reader.skipToName(List.of("f", "g")));
+		Assert.assertEquals(1, reader.nextDouble(), 0);
+		Assert.assertEquals(null, reader.skipToName(List.of("a")));
+		reader.endObject();
+
+		reader = reader(text);
+		reader.beginObject();
+		Assert.assertEquals("a", reader.nextName());
+		reader.beginObject();
+		Assert.assertEquals("d", reader.skipToName(List.of("d")));
+		reader.beginObject();
+		reader.endObject();
+		reader.endObject();
+		Assert.assertEquals("e", reader.nextName());
+		Assert.assertEquals(new JSONArray("[[], [[]]]").toString(), reader.readValue().toString());
+		Assert.assertEquals("f", reader.nextName());
+		reader.skipValue();
+		reader.endObject();
+	}
+
+	@Test
+	public void testLenientSyntax() {
+		assertSameAsJSONObject("{a: 1; 'b': [1, 2,], c: {d: true,},}");
+		assertSameAsJSONObject("  \n\t[ ]  ");
+		assertSameAsJSONObject("{}");
+	}
+
+	@Test
+	public void testMalformed() {
+		String[] texts = {
+
+				"",
+
+				"   ",
+
+				"{",
+
+				"[",
+
+				"}",
+
+				"]",
+
+				"{\"a\" 1}",
+
+				"{\"a\": 1 \"b\": 2}",
+
+				"[\"a\" \"b\"]",
+
+				"{\"a\": 1]",
+
+				"[1}",
+
+				"{\"a\": \"unterminated}",
+
+				"{\"a\": \"line\nbreak\"}",
+
+				"{\"a\": \"bad \\x escape\"}",
+
+				"{\"a\": \"bad \\u00zz unicode\"}",
+
+				"{\"a\": }",
+
+				"{\"a\": 1,, \"b\": 2}",
+
+		};
+
+		for (var text : texts) {
+			assertFails(text);
+		}
+	}
+
+	@Test
+	public void testTruncated() {
+		var text = "{\"a\": \"q\\\"b \\u00e9\", \"b\": [1, -2.5e10, true, null, {\"c\": []}], 'd': {e: 'f'}}";
+
+		assertSameAsJSONObject(text);
+
+		for (int i = 0; i < text.length(); i++) {
+			var prefix = text.substring(0, i);
+
+			assertFails(prefix);
+
+			try {
+				reader(prefix).skipValue();
+				Assert.fail("Skipped truncated text: " + prefix);
+			} catch (JSONException e) {
+				// expected
+			}
+		}
+	}
+
+	/**
+	 * Read the JSON files of the Phaser docs and examples, and check the reader
+	 * builds the same values of the {@link JSONObject} parser.
+	 */
+	@Test
+	public void testPhaserFiles() throws IOException {
+		Path wsPath = Paths.get(".").toAbsolutePath().getParent().getParent();
+
+		var files = new ArrayList<Path>();
+
+		for (var folder : new Path[] {
+
+				wsPath.resolve(InspectCore.RESOURCES_METADATA_PLUGIN).resolve("phaser-custom"),
+
+				wsPath.resolve(InspectCore.RESOURCES_EXAMPLES_PLUGIN).resolve("phaser3-examples/public/assets")
+
+		}) {
+			if (Files.exists(folder)) {
+				try (var stream = Files.walk(folder)) {
+					files.addAll(stream.filter(p -> p.getFileName().toString().endsWith(".json"))
+							.collect(Collectors.toList()));
+				}
+			}
+		}
+
+		for (var file : files) {
+			Object expected;
+
+			try (var input = Files.newInputStream(file)) {
+				expected = parseDocument(new JSONTokener(input));
+			} catch (JSONException e) {
+				expected = e;
+			}
+
+			Object actual;
+
+			try (var input = Files.newInputStream(file)) {
+				actual = readDocument(new JSONReader(input));
+			} catch (JSONException e) {
+				actual = e;
+			}
+
+			assertSimilar(file.toString(), expected, actual);
+		}
+	}
+
+	private static JSONReader reader(String text) {
+		return new JSONReader(new StringReader(text));
+	}
+
+	private static void assertSameAsJSONObject(String text) {
+		var expected = parseDocument(new JSONTokener(text));
+		var actual = readDocument(reader(text));
+
+		assertSimilar(text, expected, actual);
+	}
+
+	private static void assertSimilar(String msg, Object expected, Object actual) {
+		if (expected instanceof JSONException || actual instanceof JSONException) {
+			Assert.assertEquals(msg, expected instanceof JSONException, actual instanceof JSONException);
+		} else if (expected instanceof JSONObject) {
+			Assert.assertTrue(msg, ((JSONObject) expected).similar(actual));
+		} else if (expected instanceof JSONArray) {
+			Assert.assertTrue(msg, ((JSONArray) expected).similar(actual));
+		} else {
+			Assert.assertEquals(msg, expected, actual);
+		}
+	}
+
+	private static void assertFails(String text) {
+		try {
+			parseDocument(new JSONTokener(text));
+			Assert.fail("The JSONObject parser accepted: " + text);
+		} catch (JSONException e) {
+			// expected
+		}
+
+		try {
+			readDocument(reader(text));
+			Assert.fail("The reader accepted: " + text);
+		} catch (JSONException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Parse a whole document with the JSONObject parser.
+	 */
+	private static Object parseDocument(JSONTokener tokener) {
+		var value = tokener.nextValue();
+
+		if (tokener.nextClean() != 0) {
+			throw tokener.syntaxError("Expected the end of the document");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Read a whole document with the reader, and build the same
+	 * {@link JSONObject} and {@link JSONArray} elements of the JSONObject parser.
+	 */
+	private static Object readDocument(JSONReader reader) {
+		var value = readValue(reader);
+
+		if (reader.peek() != Token.END_DOCUMENT) {
+			throw new JSONException("Expected the end of the document");
+		}
+
+		return value;
+	}
+
+	private static Object readValue(JSONReader reader) {
+		switch (reader.peek()) {
+		case BEGIN_OBJECT: {
+			var obj = new JSONObject();
+
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				var name = reader.nextName();
+				obj.putOnce(name, readValue(reader));
+			}
+
+			reader.endObject();
+
+			return obj;
+		}
+		case BEGIN_ARRAY: {
+			var array = new JSONArray();
+
+			reader.beginArray();
+
+			while (reader.hasNext()) {
+				array.put(readValue(reader));
+			}
+
+			reader.endArray();
+
+			return array;
+		}
+		case STRING:
+			return reader.nextString();
+		case NUMBER:
+		case BOOLEAN:
+		case NULL:
+			return JSONObject.stringToValue(reader.nextString());
+		default:
+			// it fails, there is not a value
+			return reader.readValue();
+		}
+	}
+}
@@ -0,0 +1,393 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.inspect.core.tests;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import phasereditor.inspect.core.InspectCore;
+import phasereditor.inspect.core.jsdoc.IPhaserMember;
+import phasereditor.inspect.core.jsdoc.PhaserEventConstant;
+import phasereditor.inspect.core.jsdoc.PhaserJsdocIndex;
+import phasereditor.inspect.core.jsdoc.PhaserJsdocModel;
+import phasereditor.inspect.core.jsdoc.PhaserMethod;
+import phasereditor.inspect.core.jsdoc.PhaserMethodArg;
+import phasereditor.inspect.core.jsdoc.PhaserNamespace;
+import phasereditor.inspect.core.jsdoc.PhaserProperty;
+import phasereditor.inspect.core.jsdoc.PhaserType;
+import phasereditor.inspect.core.jsdoc.PhaserVariable;
+
+/**
+ * Write the {@link PhaserJsdocIndex} of a model built from the JSON docs, read
+ * it back, and check the read model is the same of the built model.
+ *
+ * @author arian
+ *
+ */
+@SuppressWarnings("static-method")
+public class PhaserJsdocIndex_RoundTrip_Test {
+
+	@Test
+	public void testSyntheticDocs() throws IOException {
+		var docsFile = Files.createTempFile("phaser", ".json");
+		var indexFile = Files.createTempFile("phaser", ".index");
+
+		try {
+			Files.write(docsFile, createDocs().toString().getBytes(StandardCharsets.UTF_8));
+
+			var srcFolder = Paths.get("phaser/src");
+
+			var model = new PhaserJsdocModel(srcFolder, docsFile);
+
+			// check the docs were loaded, else the comparison means nothing
+
+			var members = model.getMembersMap();
+
+			Assert.assertTrue(members.get("Phaser.GameObjects.Sprite") instanceof PhaserType);
+			Assert.assertTrue(members.get("Phaser.GameObjects.GameObject.destroy") instanceof PhaserMethod);
+			Assert.assertTrue(members.get("Phaser.BlendModes") instanceof PhaserType);
+
+			assertRoundTrip(model, indexFile, srcFolder);
+		} finally {
+			Files.deleteIfExists(docsFile);
+			Files.deleteIfExists(indexFile);
+		}
+	}
+
+	@Test
+	public void testPhaserDocs() throws IOException {
+		Path wsPath = Paths.get(".").toAbsolutePath().getParent().getParent();
+		Path srcFolder = wsPath.resolve(InspectCore.RESOURCES_PHASER_CODE_PLUGIN).resolve("phaser-master/src");
+		Path docsFile = wsPath.resolve(InspectCore.RESOURCES_METADATA_PLUGIN)
+				.resolve("phaser-custom/phaser3-docs/json/phaser.json");
+
+		if (!Files.exists(docsFile)) {
+			// the docs are not in this workspace
+			return;
+		}
+
+		var indexFile = Files.createTempFile("phaser", ".index");
+
+		try {
+			assertRoundTrip(new PhaserJsdocModel(srcFolder, docsFile), indexFile, srcFolder);
+		} finally {
+			Files.deleteIfExists(indexFile);
+		}
+	}
+
+	private static void assertRoundTrip(PhaserJsdocModel model, Path indexFile, Path srcFolder) throws IOException {
+		PhaserJsdocIndex.write(model, indexFile);
+
+		var readModel = PhaserJsdocIndex.read(indexFile, srcFolder);
+
+		Assert.assertNotNull(readModel);
+		Assert.assertEquals(dump(model), dump(readModel));
+	}
+
+	/**
+	 * A text with all the data of the model. The linked members are printed by
+	 * reference, so the dump is the same only if the links point to the same
+	 * members.
+	 */
+	private static String dump(PhaserJsdocModel model) {
+		var sb = new StringBuilder();
+
+		var membersMap = model.getMembersMap();
+
+		for (var key : new TreeSet<>(membersMap.keySet())) {
+			sb.append(key + " -> ");
+			dumpMember(sb, membersMap.get(key));
+			sb.append("\n");
+		}
+
+		sb.append("containers: " + new TreeSet<>(model.getContainerMap().keySet()) + "\n");
+		sb.append("roots: " + refs(model.getRootNamespaces()) + "\n");
+		sb.append("globals: " + refs(model.getGlobalScope().getMembers()) + "\n");
+
+		return sb.toString();
+	}
+
+	private static void dumpMember(StringBuilder sb, IPhaserMember member) {
+		sb.append(ref(member));
+		sb.append(" help=" + member.getHelp());
+		sb.append(" file=" + member.getFile());
+		sb.append(" line=" + member.getLine());
+		sb.append(" offset=" + member.getOffset());
+		sb.append(" static=" + member.isStatic());
+		sb.append(" container=" + ref(member.getContainer()));
+		sb.append(" fires=" + refs(member.getFiresEventList()));
+
+		if (member instanceof PhaserVariable) {
+			var var = (PhaserVariable) member;
+			sb.append(" default=" + value(var.getDefaultValue()));
+			sb.append(" optional=" + var.isOptional());
+			sb.append(" types=" + Arrays.toString(var.getTypes()));
+			sb.append(" declType=" + ref(var.getDeclType()));
+		}
+
+		if (member instanceof PhaserProperty) {
+			sb.append(" readOnly=" + ((PhaserProperty) member).isReadOnly());
+		}
+
+		if (member instanceof PhaserMethod) {
+			var method = (PhaserMethod) member;
+			sb.append(" returnTypes=" + Arrays.toString(method.getReturnTypes()));
+			sb.append(" returnHelp=" + method.getReturnHelp());
+			sb.append(" declType=" + ref(method.getDeclType()));
+			sb.append(" argsMap=" + new TreeSet<>(method.getArgsMap().keySet()));
+			dumpArgs(sb, method.getArgs());
+		}
+
+		if (member instanceof PhaserEventConstant) {
+			dumpArgs(sb, ((PhaserEventConstant) member).getArgs());
+		}
+
+		if (member instanceof PhaserType) {
+			var type = (PhaserType) member;
+			sb.append(" extends=" + type.getExtends());
+			sb.append(" constructor=" + type.isConstructor());
+			sb.append(" enum=" + type.isEnum());
+			sb.append(" enumTypes=" + Arrays.toString(type.getEnumElementsType()));
+			sb.append(" typedef=" + type.isTypeDef());
+			sb.append(" extenders=" + refs(type.getExtenders()));
+			sb.append(" extending=" + refs(type.getExtending()));
+			dumpArgs(sb, type.getConstructorArgs());
+		}
+
+		if (member instanceof PhaserNamespace) {
+			var namespace = (PhaserNamespace) member;
+			sb.append(" simpleName=" + namespace.getSimpleName());
+			sb.append(" memberMap=" + new TreeSet<>(namespace.getMemberMap().keySet()));
+			// it is a set, the order does not matter
+			sb.append(" inherited=" + new TreeSet<>(refs(namespace.getInheritedMembers())));
+			sb.append(" namespaces=" + refs(namespace.getNamespaces()));
+			sb.append(" types=" + refs(namespace.getTypes()));
+			sb.append(" constants=" + refs(namespace.getConstants()));
+			sb.append(" properties=" + refs(namespace.getProperties()));
+			sb.append(" methods=" + refs(namespace.getMethods()));
+			sb.append(" allConstants=" + refs(namespace.getAllConstants()));
+			sb.append(" allProperties=" + refs(namespace.getAllProperties()));
+			sb.append(" allMethods=" + refs(namespace.getAllMethods()));
+		}
+	}
+
+	private static void dumpArgs(StringBuilder sb, List<PhaserMethodArg> args) {
+		for (var arg : args) {
+			sb.append("\n    ");
+			dumpMember(sb, arg);
+		}
+	}
+
+	private static String value(Object value) {
+		return value == null ? "null" : value.getClass().getSimpleName() + ":" + value;
+	}
+
+	private static String ref(Object member) {
+		if (member == null) {
+			return "null";
+		}
+
+		if (member instanceof IPhaserMember) {
+			var container = ((IPhaserMember) member).getContainer();
+			return member.getClass().getSimpleName() + "(" + (container == null ? "" : container.getName() + ".")
+					+ ((IPhaserMember) member).getName() + ")";
+		}
+
+		return member.getClass().getSimpleName();
+	}
+
+	private static List<String> refs(Collection<?> members) {
+		var list = new ArrayList<String>();
+
+		for (var member : members) {
+			list.add(ref(member));
+		}
+
+		return list;
+	}
+
+	/**
+	 * A small version of the <code>phaser.json</code> file, with an element of
+	 * each kind.
+	 */
+	private static JSONObject createDocs() {
+		var docs = new JSONArray();
+
+		docs.put(element(1, "namespace", "Phaser", null).put("description", "The Phaser namespace."));
+
+		docs.put(element(2, "namespace", "GameObjects", "Phaser").put("description", "Game objects, \u00e9t\u00e9 \u2603."));
+
+		docs.put(element(3, "class", "GameObject", "Phaser.GameObjects")
+
+				.put("classdesc", "The base class.")
+
+				.put("params", new JSONArray()
+
+						.put(param("scene", "Phaser.Scene").put("description", "The scene."))));
+
+		docs.put(element(4, "class", "Sprite", "Phaser.GameObjects")
+
+				.put("description", "A sprite.")
+
+				.put("augments", new JSONArray().put("Phaser.GameObjects.GameObject"))
+
+				.put("params", new JSONArray()
+
+						.put(param("x", "number").put("optional", true).put("defaultvalue", 0))
+
+						.put(param("frame", "string", "integer").put("defaultvalue", "__BASE"))));
+
+		docs.put(element(5, "member", "alpha", "Phaser.GameObjects.GameObject#alpha", "Phaser.GameObjects.GameObject")
+
+				.put("type", types("number"))
+
+				.put("defaultvalue", 1.5)
+
+				.put("readonly", true)
+
+				.put("description", "The alpha."));
+
+		docs.put(element(6, "member", "active", "Phaser.GameObjects.GameObject#active", "Phaser.GameObjects.GameObject")
+
+				.put("type", types("boolean"))
+
+				.put("defaultvalue", true));
+
+		docs.put(element(7, "member", "id", "Phaser.GameObjects.GameObject#id", "Phaser.GameObjects.GameObject")
+
+				.put("type", types("number"))
+
+				.put("defaultvalue", 10_000_000_000L));
+
+		docs.put(element(8, "function", "destroy", "Phaser.GameObjects.GameObject#destroy",
+				"Phaser.GameObjects.GameObject")
+
+						.put("description", "Destroy it.")
+
+						.put("fires", new JSONArray().put("Phaser.GameObjects.Events#event:DESTROY"))
+
+						.put("params", new JSONArray()
+
+								.put(param("fromScene", "boolean").put("defaultvalue", false)))
+
+						.put("returns", new JSONArray()
+
+								.put(new JSONObject().put("type", types("this")).put("description", "This object."))));
+
+		docs.put(element(9, "namespace", "Events", "Phaser.GameObjects"));
+
+		docs.put(element(10, "event", "DESTROY", "Phaser.GameObjects.Events#event:DESTROY", "Phaser.GameObjects.Events")
+
+				.put("description", "The destroy event.")
+
+				.put("params", new JSONArray()
+
+						.put(param("gameObject", "Phaser.GameObjects.GameObject"))));
+
+		docs.put(element(11, "constant", "MAX", "Phaser.GameObjects")
+
+				.put("type", types("integer"))
+
+				.put("defaultvalue", "100")
+
+				.put("scope", "static"));
+
+		docs.put(element(12, "typedef", "Config", "Phaser.GameObjects")
+
+				.put("description", "The config.")
+
+				.put("properties", new JSONArray()
+
+						.put(param("x", "number").put("description", "The x.")))
+
+				.put("type", types("object")));
+
+		docs.put(element(13, "member", "BlendModes", "Phaser")
+
+				.put("isEnum", true)
+
+				.put("type", types("integer")));
+
+		docs.put(element(14, "member", "ADD", "Phaser.BlendModes")
+
+				.put("type", types("integer"))
+
+				.put("scope", "static"));
+
+		return new JSONObject().put("docs", docs);
+	}
+
+	private static JSONObject element(int line, String kind, String name, String memberof) {
+		return element(line, kind, name, memberof == null ? name : memberof + "." + name, memberof);
+	}
+
+	private static JSONObject element(int line, String kind, String name, String longname, String memberof) {
+		var obj = new JSONObject();
+
+		obj.put("kind", kind);
+		obj.put("name", name);
+		obj.put("longname", longname);
+
+		if (memberof != null) {
+			obj.put("memberof", memberof);
+		}
+
+		obj.put("meta", new JSONObject()
+
+				.put("lineno", line)
+
+				.put("range", new JSONArray().put(line * 100).put(line * 100 + 50))
+
+				.put("path", "/phaser/src/gameobjects")
+
+				.put("filename", "File" + line + ".js"));
+
+		return obj;
+	}
+
+	private static JSONObject param(String name, String... types) {
+		return new JSONObject().put("name", name).put("type", types(types));
+	}
+
+	private static JSONObject types(String... names) {
+		var list = new JSONArray();
+
+		for (var name : names) {
+			list.put(name);
+		}
+
+		return new JSONObject().put("names", list);
+	}
+}
@@ -0,0 +1,176 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.inspect.core.tests;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import phasereditor.assetpack.core.TilemapCSV;
+
+/**
+ * Compare {@link TilemapCSV} with the line based parser it replaced, and check
+ * how it handles malformed content.
+ * 
+ * @author arian
+ *
+ */
+@SuppressWarnings({ "static-method", "boxing" })
+public class TilemapCSV_Parse_Test {
+
+	@Test
+	public void testSameAsOldParser() throws IOException {
+		var random = new Random(1);
+
+		for (int n = 0; n < 300; n++) {
+			var rows = 1 + random.nextInt(40);
+			var cols = 1 + random.nextInt(40);
+			var eol = random.nextBoolean() ? "\n" : "\r\n";
+			var lastEol = random.nextBoolean();
+
+			var sb = new StringBuilder();
+
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < cols; j++) {
+					if (j > 0) {
+						sb.append(',');
+					}
+
+					sb.append(random.nextInt(10) == 0 ? -1 : random.nextInt(100_000));
+				}
+
+				if (i < rows - 1 || lastEol) {
+					sb.append(eol);
+				}
+			}
+
+			var content = sb.toString();
+			var expected = oldParse(content);
+			var csv = parse(content);
+
+			Assert.assertEquals(rows, csv.getRows());
+			Assert.assertEquals(cols, csv.getCols());
+			Assert.assertTrue(csv.getErrors().isEmpty());
+
+			var actual = csv.toArray();
+
+			for (int i = 0; i < rows; i++) {
+				Assert.assertArrayEquals(expected[i], actual[i]);
+
+				for (int j = 0; j < cols; j++) {
+					Assert.assertEquals(expected[i][j], csv.get(i, j));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidCells() {
+		var csv = parse("1,x,3\n4,5,99999999999\n");
+
+		Assert.assertEquals(2, csv.getRows());
+		Assert.assertEquals(3, csv.getCols());
+		Assert.assertArrayEquals(new int[] { 1, -1, 3, 4, 5, -1 }, csv.getCells());
+		Assert.assertEquals(2, csv.getErrors().size());
+	}
+
+	@Test
+	public void testShortAndLongRows() {
+		var csv = parse("1,2,3\n4\n5,6,7,8\n");
+
+		Assert.assertEquals(3, csv.getRows());
+		Assert.assertEquals(3, csv.getCols());
+		Assert.assertArrayEquals(new int[] { 1, 2, 3, 4, -1, -1, 5, 6, 7 }, csv.getCells());
+		Assert.assertEquals(2, csv.getErrors().size());
+	}
+
+	@Test
+	public void testEmptyLinesAndSpaces() {
+		var csv = parse("\n 1 , 2\r\n\r\n3,\t4 \n\n");
+
+		Assert.assertEquals(2, csv.getRows());
+		Assert.assertEquals(2, csv.getCols());
+		Assert.assertArrayEquals(new int[] { 1, 2, 3, 4 }, csv.getCells());
+		Assert.assertTrue(csv.getErrors().isEmpty());
+	}
+
+	@Test
+	public void testEmpty() {
+		var csv = parse("");
+
+		Assert.assertEquals(0, csv.getRows());
+		Assert.assertEquals(0, csv.getCols());
+		Assert.assertEquals(0, csv.getCells().length);
+	}
+
+	private static TilemapCSV parse(String content) {
+		return TilemapCSV.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * The parser used before {@link TilemapCSV}, for valid content.
+	 */
+	private static int[][] oldParse(String content) throws IOException {
+		List<List<Integer>> data = new ArrayList<>();
+
+		var reader = new BufferedReader(new StringReader(content));
+		String line;
+
+		while ((line = reader.readLine()) != null) {
+			List<Integer> dataRow = new ArrayList<>();
+
+			for (var token : line.split(",")) {
+				int tile;
+
+				try {
+					tile = Integer.parseInt(token);
+				} catch (NumberFormatException e) {
+					tile = -1;
+				}
+
+				dataRow.add(tile);
+			}
+
+			data.add(dataRow);
+		}
+
+		var rows = data.size();
+		var cols = data.get(0).size();
+		var result = new int[rows][cols];
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				result[i][j] = data.get(i).get(j);
+			}
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,692 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.inspect.core.jsdoc;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binary index of the {@link PhaserJsdocModel}, persisted in the user cache.
+ * It is a table of strings followed by a table of members, and it is read from
+ * a memory-mapped file. The members are created without parsing the
+ * <code>phaser.json</code> file, and the help of the members, the biggest part
+ * of the data, is decoded from the mapped file only when it is requested.
+ *
+ * @author arian
+ *
+ */
+public class PhaserJsdocIndex {
+
+	private static final int MAGIC = 0x50484A44;
+	private static final int VERSION = 1;
+
+	private static final byte NAMESPACE = 1;
+	private static final byte TYPE = 2;
+	private static final byte METHOD = 3;
+	private static final byte PROPERTY = 4;
+	private static final byte CONSTANT = 5;
+	private static final byte EVENT = 6;
+	private static final byte ARG = 7;
+
+	private static final byte VALUE_NULL = 0;
+	private static final byte VALUE_STRING = 1;
+	private static final byte VALUE_BOOLEAN = 2;
+	private static final byte VALUE_INTEGER = 3;
+	private static final byte VALUE_LONG = 4;
+	private static final byte VALUE_DOUBLE = 5;
+
+	/**
+	 * The strings of the index. They are decoded from the mapped file the first
+	 * time they are requested.
+	 */
+	static class StringTable {
+		private ByteBuffer _buffer;
+		private int _offsetsPos;
+		private int _bytesPos;
+		private String[] _strings;
+
+		StringTable(ByteBuffer buffer, int offsetsPos, int count) {
+			_buffer = buffer;
+			_offsetsPos = offsetsPos;
+			_bytesPos = offsetsPos + (count + 1) * 4;
+			_strings = new String[count];
+		}
+
+		int getEndPosition() {
+			return _bytesPos + _buffer.getInt(_offsetsPos + _strings.length * 4);
+		}
+
+		String getString(int id) {
+			if (id < 0) {
+				return null;
+			}
+
+			var str = _strings[id];
+
+			if (str == null) {
+				int start = _buffer.getInt(_offsetsPos + id * 4);
+				int end = _buffer.getInt(_offsetsPos + id * 4 + 4);
+				var bytes = new byte[end - start];
+
+				var buffer = _buffer.duplicate();
+				buffer.position(_bytesPos + start);
+				buffer.get(bytes);
+
+				str = new String(bytes, StandardCharsets.UTF_8);
+				_strings[id] = str;
+			}
+
+			return str;
+		}
+	}
+
+	// write
+
+	private static class Writer {
+		private Map<String, Integer> _stringIds = new HashMap<>();
+		private List<String> _strings = new ArrayList<>();
+		private Map<IPhaserMember, Integer> _memberIds = new IdentityHashMap<>();
+		private List<IPhaserMember> _members = new ArrayList<>();
+		private DataOutputStream _out;
+
+		Writer(DataOutputStream out) {
+			_out = out;
+		}
+
+		int id(String str) {
+			if (str == null) {
+				return -1;
+			}
+
+			return _stringIds.computeIfAbsent(str, k -> {
+				_strings.add(k);
+				return Integer.valueOf(_strings.size() - 1);
+			}).intValue();
+		}
+
+		int id(IPhaserMember member) {
+			if (member == null) {
+				return -1;
+			}
+
+			var id = _memberIds.get(member);
+
+			if (id == null) {
+				throw new IllegalStateException("Member not indexed: " + member);
+			}
+
+			return id.intValue();
+		}
+
+		void add(IPhaserMember member) {
+			if (member != null && !_memberIds.containsKey(member)) {
+				_memberIds.put(member, Integer.valueOf(_members.size()));
+				_members.add(member);
+			}
+		}
+
+		void addAll(Collection<? extends IPhaserMember> members) {
+			for (var member : members) {
+				add(member);
+			}
+		}
+
+		void writeString(String str) throws IOException {
+			_out.writeInt(id(str));
+		}
+
+		void writeStrings(String[] list) throws IOException {
+			if (list == null) {
+				_out.writeInt(-1);
+				return;
+			}
+
+			_out.writeInt(list.length);
+
+			for (var str : list) {
+				writeString(str);
+			}
+		}
+
+		void writeMember(IPhaserMember member) throws IOException {
+			_out.writeInt(id(member));
+		}
+
+		void writeMembers(Collection<? extends IPhaserMember> list) throws IOException {
+			_out.writeInt(list.size());
+
+			for (var member : list) {
+				writeMember(member);
+			}
+		}
+
+		void writeMemberMap(Map<String, ? extends IPhaserMember> map) throws IOException {
+			_out.writeInt(map.size());
+
+			for (var entry : map.entrySet()) {
+				writeString(entry.getKey());
+				writeMember(entry.getValue());
+			}
+		}
+	}
+
+	private static byte kindOf(IPhaserMember member) {
+		var cls = member.getClass();
+
+		if (cls == PhaserNamespace.class) {
+			return NAMESPACE;
+		} else if (cls == PhaserType.class) {
+			return TYPE;
+		} else if (cls == PhaserMethod.class) {
+			return METHOD;
+		} else if (cls == PhaserProperty.class) {
+			return PROPERTY;
+		} else if (cls == PhaserConstant.class) {
+			return CONSTANT;
+		} else if (cls == PhaserEventConstant.class) {
+			return EVENT;
+		} else if (cls == PhaserMethodArg.class) {
+			return ARG;
+		}
+
+		throw new IllegalArgumentException("Unknown member class " + cls);
+	}
+
+	/**
+	 * Collect all the members reachable from the model, including the arguments
+	 * of the methods.
+	 */
+	private static void collectMembers(PhaserJsdocModel model, Writer w) {
+		w.addAll(model.getContainers());
+		w.addAll(model.getMembersMap().values());
+		w.addAll(model.getRootNamespaces());
+		w.addAll(model.getGlobalScope().getMembers());
+
+		for (int i = 0; i < w._members.size(); i++) {
+			var member = w._members.get(i);
+
+			w.add(member.getContainer());
+			w.addAll(member.getFiresEventList());
+
+			if (member instanceof PhaserVariable) {
+				w.add(((PhaserVariable) member).getDeclType());
+			}
+
+			if (member instanceof PhaserMethod) {
+				var method = (PhaserMethod) member;
+				w.add(method.getDeclType());
+				w.addAll(method.getArgs());
+			}
+
+			if (member instanceof PhaserEventConstant) {
+				w.addAll(((PhaserEventConstant) member).getArgs());
+			}
+
+			if (member instanceof PhaserType) {
+				var type = (PhaserType) member;
+				w.addAll(type.getConstructorArgs());
+				w.addAll(type.getExtenders());
+				w.addAll(type.getExtending());
+			}
+
+			if (member instanceof PhaserNamespace) {
+				var namespace = (PhaserNamespace) member;
+				w.addAll(namespace.getMemberMap().values());
+				w.addAll(namespace.getInheritedMembers());
+				w.addAll(namespace.getAllConstants());
+				w.addAll(namespace.getAllProperties());
+				w.addAll(namespace.getAllMethods());
+				w.addAll(namespace.getNamespaces());
+				w.addAll(namespace.getTypes());
+			}
+		}
+	}
+
+	private static void writeValue(Writer w, Object value) throws IOException {
+		var out = w._out;
+
+		if (value == null) {
+			out.writeByte(VALUE_NULL);
+		} else if (value instanceof Boolean) {
+			out.writeByte(VALUE_BOOLEAN);
+			out.writeBoolean(((Boolean) value).booleanValue());
+		} else if (value instanceof Integer) {
+			out.writeByte(VALUE_INTEGER);
+			out.writeInt(((Integer) value).intValue());
+		} else if (value instanceof Long) {
+			out.writeByte(VALUE_LONG);
+			out.writeLong(((Long) value).longValue());
+		} else if (value instanceof Double) {
+			out.writeByte(VALUE_DOUBLE);
+			out.writeDouble(((Double) value).doubleValue());
+		} else {
+			// the default values are only displayed
+			out.writeByte(VALUE_STRING);
+			w.writeString(value.toString());
+		}
+	}
+
+	private static void writeScalars(Writer w, IPhaserMember member) throws IOException {
+		var out = w._out;
+		var kind = kindOf(member);
+
+		out.writeByte(kind);
+		w.writeString(member.getName());
+		w.writeString(member.getHelp());
+		w.writeString(member.getFile());
+		out.writeInt(member.getLine());
+		out.writeInt(member.getOffset());
+		out.writeBoolean(member.isStatic());
+
+		if (member instanceof PhaserNamespace) {
+			w.writeString(((PhaserNamespace) member).getSimpleName());
+		}
+
+		if (member instanceof PhaserVariable) {
+			var variable = (PhaserVariable) member;
+			writeValue(w, variable.getDefaultValue());
+			out.writeBoolean(variable.isOptional());
+			w.writeStrings(variable.getTypes());
+		}
+
+		if (member instanceof PhaserProperty) {
+			out.writeBoolean(((PhaserProperty) member).isReadOnly());
+		}
+
+		if (member instanceof PhaserMethod) {
+			var method = (PhaserMethod) member;
+			w.writeStrings(method.getReturnTypes());
+			w.writeString(method.getReturnHelp());
+		}
+
+		if (member instanceof PhaserType) {
+			var type = (PhaserType) member;
+			w.writeStrings(type.getExtends().toArray(new String[type.getExtends().size()]));
+			out.writeBoolean(type.isConstructor());
+			out.writeBoolean(type.isEnum());
+			w.writeStrings(type.getEnumElementsType());
+			out.writeBoolean(type.isTypeDef());
+		}
+	}
+
+	private static void writeLinks(Writer w, IPhaserMember member) throws IOException {
+		w.writeMember(member.getContainer());
+		w.writeMembers(member.getFiresEventList());
+
+		if (member instanceof PhaserVariable) {
+			w.writeMember(((PhaserVariable) member).getDeclType());
+		}
+
+		if (member instanceof PhaserMethod) {
+			var method = (PhaserMethod) member;
+			w.writeMember(method.getDeclType());
+			w.writeMembers(method.getArgs());
+		}
+
+		if (member instanceof PhaserEventConstant) {
+			w.writeMembers(((PhaserEventConstant) member).getArgs());
+		}
+
+		if (member instanceof PhaserType) {
+			var type = (PhaserType) member;
+			w.writeMembers(type.getConstructorArgs());
+			w.writeMembers(type.getExtenders());
+			w.writeMembers(type.getExtending());
+		}
+
+		if (member instanceof PhaserNamespace) {
+			var namespace = (PhaserNamespace) member;
+			w.writeMemberMap(namespace.getMemberMap());
+			w.writeMembers(namespace.getInheritedMembers());
+			w.writeMembers(namespace.getNamespaces());
+			w.writeMembers(namespace.getTypes());
+			w.writeMembers(namespace.getConstants());
+			w.writeMembers(namespace.getProperties());
+			w.writeMembers(namespace.getMethods());
+			w.writeMembers(namespace.getAllConstants());
+			w.writeMembers(namespace.getAllProperties());
+			w.writeMembers(namespace.getAllMethods());
+		}
+	}
+
+	public static void write(PhaserJsdocModel model, Path file) throws IOException {
+		var membersBytes = new ByteArrayOutputStream();
+
+		var w = new Writer(new DataOutputStream(membersBytes));
+
+		collectMembers(model, w);
+
+		// members
+
+		w._out.writeInt(w._members.size());
+
+		for (var member : w._members) {
+			writeScalars(w, member);
+		}
+
+		for (var member : w._members) {
+			writeLinks(w, member);
+		}
+
+		// model
+
+		w.writeMemberMap(model.getContainerMap());
+		w.writeMemberMap(model.getMembersMap());
+		w.writeMembers(model.getRootNamespaces());
+		w.writeMembers(model.getGlobalScope().getMembers());
+
+		w._out.flush();
+
+		// file
+
+		var tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			// strings
+
+			var stringsBytes = new ByteArrayOutputStream();
+
+			out.writeInt(w._strings.size());
+			out.writeInt(0);
+
+			for (var str : w._strings) {
+				stringsBytes.write(str.getBytes(StandardCharsets.UTF_8));
+				out.writeInt(stringsBytes.size());
+			}
+
+			stringsBytes.writeTo(out);
+
+			membersBytes.writeTo(out);
+		}
+
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// read
+
+	private static class Reader {
+		private ByteBuffer _buffer;
+		private StringTable _strings;
+		private IPhaserMember[] _members;
+
+		Reader(ByteBuffer buffer, StringTable strings) {
+			_buffer = buffer;
+			_strings = strings;
+		}
+
+		String readString() {
+			return _strings.getString(_buffer.getInt());
+		}
+
+		String[] readStrings() {
+			int n = _buffer.getInt();
+
+			if (n == -1) {
+				return null;
+			}
+
+			var list = new String[n];
+
+			for (int i = 0; i < n; i++) {
+				list[i] = readString();
+			}
+
+			return list;
+		}
+
+		@SuppressWarnings("unchecked")
+		<T extends IPhaserMember> T readMember() {
+			int id = _buffer.getInt();
+			return id == -1 ? null : (T) _members[id];
+		}
+
+		<T extends IPhaserMember> void readMembers(Collection<T> list) {
+			int n = _buffer.getInt();
+
+			for (int i = 0; i < n; i++) {
+				list.add(readMember());
+			}
+		}
+
+		<T extends IPhaserMember> void readMemberMap(Map<String, T> map) {
+			int n = _buffer.getInt();
+
+			for (int i = 0; i < n; i++) {
+				var key = readString();
+				T member = readMember();
+				map.put(key, member);
+			}
+		}
+
+		Object readValue() {
+			var tag = _buffer.get();
+
+			switch (tag) {
+			case VALUE_BOOLEAN:
+				return Boolean.valueOf(_buffer.get() != 0);
+			case VALUE_INTEGER:
+				return Integer.valueOf(_buffer.getInt());
+			case VALUE_LONG:
+				return Long.valueOf(_buffer.getLong());
+			case VALUE_DOUBLE:
+				return Double.valueOf(_buffer.getDouble());
+			case VALUE_STRING:
+				return readString();
+			default:
+				return null;
+			}
+		}
+
+		boolean readBoolean() {
+			return _buffer.get() != 0;
+		}
+	}
+
+	private static IPhaserMember readScalars(Reader r) {
+		var buffer = r._buffer;
+		var kind = buffer.get();
+
+		var name = r.readString();
+		var helpId = buffer.getInt();
+		var file = r.readString();
+		var line = buffer.getInt();
+		var offset = buffer.getInt();
+		var isStatic = r.readBoolean();
+
+		PhaserMember member;
+
+		switch (kind) {
+		case NAMESPACE:
+			member = new PhaserNamespace(null, r.readString());
+			break;
+		case TYPE:
+			member = new PhaserType(null, r.readString());
+			break;
+		case METHOD:
+			member = new PhaserMethod(null);
+			break;
+		case PROPERTY:
+			member = new PhaserProperty(null);
+			break;
+		case CONSTANT:
+			member = new PhaserConstant(null);
+			break;
+		case EVENT:
+			member = new PhaserEventConstant(null);
+			break;
+		case ARG:
+			member = new PhaserMethodArg(null);
+			break;
+		default:
+			throw new IllegalStateException("Unknown member kind " + kind);
+		}
+
+		member.setName(name);
+		member.setLazyHelp(r._strings, helpId);
+		member.setFile(file);
+		member.setLine(line);
+		member.setOffset(offset);
+		member.setStatic(isStatic);
+
+		if (member instanceof PhaserVariable) {
+			var variable = (PhaserVariable) member;
+			variable.setDefaultValue(r.readValue());
+			variable.setOptional(r.readBoolean());
+			variable.setTypes(r.readStrings());
+		}
+
+		if (member instanceof PhaserProperty) {
+			((PhaserProperty) member).setReadOnly(r.readBoolean());
+		}
+
+		if (member instanceof PhaserMethod) {
+			var method = (PhaserMethod) member;
+			method.setReturnTypes(r.readStrings());
+			method.setReturnHelp(r.readString());
+		}
+
+		if (member instanceof PhaserType) {
+			var type = (PhaserType) member;
+			type.setExtends(List.of(r.readStrings()));
+			type.setConstructor(r.readBoolean());
+			type.setEnum(r.readBoolean());
+			type.setEnumElementsType(r.readStrings());
+			type.setTypeDef(r.readBoolean());
+		}
+
+		return member;
+	}
+
+	private static void readLinks(Reader r, IPhaserMember member) {
+		member.setContainer(r.readMember());
+		r.readMembers(member.getFiresEventList());
+
+		if (member instanceof PhaserVariable) {
+			((PhaserVariable) member).setDeclType(r.readMember());
+		}
+
+		if (member instanceof PhaserMethod) {
+			var method = (PhaserMethod) member;
+			method.setDeclType(r.readMember());
+			r.readMembers(method.getArgs());
+
+			for (var arg : method.getArgs()) {
+				method.getArgsMap().put(arg.getName(), arg);
+			}
+		}
+
+		if (member instanceof PhaserEventConstant) {
+			r.readMembers(((PhaserEventConstant) member).getArgs());
+		}
+
+		if (member instanceof PhaserType) {
+			var type = (PhaserType) member;
+			r.readMembers(type.getConstructorArgs());
+			r.readMembers(type.getExtenders());
+			r.readMembers(type.getExtending());
+		}
+
+		if (member instanceof PhaserNamespace) {
+			var namespace = (PhaserNamespace) member;
+			r.readMemberMap(namespace.getMemberMap());
+			r.readMembers(namespace.getInheritedMembers());
+			r.readMembers(namespace.getNamespaces());
+			r.readMembers(namespace.getTypes());
+			r.readMembers(namespace.getConstants());
+			r.readMembers(namespace.getProperties());
+			r.readMembers(namespace.getMethods());
+			r.readMembers(namespace.getAllConstants());
+			r.readMembers(namespace.getAllProperties());
+			r.readMembers(namespace.getAllMethods());
+		}
+	}
+
+	/**
+	 * Read the model from the index file. Returns <code>null</code> if the file
+	 * was written by a different version of the index.
+	 */
+	public static PhaserJsdocModel read(Path file, Path srcFolder) throws IOException {
+		ByteBuffer buffer;
+
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			return null;
+		}
+
+		var stringsCount = buffer.getInt();
+		var strings = new StringTable(buffer, buffer.position(), stringsCount);
+
+		buffer.position(strings.getEndPosition());
+
+		var r = new Reader(buffer, strings);
+
+		// members
+
+		var count = buffer.getInt();
+
+		r._members = new IPhaserMember[count];
+
+		for (int i = 0; i < count; i++) {
+			r._members[i] = readScalars(r);
+		}
+
+		for (int i = 0; i < count; i++) {
+			readLinks(r, r._members[i]);
+		}
+
+		// model
+
+		Map<String, IMemberContainer> containersMap = new HashMap<>();
+		Map<String, IPhaserMember> membersMap = new HashMap<>();
+		List<IPhaserMember> rootNamespaces = new ArrayList<>();
+		List<IPhaserMember> globals = new ArrayList<>();
+
+		r.readMemberMap(containersMap);
+		r.readMemberMap(membersMap);
+		r.readMembers(rootNamespaces);
+		r.readMembers(globals);
+
+		return new PhaserJsdocModel(srcFolder, containersMap, membersMap, rootNamespaces,
+				new PhaserGlobalScope(globals));
+	}
+}
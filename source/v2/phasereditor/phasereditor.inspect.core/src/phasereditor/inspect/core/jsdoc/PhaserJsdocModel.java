@@ -27,8 +27,6 @@ import static java.lang.System.out;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -67,17 +65,18 @@ public class PhaserJsdocModel implements Serializable {
 
 				var size = Files.getLastModifiedTime(docsJsonFile).toMillis();
 
-				var cacheFile = InspectCore.getUserCacheFolder().resolve("phaser.json." + size + ".binary");
+				var cacheFile = InspectCore.getUserCacheFolder().resolve("phaser.json." + size + ".index");
 
 				if (Files.exists(cacheFile)) {
-					try (var input = new ObjectInputStream(Files.newInputStream(cacheFile))) {
-						_instance = (PhaserJsdocModel) input.readObject();
-						_instance._srcFolder = srcFolder;
+					try {
+						_instance = PhaserJsdocIndex.read(cacheFile, srcFolder);
 
-						out.println("Read cached docs..." + (currentTimeMillis() - t) + "ms");
+						if (_instance != null) {
+							out.println("Read docs index..." + (currentTimeMillis() - t) + "ms");
 
-						return _instance;
-					} catch (IOException | ClassNotFoundException e) {
+							return _instance;
+						}
+					} catch (Exception e) {
 						e.printStackTrace();
 					}
 				}
@@ -86,11 +85,21 @@ public class PhaserJsdocModel implements Serializable {
 
 				var t2 = currentTimeMillis();
 
-				try (var serilizer = new ObjectOutputStream(Files.newOutputStream(cacheFile))) {
-					serilizer.writeObject(_instance);
+				try {
+					PhaserJsdocIndex.write(_instance, cacheFile);
+
+					// use the model of the index, it does not keep the JSON elements and the help
+					// is read on demand
+					var model = PhaserJsdocIndex.read(cacheFile, srcFolder);
+
+					if (model != null) {
+						_instance = model;
+					}
+				} catch (IOException e) {
+					e.printStackTrace();
 				}
 
-				out.println("Write phaser.jsdoc cache in " + (currentTimeMillis() - t2) + "ms");
+				out.println("Write phaser.jsdoc index in " + (currentTimeMillis() - t2) + "ms");
 
 				out.println("Build Phaser JSDoc " + (currentTimeMillis() - t) + "ms");
 			} catch (Exception e) {
@@ -115,6 +124,16 @@ public class PhaserJsdocModel implements Serializable {
 		buildPhaserJSDoc(docsJsonFile);
 	}
 
+	PhaserJsdocModel(Path srcFolder, Map<String, IMemberContainer> containersMap, Map<String, IPhaserMember> membersMap,
+			List<IPhaserMember> rootNamespaces, PhaserGlobalScope globalScope) {
+		_srcFolder = srcFolder;
+		_containersMap = containersMap;
+		_membersMap = membersMap;
+		_rootNamespaces = rootNamespaces;
+		_elementsWithMembers = new HashSet<>();
+		_globalScope = globalScope;
+	}
+
 	public Path getMemberPath(IPhaserMember member) {
 		return _srcFolder.resolve(member.getFile());
 	}
@@ -42,6 +42,9 @@ public abstract class PhaserMember implements IPhaserMember, IAdaptable {
 
 	private String _filename;
 
+	private transient PhaserJsdocIndex.StringTable _helpTable;
+	private int _helpId;
+
 	public PhaserMember(JSONObject json) {
 		_static = false;
 		_json = json;
@@ -125,6 +128,10 @@ public abstract class PhaserMember implements IPhaserMember, IAdaptable {
 
 	@Override
 	public String getHelp() {
+		if (_help == null && _helpTable != null) {
+			_help = _helpTable.getString(_helpId);
+		}
+
 		return _help;
 	}
 
@@ -132,6 +139,16 @@ public abstract class PhaserMember implements IPhaserMember, IAdaptable {
 		_help = help;
 	}
 
+	/**
+	 * Set the help of a member read from the index. It is decoded the first time
+	 * it is requested.
+	 */
+	void setLazyHelp(PhaserJsdocIndex.StringTable helpTable, int helpId) {
+		_help = null;
+		_helpTable = helpTable;
+		_helpId = helpId;
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Override
 	public Object getAdapter(Class adapter) {
@@ -56,8 +56,12 @@ public class PhaserNamespace extends PhaserMember implements IMemberContainer {
 	private String _simpleName;
 
 	public PhaserNamespace(JSONObject json) {
+		this(json, json.getString("name"));
+	}
+
+	PhaserNamespace(JSONObject json, String simpleName) {
 		super(json);
-		_simpleName = json.getString("name");
+		_simpleName = simpleName;
 		_namespaces = new ArrayList<>();
 
 		_types = new ArrayList<>();
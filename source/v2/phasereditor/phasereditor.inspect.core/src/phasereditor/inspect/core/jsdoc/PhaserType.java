@@ -48,7 +48,11 @@ public class PhaserType extends PhaserNamespace implements ITypeMember {
 	private boolean _typeDef;
 
 	public PhaserType(JSONObject json) {
-		super(json);
+		this(json, json.getString("name"));
+	}
+
+	PhaserType(JSONObject json, String simpleName) {
+		super(json, simpleName);
 		_constructorArgs = new ArrayList<>();
 		_extends = Collections.emptyList();
 		_constructor = false;
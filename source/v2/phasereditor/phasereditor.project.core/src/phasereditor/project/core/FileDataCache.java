@@ -22,11 +22,10 @@
 package phasereditor.project.core;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -37,106 +36,290 @@ import org.eclipse.core.resources.IResourceVisitor;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 
+import phasereditor.project.core.FileDataCacheSnapshot.Entry;
+
 /**
+ * A cache of data computed from the files of the projects.
+ * <p>
+ * Readers never block: the project maps are concurrent and a full build
+ * replaces the whole project map when it is ready. Writers are serialized per
+ * project, so the builds of different projects do not wait each other.
+ * </p>
+ * <p>
+ * Caches that implement {@link #getSnapshotName()},
+ * {@link #serializeData(Object)} and {@link #deserializeData(IFile, String)}
+ * are persisted in the user cache folder, so at startup only the files with a
+ * new modification stamp are processed again.
+ * </p>
+ * 
  * @author arian
  *
  */
 public abstract class FileDataCache<TData> {
 	private Map<IProject, Map<IPath, TData>> _cache;
+	private Map<IProject, Object> _projectLocks;
+	private Map<IProject, FileDataCacheSnapshot> _snapshots;
 
 	public FileDataCache() {
-		_cache = new HashMap<>();
+		_cache = new ConcurrentHashMap<>();
+		_projectLocks = new ConcurrentHashMap<>();
+		_snapshots = new ConcurrentHashMap<>();
 	}
 
-	public synchronized void buildProject(IProject project) throws CoreException {
-		Map<IPath, TData> map = new HashMap<>();
-		IContainer webContent = ProjectCore.getWebContentFolder(project);
-		webContent.accept(new IResourceVisitor() {
+	/**
+	 * The name used to persist this cache. By default it is <code>null</code>,
+	 * that means the cache is not persisted.
+	 */
+	protected String getSnapshotName() {
+		return null;
+	}
 
-			@Override
-			public boolean visit(IResource resource) throws CoreException {
-				if (resource instanceof IFile) {
-					TData data = createData((IFile) resource);
-					if (data != null) {
-						map.put(resource.getFullPath(), data);
-					}
-				}
-				return true;
+	/**
+	 * Serialize the data to be persisted in the snapshot.
+	 * 
+	 * @return The serialized data, or <code>null</code> if the data cannot be
+	 *         persisted and has to be created again in the next session.
+	 */
+	@SuppressWarnings("unused")
+	protected String serializeData(TData data) {
+		return null;
+	}
+
+	/**
+	 * Create the data of the file from the content persisted in the snapshot.
+	 * 
+	 * @return The data or <code>null</code> if it should be created again with
+	 *         {@link #createData(IFile)}.
+	 */
+	@SuppressWarnings("unused")
+	protected TData deserializeData(IFile file, String content) throws Exception {
+		return null;
+	}
+
+	private FileDataCacheSnapshot getSnapshot(IProject project) {
+		var name = getSnapshotName();
+
+		if (name == null) {
+			return null;
+		}
+
+		return _snapshots.computeIfAbsent(project, p -> new FileDataCacheSnapshot(name, p));
+	}
+
+	private void updateSnapshot(FileDataCacheSnapshot snapshot, IFile file, TData data) {
+		if (snapshot == null) {
+			return;
+		}
+
+		var path = file.getFullPath();
+
+		if (data == null) {
+			snapshot.put(path, new Entry(file, null));
+		} else {
+			var content = serializeData(data);
+
+			if (content == null) {
+				snapshot.remove(path);
+			} else {
+				snapshot.put(path, new Entry(file, content));
 			}
-		});
-		_cache.put(project, map);
+		}
+	}
+
+	private TData createDataFromSnapshot(Map<IPath, Entry> entries, IFile file, boolean[] ignored) {
+		var entry = entries.get(file.getFullPath());
+
+		if (entry == null || !entry.isUpToDate(file)) {
+			return null;
+		}
+
+		if (!entry.hasData()) {
+			ignored[0] = true;
+			return null;
+		}
+
+		try {
+			return deserializeData(file, entry.content);
+		} catch (Exception e) {
+			ProjectCore.logError(e);
+			return null;
+		}
 	}
 
-	public synchronized void buildDelta(IProject project, IResourceDelta delta) throws CoreException {
-		Map<IPath, TData> map = getProjectMap(project);
+	private Object getProjectLock(IProject project) {
+		return _projectLocks.computeIfAbsent(project, p -> new Object());
+	}
+
+	public void buildProject(IProject project) throws CoreException {
+		buildProject(project, false);
+	}
 
-		delta.accept(new IResourceDeltaVisitor2() {
+	/**
+	 * Build the cache of the project.
+	 * 
+	 * @param useSnapshot
+	 *            If the persisted snapshot should be used to skip the files that
+	 *            did not change since the last session.
+	 */
+	public void buildProject(IProject project, boolean useSnapshot) throws CoreException {
+		synchronized (getProjectLock(project)) {
+			List<IFile> files = new ArrayList<>();
+			IContainer webContent = ProjectCore.getWebContentFolder(project);
+			webContent.accept(new IResourceVisitor() {
 
-			@Override
-			public void fileAdded(IFile file) {
-				TData data = createData(file);
-				if (data != null) {
-					map.put(file.getFullPath(), data);
+				@Override
+				public boolean visit(IResource resource) throws CoreException {
+					if (resource instanceof IFile) {
+						files.add((IFile) resource);
+					}
+					return true;
 				}
-			}
+			});
+
+			var snapshot = getSnapshot(project);
+			Map<IPath, Entry> entries = useSnapshot && snapshot != null ? snapshot.load() : Map.of();
 
-			@Override
-			public void fileRemoved(IFile file) {
-				map.remove(file.getFullPath());
+			if (snapshot != null) {
+				snapshot.clear();
 			}
 
-			@Override
-			public void fileMovedTo(IFile file, IPath movedFromPath, IPath movedToPath) {
-				TData data = map.remove(movedFromPath);
+			Map<IPath, TData> map = new ConcurrentHashMap<>();
 
-				if (!ProjectCore.isWebContentFile(file)) {
-					// the file is going out of the web content so we are not
-					// interested on it, so just keep it deleted!!!
-					return;
-				}
+			files.parallelStream().forEach(file -> {
+				try {
+					var ignored = new boolean[] { false };
 
-				if (data == null) {
-					// maybe moved from outside the WebContent folder
-					data = createData(file);
-					if (data == null) {
-						// this is not the kind of file we are interested on
+					TData data = createDataFromSnapshot(entries, file, ignored);
+
+					if (ignored[0]) {
+						snapshot.put(file.getFullPath(), entries.get(file.getFullPath()));
 						return;
 					}
-				} else {
-					updateDataWithMove(data, file, movedFromPath, movedToPath);
+
+					if (data == null) {
+						data = createData(file);
+					}
+
+					updateSnapshot(snapshot, file, data);
+
+					if (data != null) {
+						map.put(file.getFullPath(), data);
+					}
+				} catch (Exception e) {
+					ProjectCore.logError(e);
 				}
+			});
+
+			_cache.put(project, map);
 
-				map.put(movedToPath, data);
+			if (snapshot != null) {
+				snapshot.save();
 			}
+		}
+	}
+
+	public void buildDelta(IProject project, IResourceDelta delta) throws CoreException {
+		synchronized (getProjectLock(project)) {
+			Map<IPath, TData> map = getProjectMap(project);
+			var snapshot = getSnapshot(project);
+
+			delta.accept(new IResourceDeltaVisitor2() {
 
-			@Override
-			public void fileChanged(IFile file) {
-				TData data = createData(file);
-				if (data != null) {
-					map.put(file.getFullPath(), data);
+				@Override
+				public void fileAdded(IFile file) {
+					TData data = createData(file);
+					if (data != null) {
+						map.put(file.getFullPath(), data);
+					}
+					updateSnapshot(snapshot, file, data);
 				}
-			}
 
-		});
+				@Override
+				public void fileRemoved(IFile file) {
+					map.remove(file.getFullPath());
+					if (snapshot != null) {
+						snapshot.remove(file.getFullPath());
+					}
+				}
+
+				@Override
+				public void fileMovedTo(IFile file, IPath movedFromPath, IPath movedToPath) {
+					TData data = map.remove(movedFromPath);
+
+					if (snapshot != null) {
+						snapshot.remove(movedFromPath);
+					}
+
+					if (!ProjectCore.isWebContentFile(file)) {
+						// the file is going out of the web content so we are not
+						// interested on it, so just keep it deleted!!!
+						return;
+					}
+
+					if (data == null) {
+						// maybe moved from outside the WebContent folder
+						data = createData(file);
+
+						updateSnapshot(snapshot, file, data);
+
+						if (data == null) {
+							// this is not the kind of file we are interested on
+							return;
+						}
+					} else {
+						updateDataWithMove(data, file, movedFromPath, movedToPath);
+						updateSnapshot(snapshot, file, data);
+					}
+
+					map.put(movedToPath, data);
+				}
+
+				@Override
+				public void fileChanged(IFile file) {
+					TData data = createData(file);
+					if (data != null) {
+						map.put(file.getFullPath(), data);
+					}
+					updateSnapshot(snapshot, file, data);
+				}
+
+			});
+
+			if (snapshot != null) {
+				snapshot.save();
+			}
+		}
 	}
 
 	protected abstract void updateDataWithMove(TData data, IFile file, IPath movedFromPath, IPath movedToPath);
 
-	public synchronized void clean(IProject project) {
-		_cache.remove(project);
+	public void clean(IProject project) {
+		synchronized (getProjectLock(project)) {
+			_cache.remove(project);
+
+			var snapshot = _snapshots.remove(project);
+
+			if (snapshot == null && getSnapshotName() != null) {
+				snapshot = new FileDataCacheSnapshot(getSnapshotName(), project);
+			}
+
+			if (snapshot != null) {
+				snapshot.delete();
+			}
+		}
 	}
 
-	public synchronized List<TData> getProjectData(IProject project) {
+	public List<TData> getProjectData(IProject project) {
 		Map<IPath, TData> map = _cache.get(project);
 
 		if (map == null) {
 			return Collections.emptyList();
 		}
-		Collection<TData> values = map.values();
-		return new ArrayList<>(values);
+
+		return new ArrayList<>(map.values());
 	}
 
-	public synchronized TData getFileData(IFile file) {
+	public TData getFileData(IFile file) {
 		Map<IPath, TData> map = _cache.get(file.getProject());
 
 		if (map == null) {
@@ -154,12 +337,16 @@ public abstract class FileDataCache<TData> {
 	}
 
 	private Map<IPath, TData> getProjectMap(IProject project) {
-		return _cache.computeIfAbsent(project, p -> new HashMap<>());
+		return _cache.computeIfAbsent(project, p -> new ConcurrentHashMap<>());
 	}
 
 	/**
 	 * Create the data associated to the file. Return null the file is not a
 	 * candidate to be cached (a way to filter the files).
+	 * <p>
+	 * It can be called concurrently, from different threads, during a project
+	 * build.
+	 * </p>
 	 * 
 	 * @param file
 	 * @return The data of the file or null if the file has to be ignored.
@@ -37,7 +37,12 @@ public abstract class FileDataCacheBuilderParticipant<TData> implements IProject
 
 	@Override
 	public void startupOnInitialize(IProject project, Map<String, Object> env) {
-		fullBuild(project, env);
+		try {
+			// reuse the data persisted in the last session
+			getFileDataCache().buildProject(project, true);
+		} catch (CoreException e) {
+			ProjectCore.logError(e);
+		}
 	}
 
 	@Override
@@ -0,0 +1,186 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.project.core;
+
+import static java.lang.System.out;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * The persisted content of a {@link FileDataCache} for a project. Every entry
+ * keeps the stamps of the file and the serialized data, or no data if the file
+ * was ignored by the cache.
+ *
+ * @author arian
+ *
+ */
+class FileDataCacheSnapshot {
+
+	private static final int VERSION = 1;
+
+	static class Entry {
+		long modificationStamp;
+		long localTimeStamp;
+		String content;
+
+		Entry(long modificationStamp, long localTimeStamp, String content) {
+			this.modificationStamp = modificationStamp;
+			this.localTimeStamp = localTimeStamp;
+			this.content = content;
+		}
+
+		Entry(IFile file, String content) {
+			this(file.getModificationStamp(), file.getLocalTimeStamp(), content);
+		}
+
+		boolean isUpToDate(IFile file) {
+			return modificationStamp == file.getModificationStamp() && localTimeStamp == file.getLocalTimeStamp();
+		}
+
+		boolean hasData() {
+			return content != null;
+		}
+	}
+
+	private Path _snapshotFile;
+	private Map<IPath, Entry> _entries;
+
+	FileDataCacheSnapshot(String name, IProject project) {
+		var dir = ProjectCore.getUserCacheFolder().resolve("filedata");
+		var projectName = project.getName().replaceAll("[^\\w\\-.]", "_");
+		_snapshotFile = dir.resolve(name + "." + projectName + ".bin");
+		_entries = new ConcurrentHashMap<>();
+	}
+
+	void put(IPath path, Entry entry) {
+		_entries.put(path, entry);
+	}
+
+	void remove(IPath path) {
+		_entries.remove(path);
+	}
+
+	void clear() {
+		_entries.clear();
+	}
+
+	/**
+	 * Read the persisted entries. It does not change the current entries of this
+	 * snapshot.
+	 */
+	Map<IPath, Entry> load() {
+		Map<IPath, Entry> entries = new ConcurrentHashMap<>();
+
+		if (!Files.exists(_snapshotFile)) {
+			return entries;
+		}
+
+		try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(_snapshotFile)))) {
+
+			if (input.readInt() != VERSION) {
+				return entries;
+			}
+
+			int size = input.readInt();
+
+			for (int i = 0; i < size; i++) {
+				var path = org.eclipse.core.runtime.Path.fromPortableString(input.readUTF());
+				var modificationStamp = input.readLong();
+				var localTimeStamp = input.readLong();
+				String content = null;
+
+				if (input.readBoolean()) {
+					var bytes = new byte[input.readInt()];
+					input.readFully(bytes);
+					content = new String(bytes, StandardCharsets.UTF_8);
+				}
+
+				entries.put(path, new Entry(modificationStamp, localTimeStamp, content));
+			}
+
+		} catch (Exception e) {
+			out.println("FileDataCacheSnapshot: cannot read " + _snapshotFile + ": " + e.getMessage());
+			entries.clear();
+		}
+
+		return entries;
+	}
+
+	void save() {
+		try {
+			Files.createDirectories(_snapshotFile.getParent());
+
+			var tempFile = _snapshotFile.resolveSibling(_snapshotFile.getFileName() + ".tmp");
+
+			try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				var entries = Map.copyOf(_entries);
+
+				output.writeInt(VERSION);
+				output.writeInt(entries.size());
+
+				for (var mapEntry : entries.entrySet()) {
+					var entry = mapEntry.getValue();
+
+					output.writeUTF(mapEntry.getKey().toPortableString());
+					output.writeLong(entry.modificationStamp);
+					output.writeLong(entry.localTimeStamp);
+					output.writeBoolean(entry.hasData());
+
+					if (entry.hasData()) {
+						var bytes = entry.content.getBytes(StandardCharsets.UTF_8);
+						output.writeInt(bytes.length);
+						output.write(bytes);
+					}
+				}
+			}
+
+			Files.move(tempFile, _snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		} catch (IOException e) {
+			ProjectCore.logError(e);
+		}
+	}
+
+	void delete() {
+		_entries.clear();
+
+		try {
+			Files.deleteIfExists(_snapshotFile);
+		} catch (IOException e) {
+			ProjectCore.logError(e);
+		}
+	}
+}
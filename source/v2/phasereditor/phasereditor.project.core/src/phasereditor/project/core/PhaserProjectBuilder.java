@@ -21,10 +21,10 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.project.core;
 
+import static java.lang.System.currentTimeMillis;
 import static java.lang.System.out;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.resources.IProject;
@@ -102,22 +102,15 @@ public class PhaserProjectBuilder extends IncrementalProjectBuilder {
 
 		IProject project = getProject();
 
-		Map<String, Object> env = new HashMap<>();
-
 		out.println("PhaserProjectBuilder.startupOnInitialize (start) [" + project.getName() + "]");
 
-		List<IProjectBuildParticipant> list = ProjectCore.getBuildParticipants();
+		var t = currentTimeMillis();
 
-		for (IProjectBuildParticipant participant : list) {
-			try {
-				out.println("\t" + participant + " (building)");
-				participant.startupOnInitialize(project, env);
-			} catch (Exception e) {
-				ProjectCore.logError(e);
-			}
-		}
+		ProjectCore.getBuildScheduler().run("Initializing Phaser elements", null,
+				(participant, env) -> participant.startupOnInitialize(project, env));
 
-		out.println("PhaserProjectBuilder.startupOnInitialize (done) [" + project.getName() + "]");
+		out.println("PhaserProjectBuilder.startupOnInitialize (done " + (currentTimeMillis() - t) + "ms) ["
+				+ project.getName() + "]");
 
 		_startupOnInitializeFinished = true;
 		
@@ -129,37 +122,24 @@ public class PhaserProjectBuilder extends IncrementalProjectBuilder {
 
 		out.println("PhaserProjectBuilder.clean (start) [" + project.getName() + "]");
 
-		Map<String, Object> env = new HashMap<>();
-		List<IProjectBuildParticipant> list = ProjectCore.getBuildParticipants();
-		for (IProjectBuildParticipant participant : list) {
-			try {
-				out.println("\t" + participant + " (building)");
-				participant.clean(project, env);
-			} catch (Exception e) {
-				ProjectCore.logError(e);
-			}
-		}
+		var t = currentTimeMillis();
+
+		ProjectCore.getBuildScheduler().run("Cleaning Phaser elements", monitor,
+				(participant, env) -> participant.clean(project, env));
 
-		out.println("PhaserProjectBuilder.clean (done) [" + project.getName() + "]");
+		out.println("PhaserProjectBuilder.clean (done " + (currentTimeMillis() - t) + "ms) [" + project.getName() + "]");
 	}
 
 	protected static void projectDeleted(IProject project) {
-		Map<String, Object> env = new HashMap<>();
-
 		out.println("PhaserProjectBuilder.projectDeleted (start) [" + project.getName() + "]");
 
-		List<IProjectBuildParticipant> list = ProjectCore.getBuildParticipants();
+		var t = currentTimeMillis();
 
-		for (IProjectBuildParticipant participant : list) {
-			try {
-				out.println("\t" + participant + " (building)");
-				participant.projectDeleted(project, env);
-			} catch (Exception e) {
-				ProjectCore.logError(e);
-			}
-		}
+		ProjectCore.getBuildScheduler().run("Deleting Phaser elements", null,
+				(participant, env) -> participant.projectDeleted(project, env));
 
-		out.println("PhaserProjectBuilder.projectDeleted (done) [" + project.getName() + "]");
+		out.println("PhaserProjectBuilder.projectDeleted (done " + (currentTimeMillis() - t) + "ms) ["
+				+ project.getName() + "]");
 	}
 
 	@Override
@@ -177,33 +157,22 @@ public class PhaserProjectBuilder extends IncrementalProjectBuilder {
 
 		// call all build participant!!!
 
-		Map<String, Object> env = new HashMap<>();
-		List<IProjectBuildParticipant> list = ProjectCore.getBuildParticipants();
-
-		monitor.beginTask("Building Phaser elements", list.size());
+		var t = currentTimeMillis();
 
-		for (IProjectBuildParticipant participant : list) {
-			try {
-				monitor.subTask("Building " + participant.getClass().getSimpleName());
-				out.println("\t" + participant + " (building)");
-
-				if (fullBuild) {
-					participant.fullBuild(project, env);
-				} else {
-					participant.build(project, delta, env);
-				}
-				monitor.worked(1);
-			} catch (Exception e) {
-				ProjectCore.logError(e);
+		ProjectCore.getBuildScheduler().run("Building Phaser elements", monitor, (participant, env) -> {
+			if (fullBuild) {
+				participant.fullBuild(project, env);
+			} else {
+				participant.build(project, delta, env);
 			}
-		}
+		});
 
-		monitor.done();
+		t = currentTimeMillis() - t;
 
 		if (fullBuild) {
-			out.println("PhaserProjectBuilder.fullBuild (done) [" + project.getName() + "]");
+			out.println("PhaserProjectBuilder.fullBuild (done " + t + "ms) [" + project.getName() + "]");
 		} else {
-			out.println("PhaserProjectBuilder.build (done) [" + project.getName() + "]");
+			out.println("PhaserProjectBuilder.build (done " + t + "ms) [" + project.getName() + "]");
 		}
 
 		runAfterBuildActions(project);
@@ -0,0 +1,316 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.project.core;
+
+import static java.lang.System.out;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * Runs the build participants following the dependencies declared in the
+ * <code>dependsOn</code> attribute of the <code>buildParticipant</code>
+ * extension point. Participants that do not declare it wait for all the
+ * participants with a lower order, like it was done before.
+ *
+ * @author arian
+ *
+ */
+public class ProjectBuildScheduler {
+
+	private static ExecutorService _pool;
+
+	public interface IParticipantAction {
+		public void run(IProjectBuildParticipant participant, Map<String, Object> env) throws Exception;
+	}
+
+	public static class ParticipantNode {
+		private String _id;
+		private double _order;
+		private IProjectBuildParticipant _participant;
+		private Set<ParticipantNode> _dependencies;
+
+		ParticipantNode(String id, double order, IProjectBuildParticipant participant) {
+			_id = id;
+			_order = order;
+			_participant = participant;
+			_dependencies = new LinkedHashSet<>();
+		}
+
+		public String getId() {
+			return _id;
+		}
+
+		public double getOrder() {
+			return _order;
+		}
+
+		public IProjectBuildParticipant getParticipant() {
+			return _participant;
+		}
+
+		public Set<ParticipantNode> getDependencies() {
+			return _dependencies;
+		}
+
+		@Override
+		public String toString() {
+			return _participant.toString();
+		}
+	}
+
+	private List<ParticipantNode> _nodes;
+
+	private ProjectBuildScheduler(List<ParticipantNode> nodes) {
+		_nodes = nodes;
+	}
+
+	public static ProjectBuildScheduler create() {
+		IExtensionPoint point = Platform.getExtensionRegistry()
+				.getExtensionPoint("phasereditor.project.core.buildParticipant");
+
+		List<ParticipantNode> nodes = new ArrayList<>();
+		Map<ParticipantNode, String> dependsOnMap = new HashMap<>();
+
+		for (IConfigurationElement element : point.getConfigurationElements()) {
+			try {
+				IProjectBuildParticipant participant = (IProjectBuildParticipant) element
+						.createExecutableExtension("handler");
+
+				double order;
+
+				try {
+					order = Double.parseDouble(element.getAttribute("order"));
+				} catch (Exception e) {
+					order = Double.MAX_VALUE;
+				}
+
+				var node = new ParticipantNode(element.getAttribute("id"), order, participant);
+				nodes.add(node);
+				dependsOnMap.put(node, element.getAttribute("dependsOn"));
+			} catch (Exception e) {
+				ProjectCore.logError(e);
+			}
+		}
+
+		nodes.sort((a, b) -> Double.compare(a._order, b._order));
+
+		Map<String, ParticipantNode> idMap = new HashMap<>();
+		for (var node : nodes) {
+			idMap.put(node._id, node);
+		}
+
+		for (var node : nodes) {
+			var dependsOn = dependsOnMap.get(node);
+
+			if (dependsOn == null) {
+				// legacy participant, it runs after all the participants with a lower order
+				for (var other : nodes) {
+					if (other._order < node._order) {
+						node._dependencies.add(other);
+					}
+				}
+			} else {
+				for (var id : dependsOn.split(",")) {
+					id = id.trim();
+
+					if (id.length() == 0) {
+						continue;
+					}
+
+					var other = idMap.get(id);
+
+					if (other == null || other == node) {
+						out.println("ProjectBuildScheduler: unknown dependency '" + id + "' of " + node._id);
+					} else {
+						node._dependencies.add(other);
+					}
+				}
+			}
+		}
+
+		if (!isAcyclic(nodes)) {
+			out.println("ProjectBuildScheduler: cycle in the participant dependencies, running them sequentially.");
+
+			for (int i = 0; i < nodes.size(); i++) {
+				var node = nodes.get(i);
+				node._dependencies.clear();
+				if (i > 0) {
+					node._dependencies.add(nodes.get(i - 1));
+				}
+			}
+		}
+
+		return new ProjectBuildScheduler(nodes);
+	}
+
+	private static boolean isAcyclic(List<ParticipantNode> nodes) {
+		Map<ParticipantNode, Integer> pending = new HashMap<>();
+		List<ParticipantNode> ready = new ArrayList<>();
+
+		for (var node : nodes) {
+			pending.put(node, Integer.valueOf(node._dependencies.size()));
+			if (node._dependencies.isEmpty()) {
+				ready.add(node);
+			}
+		}
+
+		int count = 0;
+
+		while (!ready.isEmpty()) {
+			var node = ready.remove(ready.size() - 1);
+			count++;
+
+			for (var other : nodes) {
+				if (other._dependencies.contains(node)) {
+					int n = pending.get(other).intValue() - 1;
+					pending.put(other, Integer.valueOf(n));
+					if (n == 0) {
+						ready.add(other);
+					}
+				}
+			}
+		}
+
+		return count == nodes.size();
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (_pool == null) {
+			var counter = new AtomicInteger();
+			var size = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+			_pool = Executors.newFixedThreadPool(size, r -> {
+				var thread = new Thread(r, "Phaser Project Builder " + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return _pool;
+	}
+
+	public List<ParticipantNode> getNodes() {
+		return _nodes;
+	}
+
+	public List<IProjectBuildParticipant> getParticipants() {
+		var list = new ArrayList<IProjectBuildParticipant>();
+		for (var node : _nodes) {
+			list.add(node._participant);
+		}
+		return list;
+	}
+
+	/**
+	 * Run the action on every participant. Independent participants run
+	 * concurrently. This method returns when all the participants are done.
+	 */
+	public void run(String taskName, IProgressMonitor monitor, IParticipantAction action) {
+		Map<String, Object> env = new ConcurrentHashMap<>();
+
+		if (monitor != null) {
+			monitor.beginTask(taskName, _nodes.size());
+		}
+
+		var pool = getPool();
+
+		Map<ParticipantNode, CompletableFuture<Void>> futures = new HashMap<>();
+
+		// the nodes are sorted by order, and the legacy dependencies follow the order,
+		// but explicit dependencies may not, so we create the futures on demand.
+
+		for (var node : _nodes) {
+			createFuture(node, futures, pool, env, monitor, action);
+		}
+
+		CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[futures.size()])).join();
+
+		if (monitor != null) {
+			monitor.done();
+		}
+	}
+
+	private CompletableFuture<Void> createFuture(ParticipantNode node, Map<ParticipantNode, CompletableFuture<Void>> futures,
+			ExecutorService pool, Map<String, Object> env, IProgressMonitor monitor, IParticipantAction action) {
+
+		var future = futures.get(node);
+
+		if (future != null) {
+			return future;
+		}
+
+		var deps = new ArrayList<CompletableFuture<Void>>();
+		for (var dep : node._dependencies) {
+			deps.add(createFuture(dep, futures, pool, env, monitor, action));
+		}
+
+		future = CompletableFuture.allOf(deps.toArray(new CompletableFuture[deps.size()]))
+				.thenRunAsync(() -> runNode(node, env, monitor, action), pool);
+
+		futures.put(node, future);
+
+		return future;
+	}
+
+	private static void runNode(ParticipantNode node, Map<String, Object> env, IProgressMonitor monitor,
+			IParticipantAction action) {
+
+		if (monitor != null) {
+			synchronized (monitor) {
+				monitor.subTask("Building " + node._participant.getClass().getSimpleName());
+			}
+		}
+
+		var t = System.currentTimeMillis();
+
+		try {
+			action.run(node._participant, env);
+		} catch (Exception e) {
+			ProjectCore.logError(e);
+		}
+
+		t = System.currentTimeMillis() - t;
+
+		out.println("\t" + node._participant + " (" + t + "ms) [" + Thread.currentThread().getName() + "]");
+
+		if (monitor != null) {
+			synchronized (monitor) {
+				monitor.worked(1);
+			}
+		}
+	}
+}
@@ -47,14 +47,11 @@ import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ProjectScope;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IConfigurationElement;
-import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
-import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.dialogs.MessageDialog;
@@ -94,38 +91,11 @@ public class ProjectCore {
 	}
 
 	public static List<IProjectBuildParticipant> getBuildParticipants() {
-		List<IProjectBuildParticipant> list = new ArrayList<>();
-		IExtensionPoint point = Platform.getExtensionRegistry()
-				.getExtensionPoint("phasereditor.project.core.buildParticipant");
-
-		Map<IProjectBuildParticipant, String> orderMap = new HashMap<>();
-
-		for (IConfigurationElement element : point.getConfigurationElements()) {
-			try {
-				IProjectBuildParticipant participant = (IProjectBuildParticipant) element
-						.createExecutableExtension("handler");
-				list.add(participant);
-				String order = element.getAttribute("order");
-				orderMap.put(participant, order);
-			} catch (Exception e) {
-				ProjectCore.logError(e);
-			}
-		}
-
-		list.sort((a, b) -> {
-
-			try {
-				String order1 = orderMap.get(a);
-				String order2 = orderMap.get(b);
-				int c = Double.valueOf(Double.parseDouble(order1))
-						.compareTo(Double.valueOf(Double.parseDouble(order2)));
-				return c;
-			} catch (Exception e) {
-				return 0;
-			}
-		});
+		return getBuildScheduler().getParticipants();
+	}
 
-		return list;
+	public static ProjectBuildScheduler getBuildScheduler() {
+		return ProjectBuildScheduler.create();
 	}
 
 	public static IPath getDesignPath(IProject project) {
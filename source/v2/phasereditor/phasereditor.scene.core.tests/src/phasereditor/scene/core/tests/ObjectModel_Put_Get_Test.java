@@ -0,0 +1,132 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.scene.core.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import phasereditor.scene.core.ObjectModel;
+
+/**
+ * Test that the values set with {@link ObjectModel#put(String, Object)} are
+ * returned by {@link ObjectModel#get(String)}, even if the property has a
+ * primitive slot and the value does not fit in it.
+ * 
+ * @author arian
+ *
+ */
+@SuppressWarnings({ "static-method", "boxing" })
+public class ObjectModel_Put_Get_Test {
+
+	private static final String FLOAT_KEY = "-test-put-get-float";
+	private static final String INT_KEY = "-test-put-get-int";
+	private static final String BOOLEAN_KEY = "-test-put-get-boolean";
+
+	private static final int FLOAT_SLOT = ObjectModel.floatSlot(FLOAT_KEY);
+	private static final int INT_SLOT = ObjectModel.intSlot(INT_KEY);
+	private static final int BOOLEAN_SLOT = ObjectModel.booleanSlot(BOOLEAN_KEY);
+
+	private static ObjectModel createModel() {
+		return new ObjectModel("Test") {
+			// nothing
+		};
+	}
+
+	@Test
+	public void testExactTypes() {
+		var model = createModel();
+
+		model.put(FLOAT_KEY, 1.5f);
+		model.put(INT_KEY, 3);
+		model.put(BOOLEAN_KEY, true);
+
+		Assert.assertEquals(1.5f, model.get(FLOAT_KEY));
+		Assert.assertEquals(3, model.get(INT_KEY));
+		Assert.assertEquals(true, model.get(BOOLEAN_KEY));
+
+		Assert.assertEquals(1.5f, model.getFloat(FLOAT_SLOT), 0);
+		Assert.assertEquals(3, model.getInt(INT_SLOT));
+		Assert.assertTrue(model.getBoolean(BOOLEAN_SLOT));
+	}
+
+	@Test
+	public void testOtherTypes() {
+		var model = createModel();
+
+		model.put(FLOAT_KEY, 2.5d);
+		model.put(INT_KEY, 7L);
+		model.put(BOOLEAN_KEY, "yes");
+
+		Assert.assertEquals(2.5d, model.get(FLOAT_KEY));
+		Assert.assertEquals(7L, model.get(INT_KEY));
+		Assert.assertEquals("yes", model.get(BOOLEAN_KEY));
+
+		model.put(FLOAT_KEY, Integer.valueOf(4));
+
+		Assert.assertEquals(4, model.get(FLOAT_KEY));
+	}
+
+	@Test
+	public void testNull() {
+		var model = createModel();
+
+		model.put(FLOAT_KEY, 1f);
+		model.put(FLOAT_KEY, null);
+
+		Assert.assertNull(model.get(FLOAT_KEY));
+
+		model.put(FLOAT_KEY, 2f);
+
+		Assert.assertEquals(2f, model.get(FLOAT_KEY));
+	}
+
+	@Test
+	public void testSlotSetterClearsOtherTypes() {
+		var model = createModel();
+
+		model.put(FLOAT_KEY, 2.5d);
+		model.putFloat(FLOAT_SLOT, 3f);
+
+		Assert.assertEquals(3f, model.get(FLOAT_KEY));
+
+		model.put(INT_KEY, null);
+		model.putInt(INT_SLOT, 5);
+
+		Assert.assertEquals(5, model.get(INT_KEY));
+
+		model.put(BOOLEAN_KEY, "no");
+		model.putBoolean(BOOLEAN_SLOT, false);
+
+		Assert.assertEquals(false, model.get(BOOLEAN_KEY));
+	}
+
+	@Test
+	public void testNoSlot() {
+		var model = createModel();
+
+		Assert.assertNull(model.get("-test-put-get-no-slot"));
+
+		model.put("-test-put-get-no-slot", 1.5d);
+
+		Assert.assertEquals(1.5d, model.get("-test-put-get-no-slot"));
+	}
+}
@@ -37,12 +37,14 @@ public interface BitmapTextComponent {
 
 	static int fontSize_default = 0;
 
+	static int fontSize_slot = ObjectModel.intSlot("fontSize");
+
 	static int get_fontSize(ObjectModel obj) {
-		return (int) obj.get("fontSize");
+		return obj.getInt(fontSize_slot);
 	}
 
 	static void set_fontSize(ObjectModel obj, int fontSize) {
-		obj.put("fontSize", fontSize);
+		obj.putInt(fontSize_slot, fontSize);
 	}
 
 	// align
@@ -55,12 +57,14 @@ public interface BitmapTextComponent {
 
 	static int align_default = ALIGN_LEFT;
 
+	static int align_slot = ObjectModel.intSlot("align");
+
 	static int get_align(ObjectModel obj) {
-		return (int) obj.get("align");
+		return obj.getInt(align_slot);
 	}
 
 	static void set_align(ObjectModel obj, int align) {
-		obj.put("align", align);
+		obj.putInt(align_slot, align);
 	}
 
 	// letterSpacing
@@ -69,12 +73,14 @@ public interface BitmapTextComponent {
 
 	static float letterSpacing_default = 0;
 
+	static int letterSpacing_slot = ObjectModel.floatSlot("letterSpacing");
+
 	static float get_letterSpacing(ObjectModel obj) {
-		return (float) obj.get("letterSpacing");
+		return obj.getFloat(letterSpacing_slot);
 	}
 
 	static void set_letterSpacing(ObjectModel obj, float letterSpacing) {
-		obj.put("letterSpacing", letterSpacing);
+		obj.putFloat(letterSpacing_slot, letterSpacing);
 	}
 
 	// fontAssetKey
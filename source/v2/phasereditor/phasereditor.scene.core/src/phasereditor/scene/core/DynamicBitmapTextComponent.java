@@ -49,20 +49,24 @@ public interface DynamicBitmapTextComponent {
 	static int cropWidth_default = 0;
 	static int cropHeight_default = 0;
 
+	static int cropWidth_slot = ObjectModel.intSlot("cropWidth");
+
 	static int get_cropWidth(ObjectModel obj) {
-		return (int) obj.get("cropWidth");
+		return obj.getInt(cropWidth_slot);
 	}
 
 	static void set_cropWidth(ObjectModel obj, int cropWidth) {
-		obj.put("cropWidth", cropWidth);
+		obj.putInt(cropWidth_slot, cropWidth);
 	}
 
+	static int cropHeight_slot = ObjectModel.intSlot("cropHeight");
+
 	static int get_cropHeight(ObjectModel obj) {
-		return (int) obj.get("cropHeight");
+		return obj.getInt(cropHeight_slot);
 	}
 
 	static void set_cropHeight(ObjectModel obj, int cropHeight) {
-		obj.put("cropHeight", cropHeight);
+		obj.putInt(cropHeight_slot, cropHeight);
 	}
 
 	// scroll
@@ -73,20 +77,24 @@ public interface DynamicBitmapTextComponent {
 	static float scrollX_default = 0;
 	static float scrollY_default = 0;
 
+	static int scrollX_slot = ObjectModel.floatSlot("scrollX");
+
 	static float get_scrollX(ObjectModel obj) {
-		return (float) obj.get("scrollX");
+		return obj.getFloat(scrollX_slot);
 	}
 
 	static void set_scrollX(ObjectModel obj, float scrollX) {
-		obj.put("scrollX", scrollX);
+		obj.putFloat(scrollX_slot, scrollX);
 	}
 
+	static int scrollY_slot = ObjectModel.floatSlot("scrollY");
+
 	static float get_scrollY(ObjectModel obj) {
-		return (float) obj.get("scrollY");
+		return obj.getFloat(scrollY_slot);
 	}
 
 	static void set_scrollY(ObjectModel obj, float scrollY) {
-		obj.put("scrollY", scrollY);
+		obj.putFloat(scrollY_slot, scrollY);
 	}
 
 	// init
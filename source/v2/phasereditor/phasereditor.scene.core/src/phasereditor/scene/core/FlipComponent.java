@@ -25,7 +25,6 @@ package phasereditor.scene.core;
  * @author arian
  *
  */
-@SuppressWarnings("boxing")
 public interface FlipComponent {
 
 	// flip
@@ -36,20 +35,24 @@ public interface FlipComponent {
 	static boolean flipX_default = false;
 	static boolean flipY_default = false;
 
+	static int flipX_slot = ObjectModel.booleanSlot("flipX");
+
 	static boolean get_flipX(ObjectModel obj) {
-		return (boolean) obj.get("flipX");
+		return obj.getBoolean(flipX_slot);
 	}
 
 	static void set_flipX(ObjectModel obj, boolean flipX) {
-		obj.put("flipX", flipX);
+		obj.putBoolean(flipX_slot, flipX);
 	}
 
+	static int flipY_slot = ObjectModel.booleanSlot("flipY");
+
 	static boolean get_flipY(ObjectModel obj) {
-		return (boolean) obj.get("flipY");
+		return obj.getBoolean(flipY_slot);
 	}
 
 	static void set_flipY(ObjectModel obj, boolean flipY) {
-		obj.put("flipY", flipY);
+		obj.putBoolean(flipY_slot, flipY);
 	}
 	
 	static boolean is(Object model) {
@@ -36,12 +36,14 @@ public interface GameObjectComponent {
 
 	static boolean active_default = true;
 
+	static int active_slot = ObjectModel.booleanSlot("active");
+
 	static boolean get_active(ObjectModel obj) {
-		return (boolean) obj.get("active");
+		return obj.getBoolean(active_slot);
 	}
 
 	static void set_active(ObjectModel obj, boolean active) {
-		obj.put("active", active);
+		obj.putBoolean(active_slot, active);
 	}
 
 	
@@ -93,12 +95,14 @@ public interface GameObjectComponent {
 
 	static boolean objectBuild_default = false;
 
+	static int objectBuild_slot = ObjectModel.booleanSlot("objectBuild");
+
 	static boolean get_objectBuild(ObjectModel obj) {
-		return (boolean) obj.get("objectBuild");
+		return obj.getBoolean(objectBuild_slot);
 	}
 
 	static void set_objectBuild(ObjectModel obj, boolean objectBuild) {
-		obj.put("objectBuild", objectBuild);
+		obj.putBoolean(objectBuild_slot, objectBuild);
 	}
 	
 	// useName
@@ -107,12 +111,14 @@ public interface GameObjectComponent {
 
 	static boolean useName_default = false;
 
+	static int useName_slot = ObjectModel.booleanSlot("useName");
+
 	static boolean get_useName(ObjectModel obj) {
-		return (boolean) obj.get("useName");
+		return obj.getBoolean(useName_slot);
 	}
 
 	static void set_useName(ObjectModel obj, boolean useName) {
-		obj.put("useName", useName);
+		obj.putBoolean(useName_slot, useName);
 	}
 
 	// utils
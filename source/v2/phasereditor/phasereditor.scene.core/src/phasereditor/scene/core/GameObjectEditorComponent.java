@@ -25,7 +25,6 @@ package phasereditor.scene.core;
  * @author arian
  *
  */
-@SuppressWarnings("boxing")
 public interface GameObjectEditorComponent {
 
 	// editorDirty
@@ -34,12 +33,14 @@ public interface GameObjectEditorComponent {
 
 	static boolean gameObjectEditorDirty_default = true;
 
+	static int gameObjectEditorDirty_slot = ObjectModel.booleanSlot("gameObjectEditorDirty");
+
 	static boolean get_gameObjectEditorDirty(ObjectModel obj) {
-		return (boolean) obj.get("gameObjectEditorDirty");
+		return obj.getBoolean(gameObjectEditorDirty_slot);
 	}
 
 	static void set_gameObjectEditorDirty(ObjectModel obj, boolean editorDirty) {
-		obj.put("gameObjectEditorDirty", editorDirty);
+		obj.putBoolean(gameObjectEditorDirty_slot, editorDirty);
 	}
 
 	// editorShow
@@ -48,12 +49,14 @@ public interface GameObjectEditorComponent {
 
 	static boolean gemeObjectEditorShow_default = true;
 
+	static int gameObjectEditorShow_slot = ObjectModel.booleanSlot("gameObjectEditorShow");
+
 	static boolean get_gameObjectEditorShow(ObjectModel obj) {
-		return (boolean) obj.get("gameObjectEditorShow");
+		return obj.getBoolean(gameObjectEditorShow_slot);
 	}
 
 	static void set_gameObjectEditorShow(ObjectModel obj, boolean editorShow) {
-		obj.put("gameObjectEditorShow", editorShow);
+		obj.putBoolean(gameObjectEditorShow_slot, editorShow);
 	}
 
 	// editorClosed
@@ -62,12 +65,14 @@ public interface GameObjectEditorComponent {
 
 	static boolean editorClosed_default = false;
 
+	static int gameObjectEditorClosed_slot = ObjectModel.booleanSlot("gameObjectEditorClosed");
+
 	static boolean get_gameObjectEditorClosed(ObjectModel obj) {
-		return (boolean) obj.get("gameObjectEditorClosed");
+		return obj.getBoolean(gameObjectEditorClosed_slot);
 	}
 
 	static void set_gameObjectEditorClosed(ObjectModel obj, boolean editorClosed) {
-		obj.put("gameObjectEditorClosed", editorClosed);
+		obj.putBoolean(gameObjectEditorClosed_slot, editorClosed);
 	}
 
 	// editorTransparency
@@ -76,12 +81,14 @@ public interface GameObjectEditorComponent {
 
 	static float gameObjectEditorTransparency_default = 1;
 
+	static int gameObjectEditorTransparency_slot = ObjectModel.floatSlot("gameObjectEditorTransparency");
+
 	static float get_gameObjectEditorTransparency(ObjectModel obj) {
-		return (float) obj.get("gameObjectEditorTransparency");
+		return obj.getFloat(gameObjectEditorTransparency_slot);
 	}
 
 	static void set_gameObjectEditorTransparency(ObjectModel obj, float gameObjectEditorTransparency) {
-		obj.put("gameObjectEditorTransparency", gameObjectEditorTransparency);
+		obj.putFloat(gameObjectEditorTransparency_slot, gameObjectEditorTransparency);
 	}
 
 	// gameObjectEditorShowBones
@@ -90,12 +97,14 @@ public interface GameObjectEditorComponent {
 
 	static boolean gameObjectEditorShowBones_default = false;
 
+	static int gameObjectEditorShowBones_slot = ObjectModel.booleanSlot("gameObjectEditorShowBones");
+
 	static boolean get_gameObjectEditorShowBones(ObjectModel obj) {
-		return (boolean) obj.get("gameObjectEditorShowBones");
+		return obj.getBoolean(gameObjectEditorShowBones_slot);
 	}
 
 	static void set_gameObjectEditorShowBones(ObjectModel obj, boolean gameObjectEditorShowBones) {
-		obj.put("gameObjectEditorShowBones", gameObjectEditorShowBones);
+		obj.putBoolean(gameObjectEditorShowBones_slot, gameObjectEditorShowBones);
 	}
 	
 	// utils
@@ -22,9 +22,15 @@
 package phasereditor.scene.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -37,7 +43,36 @@ import org.json.JSONObject;
  */
 public abstract class ObjectModel {
 
+	private enum SlotType {
+		FLOAT, INT, BOOLEAN
+	}
+
+	private static class Slot {
+		SlotType type;
+		int index;
+
+		Slot(SlotType type, int index) {
+			this.type = type;
+			this.index = index;
+		}
+	}
+
+	// the schema of the primitive properties. It is shared by all the objects,
+	// every component declares the slots of its properties when it is loaded.
+	private static Map<String, Slot> _slotMap = new ConcurrentHashMap<>();
+	private static int[] _slotCount = new int[SlotType.values().length];
+	private static Map<SlotType, List<String>> _slotNames = new EnumMap<>(SlotType.class);
+
+	private static final float[] EMPTY_FLOATS = new float[0];
+	private static final int[] EMPTY_INTS = new int[0];
+	private static final boolean[] EMPTY_BOOLEANS = new boolean[0];
+
+	private float[] _floats;
+	private int[] _ints;
+	private boolean[] _booleans;
 	private Map<String, Object> _map;
+	// the slot properties with a value in the map, that does not fit in the slot
+	private Set<String> _slotOverrides;
 	private String _id;
 	private String _type;
 
@@ -45,7 +80,60 @@ public abstract class ObjectModel {
 		_type = type;
 		_id = UUID.randomUUID().toString();
 
-		_map = new HashMap<>();
+		_floats = EMPTY_FLOATS;
+		_ints = EMPTY_INTS;
+		_booleans = EMPTY_BOOLEANS;
+	}
+
+	public static int floatSlot(String name) {
+		return registerSlot(name, SlotType.FLOAT);
+	}
+
+	public static int intSlot(String name) {
+		return registerSlot(name, SlotType.INT);
+	}
+
+	public static int booleanSlot(String name) {
+		return registerSlot(name, SlotType.BOOLEAN);
+	}
+
+	private static synchronized int registerSlot(String name, SlotType type) {
+		var slot = _slotMap.get(name);
+
+		if (slot != null) {
+			if (slot.type != type) {
+				throw new IllegalArgumentException(
+						"The property '" + name + "' is already declared as " + slot.type + ".");
+			}
+
+			return slot.index;
+		}
+
+		slot = new Slot(type, _slotCount[type.ordinal()]++);
+		_slotMap.put(name, slot);
+		_slotNames.computeIfAbsent(type, k -> new ArrayList<>()).add(name);
+
+		return slot.index;
+	}
+
+	private static synchronized int getSlotCount(SlotType type) {
+		return _slotCount[type.ordinal()];
+	}
+
+	private static synchronized String getSlotName(SlotType type, int index) {
+		return _slotNames.get(type).get(index);
+	}
+
+	private void removeSlotOverride(SlotType type, int index) {
+		var name = getSlotName(type, index);
+
+		if (_slotOverrides.remove(name)) {
+			_map.remove(name);
+
+			if (_slotOverrides.isEmpty()) {
+				_slotOverrides = null;
+			}
+		}
 	}
 
 	public String getId() {
@@ -60,12 +148,133 @@ public abstract class ObjectModel {
 		return _type;
 	}
 
+	public float getFloat(int slot) {
+		var values = _floats;
+		return slot < values.length ? values[slot] : 0;
+	}
+
+	public void putFloat(int slot, float value) {
+		if (slot >= _floats.length) {
+			_floats = Arrays.copyOf(_floats, Math.max(slot + 1, getSlotCount(SlotType.FLOAT)));
+		}
+
+		if (_slotOverrides != null) {
+			removeSlotOverride(SlotType.FLOAT, slot);
+		}
+
+		_floats[slot] = value;
+	}
+
+	public int getInt(int slot) {
+		var values = _ints;
+		return slot < values.length ? values[slot] : 0;
+	}
+
+	public void putInt(int slot, int value) {
+		if (slot >= _ints.length) {
+			_ints = Arrays.copyOf(_ints, Math.max(slot + 1, getSlotCount(SlotType.INT)));
+		}
+
+		if (_slotOverrides != null) {
+			removeSlotOverride(SlotType.INT, slot);
+		}
+
+		_ints[slot] = value;
+	}
+
+	public boolean getBoolean(int slot) {
+		var values = _booleans;
+		return slot < values.length ? values[slot] : false;
+	}
+
+	public void putBoolean(int slot, boolean value) {
+		if (slot >= _booleans.length) {
+			_booleans = Arrays.copyOf(_booleans, Math.max(slot + 1, getSlotCount(SlotType.BOOLEAN)));
+		}
+
+		if (_slotOverrides != null) {
+			removeSlotOverride(SlotType.BOOLEAN, slot);
+		}
+
+		_booleans[slot] = value;
+	}
+
+	/**
+	 * Set the value of a property. If the property has a primitive slot and the
+	 * value is of the exact type of the slot, the value is stored in it, else it
+	 * is stored in a map. The slots are shared by all the object types, so a
+	 * value that does not fit in the slot (other number type, other class or
+	 * <code>null</code>) is kept as it is in the map, that has precedence in
+	 * {@link #get(String)}.
+	 */
 	public void put(String key, Object value) {
+		var slot = _slotMap.get(key);
+
+		if (slot != null) {
+			if (putSlot(slot, value)) {
+				return;
+			}
+
+			if (_slotOverrides == null) {
+				_slotOverrides = new HashSet<>();
+			}
+
+			_slotOverrides.add(key);
+		}
+
+		if (_map == null) {
+			_map = new HashMap<>();
+		}
+
 		_map.put(key, value);
 	}
 
+	@SuppressWarnings("boxing")
+	private boolean putSlot(Slot slot, Object value) {
+		switch (slot.type) {
+		case FLOAT:
+			if (value instanceof Float) {
+				putFloat(slot.index, (float) value);
+				return true;
+			}
+			break;
+		case INT:
+			if (value instanceof Integer) {
+				putInt(slot.index, (int) value);
+				return true;
+			}
+			break;
+		case BOOLEAN:
+			if (value instanceof Boolean) {
+				putBoolean(slot.index, (boolean) value);
+				return true;
+			}
+			break;
+		default:
+			break;
+		}
+
+		return false;
+	}
+
+	@SuppressWarnings("boxing")
 	public Object get(String key) {
-		return _map.get(key);
+		var slot = _slotMap.get(key);
+
+		if (slot != null && (_slotOverrides == null || !_slotOverrides.contains(key))) {
+			switch (slot.type) {
+			case FLOAT:
+				return getFloat(slot.index);
+			case INT:
+				return getInt(slot.index);
+			case BOOLEAN:
+				return getBoolean(slot.index);
+			default:
+				break;
+			}
+		}
+
+		return _map == null ? null : _map.get(key);
 	}
 
 	public void write(JSONObject data) {
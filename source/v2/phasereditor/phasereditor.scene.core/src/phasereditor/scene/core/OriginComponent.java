@@ -25,7 +25,6 @@ package phasereditor.scene.core;
  * @author arian
  *
  */
-@SuppressWarnings("boxing")
 public interface OriginComponent {
 
 	// origin
@@ -49,20 +48,24 @@ public interface OriginComponent {
 		return .5f;
 	}
 
+	static int originX_slot = ObjectModel.floatSlot("originX");
+
 	static float get_originX(ObjectModel obj) {
-		return (float) obj.get("originX");
+		return obj.getFloat(originX_slot);
 	}
 
 	static void set_originX(ObjectModel obj, float originX) {
-		obj.put("originX", originX);
+		obj.putFloat(originX_slot, originX);
 	}
 
+	static int originY_slot = ObjectModel.floatSlot("originY");
+
 	static float get_originY(ObjectModel obj) {
-		return (float) obj.get("originY");
+		return obj.getFloat(originY_slot);
 	}
 
 	static void set_originY(ObjectModel obj, float originY) {
-		obj.put("originY", originY);
+		obj.putFloat(originY_slot, originY);
 	}
 
 	static boolean is(Object model) {
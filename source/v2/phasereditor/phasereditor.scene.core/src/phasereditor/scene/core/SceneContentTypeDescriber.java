@@ -2,12 +2,12 @@ package phasereditor.scene.core;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
 
 import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.content.IContentDescriber;
 import org.eclipse.core.runtime.content.IContentDescription;
-import org.json.JSONObject;
-import org.json.JSONTokener;
+import org.json.JSONReader;
 
 public class SceneContentTypeDescriber implements IContentDescriber {
 	private static final QualifiedName[] NO_OPTIONS = {};
@@ -20,12 +20,17 @@ public class SceneContentTypeDescriber implements IContentDescriber {
 	public int describe(InputStream contents, IContentDescription description) throws IOException {
 		try {
 
-			var data = new JSONObject(new JSONTokener(contents));
+			var reader = new JSONReader(contents);
 
-			var app = data.optString("-app", "");
+			reader.beginObject();
 
-			if (app.startsWith("Scene Editor - Phaser Editor")) {
-				return VALID;
+			if (reader.skipToName(Set.of("-app")) != null) {
+
+				var app = reader.nextString();
+
+				if (app.startsWith("Scene Editor - Phaser Editor")) {
+					return VALID;
+				}
 			}
 
 		} catch (Exception e) {
@@ -47,4 +47,20 @@ public class SceneFileDataCache extends FileDataCache<SceneFile> {
 		return null;
 	}
 
+	@Override
+	protected String getSnapshotName() {
+		return "scenes";
+	}
+
+	@Override
+	protected String serializeData(SceneFile data) {
+		// the scene data is only the file
+		return "";
+	}
+
+	@Override
+	protected SceneFile deserializeData(IFile file, String content) throws Exception {
+		return new SceneFile(file);
+	}
+
 }
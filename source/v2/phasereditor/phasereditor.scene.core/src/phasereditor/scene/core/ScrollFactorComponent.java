@@ -25,7 +25,6 @@ package phasereditor.scene.core;
  * @author arian
  *
  */
-@SuppressWarnings("boxing")
 public interface ScrollFactorComponent {
 	// scrollFactor
 	static String scrollFactorX_name = "scrollFactorX";
@@ -34,20 +33,24 @@ public interface ScrollFactorComponent {
 	static float scrollFactorX_default = 1;
 	static float scrollFactorY_default = 1;
 
+	static int scrollFactorX_slot = ObjectModel.floatSlot("scrollFactorX");
+
 	static float get_scrollFactorX(ObjectModel obj) {
-		return (float) obj.get("scrollFactorX");
+		return obj.getFloat(scrollFactorX_slot);
 	}
 
 	static void set_scrollFactorX(ObjectModel obj, float scrollFactorX) {
-		obj.put("scrollFactorX", scrollFactorX);
+		obj.putFloat(scrollFactorX_slot, scrollFactorX);
 	}
 
+	static int scrollFactorY_slot = ObjectModel.floatSlot("scrollFactorY");
+
 	static float get_scrollFactorY(ObjectModel obj) {
-		return (float) obj.get("scrollFactorY");
+		return obj.getFloat(scrollFactorY_slot);
 	}
 
 	static void set_scrollFactorY(ObjectModel obj, float scrollFactorY) {
-		obj.put("scrollFactorY", scrollFactorY);
+		obj.putFloat(scrollFactorY_slot, scrollFactorY);
 	}
 
 	// utils
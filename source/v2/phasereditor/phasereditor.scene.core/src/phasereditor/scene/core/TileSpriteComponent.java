@@ -25,7 +25,6 @@ package phasereditor.scene.core;
  * @author arian
  *
  */
-@SuppressWarnings("boxing")
 public interface TileSpriteComponent {
 	// tilePosition
 	static String tilePositionX_name = "tilePositionX";
@@ -34,20 +33,24 @@ public interface TileSpriteComponent {
 	static float tilePositionX_default = 0;
 	static float tilePositionY_default = 0;
 
+	static int tilePositionX_slot = ObjectModel.floatSlot("tilePositionX");
+
 	static float get_tilePositionX(ObjectModel obj) {
-		return (float) obj.get("tilePositionX");
+		return obj.getFloat(tilePositionX_slot);
 	}
 
 	static void set_tilePositionX(ObjectModel obj, float tilePositionX) {
-		obj.put("tilePositionX", tilePositionX);
+		obj.putFloat(tilePositionX_slot, tilePositionX);
 	}
 
+	static int tilePositionY_slot = ObjectModel.floatSlot("tilePositionY");
+
 	static float get_tilePositionY(ObjectModel obj) {
-		return (float) obj.get("tilePositionY");
+		return obj.getFloat(tilePositionY_slot);
 	}
 
 	static void set_tilePositionY(ObjectModel obj, float tilePositionY) {
-		obj.put("tilePositionY", tilePositionY);
+		obj.putFloat(tilePositionY_slot, tilePositionY);
 	}
 
 	// tileScale
@@ -58,20 +61,24 @@ public interface TileSpriteComponent {
 	static float tileScaleX_default = 1;
 	static float tileScaleY_default = 1;
 
+	static int tileScaleX_slot = ObjectModel.floatSlot("tileScaleX");
+
 	static float get_tileScaleX(ObjectModel obj) {
-		return (float) obj.get("tileScaleX");
+		return obj.getFloat(tileScaleX_slot);
 	}
 
 	static void set_tileScaleX(ObjectModel obj, float tileScaleX) {
-		obj.put("tileScaleX", tileScaleX);
+		obj.putFloat(tileScaleX_slot, tileScaleX);
 	}
 
+	static int tileScaleY_slot = ObjectModel.floatSlot("tileScaleY");
+
 	static float get_tileScaleY(ObjectModel obj) {
-		return (float) obj.get("tileScaleY");
+		return obj.getFloat(tileScaleY_slot);
 	}
 
 	static void set_tileScaleY(ObjectModel obj, float tileScaleY) {
-		obj.put("tileScaleY", tileScaleY);
+		obj.putFloat(tileScaleY_slot, tileScaleY);
 	}
 
 	// size
@@ -82,12 +89,14 @@ public interface TileSpriteComponent {
 
 	static float width_default = -1;
 
+	static int width_slot = ObjectModel.floatSlot("width");
+
 	static float get_width(ObjectModel obj) {
-		return (float) obj.get("width");
+		return obj.getFloat(width_slot);
 	}
 
 	static void set_width(ObjectModel obj, float width) {
-		obj.put("width", width);
+		obj.putFloat(width_slot, width);
 	}
 
 	// height
@@ -96,12 +105,14 @@ public interface TileSpriteComponent {
 
 	static float height_default = -1;
 
+	static int height_slot = ObjectModel.floatSlot("height");
+
 	static float get_height(ObjectModel obj) {
-		return (float) obj.get("height");
+		return obj.getFloat(height_slot);
 	}
 
 	static void set_height(ObjectModel obj, float height) {
-		obj.put("height", height);
+		obj.putFloat(height_slot, height);
 	}
 
 	// init
@@ -25,19 +25,20 @@ package phasereditor.scene.core;
  * @author arian
  *
  */
-@SuppressWarnings("boxing")
 public interface TransformComponent {
 
 	// x
 	static String x_name = "x";
 	static float x_default = 0f;
 
+	static int x_slot = ObjectModel.floatSlot("x");
+
 	static float get_x(ObjectModel obj) {
-		return (float) obj.get("x");
+		return obj.getFloat(x_slot);
 	}
 
 	static void set_x(ObjectModel obj, float x) {
-		obj.put("x", x);
+		obj.putFloat(x_slot, x);
 	}
 
 	// y
@@ -46,12 +47,14 @@ public interface TransformComponent {
 
 	static float y_default = 0f;
 
+	static int y_slot = ObjectModel.floatSlot("y");
+
 	static float get_y(ObjectModel obj) {
-		return (float) obj.get("y");
+		return obj.getFloat(y_slot);
 	}
 
 	static void set_y(ObjectModel obj, float y) {
-		obj.put("y", y);
+		obj.putFloat(y_slot, y);
 	}
 
 	// scale
@@ -62,20 +65,24 @@ public interface TransformComponent {
 	static float scaleX_default = 1f;
 	static float scaleY_default = 1f;
 
+	static int scaleX_slot = ObjectModel.floatSlot("scaleX");
+
 	static float get_scaleX(ObjectModel obj) {
-		return (float) obj.get("scaleX");
+		return obj.getFloat(scaleX_slot);
 	}
 
 	static void set_scaleX(ObjectModel obj, float scaleX) {
-		obj.put("scaleX", scaleX);
+		obj.putFloat(scaleX_slot, scaleX);
 	}
 
+	static int scaleY_slot = ObjectModel.floatSlot("scaleY");
+
 	static float get_scaleY(ObjectModel obj) {
-		return (float) obj.get("scaleY");
+		return obj.getFloat(scaleY_slot);
 	}
 
 	static void set_scaleY(ObjectModel obj, float scaleY) {
-		obj.put("scaleY", scaleY);
+		obj.putFloat(scaleY_slot, scaleY);
 	}
 
 	// angle
@@ -84,12 +91,14 @@ public interface TransformComponent {
 
 	static float angle_default = 0f;
 
+	static int angle_slot = ObjectModel.floatSlot("angle");
+
 	static float get_angle(ObjectModel obj) {
-		return (float) obj.get("angle");
+		return obj.getFloat(angle_slot);
 	}
 
 	static void set_angle(ObjectModel obj, float angle) {
-		obj.put("angle", angle);
+		obj.putFloat(angle_slot, angle);
 	}
 
 	static boolean is(Object model) {
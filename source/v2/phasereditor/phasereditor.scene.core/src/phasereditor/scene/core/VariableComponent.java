@@ -48,12 +48,14 @@ public interface VariableComponent {
 
 	static boolean variableField_default = false;
 
+	static int variableField_slot = ObjectModel.booleanSlot("variableField");
+
 	static boolean get_variableField(ObjectModel obj) {
-		return (boolean) obj.get("variableField");
+		return obj.getBoolean(variableField_slot);
 	}
 
 	static void set_variableField(ObjectModel obj, boolean editorField) {
-		obj.put("variableField", editorField);
+		obj.putBoolean(variableField_slot, editorField);
 	}
 	
 	// utils
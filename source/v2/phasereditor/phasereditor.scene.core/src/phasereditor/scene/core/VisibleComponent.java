@@ -25,19 +25,20 @@ package phasereditor.scene.core;
  * @author arian
  *
  */
-@SuppressWarnings("boxing")
 public interface VisibleComponent {
 	// visible
 
 	static String visible_name = "visible";
 	static boolean visible_default = true;
 
+	static int visible_slot = ObjectModel.booleanSlot("visible");
+
 	static boolean get_visible(ObjectModel obj) {
-		return (boolean) obj.get("visible");
+		return obj.getBoolean(visible_slot);
 	}
 
 	static void set_visible(ObjectModel obj, boolean visible) {
-		obj.put("visible", visible);
+		obj.putBoolean(visible_slot, visible);
 	}
 
 	static boolean is(Object model) {
@@ -21,6 +21,7 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.scene.ui.editor;
 
+import static java.util.stream.Collectors.toList;
 import static phasereditor.ui.PhaserEditorUI.swtRun;
 
 import java.util.ArrayList;
@@ -75,6 +76,7 @@ import phasereditor.scene.core.SceneModel;
 import phasereditor.scene.core.SpriteModel;
 import phasereditor.scene.core.TextualComponent;
 import phasereditor.scene.core.TextureComponent;
+import phasereditor.scene.core.TileSpriteModel;
 import phasereditor.scene.core.TransformComponent;
 import phasereditor.scene.core.VariableComponent;
 import phasereditor.scene.ui.ISceneObjectRendererContext;
@@ -204,7 +206,9 @@ public class SceneCanvas extends ZoomCanvas
 
 		var nameComputer = new NameComputer(getModel().getDisplayList());
 
-		var beforeSnapshot = WorldSnapshotOperation.takeSnapshot(_editor);
+		var displayList = getModel().getDisplayList();
+
+		var beforeSnapshot = WorldSnapshotOperation.takeSnapshot(_editor, List.of(displayList), List.of());
 
 		var calc = calc();
 
@@ -296,10 +300,10 @@ public class SceneCanvas extends ZoomCanvas
 		}
 
 		for (var model : newModels) {
-			ParentComponent.utils_addChild(getModel().getDisplayList(), model);
+			ParentComponent.utils_addChild(displayList, model);
 		}
 
-		var afterSnapshot = WorldSnapshotOperation.takeSnapshot(_editor);
+		var afterSnapshot = WorldSnapshotOperation.takeSnapshot(_editor, List.of(displayList), newModels);
 
 		_editor.executeOperation(new WorldSnapshotOperation(beforeSnapshot, afterSnapshot, "Drop assets"));
 
@@ -396,6 +400,8 @@ public class SceneCanvas extends ZoomCanvas
 
 		renderInteractiveElements(e.gc);
 
+		_selectionEvents.renderMarquee(e.gc);
+
 		renderLabels(e, calc);
 
 		tx.dispose();
@@ -810,17 +816,18 @@ public class SceneCanvas extends ZoomCanvas
 	}
 
 	ObjectModel pickObject(int x, int y) {
-		return pickObject(getModel().getDisplayList(), x, y);
-	}
 
-	private ObjectModel pickObject(ObjectModel model, int x, int y) {
-
-		if (model instanceof GameObjectEditorComponent) {
-			if (GameObjectEditorComponent.get_gameObjectEditorTransparency(model) == 0) {
-				return null;
+		// the renderer index returns the candidates from the top to the bottom
+		for (var model : _renderer.getObjectsAt(x, y)) {
+			if (hitsObject(x, y, model)) {
+				return model;
 			}
 		}
 
+		return null;
+	}
+
+	private boolean hitsObject(int x, int y, ObjectModel model) {
 		if (model instanceof ParentComponent) {
 			if (model instanceof GameObjectEditorComponent && GameObjectEditorComponent
 					.get_gameObjectEditorClosed(model) /* || groupModel.isPrefabInstance() */) {
@@ -830,22 +837,7 @@ public class SceneCanvas extends ZoomCanvas
 				if (hitsPolygon(x, y, polygon)) {
 
 					if (hitsImage(x, y, model)) {
-						return model;
-					}
-				}
-
-			} else {
-
-				var children = ParentComponent.get_children(model);
-
-				for (int i = children.size() - 1; i >= 0; i--) {
-
-					var model2 = children.get(i);
-
-					var pick = pickObject(model2, x, y);
-
-					if (pick != null) {
-						return pick;
+						return true;
 					}
 				}
 			}
@@ -856,23 +848,33 @@ public class SceneCanvas extends ZoomCanvas
 		if (hitsPolygon(x, y, polygon)) {
 
 			if (hitsImage(x, y, model)) {
-				return model;
+				return true;
 			}
 		}
 
-		return null;
+		return false;
 	}
 
 	private boolean hitsImage(int x, int y, ObjectModel model) {
 		var renderer = getSceneRenderer();
 
-		var scaledImage = renderer.getModelImageFromCache(model);
-
 		var xy = renderer.sceneToLocal(model, x, y);
 
 		var imgX = (int) xy[0];
 		var imgY = (int) xy[1];
 
+		if (model instanceof BitmapTextModel) {
+			// the texts are painted without an image
+			return renderer.hitsBitmapText((BitmapTextModel) model, imgX, imgY);
+		}
+
+		if (model instanceof TileSpriteModel) {
+			// the tile sprites are painted without an image
+			return renderer.hitsTileSprite((TileSpriteModel) model, imgX, imgY);
+		}
+
+		var scaledImage = renderer.getModelImageFromCache(model);
+
 		if (scaledImage == null) {
 			if (model instanceof ImageModel || model instanceof SpriteModel) {
 				var frame = TextureComponent.utils_getTexture(model, _finder);
@@ -1015,10 +1017,20 @@ public class SceneCanvas extends ZoomCanvas
 	}
 
 	public void delete() {
-		var beforeData = WorldSnapshotOperation.takeSnapshot(_editor);
-
 		var selection = _editor.getSelectionList();
 
+		var parents = selection.stream()
+
+				.map(ParentComponent::get_parent)
+
+				.filter(parent -> parent != null)
+
+				.distinct()
+
+				.collect(toList());
+
+		var beforeData = WorldSnapshotOperation.takeSnapshot(_editor, parents, selection);
+
 		for (var model : selection) {
 			ParentComponent.utils_removeFromParent(model);
 		}
@@ -1033,7 +1045,7 @@ public class SceneCanvas extends ZoomCanvas
 
 		_editor.setSelection(List.of());
 
-		var afterData = WorldSnapshotOperation.takeSnapshot(_editor);
+		var afterData = WorldSnapshotOperation.takeSnapshot(_editor, parents, List.of());
 
 		_editor.executeOperation(new WorldSnapshotOperation(beforeData, afterData, "Delete objects"));
 
@@ -1095,7 +1107,7 @@ public class SceneCanvas extends ZoomCanvas
 
 	public void paste(ObjectModel parent, boolean placeAtCursorPosition) {
 
-		var beforeData = WorldSnapshotOperation.takeSnapshot(_editor);
+		var beforeData = WorldSnapshotOperation.takeSnapshot(_editor, List.of(parent), List.of());
 
 		LocalSelectionTransfer transfer = LocalSelectionTransfer.getTransfer();
 
@@ -1216,7 +1228,7 @@ public class SceneCanvas extends ZoomCanvas
 
 		editor.setDirty(true);
 
-		var afterData = WorldSnapshotOperation.takeSnapshot(_editor);
+		var afterData = WorldSnapshotOperation.takeSnapshot(_editor, List.of(parent), pasteModels);
 
 		_editor.executeOperation(new WorldSnapshotOperation(beforeData, afterData, "Paste objects."));
 	}
@@ -1286,6 +1298,11 @@ public class SceneCanvas extends ZoomCanvas
 				_dragObjectsEvents.done();
 			}
 
+			if (_selectionEvents.isMarquee()) {
+				_selectionEvents.doneMarquee(e);
+				redraw();
+			}
+
 			return;
 		}
 
@@ -1322,6 +1339,11 @@ public class SceneCanvas extends ZoomCanvas
 				_dragObjectsEvents.update(e);
 			}
 
+			if (_selectionEvents.isMarquee()) {
+				_selectionEvents.updateMarquee(e);
+				redraw();
+			}
+
 		}
 
 		if (!_interactiveTools.isEmpty()) {
@@ -1341,7 +1363,11 @@ public class SceneCanvas extends ZoomCanvas
 
 		var obj = pickObject(e.x, e.y);
 
-		if (obj != null) {
+		if (obj == null) {
+			if (e.button == 1) {
+				_selectionEvents.startMarquee(e);
+			}
+		} else {
 			if (_editor.getSelectionList().contains(obj)) {
 				_dragObjectsEvents.start(e);
 			}
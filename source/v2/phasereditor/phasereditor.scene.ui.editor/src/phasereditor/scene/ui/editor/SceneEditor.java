@@ -47,6 +47,8 @@ import phasereditor.scene.core.SceneCore;
 import phasereditor.scene.core.SceneModel;
 import phasereditor.scene.ui.editor.outline.SceneOutlinePage;
 import phasereditor.scene.ui.editor.properties.ScenePropertyPage;
+import phasereditor.scene.ui.editor.undo.IMemorySizedOperation;
+import phasereditor.scene.ui.editor.undo.SingleObjectSnapshotOperation;
 import phasereditor.ui.SelectionProviderImpl;
 import phasereditor.ui.editors.EditorFileStampHelper;
 
@@ -56,6 +58,28 @@ public class SceneEditor extends EditorPart {
 	private static String OBJECTS_CONTEXT = "phasereditor.scene.ui.editor.objects";
 	private static String COMMAND_CONTEXT = "phasereditor.scene.ui.editor.command";
 
+	/**
+	 * The max memory used by the undo history of an editor, in bytes. It is set
+	 * in MB with the <code>SceneEditor.UNDO_MEMORY_LIMIT</code> system property.
+	 */
+	public static final long UNDO_MEMORY_LIMIT;
+
+	static {
+		long limit = 64;
+
+		try {
+			var prop = System.getProperty("SceneEditor.UNDO_MEMORY_LIMIT");
+
+			if (prop != null) {
+				limit = Long.parseLong(prop);
+			}
+		} catch (NumberFormatException e) {
+			e.printStackTrace();
+		}
+
+		UNDO_MEMORY_LIMIT = limit * 1024 * 1024;
+	}
+
 	private SceneModel _model;
 	private SceneCanvas _scene;
 	private SceneOutlinePage _outline;
@@ -421,13 +445,62 @@ public class SceneEditor extends EditorPart {
 		IWorkbench workbench = getSite().getWorkbenchWindow().getWorkbench();
 		try {
 			IOperationHistory history = workbench.getOperationSupport().getOperationHistory();
+
+			if (operation instanceof SingleObjectSnapshotOperation && !history.canRedo(undoContext)) {
+				var last = history.getUndoOperation(undoContext);
+
+				if (last instanceof SingleObjectSnapshotOperation
+						&& ((SingleObjectSnapshotOperation) last).coalesce((SingleObjectSnapshotOperation) operation)) {
+
+					// the change was made, it is merged with the last change, like when dragging a
+					// slider
+
+					history.operationChanged(last);
+
+					return;
+				}
+			}
+
 			history.execute(operation, null, this);
+
+			limitHistoryMemory(history);
+
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new RuntimeException(e);
 		}
 	}
 
+	private void limitHistoryMemory(IOperationHistory history) {
+		// from the oldest to the newest
+		var operations = history.getUndoHistory(undoContext);
+
+		long size = 0;
+		int count = 0;
+
+		for (int i = operations.length - 1; i >= 0; i--) {
+			var op = operations[i];
+
+			if (op instanceof IMemorySizedOperation) {
+				size += ((IMemorySizedOperation) op).getMemorySize();
+			}
+
+			// always keep the last operation
+			if (size > UNDO_MEMORY_LIMIT && count > 0) {
+				break;
+			}
+
+			count++;
+		}
+
+		if (count < operations.length) {
+			// it removes the oldest operations
+			var limit = history.getLimit(undoContext);
+			history.setLimit(undoContext, count);
+			history.setLimit(undoContext, limit);
+		}
+	}
+
 	public void setSelectionFromIdList(List<String> objectIdList) {
 		var models = _model.getDisplayList().findByIds(objectIdList);
 		setSelection(models);
@@ -56,7 +56,17 @@ public class SceneUIEditor {
 	
 
 	public static void action_MorphObjectsToNewType(SceneEditor editor, List<?> models, String morphToType) {
-		var before = WorldSnapshotOperation.takeSnapshot(editor);
+		var morphModels = models.stream()
+
+				.filter(obj -> obj instanceof ObjectModel && !((ObjectModel) obj).getType().equals(morphToType))
+
+				.map(obj -> (ObjectModel) obj)
+
+				.collect(toList());
+
+		var parents = morphModels.stream().map(ParentComponent::get_parent).distinct().collect(toList());
+
+		var before = WorldSnapshotOperation.takeSnapshot(editor, parents, morphModels);
 
 		var newModels = new ArrayList<ObjectModel>();
 		var project = editor.getEditorInput().getFile().getProject();
@@ -146,7 +156,7 @@ public class SceneUIEditor {
 
 			editor.setDirty(true);
 
-			var after = WorldSnapshotOperation.takeSnapshot(editor);
+			var after = WorldSnapshotOperation.takeSnapshot(editor, parents, newModels);
 			editor.executeOperation(new WorldSnapshotOperation(before, after, "Morph to " + morphToType));
 		}
 	}
@@ -24,7 +24,13 @@ package phasereditor.scene.ui.editor;
 import java.util.ArrayList;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.DragDetectEvent;
 import org.eclipse.swt.events.MouseEvent;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Rectangle;
+
+import phasereditor.scene.core.ObjectModel;
+import phasereditor.ui.Colors;
 
 /**
  * @author arian
@@ -32,12 +38,101 @@ import org.eclipse.swt.events.MouseEvent;
  */
 public class SelectionEvents {
 	private SceneCanvas _scene;
+	private boolean _marquee;
+	private int _marqueeStartX;
+	private int _marqueeStartY;
+	private int _marqueeEndX;
+	private int _marqueeEndY;
 
 	public SelectionEvents(SceneCanvas scene) {
 		super();
 		_scene = scene;
 	}
 
+	public boolean isMarquee() {
+		return _marquee;
+	}
+
+	public void startMarquee(DragDetectEvent e) {
+		_marquee = true;
+		_marqueeStartX = e.x;
+		_marqueeStartY = e.y;
+		_marqueeEndX = e.x;
+		_marqueeEndY = e.y;
+	}
+
+	public void updateMarquee(MouseEvent e) {
+		_marqueeEndX = e.x;
+		_marqueeEndY = e.y;
+	}
+
+	private Rectangle getMarqueeArea() {
+		var x = Math.min(_marqueeStartX, _marqueeEndX);
+		var y = Math.min(_marqueeStartY, _marqueeEndY);
+		var w = Math.abs(_marqueeEndX - _marqueeStartX);
+		var h = Math.abs(_marqueeEndY - _marqueeStartY);
+
+		return new Rectangle(x, y, w, h);
+	}
+
+	/**
+	 * Select the objects that are fully inside the marquee. The candidates are
+	 * taken from the spatial index of the renderer.
+	 */
+	public void doneMarquee(MouseEvent e) {
+		_marquee = false;
+
+		updateMarquee(e);
+
+		var area = getMarqueeArea();
+		var renderer = _scene.getSceneRenderer();
+
+		var list = new ArrayList<ObjectModel>();
+
+		if ((e.stateMask & SWT.CTRL) != 0) {
+			list.addAll(_scene.getEditor().getSelectionList());
+		}
+
+		for (var model : renderer.getObjectsInArea(area)) {
+			var bounds = renderer.getObjectBounds(model);
+
+			if (bounds != null && containsBounds(area, bounds) && !list.contains(model)) {
+				list.add(model);
+			}
+		}
+
+		_scene.getEditor().setSelection(list);
+	}
+
+	private static boolean containsBounds(Rectangle area, float[] bounds) {
+		for (int i = 0; i + 1 < bounds.length; i += 2) {
+			var x = bounds[i];
+			var y = bounds[i + 1];
+
+			if (x < area.x || x > area.x + area.width || y < area.y || y > area.y + area.height) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public void renderMarquee(GC gc) {
+		if (!_marquee) {
+			return;
+		}
+
+		var area = getMarqueeArea();
+
+		gc.setAlpha(50);
+		gc.setBackground(Colors.color(Colors.LIGHTGREEN));
+		gc.fillRectangle(area);
+
+		gc.setAlpha(255);
+		gc.setForeground(Colors.color(Colors.LIGHTGREEN));
+		gc.drawRectangle(area);
+	}
+
 	public void updateSelection(MouseEvent e) {
 		if (e.button != 1) {
 			return;
@@ -3,6 +3,7 @@ package phasereditor.scene.ui.editor.handlers;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.eclipse.core.commands.AbstractHandler;
@@ -40,7 +41,9 @@ public class DuplicateSelectedObjectsHandler extends AbstractHandler {
 
 		var copyList = new ArrayList<ObjectModel>();
 
-		var before = WorldSnapshotOperation.takeSnapshot(editor);
+		var parents = list.stream().map(ParentComponent::get_parent).distinct().collect(toList());
+
+		var before = WorldSnapshotOperation.takeSnapshot(editor, parents, List.of());
 
 		for (var obj : list) {
 			var parent = ParentComponent.get_parent(obj);
@@ -61,7 +64,7 @@ public class DuplicateSelectedObjectsHandler extends AbstractHandler {
 			copyList.add(copy);
 		}
 
-		var after = WorldSnapshotOperation.takeSnapshot(editor);
+		var after = WorldSnapshotOperation.takeSnapshot(editor, parents, copyList);
 
 		editor.refreshOutline();
 
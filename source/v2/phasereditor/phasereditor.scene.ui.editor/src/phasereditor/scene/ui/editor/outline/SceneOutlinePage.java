@@ -309,7 +309,22 @@ public class SceneOutlinePage extends Page implements IContentOutlinePage {
 					return false;
 				}
 
-				var beforeSnapshot = WorldSnapshotOperation.takeSnapshot(_editor);
+				var parents = new ArrayList<ObjectModel>();
+
+				parents.add(newParent);
+
+				for (var model : newDrops) {
+					var parent = ParentComponent.get_parent(model);
+
+					if (!parents.contains(parent)) {
+						parents.add(parent);
+					}
+				}
+
+				// the new position of the objects is set after the paint, so they are written
+				// only before the change, to restore the old position
+
+				var beforeSnapshot = WorldSnapshotOperation.takeSnapshot(_editor, parents, newDrops);
 
 				var renderer = _editor.getScene().getSceneRenderer();
 
@@ -350,7 +365,7 @@ public class SceneOutlinePage extends Page implements IContentOutlinePage {
 
 				_editor.setSelection(newDrops);
 
-				var afterSnapshot = WorldSnapshotOperation.takeSnapshot(_editor);
+				var afterSnapshot = WorldSnapshotOperation.takeSnapshot(_editor, parents, List.of());
 
 				_editor.executeOperation(new WorldSnapshotOperation(beforeSnapshot, afterSnapshot, "Drop into object"));
 
@@ -0,0 +1,194 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2018 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.scene.ui.editor.undo;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The differences between two snapshots of the part of a scene changed by an
+ * operation, taken by {@link WorldSnapshotOperation#takeSnapshot}. Only the
+ * children lists, the objects and the groups that changed are kept.
+ *
+ * @author arian
+ *
+ */
+class SceneDiff {
+
+	static final String PARENTS = "parents";
+	static final String OBJECTS = "objects";
+	static final String GROUPS = "groups";
+
+	// the [before, after] id lists of the children of the parents, by parent id.
+	private Map<String, JSONArray[]> _parents;
+
+	// the [before, after] data of the changed objects, by id. It is null if the
+	// object is not in the snapshot.
+	private Map<String, JSONObject[]> _objects;
+
+	// the [before, after] data of the groups, or null if they did not change.
+	private JSONObject[] _groups;
+
+	private long _memorySize;
+
+	private SceneDiff() {
+		_parents = new LinkedHashMap<>();
+		_objects = new LinkedHashMap<>();
+	}
+
+	public static SceneDiff compute(JSONObject before, JSONObject after) {
+		var diff = new SceneDiff();
+
+		{
+			var beforeObjects = before.getJSONObject(OBJECTS);
+			var afterObjects = after.getJSONObject(OBJECTS);
+
+			var ids = new LinkedHashSet<>(beforeObjects.keySet());
+			ids.addAll(afterObjects.keySet());
+
+			for (var id : ids) {
+				var data1 = beforeObjects.optJSONObject(id);
+				var data2 = afterObjects.optJSONObject(id);
+
+				if (data1 == null || data2 == null || !data1.similar(data2)) {
+					diff._objects.put(id, new JSONObject[] { data1, data2 });
+					diff._memorySize += computeSize(data1) + computeSize(data2);
+				}
+			}
+		}
+
+		{
+			var beforeParents = before.getJSONObject(PARENTS);
+			var afterParents = after.getJSONObject(PARENTS);
+
+			var ids = new LinkedHashSet<>(beforeParents.keySet());
+			ids.addAll(afterParents.keySet());
+
+			for (var id : ids) {
+				var list1 = beforeParents.optJSONArray(id);
+				var list2 = afterParents.optJSONArray(id);
+
+				// a parent with the same children is kept if some of them are
+				// replaced, to set the new objects as its children
+
+				if (list1 == null || list2 == null || !list1.similar(list2)
+						|| containsAny(list1, diff._objects.keySet())) {
+					diff._parents.put(id, new JSONArray[] { list1, list2 });
+					diff._memorySize += computeSize(list1) + computeSize(list2);
+				}
+			}
+		}
+
+		{
+			var groups1 = before.getJSONObject(GROUPS);
+			var groups2 = after.getJSONObject(GROUPS);
+
+			if (!groups1.similar(groups2)) {
+				diff._groups = new JSONObject[] { groups1, groups2 };
+				diff._memorySize += computeSize(groups1) + computeSize(groups2);
+			}
+		}
+
+		return diff;
+	}
+
+	private static boolean containsAny(JSONArray ids, Set<String> set) {
+		for (int i = 0; i < ids.length(); i++) {
+			if (set.contains(ids.getString(i))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static long computeSize(Object value) {
+		if (value == null) {
+			return 0;
+		}
+
+		// it is an estimation, two bytes per char of the JSON text
+		return value.toString().length() * 2L;
+	}
+
+	public boolean isEmpty() {
+		return _parents.isEmpty() && _objects.isEmpty() && _groups == null;
+	}
+
+	/**
+	 * An estimation of the memory used by this diff, in bytes.
+	 */
+	public long getMemorySize() {
+		return _memorySize;
+	}
+
+	/**
+	 * The children of the parents that changed, by parent id.
+	 * 
+	 * @param before
+	 *            If to get the children before or after the change.
+	 * @return The ids of the children of every changed parent. It is null if the
+	 *         parent is not in the snapshot.
+	 */
+	public Map<String, JSONArray> getParents(boolean before) {
+		return select(_parents, before);
+	}
+
+	/**
+	 * The changed objects, by id.
+	 * 
+	 * @param before
+	 *            If to get the data before or after the change.
+	 * @return The data of every changed object. It is null if the object is not
+	 *         in the snapshot.
+	 */
+	public Map<String, JSONObject> getObjects(boolean before) {
+		return select(_objects, before);
+	}
+
+	/**
+	 * The data of the groups, or null if they did not change.
+	 * 
+	 * @param before
+	 *            If to get the groups before or after the change.
+	 */
+	public JSONObject getGroups(boolean before) {
+		return _groups == null ? null : _groups[before ? 0 : 1];
+	}
+
+	private static <T> Map<String, T> select(Map<String, T[]> map, boolean before) {
+		var index = before ? 0 : 1;
+
+		var result = new LinkedHashMap<String, T>();
+
+		for (var entry : map.entrySet()) {
+			result.put(entry.getKey(), entry.getValue()[index]);
+		}
+
+		return result;
+	}
+}
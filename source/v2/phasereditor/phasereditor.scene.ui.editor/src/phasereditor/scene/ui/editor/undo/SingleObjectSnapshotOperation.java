@@ -41,7 +41,10 @@ import phasereditor.scene.ui.editor.SceneEditor;
  * @author arian
  *
  */
-public class SingleObjectSnapshotOperation extends AbstractOperation {
+public class SingleObjectSnapshotOperation extends AbstractOperation implements IMemorySizedOperation {
+
+	// the max time between two operations to coalesce them
+	private static final long COALESCE_TIME = 1000;
 
 	public static List<JSONObject> takeSnapshot(List<ObjectModel> models) {
 		var list = new ArrayList<JSONObject>();
@@ -59,6 +62,8 @@ public class SingleObjectSnapshotOperation extends AbstractOperation {
 	private List<JSONObject> _afterData;
 	private boolean _dirtyModels;
 	private Function<ObjectModel, Boolean> _filterDirtyModels;
+	private long _time;
+	private long _memorySize;
 
 	public SingleObjectSnapshotOperation(List<JSONObject> beforeData, List<JSONObject> afterData, String label,
 			boolean dirtyModels) {
@@ -75,6 +80,63 @@ public class SingleObjectSnapshotOperation extends AbstractOperation {
 
 		_dirtyModels = dirtyModels;
 		_filterDirtyModels = filterDirtyModels;
+
+		_time = System.currentTimeMillis();
+		_memorySize = computeMemorySize(beforeData) + computeMemorySize(afterData);
+	}
+
+	private static long computeMemorySize(List<JSONObject> list) {
+		long size = 0;
+
+		for (var data : list) {
+			// two bytes per char of the JSON text
+			size += data.toString().length() * 2L;
+		}
+
+		return size;
+	}
+
+	@Override
+	public long getMemorySize() {
+		return _memorySize;
+	}
+
+	/**
+	 * Merge the given operation into this one, if both change the same objects
+	 * and the given operation was created just after this one, like it happens
+	 * when a property is changed by dragging a slider.
+	 * 
+	 * @return If the operation was merged.
+	 */
+	public boolean coalesce(SingleObjectSnapshotOperation next) {
+		if (next._time - _time > COALESCE_TIME) {
+			return false;
+		}
+
+		if (!getLabel().equals(next.getLabel()) || _dirtyModels != next._dirtyModels
+				|| _filterDirtyModels != next._filterDirtyModels) {
+			return false;
+		}
+
+		if (_afterData.size() != next._beforeData.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < _afterData.size(); i++) {
+			var data1 = _afterData.get(i);
+			var data2 = next._beforeData.get(i);
+
+			// the next operation should start where this one ends
+			if (!data1.similar(data2)) {
+				return false;
+			}
+		}
+
+		_afterData = next._afterData;
+		_time = next._time;
+		_memorySize = computeMemorySize(_beforeData) + computeMemorySize(_afterData);
+
+		return true;
 	}
 
 	public SingleObjectSnapshotOperation(List<JSONObject> beforeData, List<JSONObject> afterData, String label) {
@@ -21,38 +21,112 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.scene.ui.editor.undo;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.AbstractOperation;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
+import phasereditor.scene.core.ObjectModel;
+import phasereditor.scene.core.ParentComponent;
+import phasereditor.scene.core.SceneModel;
 import phasereditor.scene.ui.editor.SceneEditor;
 
 /**
+ * An operation that adds, removes, moves or replaces objects of the scene. It
+ * keeps only the part of the scene changed by the operation, and to undo or
+ * redo it only the changed objects are created and only the children of the
+ * changed parents are set.
+ * 
  * @author arian
  *
  */
-public class WorldSnapshotOperation extends AbstractOperation {
+public class WorldSnapshotOperation extends AbstractOperation implements IMemorySizedOperation {
+
+	private SceneDiff _diff;
+
+	/**
+	 * Take a snapshot of the part of the scene changed by an operation. It should
+	 * be called with the same parents before and after the change.
+	 * 
+	 * @param parents
+	 *            The objects where children are added, removed or moved. Only the
+	 *            ids of the children are written.
+	 * @param objects
+	 *            The children of the parents that are removed or replaced, in the
+	 *            snapshot before the change, or that are added or replaced, in the
+	 *            snapshot after the change.
+	 */
+	public static JSONObject takeSnapshot(SceneEditor editor, Collection<? extends ObjectModel> parents,
+			Collection<? extends ObjectModel> objects) {
+
+		var parentsData = new JSONObject();
+
+		for (var parent : parents) {
+			var ids = new JSONArray();
+
+			for (var child : ParentComponent.get_children(parent)) {
+				ids.put(child.getId());
+			}
+
+			parentsData.put(parent.getId(), ids);
+		}
+
+		var objectsData = new JSONObject();
+
+		for (var obj : objects) {
+			if (isInside(obj, objects)) {
+				// it is written with its parent
+				continue;
+			}
+
+			var objData = new JSONObject();
+			obj.write(objData);
+			objectsData.put(obj.getId(), objData);
+		}
 
-	private JSONObject _beforeData;
-	private JSONObject _afterData;
+		var groupsData = new JSONObject();
+		editor.getSceneModel().getGroupsModel().write(groupsData);
 
-	public static JSONObject takeSnapshot(SceneEditor editor) {
 		var data = new JSONObject();
 
-		editor.getSceneModel().write(data);
+		data.put(SceneDiff.PARENTS, parentsData);
+		data.put(SceneDiff.OBJECTS, objectsData);
+		data.put(SceneDiff.GROUPS, groupsData);
 
 		return data;
 	}
 
+	private static boolean isInside(ObjectModel obj, Collection<? extends ObjectModel> objects) {
+		var parent = ParentComponent.get_parent(obj);
+
+		while (parent != null) {
+			if (objects.contains(parent)) {
+				return true;
+			}
+
+			parent = ParentComponent.get_parent(parent);
+		}
+
+		return false;
+	}
+
 	public WorldSnapshotOperation(JSONObject beforeData, JSONObject afterData, String label) {
 		super(label);
 
-		_beforeData = beforeData;
-		_afterData = afterData;
+		_diff = SceneDiff.compute(beforeData, afterData);
+	}
+
+	@Override
+	public long getMemorySize() {
+		return _diff.getMemorySize();
 	}
 
 	@Override
@@ -64,7 +138,7 @@ public class WorldSnapshotOperation extends AbstractOperation {
 	@Override
 	public IStatus redo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
 
-		loadSnapshot(info, _afterData);
+		loadSnapshot(info, false);
 
 		return Status.OK_STATUS;
 	}
@@ -72,19 +146,106 @@ public class WorldSnapshotOperation extends AbstractOperation {
 	@Override
 	public IStatus undo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
 
-		loadSnapshot(info, _beforeData);
+		loadSnapshot(info, true);
 
 		return Status.OK_STATUS;
 	}
 
-	private static void loadSnapshot(IAdaptable info, JSONObject data) {
+	private void loadSnapshot(IAdaptable info, boolean before) {
 		var editor = info.getAdapter(SceneEditor.class);
-		var model = editor.getSceneModel();
+		var sceneModel = editor.getSceneModel();
+		var displayList = sceneModel.getDisplayList();
 		var project = editor.getEditorInput().getFile().getProject();
 
+		if (_diff.isEmpty()) {
+			return;
+		}
+
 		var selectionIds = editor.getSelectionIdList();
 
-		model.read(data, project);
+		var parentsMap = _diff.getParents(before);
+
+		// the objects that can be set as children: the current children of the
+		// changed parents and the objects created from the snapshot
+
+		var objectsMap = new HashMap<String, ObjectModel>();
+
+		for (var id : parentsMap.keySet()) {
+			var parent = displayList.findById(id);
+
+			if (parent != null) {
+				for (var child : ParentComponent.get_children(parent)) {
+					objectsMap.put(child.getId(), child);
+				}
+			}
+		}
+
+		var newObjects = new HashMap<String, ObjectModel>();
+
+		for (var data : _diff.getObjects(before).values()) {
+			if (data == null) {
+				// it is not present, it is removed from the children of its parent
+				continue;
+			}
+
+			var obj = SceneModel.createModel(data.getString("-type"));
+
+			if (obj != null) {
+				obj.read(data, project);
+				obj.visit(o -> newObjects.put(o.getId(), o));
+			}
+		}
+
+		objectsMap.putAll(newObjects);
+
+		for (var entry : parentsMap.entrySet()) {
+			var ids = entry.getValue();
+
+			if (ids == null) {
+				continue;
+			}
+
+			var parent = objectsMap.get(entry.getKey());
+
+			if (parent == null) {
+				parent = displayList.findById(entry.getKey());
+			}
+
+			if (parent == null) {
+				continue;
+			}
+
+			for (var child : ParentComponent.get_children(parent)) {
+				if (ParentComponent.get_parent(child) == parent) {
+					ParentComponent.set_parent(child, null);
+				}
+			}
+
+			var children = new ArrayList<ObjectModel>();
+
+			for (int i = 0; i < ids.length(); i++) {
+				var child = objectsMap.get(ids.getString(i));
+
+				if (child != null) {
+					children.add(child);
+					ParentComponent.set_parent(child, parent);
+				}
+			}
+
+			ParentComponent.set_children(parent, children);
+		}
+
+		var groupsModel = sceneModel.getGroupsModel();
+		var groupsData = _diff.getGroups(before);
+
+		if (groupsData != null) {
+			groupsModel.read(groupsData, project);
+		} else if (!newObjects.isEmpty()) {
+			// the groups did not change, but they should point to the new objects
+			for (var group : groupsModel.getGroups()) {
+				group.getChildren().replaceAll(o -> newObjects.getOrDefault(o.getId(), o));
+			}
+		}
 
 		editor.refreshOutline_basedOnId();
 
@@ -30,6 +30,7 @@ import static phasereditor.ui.Colors.color;
 
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -79,11 +80,14 @@ public class SceneObjectRenderer {
 	private Map<ObjectModel, float[]> _modelBoundsMap;
 	private Map<ObjectModel, float[]> _modelChildrenBoundsMap;
 	private Map<Object, ScaledImage> _imageCacheMap;
+	private SceneSpatialIndex _spatialIndex;
+	private List<IndexEntry> _indexEntries;
 
 	private boolean _debug;
 	private List<Runnable> _postPaintActions;
 	private AssetFinder _finder;
-	private AssetFinder _lastFinderSnapshot;
+	private long _lastFinderVersion;
+	private Rectangle _visibleArea;
 
 	private Color _COLOR_RED;
 	private Color _COLOR_BLUE;
@@ -103,8 +107,11 @@ public class SceneObjectRenderer {
 
 		_imageCacheMap = new HashMap<>();
 
+		_spatialIndex = new SceneSpatialIndex();
+		_indexEntries = new ArrayList<>();
+
 		_finder = rendererContext.getAssetFinder();
-		_lastFinderSnapshot = _finder;
+		_lastFinderVersion = _finder.getVersion();
 	}
 
 	public void dispose() {
@@ -132,6 +139,13 @@ public class SceneObjectRenderer {
 	}
 
 	public void renderScene(GC gc, Transform tx, SceneModel sceneModel) {
+		// read it before the paint, the finder could be re-built in the middle
+		var finderVersion = _finder.getVersion();
+
+		// the area of the device to paint, it is read before the scene transform is
+		// set
+		_visibleArea = gc.getClipping();
+
 		_COLOR_BLACK = color(BLACK);
 		_COLOR_BLUE = color(BLUE);
 		_COLOR_RED = color(RED);
@@ -163,6 +177,8 @@ public class SceneObjectRenderer {
 			gc.setTransform(null);
 		}
 
+		updateSpatialIndex(sceneModel);
+
 		if (_debug) {
 			startDebug(gc, sceneModel);
 		}
@@ -184,7 +200,119 @@ public class SceneObjectRenderer {
 
 		_postPaintActions.clear();
 
-		_lastFinderSnapshot = _finder.snapshot();
+		_lastFinderVersion = finderVersion;
+	}
+
+	private static class IndexEntry {
+		ObjectModel model;
+		float[] bounds;
+		int order;
+
+		public IndexEntry(ObjectModel model, float[] bounds, int order) {
+			this.model = model;
+			this.bounds = bounds;
+			this.order = order;
+		}
+
+		public boolean sameAs(IndexEntry other) {
+			return model == other.model && order == other.order && Arrays.equals(bounds, other.bounds);
+		}
+	}
+
+	/**
+	 * Update the spatial index, but only if the pickable objects, their order or
+	 * their bounds changed since the last update. Most of the paints (selection,
+	 * hover of the tools) do not change the scene.
+	 */
+	private void updateSpatialIndex(SceneModel sceneModel) {
+		var entries = new ArrayList<IndexEntry>(_indexEntries.size());
+
+		indexObject(sceneModel.getDisplayList(), 0, entries);
+
+		if (sameEntries(entries, _indexEntries)) {
+			return;
+		}
+
+		_indexEntries = entries;
+
+		_spatialIndex.beginUpdate();
+
+		for (var entry : entries) {
+			_spatialIndex.update(entry.model, entry.bounds, entry.order);
+		}
+
+		_spatialIndex.endUpdate();
+	}
+
+	private static boolean sameEntries(List<IndexEntry> a, List<IndexEntry> b) {
+		if (a.size() != b.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < a.size(); i++) {
+			if (!a.get(i).sameAs(b.get(i))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Collect the pickable objects for the spatial index. The order follows the
+	 * same rules of the picking: the children are on top of the parent, and the
+	 * last children are on top of the first ones.
+	 */
+	private int indexObject(ObjectModel model, int order, List<IndexEntry> entries) {
+
+		if (model instanceof GameObjectEditorComponent) {
+			if (GameObjectEditorComponent.get_gameObjectEditorTransparency(model) == 0) {
+				return order;
+			}
+		}
+
+		var bounds = _modelBoundsMap.get(model);
+		var modelOrder = order++;
+
+		if (model instanceof ParentComponent) {
+			if (model instanceof GameObjectEditorComponent
+					&& GameObjectEditorComponent.get_gameObjectEditorClosed(model)) {
+
+				var childrenBounds = _modelChildrenBoundsMap.get(model);
+
+				if (childrenBounds != null) {
+					bounds = bounds == null ? childrenBounds : joinBounds(bounds, childrenBounds);
+				}
+
+			} else {
+
+				for (var child : ParentComponent.get_children(model)) {
+					order = indexObject(child, order, entries);
+				}
+			}
+		}
+
+		if (bounds != null) {
+			entries.add(new IndexEntry(model, bounds, modelOrder));
+		}
+
+		return order;
+	}
+
+	/**
+	 * The objects with bounds that contain the given point, from the top to the
+	 * bottom. The bounds are the same of the last paint.
+	 */
+	public List<ObjectModel> getObjectsAt(int x, int y) {
+		return _spatialIndex.getObjectsAt(x, y);
+	}
+
+	/**
+	 * The objects with bounds that intersect the given area, from the top to the
+	 * bottom. The bounds are the same of the last paint.
+	 */
+	public List<ObjectModel> getObjectsInArea(Rectangle area) {
+		return _spatialIndex.getObjectsInArea(area.x, area.y, area.x + area.width, area.y + area.height);
 	}
 
 	private void renderBones(GC gc, ObjectModel parent, boolean forceRender) {
@@ -448,48 +576,185 @@ public class SceneObjectRenderer {
 
 		model.updateSizeFromBitmapFont(_finder);
 
-		var scaledImage = getBitmapTextImage(model);
+		var size = getBitmapTextSize(model);
 
-		Rectangle bounds;
+		try {
+			paintBitmapText(gc, tx, model, size);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
 
-		if (scaledImage == null) {
-			bounds = new Rectangle(0, 0, 0, 0);
-		} else {
+		setObjectBounds(gc, model, 0, 0, size[0], size[1]);
+	}
 
-			Transform tx2 = null;
+	/**
+	 * Paint the glyphs of the text directly from the font texture. The layout of
+	 * the text is cached by the font model, so nothing is allocated per glyph and
+	 * no intermediate image is created when the text changes.
+	 */
+	private void paintBitmapText(GC gc, Transform tx, BitmapTextModel model, float[] size) {
+		var fontModel = model.getFontModel(_finder);
 
-			if (model instanceof DynamicBitmapTextComponent) {
-				// crop it
+		if (fontModel == null) {
+			return;
+		}
 
-				var cropWidth = DynamicBitmapTextComponent.get_cropWidth(model);
-				var cropHeight = DynamicBitmapTextComponent.get_cropHeight(model);
+		var asset = BitmapTextComponent.utils_getFont(model, _finder);
 
-				// if the text is not cropped, then it will be scrolled here
+		var proxy = ImageProxy.get(asset.getTextureFile(), null);
 
-				if (cropWidth == 0 || cropHeight == 0) {
+		if (proxy == null) {
+			return;
+		}
 
-					var scrollX = DynamicBitmapTextComponent.get_scrollX(model);
-					var scrollY = DynamicBitmapTextComponent.get_scrollY(model);
+		var fontTexture = proxy.getImage();
 
-					tx2 = newTx(gc, tx);
-					tx2.translate(-scrollX, -scrollY);
+		if (fontTexture == null) {
+			return;
+		}
 
-					setObjectTransform(gc, tx2, model);
-				}
+		var textureBounds = fontTexture.getBounds();
+
+		// the texture could be scaled down by the proxy
+		var textureScale = (float) textureBounds.width / proxy.getFinalFrameData().srcSize.x;
+
+		Transform tx2 = null;
+		Rectangle crop = null;
+		Rectangle oldClip = null;
+
+		if (model instanceof DynamicBitmapTextComponent) {
+
+			var cropWidth = DynamicBitmapTextComponent.get_cropWidth(model);
+			var cropHeight = DynamicBitmapTextComponent.get_cropHeight(model);
+
+			var scrollX = DynamicBitmapTextComponent.get_scrollX(model);
+			var scrollY = DynamicBitmapTextComponent.get_scrollY(model);
+
+			tx2 = newTx(gc, tx);
+			tx2.translate(-scrollX, -scrollY);
+
+			// the text is not cropped if the width is 0 or the height is 0, then it is
+			// only scrolled
+
+			if (cropWidth > 0 && cropHeight > 0) {
+
+				var originX = OriginComponent.get_originX(model);
+				var originY = OriginComponent.get_originY(model);
+
+				// the crop area in the coords of the scrolled text
+
+				crop = new Rectangle((int) (size[0] * originX + scrollX), (int) (size[1] * originY + scrollY),
+						cropWidth, cropHeight);
+
+				gc.setTransform(tx2);
+
+				// the clipping is restored with the same transform
+				oldClip = gc.getClipping();
+
+				crop = crop.intersection(oldClip);
+
+				gc.setClipping(crop);
+
+			} else {
+				setObjectTransform(gc, tx2, model);
 			}
+		}
 
-			scaledImage.paint(gc, 0, 0);
+		var crop2 = crop;
+
+		try {
+
+			fontModel.render(createBitmapTextRenderArgs(model), new BitmapFontRenderer() {
+
+				@Override
+				public void render(char c, int x, int y, int width, int height, int srcX, int srcY, int srcW,
+						int srcH) {
+
+					if (width <= 0 || height <= 0 || srcW <= 0 || srcH <= 0) {
+						return;
+					}
+
+					if (crop2 != null && !crop2.intersects(x, y, width, height)) {
+						return;
+					}
+
+					var srcX2 = (int) (srcX * textureScale);
+					var srcY2 = (int) (srcY * textureScale);
+					var srcW2 = Math.min((int) (srcW * textureScale), textureBounds.width - srcX2);
+					var srcH2 = Math.min((int) (srcH * textureScale), textureBounds.height - srcY2);
+
+					if (srcW2 <= 0 || srcH2 <= 0) {
+						return;
+					}
+
+					gc.drawImage(fontTexture, srcX2, srcY2, srcW2, srcH2, x, y, width, height);
+				}
+			});
+
+		} finally {
+
+			if (oldClip != null) {
+				gc.setClipping(oldClip);
+			}
 
 			if (tx2 != null) {
+				gc.setTransform(tx);
 				tx2.dispose();
 			}
+		}
+	}
 
-			bounds = scaledImage.getBounds();
+	/**
+	 * If the given point, in the local coords of the text, is on a glyph of the
+	 * text. It is the hit test of the text, since it is painted without an image.
+	 */
+	public boolean hitsBitmapText(BitmapTextModel model, int x, int y) {
+		var fontModel = model.getFontModel(_finder);
+
+		if (fontModel == null) {
+			return false;
+		}
+
+		if (model instanceof DynamicBitmapTextComponent) {
+			var cropWidth = DynamicBitmapTextComponent.get_cropWidth(model);
+			var cropHeight = DynamicBitmapTextComponent.get_cropHeight(model);
+
+			if (cropWidth > 0 && cropHeight > 0) {
+
+				// if the text is cropped, the scroll is not part of the object transform
+
+				var size = getBitmapTextSize(model);
+
+				var cropX = (int) (size[0] * OriginComponent.get_originX(model));
+				var cropY = (int) (size[1] * OriginComponent.get_originY(model));
+
+				if (!new Rectangle(cropX, cropY, cropWidth, cropHeight).contains(x, y)) {
+					return false;
+				}
+
+				x += DynamicBitmapTextComponent.get_scrollX(model);
+				y += DynamicBitmapTextComponent.get_scrollY(model);
+			}
 		}
 
-		setObjectBounds(gc, model, 0, 0, bounds.width, bounds.height);
+		var hitX = x;
+		var hitY = y;
+		var hit = new boolean[] { false };
+
+		fontModel.render(createBitmapTextRenderArgs(model), (c, glyphX, glyphY, width, height, srcX, srcY, srcW,
+				srcH) -> {
+			if (hitX >= glyphX && hitX < glyphX + width && hitY >= glyphY && hitY < glyphY + height) {
+				hit[0] = true;
+			}
+		});
+
+		return hit[0];
 	}
 
+	/**
+	 * Create an image of the text. It is not used to paint the scene, but for the
+	 * icons of the text.
+	 */
 	private ScaledImage createBitmapTextImage(BitmapTextModel textModel) {
 		var fontModel = textModel.getFontModel(_finder);
 
@@ -504,12 +769,20 @@ public class SceneObjectRenderer {
 		var width = metrics.getWidth();
 		var height = metrics.getHeight();
 
-		var buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		// it is used only for the icons, so it is not bigger than the images of the
+		// proxies
+
+		var resize = Math.min(1, (double) ImageProxy.MAX_SIZE / Math.max(width, height));
+
+		var buffer = new BufferedImage(Math.max(1, (int) (width * resize)), Math.max(1, (int) (height * resize)),
+				BufferedImage.TYPE_INT_ARGB);
 
 		var g2 = buffer.createGraphics();
 
 		BaseCanvas.prepareGC(g2);
 
+		g2.scale(resize, resize);
+
 		var asset = BitmapTextComponent.utils_getFont(textModel, _finder);
 
 		var proxy = ImageProxy.get(asset.getTextureFile(), null);
@@ -646,8 +919,15 @@ public class SceneObjectRenderer {
 		var width = TileSpriteComponent.get_width(model);
 		var height = TileSpriteComponent.get_height(model);
 
-		var buffer = new BufferedImage((int) width, (int) height, BufferedImage.TYPE_INT_ARGB);
+		// it is used only for the icons, so it is not bigger than the images of the
+		// proxies
+
+		var resize = Math.min(1, (double) ImageProxy.MAX_SIZE / Math.max(width, height));
+
+		var buffer = new BufferedImage(Math.max(1, (int) (width * resize)), Math.max(1, (int) (height * resize)),
+				BufferedImage.TYPE_INT_ARGB);
 		var g2 = buffer.createGraphics();
+		g2.scale(resize, resize);
 
 		double x = 0;
 		double y = 0;
@@ -716,16 +996,237 @@ public class SceneObjectRenderer {
 		var width = TileSpriteComponent.get_width(model);
 		var height = TileSpriteComponent.get_height(model);
 
-		var scaledImage = getTileSpriteImage(model);
-
-		if (scaledImage != null) {
-			scaledImage.paint(gc, 0, 0);
+		try {
+			paintTileSprite(gc, model, width, height);
+		} catch (Exception e) {
+			e.printStackTrace();
 		}
 
 		setObjectBounds(gc, model, 0, 0, width, height);
 
 	}
 
+	/**
+	 * Paint the frame repeated in the area of the tile sprite, directly from the
+	 * texture image. Only the tiles in the visible area are painted, so the cost
+	 * does not depend on the size of the tile sprite.
+	 */
+	private void paintTileSprite(GC gc, TileSpriteModel model, float width, float height) {
+		var assetFrame = TextureComponent.utils_getTexture(model, _finder);
+
+		if (assetFrame == null) {
+			return;
+		}
+
+		var fd = assetFrame.getFrameData();
+
+		var tileScaleX = TileSpriteComponent.get_tileScaleX(model);
+		var tileScaleY = TileSpriteComponent.get_tileScaleY(model);
+
+		var frameWidth = fd.src.width * tileScaleX;
+		var frameHeight = fd.src.height * tileScaleY;
+
+		if (frameWidth <= 0 || frameHeight <= 0) {
+			return;
+		}
+
+		var area = getVisibleLocalArea(gc, model, width, height);
+
+		if (area == null) {
+			return;
+		}
+
+		var proxy = ImageProxy.get(assetFrame.getImageFile(), null);
+
+		if (proxy == null) {
+			return;
+		}
+
+		var texture = proxy.getImage();
+
+		if (texture == null) {
+			return;
+		}
+
+		var textureBounds = texture.getBounds();
+
+		// the texture could be scaled down by the proxy
+		var textureScale = (float) textureBounds.width / proxy.getFinalFrameData().srcSize.x;
+
+		var srcX = (int) (fd.src.x * textureScale);
+		var srcY = (int) (fd.src.y * textureScale);
+		var srcW = Math.min((int) (fd.src.width * textureScale), textureBounds.width - srcX);
+		var srcH = Math.min((int) (fd.src.height * textureScale), textureBounds.height - srcY);
+
+		var dstW = (int) (fd.dst.width * tileScaleX);
+		var dstH = (int) (fd.dst.height * tileScaleY);
+
+		if (srcW <= 0 || srcH <= 0 || dstW <= 0 || dstH <= 0) {
+			return;
+		}
+
+		var x0 = getTileOffset(TileSpriteComponent.get_tilePositionX(model), fd.src.width);
+		var y0 = getTileOffset(TileSpriteComponent.get_tilePositionY(model), fd.src.height);
+
+		var col0 = (int) Math.max(0, Math.floor((area[0] - x0) / frameWidth));
+		var col1 = (int) Math.ceil((area[2] - x0) / frameWidth);
+		var row0 = (int) Math.max(0, Math.floor((area[1] - y0) / frameHeight));
+		var row1 = (int) Math.ceil((area[3] - y0) / frameHeight);
+
+		// the tiles of the borders are cut by the tile sprite bounds, inside the current
+		// clipping, that is restored later with the same transform
+
+		var oldClip = gc.getClipping();
+
+		gc.setClipping(oldClip.intersection(new Rectangle(0, 0, (int) width, (int) height)));
+
+		try {
+
+			for (int col = col0; col < col1; col++) {
+
+				var x = (int) (x0 + col * frameWidth);
+
+				for (int row = row0; row < row1; row++) {
+
+					var y = (int) (y0 + row * frameHeight);
+
+					gc.drawImage(texture, srcX, srcY, srcW, srcH, x, y, dstW, dstH);
+				}
+			}
+
+		} finally {
+			gc.setClipping(oldClip);
+		}
+	}
+
+	/**
+	 * The position of the first tile, given by the tile position. It is in the
+	 * range <code>(-frameSize, 0]</code>.
+	 */
+	private static double getTileOffset(float tilePosition, int frameSize) {
+		double offs = tilePosition % frameSize;
+
+		if (offs > 0) {
+			return -frameSize + offs;
+		}
+
+		return offs;
+	}
+
+	/**
+	 * The part of the area <code>(0, 0, width, height)</code> of the object that is
+	 * visible in the device, as <code>{ minX, minY, maxX, maxY }</code> in local
+	 * coords, or <code>null</code> if it is not visible.
+	 */
+	private float[] getVisibleLocalArea(GC gc, ObjectModel model, float width, float height) {
+		float minX = 0;
+		float minY = 0;
+		float maxX = width;
+		float maxY = height;
+
+		if (_visibleArea != null) {
+			var matrix = _modelMatrixMap.get(model);
+
+			if (matrix[0] * matrix[3] - matrix[1] * matrix[2] == 0) {
+				// the object is scaled to 0
+				return null;
+			}
+
+			var tx = new Transform(gc.getDevice(), matrix);
+
+			tx.invert();
+
+			var va = _visibleArea;
+
+			var points = new float[] {
+
+					va.x, va.y,
+
+					va.x + va.width, va.y,
+
+					va.x + va.width, va.y + va.height,
+
+					va.x, va.y + va.height
+
+			};
+
+			tx.transform(points);
+
+			tx.dispose();
+
+			var visMinX = Float.MAX_VALUE;
+			var visMinY = Float.MAX_VALUE;
+			var visMaxX = -Float.MAX_VALUE;
+			var visMaxY = -Float.MAX_VALUE;
+
+			for (int i = 0; i < points.length; i += 2) {
+				visMinX = Math.min(visMinX, points[i]);
+				visMinY = Math.min(visMinY, points[i + 1]);
+				visMaxX = Math.max(visMaxX, points[i]);
+				visMaxY = Math.max(visMaxY, points[i + 1]);
+			}
+
+			minX = Math.max(minX, visMinX);
+			minY = Math.max(minY, visMinY);
+			maxX = Math.min(maxX, visMaxX);
+			maxY = Math.min(maxY, visMaxY);
+		}
+
+		if (minX >= maxX || minY >= maxY) {
+			return null;
+		}
+
+		return new float[] { minX, minY, maxX, maxY };
+	}
+
+	/**
+	 * If the given point, in the local coords of the tile sprite, is on a non
+	 * transparent pixel of the repeated frame. It is the hit test of the tile
+	 * sprite, since it is painted without an image.
+	 */
+	public boolean hitsTileSprite(TileSpriteModel model, int x, int y) {
+		var width = TileSpriteComponent.get_width(model);
+		var height = TileSpriteComponent.get_height(model);
+
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+
+		var assetFrame = TextureComponent.utils_getTexture(model, _finder);
+
+		if (assetFrame == null) {
+			return false;
+		}
+
+		var fd = assetFrame.getFrameData();
+
+		var tileScaleX = TileSpriteComponent.get_tileScaleX(model);
+		var tileScaleY = TileSpriteComponent.get_tileScaleY(model);
+
+		var frameWidth = fd.src.width * tileScaleX;
+		var frameHeight = fd.src.height * tileScaleY;
+
+		if (frameWidth <= 0 || frameHeight <= 0) {
+			return false;
+		}
+
+		var x0 = getTileOffset(TileSpriteComponent.get_tilePositionX(model), fd.src.width);
+		var y0 = getTileOffset(TileSpriteComponent.get_tilePositionY(model), fd.src.height);
+
+		// the point in the frame, the frame image is trimmed at the dst position
+
+		var frameX = fd.dst.x + (int) (((x - x0) % frameWidth) / tileScaleX);
+		var frameY = fd.dst.y + (int) (((y - y0) % frameHeight) / tileScaleY);
+
+		var proxy = AssetPackUI.getImageProxy(assetFrame);
+
+		if (proxy == null) {
+			return false;
+		}
+
+		return proxy.hits(frameX, frameY);
+	}
+
 	private static Transform newTx(GC gc, Transform tx) {
 		var txElements = new float[6];
 		tx.getElements(txElements);
@@ -800,15 +1301,15 @@ public class SceneObjectRenderer {
 
 	private float[] getBitmapTextSize(BitmapTextModel model) {
 
-		var image = getBitmapTextImage(model);
+		var fontModel = model.getFontModel(_finder);
 
-		if (image == null) {
+		if (fontModel == null) {
 			return new float[] { 0, 0 };
 		}
 
-		var b = image.getBounds();
+		var metrics = fontModel.metrics(createBitmapTextRenderArgs(model));
 
-		return new float[] { b.width, b.height };
+		return new float[] { metrics.getWidth(), metrics.getHeight() };
 
 	}
 
@@ -1032,11 +1533,10 @@ public class SceneObjectRenderer {
 	}
 
 	private boolean assetChanged(String key, String frame) {
-		var asset1 = _lastFinderSnapshot.findAssetKey(key, frame);
-		var asset2 = _finder.findAssetKey(key, frame);
-
-		var b = asset1 == null || asset2 == null || asset1 != asset2;
+		// the asset changed if it is mapped in a build of the finder newer than the
+		// finder of the last paint
+		var version = _finder.getVersion(key, frame);
 
-		return b;
+		return version == -1 || version > _lastFinderVersion;
 	}
 }
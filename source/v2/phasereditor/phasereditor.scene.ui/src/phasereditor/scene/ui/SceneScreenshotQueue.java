@@ -0,0 +1,379 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.scene.ui;
+
+import static phasereditor.ui.PhaserEditorUI.swtRun;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.ListenerList;
+
+import phasereditor.assetpack.core.AssetFinder;
+import phasereditor.assetpack.core.AssetPackCore;
+import phasereditor.scene.core.BitmapTextComponent;
+import phasereditor.scene.core.SceneModel;
+import phasereditor.scene.core.TextureComponent;
+import phasereditor.scene.core.TileSpriteModel;
+import phasereditor.ui.ImageProxy;
+
+/**
+ * Makes the scene screenshots in background, with many workers. A screenshot is
+ * made only if the hash of the scene file and the textures it uses changed
+ * since the last time.
+ * 
+ * @author arian
+ *
+ */
+public class SceneScreenshotQueue {
+
+	/**
+	 * For the scenes changed by the user.
+	 */
+	public static final int PRIORITY_HIGH = 0;
+
+	/**
+	 * For the scenes checked by a full build or at startup.
+	 */
+	public static final int PRIORITY_LOW = 1;
+
+	private static ThreadPoolExecutor _pool;
+	private static int _sequence;
+	private static Map<IFile, Task> _pendingMap = new HashMap<>();
+
+	// the scenes that use a texture file, computed in the last screenshot check
+	private static Map<IFile, Set<IFile>> _textureScenesMap = new HashMap<>();
+	private static Map<IFile, Set<IFile>> _sceneTexturesMap = new HashMap<>();
+
+	private static ListenerList<Consumer<IFile>> _listeners = new ListenerList<>();
+
+	private static class Task implements Runnable, Comparable<Task> {
+		IFile file;
+		int priority;
+		int sequence;
+
+		public Task(IFile file, int priority, int sequence) {
+			this.file = file;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Task o) {
+			if (priority != o.priority) {
+				return Integer.compare(priority, o.priority);
+			}
+
+			return Integer.compare(sequence, o.sequence);
+		}
+
+		@Override
+		public void run() {
+			synchronized (_pendingMap) {
+				_pendingMap.remove(file, this);
+			}
+
+			try {
+				updateScreenshot(file);
+			} catch (Exception e) {
+				SceneUI.logError(e);
+			}
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getPool() {
+		if (_pool == null) {
+			var counter = new AtomicInteger();
+			var size = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+			_pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+					r -> {
+						var thread = new Thread(r, "Scene Screenshot " + counter.incrementAndGet());
+						thread.setDaemon(true);
+						thread.setPriority(Thread.MIN_PRIORITY);
+						return thread;
+					});
+		}
+
+		return _pool;
+	}
+
+	/**
+	 * Schedule the screenshot of the scene. If it is already scheduled, it only
+	 * raises its priority, if needed.
+	 */
+	public static void schedule(IFile file, int priority) {
+		synchronized (_pendingMap) {
+			var task = _pendingMap.get(file);
+
+			if (task != null) {
+				if (task.priority <= priority) {
+					return;
+				}
+
+				getPool().remove(task);
+			}
+
+			task = new Task(file, priority, _sequence++);
+
+			_pendingMap.put(file, task);
+
+			getPool().execute(task);
+		}
+	}
+
+	/**
+	 * Schedule the screenshots of the scenes that used the given file in the last
+	 * screenshot.
+	 */
+	public static void scheduleScenesUsing(IFile textureFile, int priority) {
+		Set<IFile> scenes;
+
+		synchronized (_textureScenesMap) {
+			scenes = _textureScenesMap.get(textureFile);
+
+			if (scenes == null) {
+				return;
+			}
+
+			scenes = new HashSet<>(scenes);
+		}
+
+		for (var scene : scenes) {
+			schedule(scene, priority);
+		}
+	}
+
+	/**
+	 * Add a listener that is called, in the UI thread, with the scene file when its
+	 * screenshot is written. The views showing the screenshots should refresh
+	 * them, the images are not ready when the views are built.
+	 */
+	public static void addScreenshotListener(Consumer<IFile> listener) {
+		_listeners.add(listener);
+	}
+
+	public static void removeScreenshotListener(Consumer<IFile> listener) {
+		_listeners.remove(listener);
+	}
+
+	private static void fireScreenshotUpdated(IFile file) {
+		if (_listeners.isEmpty()) {
+			return;
+		}
+
+		swtRun(() -> {
+			for (var listener : _listeners) {
+				try {
+					listener.accept(file);
+				} catch (Exception e) {
+					SceneUI.logError(e);
+				}
+			}
+		});
+	}
+
+	public static void forget(IFile file) {
+		synchronized (_pendingMap) {
+			var task = _pendingMap.remove(file);
+
+			if (task != null) {
+				getPool().remove(task);
+			}
+		}
+
+		updateTextureIndex(file, Set.of());
+	}
+
+	private static void updateTextureIndex(IFile sceneFile, Set<IFile> textures) {
+		synchronized (_textureScenesMap) {
+			var old = _sceneTexturesMap.remove(sceneFile);
+
+			if (old != null) {
+				for (var texture : old) {
+					var scenes = _textureScenesMap.get(texture);
+
+					if (scenes != null) {
+						scenes.remove(sceneFile);
+
+						if (scenes.isEmpty()) {
+							_textureScenesMap.remove(texture);
+						}
+					}
+				}
+			}
+
+			if (!textures.isEmpty()) {
+				_sceneTexturesMap.put(sceneFile, textures);
+
+				for (var texture : textures) {
+					_textureScenesMap.computeIfAbsent(texture, k -> new HashSet<>()).add(sceneFile);
+				}
+			}
+		}
+	}
+
+	private static void updateScreenshot(IFile file) throws Exception {
+		if (!file.exists()) {
+			return;
+		}
+
+		var model = new SceneModel();
+		model.read(file);
+
+		var finder = AssetPackCore.getAssetFinder(file.getProject());
+
+		var textures = collectTextures(model, finder);
+
+		updateTextureIndex(file, textures);
+
+		var hash = computeHash(file, textures);
+
+		var writeTo = SceneUI.getSceneScreenshotFile(file, false);
+
+		if (Files.exists(writeTo) && hash.equals(file.getPersistentProperty(SceneUI.SNAPSHOT_HASH_KEY))) {
+			return;
+		}
+
+		// decode the textures and compute the frame images here, so the UI thread only
+		// creates the SWT images and paints them
+
+		var prepared = prepareImages(model, finder);
+
+		try {
+			SceneUI.makeSceneScreenshot(model, file, writeTo);
+		} finally {
+			ImageProxy.discardPrepared(prepared);
+		}
+
+		if (file.exists()) {
+			file.setPersistentProperty(SceneUI.SNAPSHOT_HASH_KEY, hash);
+		}
+
+		fireScreenshotUpdated(file);
+	}
+
+	/**
+	 * Prepare the images of the proxies used by the {@link SceneObjectRenderer}.
+	 * 
+	 * @return The keys of the prepared images.
+	 */
+	private static List<String> prepareImages(SceneModel model, AssetFinder finder) {
+		var keys = new ArrayList<String>();
+
+		model.getDisplayList().visit(obj -> {
+
+			if (obj instanceof TextureComponent) {
+				var frame = TextureComponent.utils_getTexture(obj, finder);
+
+				if (frame != null && frame.getImageFile() != null) {
+					// the tile sprites are painted with the complete texture
+					var fd = obj instanceof TileSpriteModel ? null : frame.getFrameData();
+					var key = ImageProxy.prepare(frame.getImageFile(), fd);
+
+					if (key != null) {
+						keys.add(key);
+					}
+				}
+			}
+
+			if (obj instanceof BitmapTextComponent) {
+				var font = BitmapTextComponent.utils_getFont(obj, finder);
+
+				if (font != null && font.getTextureFile() != null) {
+					var key = ImageProxy.prepare(font.getTextureFile(), null);
+
+					if (key != null) {
+						keys.add(key);
+					}
+				}
+			}
+		});
+
+		return keys;
+	}
+
+	private static Set<IFile> collectTextures(SceneModel model, AssetFinder finder) {
+		var textures = new TreeSet<IFile>(Comparator.comparing(f -> f.getFullPath().toPortableString()));
+
+		model.getDisplayList().visit(obj -> {
+
+			if (obj instanceof TextureComponent) {
+				var frame = TextureComponent.utils_getTexture(obj, finder);
+
+				if (frame != null && frame.getImageFile() != null) {
+					textures.add(frame.getImageFile());
+				}
+			}
+
+			if (obj instanceof BitmapTextComponent) {
+				var font = BitmapTextComponent.utils_getFont(obj, finder);
+
+				if (font != null) {
+					for (var usedFile : font.computeUsedFiles()) {
+						if (usedFile != null) {
+							textures.add(usedFile);
+						}
+					}
+				}
+			}
+		});
+
+		return textures;
+	}
+
+	private static String computeHash(IFile file, Set<IFile> textures) throws Exception {
+		var digest = MessageDigest.getInstance("SHA-1");
+
+		try (var input = file.getContents()) {
+			digest.update(input.readAllBytes());
+		}
+
+		for (var texture : textures) {
+			var stamp = texture.getFullPath().toPortableString() + "#" + texture.getModificationStamp();
+			digest.update(stamp.getBytes(StandardCharsets.UTF_8));
+		}
+
+		var sb = new StringBuilder();
+
+		for (var b : digest.digest()) {
+			sb.append(String.format("%02x", Byte.valueOf(b)));
+		}
+
+		return sb.toString();
+	}
+}
@@ -0,0 +1,286 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.scene.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import phasereditor.scene.core.ObjectModel;
+
+/**
+ * A uniform grid over the bounds of the rendered objects. It is used to find
+ * the objects under a point or inside an area without visiting the whole
+ * display list. The index is updated after the paints that change the bounds
+ * of the objects, and only the objects that moved to other cells are
+ * re-inserted.
+ *
+ * @author arian
+ *
+ */
+public class SceneSpatialIndex {
+
+	private static final int CELL_SIZE = 128;
+
+	// objects that cover more cells than this are not inserted in the grid, they
+	// are always tested.
+	private static final int MAX_CELLS_PER_OBJECT = 256;
+
+	private static class Entry {
+		ObjectModel model;
+		float minX;
+		float minY;
+		float maxX;
+		float maxY;
+		int cellX1;
+		int cellY1;
+		int cellX2;
+		int cellY2;
+		boolean large;
+		int order;
+		int generation;
+	}
+
+	private Map<ObjectModel, Entry> _entries;
+	private Map<Long, List<Entry>> _cells;
+	private Set<Entry> _largeEntries;
+	private int _generation;
+
+	public SceneSpatialIndex() {
+		_entries = new HashMap<>();
+		_cells = new HashMap<>();
+		_largeEntries = new LinkedHashSet<>();
+	}
+
+	/**
+	 * Start a new update of the index. The objects that are not updated before
+	 * the next call to {@link #endUpdate()} are removed from the index.
+	 */
+	public void beginUpdate() {
+		_generation++;
+	}
+
+	public void endUpdate() {
+		var iter = _entries.values().iterator();
+
+		while (iter.hasNext()) {
+			var entry = iter.next();
+
+			if (entry.generation != _generation) {
+				iter.remove();
+				removeFromCells(entry);
+			}
+		}
+	}
+
+	public void clear() {
+		_entries.clear();
+		_cells.clear();
+		_largeEntries.clear();
+	}
+
+	/**
+	 * Put the object in the index.
+	 * 
+	 * @param model
+	 *            The object.
+	 * @param polygon
+	 *            The bounds of the object, as a list of x,y points.
+	 * @param order
+	 *            The paint order of the object. Objects with a greater order are
+	 *            on top.
+	 */
+	public void update(ObjectModel model, float[] polygon, int order) {
+		var minX = Float.MAX_VALUE;
+		var minY = Float.MAX_VALUE;
+		var maxX = -Float.MAX_VALUE;
+		var maxY = -Float.MAX_VALUE;
+
+		for (int i = 0; i + 1 < polygon.length; i += 2) {
+			minX = Math.min(minX, polygon[i]);
+			minY = Math.min(minY, polygon[i + 1]);
+			maxX = Math.max(maxX, polygon[i]);
+			maxY = Math.max(maxY, polygon[i + 1]);
+		}
+
+		if (minX > maxX || minY > maxY) {
+			return;
+		}
+
+		var entry = _entries.get(model);
+		var insert = true;
+
+		if (entry == null) {
+			entry = new Entry();
+			entry.model = model;
+			_entries.put(model, entry);
+		} else {
+			var sameCells = entry.cellX1 == cell(minX) && entry.cellY1 == cell(minY) && entry.cellX2 == cell(maxX)
+					&& entry.cellY2 == cell(maxY);
+
+			if (sameCells) {
+				insert = false;
+			} else {
+				removeFromCells(entry);
+			}
+		}
+
+		entry.minX = minX;
+		entry.minY = minY;
+		entry.maxX = maxX;
+		entry.maxY = maxY;
+		entry.order = order;
+		entry.generation = _generation;
+
+		if (insert) {
+			addToCells(entry);
+		}
+	}
+
+	private static int cell(float v) {
+		return (int) Math.floor(v / CELL_SIZE);
+	}
+
+	private static long cellKey(int x, int y) {
+		return ((long) x << 32) | (y & 0xffffffffL);
+	}
+
+	private void addToCells(Entry entry) {
+		entry.cellX1 = cell(entry.minX);
+		entry.cellY1 = cell(entry.minY);
+		entry.cellX2 = cell(entry.maxX);
+		entry.cellY2 = cell(entry.maxY);
+
+		var count = ((long) entry.cellX2 - entry.cellX1 + 1) * ((long) entry.cellY2 - entry.cellY1 + 1);
+
+		entry.large = count > MAX_CELLS_PER_OBJECT;
+
+		if (entry.large) {
+			_largeEntries.add(entry);
+			return;
+		}
+
+		for (int x = entry.cellX1; x <= entry.cellX2; x++) {
+			for (int y = entry.cellY1; y <= entry.cellY2; y++) {
+				_cells.computeIfAbsent(cellKey(x, y), k -> new ArrayList<>(2)).add(entry);
+			}
+		}
+	}
+
+	private void removeFromCells(Entry entry) {
+		if (entry.large) {
+			_largeEntries.remove(entry);
+			entry.large = false;
+			return;
+		}
+
+		for (int x = entry.cellX1; x <= entry.cellX2; x++) {
+			for (int y = entry.cellY1; y <= entry.cellY2; y++) {
+				var key = cellKey(x, y);
+				var list = _cells.get(key);
+
+				if (list != null) {
+					list.remove(entry);
+
+					if (list.isEmpty()) {
+						_cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The objects with bounds that contain the given point, sorted from the top
+	 * to the bottom.
+	 */
+	public List<ObjectModel> getObjectsAt(float x, float y) {
+		return getObjectsInArea(x, y, x, y);
+	}
+
+	/**
+	 * The objects with bounds that intersect the given area, sorted from the top
+	 * to the bottom.
+	 */
+	public List<ObjectModel> getObjectsInArea(float x1, float y1, float x2, float y2) {
+		var found = new LinkedHashSet<Entry>();
+
+		var cellX1 = cell(Math.min(x1, x2));
+		var cellY1 = cell(Math.min(y1, y2));
+		var cellX2 = cell(Math.max(x1, x2));
+		var cellY2 = cell(Math.max(y1, y2));
+
+		var minX = Math.min(x1, x2);
+		var minY = Math.min(y1, y2);
+		var maxX = Math.max(x1, x2);
+		var maxY = Math.max(y1, y2);
+
+		var cellCount = ((long) cellX2 - cellX1 + 1) * ((long) cellY2 - cellY1 + 1);
+
+		if (cellCount > _cells.size()) {
+			// the area is big, it is faster to visit all the cells
+			for (var list : _cells.values()) {
+				collect(list, found, minX, minY, maxX, maxY);
+			}
+		} else {
+			for (int x = cellX1; x <= cellX2; x++) {
+				for (int y = cellY1; y <= cellY2; y++) {
+					var list = _cells.get(cellKey(x, y));
+
+					if (list != null) {
+						collect(list, found, minX, minY, maxX, maxY);
+					}
+				}
+			}
+		}
+
+		collect(_largeEntries, found, minX, minY, maxX, maxY);
+
+		var sorted = new ArrayList<>(found);
+		sorted.sort((a, b) -> Integer.compare(b.order, a.order));
+
+		var result = new ArrayList<ObjectModel>(sorted.size());
+
+		for (var entry : sorted) {
+			result.add(entry.model);
+		}
+
+		return result;
+	}
+
+	private static void collect(Iterable<Entry> entries, Set<Entry> found, float minX, float minY, float maxX,
+			float maxY) {
+
+		for (var entry : entries) {
+			if (entry.minX <= maxX && entry.maxX >= minX && entry.minY <= maxY && entry.maxY >= minY) {
+				found.add(entry);
+			}
+		}
+	}
+
+	public int size() {
+		return _entries.size();
+	}
+}
@@ -29,11 +29,13 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.Status;
@@ -75,6 +77,7 @@ public class SceneUI {
 	private static final int SCENE_SCREENSHOT_SIZE = 256;
 	private static final QualifiedName SNAPSHOT_FILENAME_KEY = new QualifiedName("phasereditor.scene.core",
 			"snapshot-file");
+	static final QualifiedName SNAPSHOT_HASH_KEY = new QualifiedName("phasereditor.scene.core", "snapshot-hash");
 
 	public static void logError(Exception e) {
 		e.printStackTrace();
@@ -161,6 +164,7 @@ public class SceneUI {
 				Files.delete(snapshot);
 			}
 			file.setPersistentProperty(SNAPSHOT_FILENAME_KEY, null);
+			file.setPersistentProperty(SNAPSHOT_HASH_KEY, null);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -262,14 +266,23 @@ public class SceneUI {
 
 	public static Image makeSceneScreenshot_SWTImage(IFile file, int maxSize) {
 		try {
-			var display = PlatformUI.getWorkbench().getDisplay();
-
 			var model = new SceneModel();
 			model.read(file);
 
-			var finder = AssetPackCore.getAssetFinder(file.getProject());
+			return makeSceneScreenshot_SWTImage(model, file.getProject(), maxSize);
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	public static Image makeSceneScreenshot_SWTImage(SceneModel model, IProject project, int maxSize) {
+		try {
+			var display = PlatformUI.getWorkbench().getDisplay();
+
+			var finder = AssetPackCore.getAssetFinder(project);
 
-			Image img = null;
+			Image[] img = { null };
 
 			try (var context = new OfflineSceneRendererContext(finder, display, 1)) {
 
@@ -288,22 +301,28 @@ public class SceneUI {
 
 				context.setScale(scale);
 
-				width *= scale;
-				height *= scale;
-
-				img = new Image(context.getDevice(), width, height);
-
-				var gc = new GC(img);
-				var tx = new Transform(gc.getDevice());
+				var width2 = (int) (width * scale);
+				var height2 = (int) (height * scale);
 
 				// yes, lets do this in the UI thread
 				display.syncExec(() -> {
-					renderer.renderScene(gc, tx, model);
+					img[0] = new Image(context.getDevice(), width2, height2);
+
+					var gc = new GC(img[0]);
+					var tx = new Transform(gc.getDevice());
+
+					try {
+						renderer.renderScene(gc, tx, model);
+					} finally {
+						tx.dispose();
+						gc.dispose();
+						renderer.dispose();
+					}
 				});
 
 			}
 
-			return img;
+			return img[0];
 		} catch (Exception e) {
 			e.printStackTrace();
 			return null;
@@ -311,20 +330,48 @@ public class SceneUI {
 	}
 
 	public static void makeSceneScreenshot(IFile file, Path writeTo) {
+		try {
+			var model = new SceneModel();
+			model.read(file);
+
+			makeSceneScreenshot(model, file, writeTo);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	static void makeSceneScreenshot(SceneModel model, IFile file, Path writeTo) {
 		long t = currentTimeMillis();
 
-		var image = makeSceneScreenshot_SWTImage(file, SCENE_SCREENSHOT_SIZE);
+		var image = makeSceneScreenshot_SWTImage(model, file.getProject(), SCENE_SCREENSHOT_SIZE);
+
+		if (image == null) {
+			return;
+		}
+
+		var display = PlatformUI.getWorkbench().getDisplay();
+
+		ImageData[] data = { null };
+
+		display.syncExec(() -> {
+			data[0] = image.getImageData();
+			image.dispose();
+		});
 
 		var loader = new ImageLoader();
 
 		try {
 			Files.createDirectories(writeTo.getParent());
-			loader.data = new ImageData[] { image.getImageData() };
-			loader.save(writeTo.toString(), SWT.IMAGE_PNG);
+
+			// write it in a temporal file, so readers never get an incomplete image
+			var tempFile = writeTo.resolveSibling(writeTo.getFileName() + ".tmp");
+
+			loader.data = data;
+			loader.save(tempFile.toString(), SWT.IMAGE_PNG);
+
+			Files.move(tempFile, writeTo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
 		} catch (IOException e) {
 			e.printStackTrace();
-		} finally {
-			image.dispose();
 		}
 
 		out.println(
@@ -35,6 +35,7 @@ import phasereditor.project.core.IProjectBuildParticipant;
 import phasereditor.project.core.IResourceDeltaVisitor2;
 import phasereditor.project.core.ProjectCore;
 import phasereditor.scene.core.SceneCore;
+import phasereditor.scene.ui.SceneScreenshotQueue;
 import phasereditor.scene.ui.SceneUI;
 
 /**
@@ -48,7 +49,7 @@ public class SceneScreenshotBuildParticipant implements IProjectBuildParticipant
 		var cache = SceneCore.getSceneFileDataCache();
 		var data = cache.getProjectData(project);
 		for (var sceneFile : data) {
-			SceneUI.getSceneScreenshotFile(sceneFile.getFile(), true);
+			SceneScreenshotQueue.schedule(sceneFile.getFile(), SceneScreenshotQueue.PRIORITY_LOW);
 		}
 	}
 
@@ -56,6 +57,7 @@ public class SceneScreenshotBuildParticipant implements IProjectBuildParticipant
 	public void clean(IProject project, Map<String, Object> env) {
 		var files = SceneCore.getSceneFileDataCache().getProjectData(project);
 		for (var sceneFile : files) {
+			SceneScreenshotQueue.forget(sceneFile.getFile());
 			SceneUI.clearSceneScreenshot(sceneFile.getFile());
 		}
 	}
@@ -71,6 +73,7 @@ public class SceneScreenshotBuildParticipant implements IProjectBuildParticipant
 					if (resource instanceof IFile) {
 						IFile file = (IFile) resource;
 						if (SceneCore.isSceneFile(file)) {
+							SceneScreenshotQueue.forget(file);
 							SceneUI.clearSceneScreenshot(file);
 						}
 					}
@@ -89,30 +92,39 @@ public class SceneScreenshotBuildParticipant implements IProjectBuildParticipant
 				@Override
 				public void fileAdded(IFile file) {
 					if (SceneCore.isSceneFile(file)) {
-						SceneUI.getSceneScreenshotFile(file, true);
+						SceneScreenshotQueue.schedule(file, SceneScreenshotQueue.PRIORITY_HIGH);
+					} else {
+						SceneScreenshotQueue.scheduleScenesUsing(file, SceneScreenshotQueue.PRIORITY_HIGH);
 					}
 				}
 
 				@Override
 				public void fileRemoved(IFile file) {
 					if (SceneCore.isSceneFile(file)) {
+						SceneScreenshotQueue.forget(file);
 						SceneUI.clearSceneScreenshot(file);
+					} else {
+						SceneScreenshotQueue.scheduleScenesUsing(file, SceneScreenshotQueue.PRIORITY_HIGH);
 					}
 				}
 
 				@Override
 				public void fileMovedTo(IFile file, IPath movedFromPath, IPath movedToPath) {
 					if (SceneCore.isSceneFile(file)) {
+						var root = file.getWorkspace().getRoot();
+						SceneScreenshotQueue.forget(root.getFile(movedFromPath));
 						SceneUI.clearSceneScreenshot(file);
-						SceneUI.getSceneScreenshotFile(file, true);
+						SceneScreenshotQueue.schedule(file, SceneScreenshotQueue.PRIORITY_HIGH);
 					}
 				}
 
 				@Override
 				public void fileChanged(IFile file) {
 					if (SceneCore.isSceneFile(file)) {
-						SceneUI.clearSceneScreenshot(file);
-						SceneUI.getSceneScreenshotFile(file, true);
+						// the old screenshot is replaced when the new one is ready
+						SceneScreenshotQueue.schedule(file, SceneScreenshotQueue.PRIORITY_HIGH);
+					} else {
+						SceneScreenshotQueue.scheduleScenesUsing(file, SceneScreenshotQueue.PRIORITY_HIGH);
 					}
 				}
 			});
@@ -126,9 +138,9 @@ public class SceneScreenshotBuildParticipant implements IProjectBuildParticipant
 
 		var files = SceneCore.getSceneFileDataCache().getProjectData(project);
 
+		// scenes with the same content and textures are skipped by the queue
 		for (var sceneFile : files) {
-			SceneUI.clearSceneScreenshot(sceneFile.getFile());
-			SceneUI.getSceneScreenshotFile(sceneFile.getFile(), true);
+			SceneScreenshotQueue.schedule(sceneFile.getFile(), SceneScreenshotQueue.PRIORITY_LOW);
 		}
 	}
 
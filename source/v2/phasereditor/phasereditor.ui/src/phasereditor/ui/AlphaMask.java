@@ -0,0 +1,121 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2018 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.ui;
+
+import java.awt.image.BufferedImage;
+
+import org.eclipse.swt.graphics.ImageData;
+
+/**
+ * A 1-bit per pixel mask of the non-transparent pixels of an image. It is used
+ * to test if a point hits the image without reading the pixels of the native
+ * image.
+ *
+ * @author arian
+ *
+ */
+public class AlphaMask {
+	private int _width;
+	private int _height;
+	private long[] _bits;
+
+	private AlphaMask(int width, int height) {
+		_width = width;
+		_height = height;
+		_bits = new long[(int) (((long) width * height + 63) / 64)];
+	}
+
+	public static AlphaMask create(BufferedImage image) {
+		var width = image.getWidth();
+		var height = image.getHeight();
+
+		var mask = new AlphaMask(width, height);
+
+		var row = new int[width];
+
+		for (int y = 0; y < height; y++) {
+			image.getRGB(0, y, width, 1, row, 0, width);
+
+			for (int x = 0; x < width; x++) {
+				if (row[x] >>> 24 != 0) {
+					mask.set(x, y);
+				}
+			}
+		}
+
+		return mask;
+	}
+
+	public static AlphaMask create(ImageData data) {
+		var width = data.width;
+		var height = data.height;
+
+		var mask = new AlphaMask(width, height);
+
+		var row = new byte[width];
+
+		for (int y = 0; y < height; y++) {
+			data.getAlphas(0, y, width, row, 0);
+
+			for (int x = 0; x < width; x++) {
+				if (row[x] != 0) {
+					mask.set(x, y);
+				}
+			}
+		}
+
+		return mask;
+	}
+
+	private void set(int x, int y) {
+		var i = (long) y * _width + x;
+		_bits[(int) (i >>> 6)] |= 1L << i;
+	}
+
+	/**
+	 * If the pixel at the given point is not transparent.
+	 */
+	public boolean hits(int x, int y) {
+		if (x < 0 || y < 0 || x >= _width || y >= _height) {
+			return false;
+		}
+
+		var i = (long) y * _width + x;
+
+		return (_bits[(int) (i >>> 6)] & (1L << i)) != 0;
+	}
+
+	public int getWidth() {
+		return _width;
+	}
+
+	public int getHeight() {
+		return _height;
+	}
+
+	/**
+	 * The size in bytes of the mask.
+	 */
+	public long getSize() {
+		return (long) _bits.length * 8;
+	}
+}
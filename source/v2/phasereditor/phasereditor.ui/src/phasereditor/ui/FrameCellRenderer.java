@@ -48,9 +48,13 @@ public class FrameCellRenderer implements ICanvasCellRenderer {
 	@Override
 	public void render(Canvas canvas, GC gc, int x, int y, int width, int height) {
 		if (_imageFile != null) {
-			var image = ImageProxy.get(_imageFile, _fd);
+			var image = ImageProxy.getAsync(_imageFile, _fd);
 			if (image != null) {
-				image.paintScaledInArea(gc, new Rectangle(x, y, width, height));
+				image.paintScaledInArea(gc, new Rectangle(x, y, width, height), true, canvas);
+
+				if (image.isDecoding()) {
+					new LoadingCellRenderer().render(canvas, gc, x, y, width, height);
+				}
 			}
 		}
 	}
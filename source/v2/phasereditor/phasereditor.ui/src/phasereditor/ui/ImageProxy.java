@@ -23,6 +23,7 @@ package phasereditor.ui;
 
 import static java.lang.System.currentTimeMillis;
 import static java.lang.System.out;
+import static phasereditor.ui.PhaserEditorUI.swtRun;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -30,9 +31,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.imageio.ImageIO;
 
@@ -41,7 +47,10 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 
 /**
  * @author arian
@@ -65,19 +74,61 @@ public class ImageProxy {
 		MAX_SIZE = maxSize;
 	}
 
+	/**
+	 * The maximum amount of memory (in bytes) used by the decoded file buffers and
+	 * the SWT images of the proxies. It is set with the
+	 * <code>ImageProxy.MAX_CACHE_SIZE</code> property, in megabytes.
+	 */
+	public final static long MAX_CACHE_SIZE;
+
+	static {
+		long maxCacheSize = 256;
+		var str = System.getProperty("ImageProxy.MAX_CACHE_SIZE");
+		if (str != null) {
+			try {
+				var size = Long.parseLong(str);
+				maxCacheSize = size;
+			} catch (Exception e) {
+				//
+			}
+		}
+		MAX_CACHE_SIZE = maxCacheSize * 1024 * 1024;
+	}
+
 	private File _file;
 	private FrameData _fd;
 	private Image _swtImage;
-	private BufferedImage _currentFileBufferedImage;
+	private AlphaMask _alphaMask;
+	private long _currentFileModified;
 	private FrameData _finalFrameData;
 	private float _scale;
 	private String _key;
 
+	// the maps of proxies are accessed by the UI and the decoder threads, always
+	// with the lock of the cache (_lruMap)
 	private static Map<String, ImageProxy> _keyProxyMap = new HashMap<>();
 	private static Map<File, BufferedImage> _fileBufferedImageMap = new HashMap<>();
 	private static Map<File, Long> _fileModifiedMap = new HashMap<>();
-	private static List<ImageProxy> _proxyList = new ArrayList<>();
+	private static Map<File, Map<String, ImageProxy>> _fileProxiesMap = new HashMap<>();
 	private static List<TrashItem> _trash = new ArrayList<>();
+	private static boolean _imageEvictionScheduled;
+
+	// the LRU cache of file buffers (keyed by File) and proxy images (keyed by
+	// ImageProxy), with the size in bytes of every entry.
+	private static LinkedHashMap<Object, Long> _lruMap = new LinkedHashMap<>(16, 0.75f, true);
+	private static long _cacheSize;
+	private static long _cacheHits;
+	private static long _cacheMisses;
+	private static long _cacheEvictions;
+
+	// the background decoding
+	private static ExecutorService _decodePool;
+	private static Map<File, CompletableFuture<BufferedImage>> _decodingFileMap = new HashMap<>();
+	private static Map<ImageProxy, List<Control>> _decodingProxyMap = new HashMap<>();
+	private boolean _notImage;
+
+	// the frame images computed in other threads, by the key of their proxies
+	private static Map<String, PreparedFrame> _preparedFrameMap = new HashMap<>();
 
 	public static ImageProxy get(IFile file, FrameData fd) {
 
@@ -88,8 +139,34 @@ public class ImageProxy {
 		return get(file.getLocation().toFile(), fd);
 	}
 
-	@SuppressWarnings("boxing")
 	public static ImageProxy get(File file, FrameData fd) {
+		return get(file, fd, true);
+	}
+
+	/**
+	 * Like {@link #get(IFile, FrameData)} but it does not decode the file, it only
+	 * reads its header to know if it is an image. Use it with {@link #getImageAsync(Control)} or the paint methods that accept a
+	 * control, to decode the images in background.
+	 */
+	public static ImageProxy getAsync(IFile file, FrameData fd) {
+
+		if (file == null) {
+			return null;
+		}
+
+		return getAsync(file.getLocation().toFile(), fd);
+	}
+
+	/**
+	 * Like {@link #get(File, FrameData)} but it does not decode the file, it only
+	 * reads its header to know if it is an image. Use it with {@link #getImageAsync(Control)} or the paint methods that accept a
+	 * control, to decode the images in background.
+	 */
+	public static ImageProxy getAsync(File file, FrameData fd) {
+		return get(file, fd, false);
+	}
+
+	private static ImageProxy get(File file, FrameData fd, boolean decode) {
 
 		try {
 
@@ -101,100 +178,400 @@ public class ImageProxy {
 
 			var key = computeKey(file, fd, lastModified);
 
-			var proxy = _keyProxyMap.get(key);
+			synchronized (_lruMap) {
+				var proxy = _keyProxyMap.get(key);
 
-			if (proxy == null) {
+				if (proxy != null) {
+					return proxy;
+				}
 
-				// There are these different reasons:
-				//
-				// - It is requesting a new file
-				// - It is requesting a file that changed
-				// - It is requesting a new frame inside the same file
-				//
+				var cacheModified = _fileModifiedMap.get(file);
+
+				if (cacheModified != null && cacheModified.longValue() != lastModified) {
+					// The file changed, we need to recompute the buffered image. The SWT images of
+					// the virtual images are recomputed by demand
+					_fileBufferedImageMap.remove(file);
+					cacheRemove(file);
+				}
+			}
 
-				// check if it is requesting a new file
+			// decode the file out of the lock, it is called by many threads
 
-				var isNewFile = true;
-				for (var cacheImage : _proxyList) {
-					if (cacheImage._file.equals(file)) {
-						isNewFile = false;
-						break;
-					}
+			if (decode) {
+				// create the new file buffer, or take it from the cache, if it was prepared
+				var buffer = decodeFileBuffer(file);
+				if (buffer == null) {
+					// it is not an image file!
+					return null;
 				}
+			} else if (!isImageFile(file)) {
+				// else, it will be decoded in background
+				return null;
+			}
 
-				if (isNewFile) {
-					// create the new file buffer
-					var buffer = ImageIO.read(file);
-					if (buffer == null) {
-						// it is not an image file!
-						return null;
-					}
-					_fileBufferedImageMap.put(file, buffer);
+			synchronized (_lruMap) {
+				return mapProxy(file, fd, key, lastModified);
+			}
 
-					// create the virtual image
-					proxy = new ImageProxy(file, fd, key);
+		} catch (Exception e) {
+			e.printStackTrace();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Find or create the proxy of the file and frame, and map it to the key. It
+	 * should be called with the lock of the cache.
+	 */
+	@SuppressWarnings("boxing")
+	private static ImageProxy mapProxy(File file, FrameData fd, String key, long lastModified) {
 
-					// add the virtual image to maps
-					_proxyList.add(proxy);
-					_keyProxyMap.put(key, proxy);
-					_fileModifiedMap.put(file, lastModified);
+		// maybe it was mapped by other thread
+		var proxy = _keyProxyMap.get(key);
 
-					return proxy;
-				}
+		if (proxy != null) {
+			return proxy;
+		}
 
-				// check if the file changed
+		// There are these different reasons:
+		//
+		// - It is requesting a new file
+		// - It is requesting a file that changed
+		// - It is requesting a new frame inside the same file
+		//
 
-				var cacheModified = _fileModifiedMap.get(file);
-				if (lastModified != cacheModified.longValue()) {
-					// The file changed, we need to recompute the buffered image. The SWT images of
-					// the virtual images are recomputed by demand
-					var buffer = ImageIO.read(file);
-					if (buffer == null) {
-						// it is not an image!
-						return null;
-					}
-					_fileBufferedImageMap.put(file, buffer);
-					_fileModifiedMap.put(file, lastModified);
-
-					// let's find the virtual image for that file and frame data
-					for (var cachedProxy : _proxyList) {
-						if (cachedProxy.sameFileAndFrameData(file, fd)) {
-							// re-map the proxy
-							_keyProxyMap.remove(cachedProxy.getKey());
-							_keyProxyMap.put(key, cachedProxy);
-
-							return cachedProxy;
-						}
-					}
-				}
+		// check if it is requesting a new file
+
+		var frameProxyMap = _fileProxiesMap.get(file);
+
+		if (frameProxyMap == null) {
+			// create the virtual image
+			proxy = new ImageProxy(file, fd, key);
+
+			// add the virtual image to maps
+			frameProxyMap = new HashMap<>();
+			frameProxyMap.put(computeFrameKey(fd), proxy);
+			_fileProxiesMap.put(file, frameProxyMap);
+			_keyProxyMap.put(key, proxy);
+			_fileModifiedMap.put(file, lastModified);
+
+			return proxy;
+		}
+
+		// check if the file changed
+
+		var cacheModified = _fileModifiedMap.get(file);
+		if (lastModified != cacheModified.longValue()) {
+			_fileModifiedMap.put(file, lastModified);
+
+			// the keys of all the virtual images of the file are outdated, they will be
+			// re-mapped by demand
+			for (var cachedProxy : frameProxyMap.values()) {
+				_keyProxyMap.remove(cachedProxy.getKey());
+			}
+		}
+
+		// let's find the virtual image for that file and frame data, else, it is
+		// requesting a new frame data inside an existent texture, so let's create a new
+		// virtual image
+
+		var frameKey = computeFrameKey(fd);
+
+		proxy = frameProxyMap.get(frameKey);
+
+		if (proxy == null) {
+			proxy = new ImageProxy(file, fd, key);
+			frameProxyMap.put(frameKey, proxy);
+		} else {
+			// re-map the proxy
+			proxy._key = key;
+		}
+
+		_keyProxyMap.put(key, proxy);
+
+		return proxy;
+	}
+
+	/**
+	 * If there is a reader for the file. Like {@link ImageIO#read(File)}, it reads
+	 * only the header of the file to find the reader, but it does not decode the
+	 * image.
+	 */
+	private static boolean isImageFile(File file) throws IOException {
+		try (var input = ImageIO.createImageInputStream(file)) {
+			return input != null && ImageIO.getImageReaders(input).hasNext();
+		}
+	}
+
+	private static BufferedImage readFileBuffer(File file) throws IOException {
+		var buffer = ImageIO.read(file);
+
+		if (buffer != null) {
+			synchronized (_lruMap) {
+				_fileBufferedImageMap.put(file, buffer);
+				cachePut(file, (long) buffer.getWidth() * buffer.getHeight() * 4);
+			}
+		}
+
+		return buffer;
+	}
+
+	private static BufferedImage getFileBuffer(File file) throws IOException {
+		try {
+			// if the buffer was evicted, decode it again
+			return decodeFileBuffer(file);
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static synchronized ExecutorService getDecodePool() {
+		if (_decodePool == null) {
+			var counter = new AtomicInteger();
+			var size = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
 
-				// so it looks that the key changed because it is requesting a new frame data
-				// inside an existant texture, so let's create a new virtual image
-				{
-					proxy = new ImageProxy(file, fd, key);
-					// add the virtual image to maps
-					_proxyList.add(proxy);
-					_keyProxyMap.put(key, proxy);
-					_fileModifiedMap.put(file, lastModified);
+			_decodePool = Executors.newFixedThreadPool(size, r -> {
+				var thread = new Thread(r, "ImageProxy Decoder " + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return _decodePool;
+	}
+
+	private static class PreparedFrame {
+		public FrameImage frameImage;
+		public ImageData imageData;
+
+		public PreparedFrame(FrameImage frameImage, ImageData imageData) {
+			this.frameImage = frameImage;
+			this.imageData = imageData;
+		}
+	}
+
+	/**
+	 * Decode the file and compute the frame image in the caller thread, so the
+	 * proxy of the same file and frame only creates the SWT image when it is
+	 * painted in the UI thread. The prepared frame is kept until it is used by the
+	 * proxy or discarded with {@link #discardPrepared(List)}.
+	 * 
+	 * @return The key of the prepared frame, or null if the file is not an image.
+	 */
+	public static String prepare(IFile file, FrameData fd) {
+		var location = file.getLocation();
+
+		if (location == null || !location.toFile().exists()) {
+			return null;
+		}
+
+		try {
+			var file2 = location.toFile();
+			var key = computeKey(file2, fd, lastModified(file2));
+
+			synchronized (_lruMap) {
+				if (_preparedFrameMap.containsKey(key)) {
+					return key;
 				}
+			}
 
+			var buffer = decodeFileBuffer(file2);
+
+			if (buffer == null) {
+				return null;
 			}
 
-			return proxy;
+			var frameImage = computeFrameImage(buffer, fd);
+			var imageData = PhaserEditorUI.image_Swing_To_ImageData(frameImage.image);
+
+			synchronized (_lruMap) {
+				_preparedFrameMap.put(key, new PreparedFrame(frameImage, imageData));
+			}
+
+			return key;
+
 		} catch (Exception e) {
 			e.printStackTrace();
-			throw new RuntimeException(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Discard the prepared frames that were not used.
+	 * 
+	 * @see #prepare(IFile, FrameData)
+	 */
+	public static void discardPrepared(List<String> keys) {
+		synchronized (_lruMap) {
+			for (var key : keys) {
+				_preparedFrameMap.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Get the buffer of the file, decoding it if needed. If other thread is
+	 * decoding the same file, it waits for that result.
+	 */
+	private static BufferedImage decodeFileBuffer(File file) throws Exception {
+		CompletableFuture<BufferedImage> future;
+		var owner = false;
+
+		synchronized (_lruMap) {
+			var buffer = _fileBufferedImageMap.get(file);
+
+			if (buffer != null) {
+				_cacheHits++;
+				_lruMap.get(file);
+				return buffer;
+			}
+
+			future = _decodingFileMap.get(file);
+
+			if (future == null) {
+				_cacheMisses++;
+				future = new CompletableFuture<>();
+				_decodingFileMap.put(file, future);
+				owner = true;
+			}
+		}
+
+		if (owner) {
+			try {
+				future.complete(readFileBuffer(file));
+			} catch (Exception e) {
+				future.completeExceptionally(e);
+			} finally {
+				synchronized (_lruMap) {
+					_decodingFileMap.remove(file);
+				}
+			}
+		}
+
+		return future.get();
+	}
+
+	private static void cachePut(Object key, long size) {
+		var old = _lruMap.put(key, Long.valueOf(size));
+
+		if (old != null) {
+			_cacheSize -= old.longValue();
+		}
+
+		_cacheSize += size;
+
+		evict();
+	}
+
+	private static void cacheRemove(Object key) {
+		var old = _lruMap.remove(key);
+
+		if (old != null) {
+			_cacheSize -= old.longValue();
+		}
+	}
+
+	/**
+	 * Evict the least used entries until the cache fits in its max size. It is
+	 * called by any thread, so it only evicts the file buffers. The SWT images are
+	 * evicted later in the UI thread, out of any paint, by
+	 * {@link #evictImages()}.
+	 */
+	private static void evict() {
+		var iter = _lruMap.entrySet().iterator();
+		var pendingImages = false;
+
+		// never evict the last used entry
+		for (int i = _lruMap.size(); i > 1 && _cacheSize > MAX_CACHE_SIZE; i--) {
+			var entry = iter.next();
+			var key = entry.getKey();
+
+			if (key instanceof File) {
+				iter.remove();
+
+				_cacheSize -= entry.getValue().longValue();
+				_cacheEvictions++;
+
+				_fileBufferedImageMap.remove(key);
+			} else {
+				pendingImages = true;
+			}
+		}
+
+		if (pendingImages && !_imageEvictionScheduled) {
+			_imageEvictionScheduled = true;
+			swtRun(ImageProxy::evictImages);
+		}
+	}
+
+	private static void evictImages() {
+		synchronized (_lruMap) {
+			_imageEvictionScheduled = false;
+
+			var iter = _lruMap.entrySet().iterator();
+
+			// never evict the last used entry
+			for (int i = _lruMap.size(); i > 1 && _cacheSize > MAX_CACHE_SIZE; i--) {
+				var entry = iter.next();
+				var key = entry.getKey();
+
+				if (key instanceof ImageProxy) {
+					iter.remove();
+
+					_cacheSize -= entry.getValue().longValue();
+					_cacheEvictions++;
+
+					var proxy = (ImageProxy) key;
+
+					if (proxy._swtImage != null) {
+						proxy.sendToTrash();
+						proxy._swtImage = null;
+						proxy._alphaMask = null;
+					}
+				}
+			}
+		}
+	}
+
+	public static long getCacheSize() {
+		return _cacheSize;
+	}
+
+	public static long getCacheHits() {
+		return _cacheHits;
+	}
+
+	public static long getCacheMisses() {
+		return _cacheMisses;
+	}
+
+	public static long getCacheEvictions() {
+		return _cacheEvictions;
+	}
+
+	public static String getCacheStats() {
+		synchronized (_lruMap) {
+			return "size=" + (_cacheSize / 1024) + "KB entries=" + _lruMap.size() + " hits=" + _cacheHits + " misses="
+					+ _cacheMisses + " evictions=" + _cacheEvictions;
 		}
 	}
 
 	private static class TrashItem {
 		public Image image;
+		public AlphaMask alphaMask;
 		public long time;
 		public File file;
-
-		public TrashItem(File file, Image image) {
-			this.image = image;
-			this.file = file;
+		public ImageProxy proxy;
+		public long fileModified;
+
+		public TrashItem(ImageProxy proxy) {
+			this.proxy = proxy;
+			image = proxy._swtImage;
+			alphaMask = proxy._alphaMask;
+			file = proxy._file;
+			fileModified = proxy._currentFileModified;
 			time = currentTimeMillis();
 		}
 
@@ -217,7 +594,9 @@ public class ImageProxy {
 						e.printStackTrace();
 					}
 
-					collectGarbage();
+					// the images are disposed in the UI thread, so it never happens while they
+					// are painted
+					swtRun(ImageProxy::collectGarbage);
 
 				}
 			}
@@ -232,14 +611,32 @@ public class ImageProxy {
 			item.image.dispose();
 		}
 
-		for (var proxy : _proxyList) {
-			if (proxy._swtImage != null) {
-				out.println("ImageProxy: disposing alive image " + proxy.getKey());
-				proxy._swtImage.dispose();
+		for (var proxies : copyFileProxiesMap().values()) {
+			for (var proxy : proxies) {
+				if (proxy._swtImage != null) {
+					out.println("ImageProxy: disposing alive image " + proxy.getKey());
+					proxy._swtImage.dispose();
+				}
 			}
 		}
 	}
 
+	/**
+	 * A copy of the proxies of every file, so they can be iterated out of the lock
+	 * of the cache.
+	 */
+	private static Map<File, List<ImageProxy>> copyFileProxiesMap() {
+		var map = new HashMap<File, List<ImageProxy>>();
+
+		synchronized (_lruMap) {
+			for (var entry : _fileProxiesMap.entrySet()) {
+				map.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+			}
+		}
+
+		return map;
+	}
+
 	public static void collectGarbage() {
 
 		out.println("ImageProxy: collecting garbage...");
@@ -249,13 +646,17 @@ public class ImageProxy {
 		var dispose = new ArrayList<TrashItem>();
 		var trash2 = new HashSet<TrashItem>();
 
-		for (var item : _trash) {
-			var dt = t - item.time;
-			if (TimeUnit.MILLISECONDS.toMinutes(dt) >= 1) {
-				dispose.add(item);
-			} else {
-				trash2.add(item);
+		synchronized (_lruMap) {
+			for (var item : _trash) {
+				var dt = t - item.time;
+				if (TimeUnit.MILLISECONDS.toMinutes(dt) >= 1) {
+					dispose.add(item);
+				} else {
+					trash2.add(item);
+				}
 			}
+
+			_trash = new ArrayList<>(trash2);
 		}
 
 		for (var item : dispose) {
@@ -267,40 +668,37 @@ public class ImageProxy {
 			}
 		}
 
-		_trash = new ArrayList<>(trash2);
+		for (var fileEntry : copyFileProxiesMap().entrySet()) {
+			var file = fileEntry.getKey();
 
-		for (var proxy : _proxyList) {
-			if (!proxy._file.exists() && proxy._swtImage != null) {
-				out.println("ImageProxy: the file " + proxy._file.getName()
-						+ " as deleted, disposing its alive proxy image.");
-				proxy._swtImage.dispose();
-				proxy._swtImage = null;
-				proxy._currentFileBufferedImage = null;
-				_fileBufferedImageMap.remove(proxy._file);
+			if (file.exists()) {
+				continue;
 			}
-		}
-
-		out.println("done!");
 
-	}
+			for (var proxy : fileEntry.getValue()) {
+				if (proxy._swtImage != null) {
+					out.println("ImageProxy: the file " + file.getName()
+							+ " as deleted, sending its alive proxy image to the trash.");
+					proxy.sendToTrash();
+					proxy._swtImage = null;
+					proxy._alphaMask = null;
+				}
 
-	private boolean sameFileAndFrameData(File file, FrameData fd) {
-		if (_file.equals(file)) {
-			if (_fd == null && fd == null) {
-				return true;
+				synchronized (_lruMap) {
+					cacheRemove(proxy);
+				}
 			}
 
-			if (_fd == null || fd == null) {
-				return false;
+			synchronized (_lruMap) {
+				_fileBufferedImageMap.remove(file);
+				cacheRemove(file);
 			}
+		}
 
-			return _fd.srcSize.equals(fd.srcSize)
+		out.println("ImageProxy: cache " + getCacheStats());
 
-					&& _fd.src.equals(fd.src)
+		out.println("done!");
 
-					&& _fd.dst.equals(fd.dst);
-		}
-		return false;
 	}
 
 	private static long lastModified(File file) {
@@ -313,15 +711,12 @@ public class ImageProxy {
 
 	private static String computeKey(File file, FrameData fd, long lastModified) {
 
-		return file.getName() + ":" + file.hashCode() + "$" + (
-
-		fd == null ?
-
-				"FULL" :
-
-				fd)
+		return file.getName() + ":" + file.hashCode() + "$" + computeFrameKey(fd) + "#" + lastModified;
+	}
 
-				+ "#" + lastModified;
+	private static String computeFrameKey(FrameData fd) {
+		// the string of the frame data contains the src, dst and srcSize values
+		return fd == null ? "FULL" : fd.toString();
 	}
 
 	public ImageProxy(File file, FrameData fd, String key) {
@@ -345,8 +740,17 @@ public class ImageProxy {
 		return _swtImage;
 	}
 
+	/**
+	 * The decoded image of the file. It may be decoded again if it was evicted
+	 * from the cache.
+	 */
 	public BufferedImage getFileBufferedImage() {
-		return _fileBufferedImageMap.get(_file);
+		try {
+			return getFileBuffer(_file);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
 	}
 
 	private void updateImages() {
@@ -359,7 +763,11 @@ public class ImageProxy {
 				}
 
 				_swtImage = null;
-				_currentFileBufferedImage = null;
+				_alphaMask = null;
+
+				synchronized (_lruMap) {
+					cacheRemove(this);
+				}
 
 				return;
 			}
@@ -367,64 +775,254 @@ public class ImageProxy {
 			// just to ensure we have the last mapping of the file and image!
 			get(_file, _fd);
 
-			var newFileBufferedImage = _fileBufferedImageMap.get(_file);
+			long fileModified;
 
-			if (_currentFileBufferedImage != newFileBufferedImage || _swtImage == null) {
+			synchronized (_lruMap) {
+				fileModified = _fileModifiedMap.get(_file).longValue();
+			}
 
-				_scale = 1;
+			if (_swtImage == null && _currentFileModified == fileModified && restoreFromTrash()) {
 
-				if (_swtImage != null) {
-					sendToTrash();
-				}
+				// the image was evicted, but it was not disposed yet
 
-				BufferedImage frameBufferedImage;
+			} else if (_currentFileModified != fileModified || _swtImage == null) {
 
-				if (_fd == null || theFrameDataIsTheCompleteImage(newFileBufferedImage, _fd)) {
-					frameBufferedImage = newFileBufferedImage;
+				PreparedFrame prepared;
 
-					int width = frameBufferedImage.getWidth();
-					int height = frameBufferedImage.getHeight();
+				synchronized (_lruMap) {
+					prepared = _preparedFrameMap.remove(_key);
+				}
 
-					var resize = ScaledImage.resizeInfo(width, height, MAX_SIZE);
+				if (prepared == null) {
 
-					var fd = FrameData.fromSourceRectangle(new Rectangle(0, 0, width, height));
+					var newFileBufferedImage = getFileBuffer(_file);
 
-					if (resize.changed) {
-						var temp = resize.createImage(frameBufferedImage, fd);
-						frameBufferedImage = temp;
-						_scale = resize.scale_view_to_proxy;
+					if (newFileBufferedImage == null) {
+						return;
 					}
 
-					_finalFrameData = fd;
-				} else {
-					var resize = ScaledImage.resizeInfo(_fd.srcSize.x, _fd.srcSize.y, MAX_SIZE);
+					var frameImage = computeFrameImage(newFileBufferedImage);
 
-					frameBufferedImage = resize.createImage(newFileBufferedImage, _fd);
+					setFrameImage(frameImage, PhaserEditorUI.image_Swing_To_SWT(frameImage.image));
 
-					if (resize.changed) {
-						_scale = resize.scale_view_to_proxy;
-					}
-
-					_finalFrameData = FrameData.fromSourceRectangle(new Rectangle(0, 0, _fd.srcSize.x, _fd.srcSize.y));
+				} else {
+					setFrameImage(prepared.frameImage, new Image(Display.getCurrent(), prepared.imageData));
 				}
 
-				_swtImage = PhaserEditorUI.image_Swing_To_SWT(frameBufferedImage);
-
+			} else {
+				synchronized (_lruMap) {
+					_cacheHits++;
+					_lruMap.get(this);
+				}
 			}
 
-			_currentFileBufferedImage = newFileBufferedImage;
+			_currentFileModified = fileModified;
 		} catch (IOException e) {
 			e.printStackTrace();
 			throw new RuntimeException(e);
 		}
 	}
 
+	private static class FrameImage {
+		public BufferedImage image;
+		public float scale;
+		public FrameData finalFrameData;
+		public AlphaMask alphaMask;
+	}
+
+	private FrameImage computeFrameImage(BufferedImage fileBufferedImage) {
+		return computeFrameImage(fileBufferedImage, _fd);
+	}
+
+	private static FrameImage computeFrameImage(BufferedImage fileBufferedImage, FrameData frameData) {
+		var frameImage = new FrameImage();
+
+		frameImage.scale = 1;
+
+		if (frameData == null || theFrameDataIsTheCompleteImage(fileBufferedImage, frameData)) {
+			frameImage.image = fileBufferedImage;
+
+			int width = fileBufferedImage.getWidth();
+			int height = fileBufferedImage.getHeight();
+
+			var resize = ScaledImage.resizeInfo(width, height, MAX_SIZE);
+
+			var fd = FrameData.fromSourceRectangle(new Rectangle(0, 0, width, height));
+
+			if (resize.changed) {
+				frameImage.image = resize.createImage(fileBufferedImage, fd);
+				frameImage.scale = resize.scale_view_to_proxy;
+			}
+
+			frameImage.finalFrameData = fd;
+		} else {
+			var resize = ScaledImage.resizeInfo(frameData.srcSize.x, frameData.srcSize.y, MAX_SIZE);
+
+			frameImage.image = resize.createImage(fileBufferedImage, frameData);
+
+			if (resize.changed) {
+				frameImage.scale = resize.scale_view_to_proxy;
+			}
+
+			frameImage.finalFrameData = FrameData
+					.fromSourceRectangle(new Rectangle(0, 0, frameData.srcSize.x, frameData.srcSize.y));
+		}
+
+		frameImage.alphaMask = AlphaMask.create(frameImage.image);
+
+		return frameImage;
+	}
+
+	private void setFrameImage(FrameImage frameImage, Image swtImage) {
+		if (_swtImage != null) {
+			sendToTrash();
+		}
+
+		_scale = frameImage.scale;
+		_finalFrameData = frameImage.finalFrameData;
+		_swtImage = swtImage;
+		_alphaMask = frameImage.alphaMask;
+
+		synchronized (_lruMap) {
+			cachePut(this, (long) frameImage.image.getWidth() * frameImage.image.getHeight() * 4
+					+ frameImage.alphaMask.getSize());
+		}
+	}
+
+	/**
+	 * Like {@link #getImage()} but it never decodes the image in the caller
+	 * thread. If the image is not ready, it is decoded in background and the
+	 * control is redrawn when it is done. Many requests of the same image, or of
+	 * images of the same file, are decoded only once.
+	 * 
+	 * @param control
+	 *            The control to redraw when the image is ready. It can be null.
+	 * @return The image, or null if it is not ready.
+	 */
+	public Image getImageAsync(Control control) {
+		if (_notImage || !_file.exists()) {
+			return null;
+		}
+
+		var schedule = false;
+		long fileModified;
+
+		synchronized (_lruMap) {
+			fileModified = _fileModifiedMap.get(_file).longValue();
+
+			if (_swtImage != null && _currentFileModified == fileModified) {
+				_cacheHits++;
+				_lruMap.get(this);
+				return _swtImage;
+			}
+
+			var controls = _decodingProxyMap.get(this);
+
+			if (controls == null) {
+				controls = new ArrayList<>();
+				_decodingProxyMap.put(this, controls);
+				schedule = true;
+			}
+
+			if (control != null && !controls.contains(control)) {
+				controls.add(control);
+			}
+		}
+
+		if (schedule) {
+			getDecodePool().execute(() -> decodeInBackground(fileModified));
+		}
+
+		return null;
+	}
+
+	/**
+	 * If the image is being decoded in background.
+	 */
+	public boolean isDecoding() {
+		synchronized (_lruMap) {
+			return _decodingProxyMap.containsKey(this);
+		}
+	}
+
+	private void decodeInBackground(long fileModified) {
+		FrameImage frameImage = null;
+		ImageData imageData = null;
+
+		try {
+			var buffer = decodeFileBuffer(_file);
+
+			if (buffer == null) {
+				// it is not an image file!
+				_notImage = true;
+			} else {
+				frameImage = computeFrameImage(buffer);
+				imageData = PhaserEditorUI.image_Swing_To_ImageData(frameImage.image);
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+
+		var frameImage2 = frameImage;
+		var imageData2 = imageData;
+
+		swtRun(() -> {
+			List<Control> controls;
+
+			synchronized (_lruMap) {
+				controls = _decodingProxyMap.remove(this);
+			}
+
+			if (imageData2 != null) {
+				setFrameImage(frameImage2, new Image(Display.getCurrent(), imageData2));
+				_currentFileModified = fileModified;
+			}
+
+			if (controls != null) {
+				for (var control : controls) {
+					if (!control.isDisposed()) {
+						control.redraw();
+					}
+				}
+			}
+		});
+	}
+
 	private void sendToTrash() {
-		var item = new TrashItem(_file, _swtImage);
-		_trash.add(item);
+		var item = new TrashItem(this);
+		synchronized (_lruMap) {
+			_trash.add(item);
+		}
 		out.println("ImageProxy: send to trash " + item);
 	}
 
+	/**
+	 * Take back the image of this proxy from the trash, if it was evicted but it
+	 * is not disposed yet and the file did not change. It could be still in use by
+	 * someone that got it before the eviction.
+	 */
+	private boolean restoreFromTrash() {
+		synchronized (_lruMap) {
+			for (var iter = _trash.iterator(); iter.hasNext();) {
+				var item = iter.next();
+
+				if (item.proxy == this && item.fileModified == _currentFileModified && !item.image.isDisposed()) {
+					iter.remove();
+
+					_swtImage = item.image;
+					_alphaMask = item.alphaMask;
+
+					var b = _swtImage.getBounds();
+					cachePut(this, (long) b.width * b.height * 4 + _alphaMask.getSize());
+
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
 	private static boolean theFrameDataIsTheCompleteImage(BufferedImage image, FrameData fd) {
 		var w = image.getWidth();
 		var h = image.getHeight();
@@ -516,6 +1114,22 @@ public class ImageProxy {
 		return paintScaledInArea(gc, renderArea, true);
 	}
 
+	/**
+	 * Like {@link #paintScaledInArea(GC, Rectangle, boolean)} but if the image is
+	 * not ready it is decoded in background and nothing is painted.
+	 * 
+	 * @param asyncControl
+	 *            The control to redraw when the image is ready.
+	 * @see #getImageAsync(Control)
+	 */
+	public Rectangle paintScaledInArea(GC gc, Rectangle renderArea, boolean center, Control asyncControl) {
+		if (getImageAsync(asyncControl) == null) {
+			return null;
+		}
+
+		return paintScaledInArea(gc, renderArea, center);
+	}
+
 	public Rectangle paintScaledInArea(GC gc, Rectangle renderArea, boolean center) {
 
 		var image = getImage();
@@ -605,9 +1219,12 @@ public class ImageProxy {
 		return fd == null ? null : fd.src;
 	}
 
+	/**
+	 * If the point hits a non-transparent pixel of the image. It is a lookup in
+	 * the alpha mask computed when the image was decoded.
+	 */
 	public boolean hits(int x, int y) {
 
-		var alpha = 0;
 		Rectangle b = getBounds();
 
 		if (b == null) {
@@ -615,14 +1232,13 @@ public class ImageProxy {
 		}
 
 		if (b.contains(x, y)) {
-			var img = getImage();
+			var mask = _alphaMask;
 
-			if (img != null) {
-				var data = img.getImageData();
-				alpha = data.getAlpha((int) (x * _scale), (int) (y * _scale));
+			if (mask != null) {
+				return mask.hits((int) (x * _scale), (int) (y * _scale));
 			}
 		}
 
-		return alpha != 0;
+		return false;
 	}
 }
@@ -47,7 +47,11 @@ public class ImageProxyTreeCanvasItemRenderer extends BaseImageTreeCanvasItemRen
 	@Override
 	protected void paintScaledInArea(GC gc, Rectangle area, boolean b) {
 		if (_image != null) {
-			_image.paintScaledInArea(gc, area, false);
+			_image.paintScaledInArea(gc, area, false, _item.getCanvas());
+
+			if (_image.isDecoding()) {
+				new LoadingCellRenderer().render(_item.getCanvas(), gc, area.x, area.y, area.height, area.height);
+			}
 		}
 	}
 }
@@ -1049,10 +1049,64 @@ public class PhaserEditorUI {
 	}
 
 	public static Image image_Swing_To_SWT(BufferedImage img) throws IOException {
+		return new Image(Display.getCurrent(), image_Swing_To_ImageData(img));
+	}
+
+	/**
+	 * Like {@link #image_Swing_To_SWT(BufferedImage)} but it does not need a
+	 * display, so it can be called in a non-UI thread.
+	 */
+	public static ImageData image_Swing_To_ImageData(BufferedImage img) throws IOException {
 		ByteArrayOutputStream memory = new ByteArrayOutputStream();
 		ImageIO.write(img, "png", memory);
-		Image result = new Image(Display.getCurrent(), new ByteArrayInputStream(memory.toByteArray()));
-		return result;
+		return new ImageData(new ByteArrayInputStream(memory.toByteArray()));
+	}
+
+	/**
+	 * Like {@link #image_Swing_To_ImageData(BufferedImage)} but it copies the
+	 * pixels, instead of encoding and decoding the image as PNG.
+	 */
+	public static ImageData image_Swing_Pixels_To_ImageData(BufferedImage img) {
+		var width = img.getWidth();
+		var height = img.getHeight();
+
+		var data = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		var pixels = new int[width];
+		var alphas = new byte[width];
+
+		for (int y = 0; y < height; y++) {
+			img.getRGB(0, y, width, 1, pixels, 0, width);
+			setImageDataRow(data, y, pixels, 0, alphas);
+		}
+
+		return data;
+	}
+
+	/**
+	 * Create the image data of the given ARGB pixels, the rows one after the
+	 * other. The alpha is removed from the pixels array.
+	 */
+	public static ImageData image_ARGB_To_ImageData(int[] pixels, int width, int height) {
+		var data = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		var alphas = new byte[width];
+
+		for (int y = 0; y < height; y++) {
+			setImageDataRow(data, y, pixels, y * width, alphas);
+		}
+
+		return data;
+	}
+
+	private static void setImageDataRow(ImageData data, int y, int[] pixels, int offset, byte[] alphas) {
+		var width = data.width;
+
+		for (int x = 0; x < width; x++) {
+			alphas[x] = (byte) (pixels[offset + x] >>> 24);
+			pixels[offset + x] &= 0xFFFFFF;
+		}
+
+		data.setPixels(0, y, width, pixels, offset);
+		data.setAlphas(0, y, width, alphas, 0);
 	}
 
 	public static String getNameFromFilename(String name) {
@@ -37,6 +37,7 @@ public class ScaledImage {
 	private Image _image;
 	private int _viewWidth;
 	private int _viewHeight;
+	private AlphaMask _alphaMask;
 
 	public static ScaledImage create(BufferedImage buffer, int maxSize) {
 		return create(buffer, FrameData.fromImage(buffer), maxSize);
@@ -51,7 +52,9 @@ public class ScaledImage {
 		var buffer = resize.createImage(src, fd);
 		try {
 			var img = PhaserEditorUI.image_Swing_To_SWT(buffer);
-			return new ScaledImage(img, viewWidth, viewHeight, resize.scale_view_to_proxy);
+			var scaledImage = new ScaledImage(img, viewWidth, viewHeight, resize.scale_view_to_proxy);
+			scaledImage._alphaMask = AlphaMask.create(buffer);
+			return scaledImage;
 		} catch (IOException e) {
 			e.printStackTrace();
 			throw new RuntimeException(e);
@@ -131,6 +134,7 @@ public class ScaledImage {
 
 	public void dispose() {
 		_image.dispose();
+		_alphaMask = null;
 	}
 
 	public Rectangle getBounds() {
@@ -139,19 +143,24 @@ public class ScaledImage {
 
 	public boolean hits(int x, int y) {
 
-		var alpha = 0;
-
 		Rectangle b = getBounds();
 
 		if (b.contains(x, y)) {
-			var img = getImage();
 
-			if (img != null) {
-				var data = img.getImageData();
-				alpha = data.getAlpha((int) (x * _scale), (int) (y * _scale));
+			if (_alphaMask == null) {
+				var img = getImage();
+
+				if (img == null || img.isDisposed()) {
+					return false;
+				}
+
+				// the image was not created from a buffer, so we read its pixels only once
+				_alphaMask = AlphaMask.create(img.getImageData());
 			}
+
+			return _alphaMask.hits((int) (x * _scale), (int) (y * _scale));
 		}
 
-		return alpha != 0;
+		return false;
 	}
 }
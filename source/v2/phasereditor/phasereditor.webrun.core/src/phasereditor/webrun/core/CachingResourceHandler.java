@@ -0,0 +1,358 @@
+// The MIT License (MIT)
+//
+// Copyright (c) 2015, 2019 Arian Fornaris
+//
+// Permission is hereby granted, free of charge, to any person obtaining a
+// copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to permit
+// persons to whom the Software is furnished to do so, subject to the
+// following conditions: The above copyright notice and this permission
+// notice shall be included in all copies or substantial portions of the
+// Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+// OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN
+// NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+// DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+// OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+// USE OR OTHER DEALINGS IN THE SOFTWARE.
+package phasereditor.webrun.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.server.HttpOutput;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.ResourceHandler;
+
+/**
+ * A {@link ResourceHandler} that lets the browser keep the files and revalidate
+ * them with conditional requests, so a reload of the game only downloads the
+ * files that changed. The JS and JSON files are sent compressed, and the large
+ * files of the read-only folders are sent from memory-mapped buffers.
+ * 
+ * The requests of directories and ranges are served by the default
+ * {@link ResourceHandler} implementation.
+ *
+ * @author arian
+ *
+ */
+public class CachingResourceHandler extends ResourceHandler {
+
+	private static final boolean GZIP_ENABLED = Boolean
+			.parseBoolean(System.getProperty("phasereditor.webrun.gzip", "true"));
+	private static final long GZIP_CACHE_SIZE = Long.getLong("phasereditor.webrun.gzipCacheSize", 64).longValue()
+			* 1024 * 1024;
+	private static final Set<String> GZIP_EXTENSIONS = Set.of("js", "json", "xml", "css", "svg");
+	private static final long MIN_GZIP_LENGTH = 1024;
+	private static final long MAX_GZIP_LENGTH = 32 * 1024 * 1024;
+
+	private static final long MIN_MAPPED_LENGTH = 64 * 1024;
+	private static final int MAX_MAPPED_FILES = 256;
+
+	private static class CacheEntry {
+		String stamp;
+		ByteBuffer data;
+
+		CacheEntry(String stamp, ByteBuffer data) {
+			this.stamp = stamp;
+			this.data = data;
+		}
+	}
+
+	private static Map<String, CacheEntry> _gzipCache = new LinkedHashMap<>(16, 0.75f, true);
+	private static long _gzipCacheBytes = 0;
+
+	private static Map<String, CacheEntry> _mappedCache = new LinkedHashMap<>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+			return size() > MAX_MAPPED_FILES;
+		}
+	};
+
+	private boolean _memoryMapped;
+
+	public CachingResourceHandler() {
+		this(true);
+	}
+
+	/**
+	 * @param memoryMapped
+	 *            If the large files are sent from memory-mapped buffers. It should
+	 *            be <code>false</code> for files the user can modify, because in
+	 *            Windows a mapped file cannot be written.
+	 */
+	public CachingResourceHandler(boolean memoryMapped) {
+		super();
+		_memoryMapped = memoryMapped;
+	}
+
+	/**
+	 * The ETag of the file (without the quotes), it changes when the content of
+	 * the file changes.
+	 */
+	protected String computeETag(String path, File file) {
+		return Long.toHexString(file.lastModified()) + "-" + Long.toHexString(file.length());
+	}
+
+	@Override
+	public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+			throws IOException, ServletException {
+
+		if (baseRequest.isHandled()) {
+			return;
+		}
+
+		var method = request.getMethod();
+		var head = HttpMethod.HEAD.is(method);
+
+		if (!head && !HttpMethod.GET.is(method) || request.getHeader(HttpHeader.RANGE.asString()) != null) {
+			super.handle(target, baseRequest, request, response);
+			return;
+		}
+
+		var file = getRegularFile(target);
+
+		if (file == null) {
+			super.handle(target, baseRequest, request, response);
+			return;
+		}
+
+		var compressible = GZIP_ENABLED && isCompressible(file);
+		var gzip = compressible && acceptsGzip(request);
+		var lastModified = file.lastModified();
+		var etag = "W/\"" + computeETag(target, file) + (gzip ? "-gzip" : "") + "\"";
+
+		baseRequest.setHandled(true);
+
+		var cacheControl = getCacheControl();
+		if (cacheControl != null) {
+			response.setHeader(HttpHeader.CACHE_CONTROL.asString(), cacheControl);
+		}
+
+		response.setHeader(HttpHeader.ETAG.asString(), etag);
+		response.setDateHeader(HttpHeader.LAST_MODIFIED.asString(), lastModified);
+
+		if (compressible) {
+			response.setHeader(HttpHeader.VARY.asString(), HttpHeader.ACCEPT_ENCODING.asString());
+		}
+
+		if (isNotModified(request, etag, lastModified)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		var mime = getMimeTypes().getMimeByExtension(file.getName());
+		if (mime != null) {
+			response.setContentType(mime);
+		}
+
+		if (gzip) {
+			response.setHeader(HttpHeader.CONTENT_ENCODING.asString(), "gzip");
+
+			// a pre-compressed file has priority
+			var gzipFile = new File(file.getPath() + ".gz");
+
+			if (gzipFile.isFile() && gzipFile.lastModified() >= lastModified) {
+				response.setContentLengthLong(gzipFile.length());
+
+				if (!head) {
+					sendFile(response, gzipFile);
+				}
+
+			} else {
+				var data = getGzipContent(file, etag);
+
+				response.setContentLength(data.remaining());
+
+				if (!head) {
+					sendBuffer(response, data);
+				}
+			}
+
+			return;
+		}
+
+		response.setContentLengthLong(file.length());
+
+		if (head) {
+			return;
+		}
+
+		if (_memoryMapped && file.length() >= MIN_MAPPED_LENGTH) {
+			sendBuffer(response, getMappedContent(file));
+		} else {
+			sendFile(response, file);
+		}
+	}
+
+	private File getRegularFile(String target) {
+		try {
+			var resource = getResource(target);
+
+			if (resource != null) {
+				var file = resource.getFile();
+
+				if (file != null && file.isFile()) {
+					return file;
+				}
+			}
+		} catch (IOException e) {
+			// it is not a local file
+		}
+
+		return null;
+	}
+
+	private static boolean isCompressible(File file) {
+		var name = file.getName();
+		var i = name.lastIndexOf('.');
+
+		if (i == -1 || !GZIP_EXTENSIONS.contains(name.substring(i + 1).toLowerCase())) {
+			return false;
+		}
+
+		var length = file.length();
+
+		return length >= MIN_GZIP_LENGTH && length <= MAX_GZIP_LENGTH;
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		var accept = request.getHeader(HttpHeader.ACCEPT_ENCODING.asString());
+		return accept != null && accept.contains("gzip");
+	}
+
+	private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+		var ifNoneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.asString());
+
+		if (ifNoneMatch != null) {
+			for (var tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if (tag.equals("*") || tag.equals(etag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		try {
+			var since = request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.asString());
+			// the HTTP dates have a precision of seconds
+			return since != -1 && lastModified / 1000 <= since / 1000;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private static ByteBuffer getGzipContent(File file, String etag) throws IOException {
+		var key = file.getAbsolutePath();
+
+		synchronized (_gzipCache) {
+			var entry = _gzipCache.get(key);
+
+			if (entry != null && entry.stamp.equals(etag)) {
+				return entry.data;
+			}
+		}
+
+		var bytes = new ByteArrayOutputStream((int) (file.length() / 3));
+
+		try (var output = new GZIPOutputStream(bytes)) {
+			Files.copy(file.toPath(), output);
+		}
+
+		var data = ByteBuffer.wrap(bytes.toByteArray()).asReadOnlyBuffer();
+
+		synchronized (_gzipCache) {
+			var old = _gzipCache.put(key, new CacheEntry(etag, data));
+
+			if (old != null) {
+				_gzipCacheBytes -= old.data.capacity();
+			}
+
+			_gzipCacheBytes += data.capacity();
+
+			var iter = _gzipCache.values().iterator();
+
+			while (_gzipCacheBytes > GZIP_CACHE_SIZE && _gzipCache.size() > 1) {
+				var eldest = iter.next();
+				_gzipCacheBytes -= eldest.data.capacity();
+				iter.remove();
+			}
+		}
+
+		return data;
+	}
+
+	private static ByteBuffer getMappedContent(File file) throws IOException {
+		var key = file.getAbsolutePath();
+		var stamp = file.lastModified() + "-" + file.length();
+
+		synchronized (_mappedCache) {
+			var entry = _mappedCache.get(key);
+
+			if (entry != null && entry.stamp.equals(stamp)) {
+				return entry.data;
+			}
+		}
+
+		ByteBuffer data;
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			data = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		synchronized (_mappedCache) {
+			_mappedCache.put(key, new CacheEntry(stamp, data));
+		}
+
+		return data;
+	}
+
+	private static void sendBuffer(HttpServletResponse response, ByteBuffer data) throws IOException {
+		// the cached buffers are shared, each response uses its own position
+		var content = data.slice();
+		var output = response.getOutputStream();
+
+		if (output instanceof HttpOutput) {
+			((HttpOutput) output).sendContent(content);
+		} else {
+			Channels.newChannel(output).write(content);
+		}
+	}
+
+	private static void sendFile(HttpServletResponse response, File file) throws IOException {
+		var output = response.getOutputStream();
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (output instanceof HttpOutput) {
+				((HttpOutput) output).sendContent(channel);
+			} else {
+				channel.transferTo(0, channel.size(), Channels.newChannel(output));
+			}
+		}
+	}
+}
@@ -21,17 +21,17 @@
 // USE OR OTHER DEALINGS IN THE SOFTWARE.
 package phasereditor.webrun.core;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
 import java.net.URL;
 
-import org.eclipse.jetty.server.handler.ResourceHandler;
+import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.jetty.util.resource.Resource;
 
 /**
  * @author arian
  *
  */
-public class PluginResourcesHandler extends ResourceHandler {
+public class PluginResourcesHandler extends CachingResourceHandler {
 
 	private String _plugin;
 	private String _pluginFolder;
@@ -46,8 +46,17 @@ public class PluginResourcesHandler extends ResourceHandler {
 	public Resource getResource(String path) {
 		try {
 			var spec = "platform:/plugin/" + _plugin + "/" + _pluginFolder + path;
-			return Resource.newResource(new URL(spec));
-		} catch (MalformedURLException e) {
+			var url = new URL(spec);
+
+			try {
+				// a local file can be cached and mapped
+				url = FileLocator.toFileURL(url);
+			} catch (IOException e) {
+				// the file does not exist, let the platform URL report it
+			}
+
+			return Resource.newResource(url);
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
 
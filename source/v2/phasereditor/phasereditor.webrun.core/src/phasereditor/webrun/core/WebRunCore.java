@@ -40,6 +40,11 @@ import org.eclipse.ui.PlatformUI;
 import phasereditor.inspect.core.InspectCore;
 
 public class WebRunCore {
+	/**
+	 * The browser keeps the files but it revalidates them on every request.
+	 */
+	private static final String CACHE_CONTROL = "no-cache";
+
 	private static Server _server;
 
 	public static synchronized void startServerIfNotRunning() {
@@ -78,7 +83,6 @@ public class WebRunCore {
 		out.println("Serving at port " + port);
 
 		_server = new Server(port);
-		_server.setAttribute("useFileMappedBuffer", "false");
 
 		HandlerList handlerList = new HandlerList();
 
@@ -120,7 +124,7 @@ public class WebRunCore {
 		ContextHandler context = new ContextHandler("/projects");
 
 		ResourceHandler resourceHandler = new WorkspaceResourcesHandler();
-		resourceHandler.setCacheControl("no-store,no-cache,must-revalidate");
+		resourceHandler.setCacheControl(CACHE_CONTROL);
 		resourceHandler.setDirectoriesListed(true);
 		resourceHandler.setWelcomeFiles(new String[] { "index.html" });
 		resourceHandler.setResourceBase(path);
@@ -135,7 +139,7 @@ public class WebRunCore {
 		ContextHandler context = new ContextHandler(url);
 
 		ResourceHandler resourceHandler = new PluginResourcesHandler(plugin, pluginFolder);
-		resourceHandler.setCacheControl("no-store,no-cache,must-revalidate");
+		resourceHandler.setCacheControl(CACHE_CONTROL);
 		context.setHandler(resourceHandler);
 		handlerList.addHandler(context);
 
@@ -179,8 +183,8 @@ public class WebRunCore {
 
 		ContextHandler context = new ContextHandler(url);
 
-		ResourceHandler resourceHandler = new ResourceHandler();
-		resourceHandler.setCacheControl("no-store,no-cache,must-revalidate");
+		ResourceHandler resourceHandler = new CachingResourceHandler();
+		resourceHandler.setCacheControl(CACHE_CONTROL);
 		resourceHandler.setDirectoriesListed(true);
 		resourceHandler.setWelcomeFiles(new String[] { "index.html" });
 		resourceHandler.setResourceBase(path);
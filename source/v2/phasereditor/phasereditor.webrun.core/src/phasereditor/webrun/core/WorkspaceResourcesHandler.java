@@ -29,14 +29,30 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
-import org.eclipse.jetty.server.handler.ResourceHandler;
 import org.eclipse.jetty.util.resource.Resource;
 
 /**
  * @author arian
  *
  */
-public class WorkspaceResourcesHandler extends ResourceHandler {
+public class WorkspaceResourcesHandler extends CachingResourceHandler {
+
+	public WorkspaceResourcesHandler() {
+		// the user edits these files, they cannot be mapped
+		super(false);
+	}
+
+	@Override
+	protected String computeETag(String path, File file) {
+		IResource member = ResourcesPlugin.getWorkspace().getRoot().findMember(new Path(path));
+
+		if (member != null) {
+			return Long.toHexString(member.getModificationStamp()) + "-" + super.computeETag(path, file);
+		}
+
+		return super.computeETag(path, file);
+	}
+
 	@Override
 	public Resource getResource(String path) {
 		if (path.equals("/favicon.ico")) {